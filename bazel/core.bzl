@@ -471,6 +471,8 @@ MLN_CORE_SOURCE = [
     "src/mbgl/style/sources/tile_source_impl.hpp",
     "src/mbgl/style/sources/vector_source.cpp",
     "src/mbgl/style/style.cpp",
+    "src/mbgl/style/style_bundle.cpp",
+    "src/mbgl/style/style_bundle_impl.hpp",
     "src/mbgl/style/style_impl.cpp",
     "src/mbgl/style/style_impl.hpp",
     "src/mbgl/style/types.cpp",
@@ -795,6 +797,7 @@ MLN_CORE_HEADERS = [
     "include/mbgl/style/sources/vector_source.hpp",
     "include/mbgl/style/sprite.hpp",
     "include/mbgl/style/style.hpp",
+    "include/mbgl/style/style_bundle.hpp",
     "include/mbgl/style/style_property.hpp",
     "include/mbgl/style/transition_options.hpp",
     "include/mbgl/style/types.hpp",
@@ -0,0 +1,109 @@
+#include <benchmark/benchmark.h>
+
+#include <mbgl/gfx/headless_frontend.hpp>
+#include <mbgl/map/map.hpp>
+#include <mbgl/map/map_observer.hpp>
+#include <mbgl/map/map_options.hpp>
+#include <mbgl/storage/resource_options.hpp>
+#include <mbgl/style/style.hpp>
+#include <mbgl/style/style_bundle.hpp>
+#include <mbgl/util/constants.hpp>
+#include <mbgl/util/io.hpp>
+#include <mbgl/util/run_loop.hpp>
+
+#include <filesystem>
+#include <memory>
+
+using namespace mbgl;
+
+namespace {
+
+constexpr double pixelRatio{1.0};
+constexpr Size size{1000, 1000};
+
+std::string fileURL(const std::string& path) {
+    return util::FILE_PROTOCOL + std::filesystem::absolute(path).string();
+}
+
+void replace(std::string& json, const std::string& from, const std::string& to) {
+    json.replace(json.find(from), from.size(), to);
+}
+
+// Points the style at local files, so that both variants load the same
+// resources without touching the network: the JSON style reads its sprite
+// from disk and the bundle embeds the same sprite sheet.
+std::string loadStyleJSON() {
+    std::string json = util::read_file("benchmark/fixtures/api/style.json");
+    replace(json, "maptiler://sprites/streets/sprite", fileURL("test/fixtures/annotations/emerald"));
+    replace(json, "maptiler://fonts/{fontstack}/{range}.pbf", fileURL("test/fixtures/resources/glyphs.pbf"));
+    replace(json, "maptiler://sources/v3", fileURL("test/fixtures/resources/source_vector.json"));
+    return json;
+}
+
+std::string createBundle(const std::string& json) {
+    style::StyleBundle::Sprite sprite;
+    sprite.standard = style::StyleBundle::SpriteSheet{
+        .json = util::read_file("test/fixtures/annotations/emerald.json"),
+        .image = util::read_file("test/fixtures/annotations/emerald.png")};
+    return style::StyleBundle::create(json, {{"default", sprite}}, {0, 256});
+}
+
+class SpriteObserver : public MapObserver {
+public:
+    void onSpriteLoaded(const std::optional<style::Sprite>&) override { settled = true; }
+    void onSpriteError(const std::optional<style::Sprite>&, std::exception_ptr) override { settled = true; }
+
+    bool settled = false;
+};
+
+class StyleLoadBenchmark {
+public:
+    // Runs the loop until the style and its sprite are loaded.
+    void awaitStyleLoaded() {
+        while (!observer.settled) {
+            loop.runOnce();
+        }
+        observer.settled = false;
+    }
+
+    util::RunLoop loop;
+    SpriteObserver observer;
+    HeadlessFrontend frontend{size, pixelRatio};
+    Map map{frontend,
+            observer,
+            MapOptions().withMapMode(MapMode::Static).withSize(size).withPixelRatio(pixelRatio),
+            ResourceOptions().withCachePath(":memory:").withApiKey("foobar")};
+};
+
+} // end namespace
+
+// Both variants start from a file on disk.
+static void API_loadStyle_json(::benchmark::State& state) {
+    StyleLoadBenchmark bench;
+    const std::string path = (std::filesystem::temp_directory_path() / "style_load.json").string();
+    util::write_file(path, loadStyleJSON());
+
+    for (auto _ : state) {
+        bench.map.getStyle().loadJSON(util::read_file(path));
+        bench.awaitStyleLoaded();
+    }
+
+    util::deleteFile(path);
+}
+
+static void API_loadStyle_bundle(::benchmark::State& state) {
+    StyleLoadBenchmark bench;
+    const std::string path = (std::filesystem::temp_directory_path() / "style_load.mlsb").string();
+    util::write_file(path, createBundle(loadStyleJSON()));
+
+    for (auto _ : state) {
+        auto bundle = style::StyleBundle::readFile(path);
+        bench.map.getStyle().loadBundle(*bundle);
+        bench.awaitStyleLoaded();
+    }
+
+    util::deleteFile(path);
+}
+
+BENCHMARK(API_loadStyle_json)->Unit(benchmark::kMillisecond);
+BENCHMARK(API_loadStyle_bundle)->Unit(benchmark::kMillisecond);
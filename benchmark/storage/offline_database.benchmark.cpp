@@ -4,10 +4,13 @@
 #include <mbgl/storage/resource.hpp>
 #include <mbgl/storage/response.hpp>
 #include <mbgl/storage/sqlite3.hpp>
+#include <mbgl/util/io.hpp>
 #include <mbgl/util/string.hpp>
 #include <mbgl/util/logging.hpp>
 
+#include <atomic>
 #include <random>
+#include <thread>
 
 class OfflineDatabase : public benchmark::Fixture {
 public:
@@ -200,3 +203,65 @@ BENCHMARK_F(OfflineDatabase, ResizeDatabase)(benchmark::State& state) {
         }
     }
 }
+
+// Writes ambient tiles while another connection reads them at the same time,
+// the way rendering reads the cache while tiles are being stored.
+static void MixedReadWrite(benchmark::State& state, mbgl::DatabaseDurability durability) {
+    using namespace mbgl;
+    using namespace std::chrono_literals;
+
+    // The write-ahead log needs a file, an in-memory database can't use it.
+    const std::string path = "offline_database_benchmark.db";
+    const auto deleteFiles = [&] {
+        util::deleteFile(path);
+        util::deleteFile(path + "-wal");
+        util::deleteFile(path + "-shm");
+        util::deleteFile(path + "-journal");
+    };
+    deleteFiles();
+
+    {
+        mbgl::OfflineDatabase writer{path, TileServerOptions::DefaultConfiguration()};
+        writer.setDurability(durability);
+
+        Response response;
+        response.data = std::make_shared<std::string>(50 * 1024, 0);
+        response.mustRevalidate = false;
+        response.expires = util::now() + 1h;
+
+        const unsigned tileCount = 100;
+        for (unsigned i = 0; i < tileCount; ++i) {
+            writer.put(Resource::tile("mapbox://tile_ambient" + util::toString(i), 1, 0, 0, 0, Tileset::Scheme::XYZ),
+                       response);
+        }
+
+        mbgl::OfflineDatabase reader{path, TileServerOptions::DefaultConfiguration(), true};
+        std::atomic<bool> done{false};
+        std::atomic<uint64_t> reads{0};
+
+        std::thread readThread([&] {
+            std::mt19937 gen(0);
+            std::uniform_int_distribution<> dis(0, tileCount - 1);
+            while (!done) {
+                reader.get(Resource::tile(
+                    "mapbox://tile_ambient" + util::toString(dis(gen)), 1, 0, 0, 0, Tileset::Scheme::XYZ));
+                ++reads;
+            }
+        });
+
+        while (state.KeepRunning()) {
+            const Resource ambient = Resource::tile(
+                "mapbox://MixedReadWrite" + util::toString(state.iterations()), 1, 0, 0, 0, Tileset::Scheme::XYZ);
+            writer.put(ambient, response);
+        }
+
+        done = true;
+        readThread.join();
+        state.counters["reads"] = benchmark::Counter(static_cast<double>(reads), benchmark::Counter::kIsRate);
+    }
+
+    deleteFiles();
+}
+
+BENCHMARK_CAPTURE(MixedReadWrite, DurabilityFull, mbgl::DatabaseDurability::Full);
+BENCHMARK_CAPTURE(MixedReadWrite, DurabilityNormal, mbgl::DatabaseDurability::Normal);
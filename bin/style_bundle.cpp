@@ -0,0 +1,117 @@
+#include <mbgl/style/style_bundle.hpp>
+
+#include <args.hxx>
+#include <mapbox/io/io.hpp>
+
+#include <cstdlib>
+#include <fstream>
+#include <iostream>
+#include <map>
+#include <optional>
+#include <sstream>
+#include <string>
+#include <vector>
+
+namespace {
+
+std::string readOrExit(const std::string& path) {
+    auto file = mapbox::base::io::readFile(path);
+    if (!file) {
+        std::cerr << file.error() << '\n';
+        exit(3);
+    }
+    return *file;
+}
+
+// Reads the sprite sheet at `prefix`.json and `prefix`.png, if it exists.
+std::optional<mbgl::style::StyleBundle::SpriteSheet> readSpriteSheet(const std::string& prefix) {
+    auto json = mapbox::base::io::readFile(prefix + ".json");
+    auto image = mapbox::base::io::readFile(prefix + ".png");
+    if (!json || !image) {
+        return std::nullopt;
+    }
+    return mbgl::style::StyleBundle::SpriteSheet{.json = *json, .image = *image};
+}
+
+} // namespace
+
+int main(int argc, char* argv[]) {
+    args::ArgumentParser argumentParser("MapLibre Native style bundle tool",
+                                        "Packs a style, its sprites and a glyph range manifest into a bundle.");
+    args::HelpFlag helpFlag(argumentParser, "help", "Display this help menu", {'h', "help"});
+
+    args::ValueFlag<std::string> styleValue(
+        argumentParser, "file", "Style JSON file (required)", {'s', "style"}, args::Options::Required);
+    args::ValueFlag<std::string> outputValue(
+        argumentParser, "file", "Output bundle file (required)", {'o', "output"}, args::Options::Required);
+    args::ValueFlagList<std::string> spriteValues(
+        argumentParser,
+        "id=prefix",
+        "Sprite sheet to embed, read from prefix.json/png and prefix@2x.json/png",
+        {"sprite"});
+    args::ValueFlag<std::string> glyphRangesValue(argumentParser,
+                                                  "starts",
+                                                  "Comma separated start codepoints of the glyph ranges to list for "
+                                                  "every font stack, e.g. 0,256 (default: 0)",
+                                                  {'g', "glyph-ranges"});
+
+    try {
+        argumentParser.ParseCLI(argc, argv);
+    } catch (const args::Help&) {
+        std::cout << argumentParser;
+        exit(0);
+    } catch (const args::ParseError& e) {
+        std::cerr << e.what() << '\n';
+        std::cerr << argumentParser;
+        exit(1);
+    } catch (const args::ValidationError& e) {
+        std::cerr << e.what() << '\n';
+        std::cerr << argumentParser;
+        exit(2);
+    }
+
+    std::map<std::string, mbgl::style::StyleBundle::Sprite> sprites;
+    for (const auto& value : args::get(spriteValues)) {
+        const auto separator = value.find('=');
+        if (separator == std::string::npos) {
+            std::cerr << "Invalid sprite " << value << ", expected id=prefix" << '\n';
+            exit(1);
+        }
+        const std::string prefix = value.substr(separator + 1);
+        auto& sprite = sprites[value.substr(0, separator)];
+        sprite.standard = readSpriteSheet(prefix);
+        sprite.highDPI = readSpriteSheet(prefix + "@2x");
+        if (!sprite.standard && !sprite.highDPI) {
+            std::cerr << "No sprite sheet found at " << prefix << '\n';
+            exit(3);
+        }
+    }
+
+    std::vector<uint16_t> glyphRanges;
+    std::stringstream starts(glyphRangesValue ? args::get(glyphRangesValue) : "0");
+    for (std::string start; std::getline(starts, start, ',');) {
+        const unsigned long codepoint = std::strtoul(start.c_str(), nullptr, 10);
+        if (start.empty() || codepoint > 0xFF00 || codepoint % 256 != 0) {
+            std::cerr << "Invalid glyph range start " << start << '\n';
+            exit(1);
+        }
+        glyphRanges.push_back(static_cast<uint16_t>(codepoint));
+    }
+
+    try {
+        const std::string bundle = mbgl::style::StyleBundle::create(
+            readOrExit(args::get(styleValue)), sprites, glyphRanges);
+        std::ofstream output(args::get(outputValue), std::ios::binary);
+        output.write(bundle.data(), static_cast<std::streamsize>(bundle.size()));
+        if (!output) {
+            std::cerr << "Could not write " << args::get(outputValue) << '\n';
+            exit(4);
+        }
+        std::cout << "Wrote " << bundle.size() << " bytes to " << args::get(outputValue) << '\n';
+    } catch (const std::exception& e) {
+        std::cerr << e.what() << '\n';
+        exit(5);
+    }
+
+    return 0;
+}
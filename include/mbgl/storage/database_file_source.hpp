@@ -4,11 +4,33 @@
 #include <mbgl/storage/offline.hpp>
 #include <mbgl/util/expected.hpp>
 
+#include <list>
+#include <tuple>
+
 namespace mbgl {
 
 class ClientOptions;
 class ResourceOptions;
 
+struct MemoryCacheStatistics {
+    // Requests answered from memory, and requests that went to the database.
+    uint64_t hitCount = 0;
+    uint64_t missCount = 0;
+    // The size in bytes and number of the resources held in memory.
+    uint64_t size = 0;
+    uint64_t resourceCount = 0;
+};
+
+struct DatabasePackProgress {
+    // The size in bytes returned to the file system since packDatabaseWhileIdle()
+    // was called, and the size of the free pages left in the database file.
+    uint64_t reclaimedSize = 0;
+    uint64_t remainingSize = 0;
+    // Packing stopped because requests were waiting, it continues the next
+    // time packDatabaseWhileIdle() is called.
+    bool paused = false;
+};
+
 // TODO: Split DatabaseFileSource into Ambient cache and Database interfaces.
 class DatabaseFileSource : public FileSource {
 public:
@@ -62,6 +84,34 @@ public:
      */
     virtual void runPackDatabaseAutomatically(bool);
 
+    /**
+     * Sets whether the disk space freed by deleting offline regions or clearing
+     * the ambient cache is left to packDatabaseWhileIdle(), instead of being
+     * reclaimed while the operation blocks the database thread.
+     *
+     * By default, packing in the background is disabled.
+     */
+    virtual void runPackDatabaseInBackground(bool);
+
+    /**
+     * Packs the database file in short steps while the database isn't busy, to
+     * be called when the map becomes idle. Packing stops as soon as resources
+     * are requested from the database, and continues with the next call.
+     *
+     * The given callback is called with the progress after each step, and
+     * will be executed on the database thread; it is the responsibility of the
+     * SDK bindings to re-execute a user-provided callback on the main thread.
+     * The last call has either no remaining size or is paused. Calling this
+     * again while packing continues with the new callback, and the previous
+     * one is called a last time as paused.
+     *
+     * Packing in steps requires incremental auto vacuum, which databases
+     * created by older versions don't use. Switching them rewrites the whole
+     * file, so it isn't done here: call packDatabase() once, otherwise every
+     * call logs an error and reports a pause.
+     */
+    virtual void packDatabaseWhileIdle(std::function<void(DatabasePackProgress)> callback);
+
     // Ambient cache
 
     /**
@@ -75,6 +125,61 @@ public:
      */
     virtual void put(const Resource&, const Response&);
 
+    /**
+     * Insert the provided resources into the ambient cache in a single
+     * transaction, to seed the cache in bulk. Unlike put(), the resources are
+     * neither buffered nor kept in the memory cache.
+     *
+     * Once the resources are stored, the given callback is called with the
+     * number of inserted resources. It will be executed on the database
+     * thread; it is the responsibility of the SDK bindings to re-execute a
+     * user-provided callback on the main thread. Callers streaming many
+     * resources should wait for the callback before passing more of them.
+     */
+    virtual void putResources(std::list<std::tuple<Resource, Response>>, std::function<void(std::size_t)> callback);
+
+    /**
+     * Sets the maximum size in bytes of the memory cache, which keeps the most
+     * recently used resources of the ambient cache and offline regions in
+     * memory so that they are served without reading the database.
+     *
+     * The least recently used resources are evicted to stay within the size.
+     * Setting the size to 0, the default, disables the memory cache.
+     */
+    virtual void setMaximumMemoryCacheSize(uint64_t size);
+
+    /**
+     * Evicts the least recently used resources from the memory cache until it
+     * holds at most the given number of bytes. The maximum size is unchanged.
+     */
+    virtual void trimMemoryCache(uint64_t size);
+
+    /**
+     * Returns the hit and miss counts of the memory cache since the file source
+     * was created, and its current size.
+     */
+    MemoryCacheStatistics getMemoryCacheStatistics() const;
+
+    /**
+     * Clears the memory cache and drops the ambient cache writes that are still
+     * buffered, to be called when the system is low on memory.
+     *
+     * Resources stored in the ambient cache through put() or forward() are
+     * buffered and written together in a single transaction once enough of
+     * them were collected, or after a short delay. Repeated writes of the same
+     * URL are stored once. Dropped resources will be requested again from the
+     * network when needed.
+     */
+    virtual void reduceMemoryUse();
+
+    /**
+     * Returns the number of resources waiting in the buffer to be written to
+     * the ambient cache, see reduceMemoryUse(). Buffered resources are served
+     * by the database thread, but not by the read connection of
+     * DatabaseDurability::Normal.
+     */
+    std::size_t getAmbientCacheWriteQueueDepth() const;
+
     /**
      * Forces revalidation of the ambient cache.
      *
@@ -124,6 +229,20 @@ public:
      */
     virtual void setMaximumAmbientCacheSize(uint64_t size, std::function<void(std::exception_ptr)> callback);
 
+    /**
+     * Sets how writes to the database are made durable, see DatabaseDurability.
+     *
+     * DatabaseDurability::Normal switches the database to a write-ahead log,
+     * checkpoints it periodically and serves ambient cache reads from a second,
+     * read-only connection so that they don't wait for writes and offline
+     * downloads. The default is DatabaseDurability::Full.
+     *
+     * When the operation is complete or encounters an error, the given callback
+     * will be executed on the database thread; it is the responsibility of the
+     * SDK bindings to re-execute a user-provided callback on the main thread.
+     */
+    virtual void setDatabaseDurability(DatabaseDurability, std::function<void(std::exception_ptr)> callback);
+
     // Offline
 
     /**
@@ -162,6 +281,22 @@ public:
     virtual void createOfflineRegion(const OfflineRegionDefinition& definition,
                                      const OfflineRegionMetadata& metadata,
                                      std::function<void(expected<OfflineRegion, std::exception_ptr>)>);
+
+    /**
+     * Estimate the number and size of the tiles that downloading a region with
+     * the given definition requires, without creating the region. The estimate
+     * is based on the style, sources and tiles already stored in the database,
+     * for example by the ambient cache, and is computed without enumerating
+     * the tiles.
+     *
+     * The estimate will be computed asynchronously and the result passed to
+     * the given callback, which will be executed on the database thread; it is
+     * the responsibility of the SDK bindings to re-execute a user-provided
+     * callback on the main thread.
+     */
+    virtual void estimateOfflineRegion(const OfflineRegionDefinition& definition,
+                                       std::function<void(expected<OfflineRegionEstimate, std::exception_ptr>)>);
+
     /**
      * Update an offline region metadata in the database.
      */
@@ -179,6 +314,20 @@ public:
      */
     virtual void setOfflineRegionDownloadState(const OfflineRegion&, OfflineRegionDownloadState);
 
+    /**
+     * Activate the download of a region, checking each stored resource that
+     * isn't known to be fresh with the server again. Resources are requested
+     * with their ETag or modification time, and the ones the server reports
+     * unchanged aren't downloaded again. Invalidate the region beforehand to
+     * check all of its resources.
+     *
+     * The status reported to the region's observer includes the number and
+     * size of the unchanged resources. Once the download completes, the
+     * region's download state is inactive again. A refresh that is paused or
+     * interrupted resumes as a refresh when the region is activated again.
+     */
+    virtual void refreshOfflineRegion(const OfflineRegion&);
+
     /**
      * Retrieve the current status of the region. The query will be executed
      * asynchronously and the results passed to the given callback, which will
@@ -241,12 +390,37 @@ public:
      */
     virtual void invalidateOfflineRegion(const OfflineRegion&, std::function<void(std::exception_ptr)>);
 
+    /**
+     * Export the tiles of an offline region to an MBTiles archive, replacing
+     * the file at `archivePath` if it exists.
+     *
+     * An archive holds a single tileset. `urlTemplate` selects the tileset of
+     * the region to export, and may be empty if the region has tiles of one
+     * tileset only. The archive can be used as a read-only tile source with an
+     * `mbtiles://` URL, without merging it into the database.
+     *
+     * When the operation is complete or encounters an error, the given callback
+     * will be executed on the database thread; it is the responsibility of the
+     * SDK bindings to re-execute a user-provided callback on the main thread.
+     */
+    virtual void exportOfflineRegion(const OfflineRegion&,
+                                     const std::string& urlTemplate,
+                                     const std::string& archivePath,
+                                     std::function<void(std::exception_ptr)>);
+
     /**
      * Changing or bypassing this limit without permission from Mapbox is
      * prohibited by the Mapbox Terms of Service.
      */
     virtual void setOfflineMapboxTileCountLimit(uint64_t) const;
 
+    /**
+     * Limits the number of resources each offline region download requests
+     * at the same time. With 0, the default, the limit of the network file
+     * source is used.
+     */
+    virtual void setMaximumConcurrentOfflineRequests(uint32_t) const;
+
     void setResourceOptions(ResourceOptions) override;
     ResourceOptions getResourceOptions() override;
 
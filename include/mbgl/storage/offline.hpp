@@ -103,6 +103,22 @@ enum class OfflineRegionDownloadState {
     Active
 };
 
+/*
+ * How writes to the offline database, which also holds the ambient cache, are
+ * made durable.
+ *
+ * Full uses a rollback journal and syncs every transaction to disk. Writes
+ * block readers, and every write waits for the disk.
+ *
+ * Normal uses a write-ahead log that is synced at checkpoints only. Readers
+ * don't block writers and vice versa. A power loss may roll back the most
+ * recent transactions, but doesn't corrupt the database.
+ */
+enum class DatabaseDurability : uint8_t {
+    Full,
+    Normal
+};
+
 /*
  * A region's status includes its active/inactive state as well as counts
  * of the number of resources that have completed downloading, their total
@@ -162,9 +178,70 @@ public:
      */
     bool requiredResourceCountIsPrecise = false;
 
+    /**
+     * The rate, in bytes per second, at which resources were downloaded over
+     * the last few seconds. Resources that were already in the database are not
+     * included. It is 0 while the download is inactive.
+     */
+    double downloadedBytesPerSecond = 0;
+
+    /**
+     * The rate, in tiles per second, at which tiles were downloaded over the
+     * last few seconds. Tiles that were already in the database are not
+     * included. It is 0 while the download is inactive.
+     */
+    double downloadedTilesPerSecond = 0;
+
+    /**
+     * The number of stored resources that a refresh checked with the server
+     * and found unchanged, so that they weren't downloaded again. It is 0
+     * unless the download was started by a refresh.
+     */
+    uint64_t unchangedResourceCount = 0;
+
+    /**
+     * The cumulative size, in bytes, of the stored resources that a refresh
+     * found unchanged. This is an estimate of the data a refresh saves over
+     * downloading the region again.
+     */
+    uint64_t unchangedResourceSize = 0;
+
     bool complete() const { return completedResourceCount >= requiredResourceCount; }
 };
 
+/*
+ * An estimate of the tiles that downloading a region requires, computed
+ * before the region is created, from the style and sources stored in the
+ * database. Tiles are counted without enumerating them.
+ */
+class OfflineRegionEstimate {
+public:
+    /**
+     * The estimated number of tiles of the region's tiled sources.
+     */
+    uint64_t tileCount = 0;
+
+    /**
+     * The estimated size, in bytes, of the tiles. It is based on the average
+     * size of the tiles stored for each source, or of all stored tiles for
+     * sources without stored tiles.
+     */
+    uint64_t tileSize = 0;
+
+    /**
+     * The number of tiles that `tileSize` doesn't include, because the
+     * database holds no tiles to base their size on.
+     */
+    uint64_t unsizedTileCount = 0;
+
+    /**
+     * This property is false when the style or the TileJSON of a source isn't
+     * stored in the database, and the tiles of the missing sources aren't
+     * included in the estimate.
+     */
+    bool includesAllSources = false;
+};
+
 /*
  * A region can have a single observer, which gets notified whenever a change
  * to the region's status occurs.
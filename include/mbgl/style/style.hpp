@@ -21,14 +21,34 @@ class Light;
 class Source;
 class Layer;
 class PluginStyleFilter;
+class StyleBundle;
 
 class Style {
 public:
     Style(std::shared_ptr<FileSource>, float pixelRatio, const TaggedScheduler& threadPool_);
     ~Style();
 
-    void loadJSON(const std::string&);
-    void loadURL(const std::string&);
+    /**
+     * @brief Loads a style from JSON.
+     *
+     * When `diff` is true and a style is already loaded, sources whose
+     * definition is unchanged and layers whose properties are unchanged are
+     * kept, so their loaded tiles survive the style change. Images and sprites
+     * are kept as well when the sprite definitions did not change.
+     */
+    void loadJSON(const std::string&, bool diff = false);
+    void loadURL(const std::string&, bool diff = false);
+
+    /**
+     * @brief Loads a style bundle.
+     *
+     * The style is taken from the bundle's pre-parsed encoding, unless style
+     * filters are installed, which work on its JSON. Sprite sheets contained
+     * in the bundle are used instead of requesting them, and the glyph ranges
+     * listed in its manifest are requested right away so they are available
+     * by the time the first tiles are laid out.
+     */
+    void loadBundle(const StyleBundle&);
 
     std::string getJSON() const;
     std::string getURL() const;
@@ -50,6 +70,8 @@ public:
     // Images
     std::optional<Image> getImage(const std::string&) const;
     void addImage(std::unique_ptr<Image>);
+    // Adds or updates a batch of images with a single style update.
+    void addImages(std::vector<std::unique_ptr<Image>>);
     void removeImage(const std::string&);
 
     // Sources
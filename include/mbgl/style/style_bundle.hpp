@@ -0,0 +1,89 @@
+#pragma once
+
+#include <mbgl/util/expected.hpp>
+#include <mbgl/util/font_stack.hpp>
+
+#include <cstdint>
+#include <exception>
+#include <map>
+#include <memory>
+#include <optional>
+#include <string>
+#include <string_view>
+#include <vector>
+
+namespace mbgl {
+namespace style {
+
+/**
+ * @brief A style bundle: the style together with its sprite sheets and a
+ * manifest of the glyph ranges it is expected to use, stored in a single
+ * binary blob.
+ *
+ * A bundle loads without any network round trip for the style or its
+ * sprites, and the glyph manifest lets the style request glyphs before the
+ * first tile is parsed. The style is stored pre-parsed in a binary encoding
+ * that is decoded once when the bundle is read, so loading it skips JSON
+ * parsing. The minified style JSON is stored as well, for `Style::getJSON`
+ * and style filters. A bundle references its data, typically a
+ * memory-mapped file, instead of copying it.
+ */
+class StyleBundle {
+public:
+    struct SpriteSheet {
+        std::string json;
+        std::string image;
+    };
+
+    /// Sprite sheets keyed by sprite ID, for the 1x and the 2x variant.
+    struct Sprite {
+        std::optional<SpriteSheet> standard;
+        std::optional<SpriteSheet> highDPI;
+    };
+
+    /// Start codepoints of the 256-glyph ranges used by each font stack.
+    using GlyphManifest = std::map<FontStack, std::vector<uint16_t>>;
+
+    /// Sprite sheet data as read from a bundle, shared with the sprite loader.
+    struct SpriteData {
+        std::shared_ptr<const std::string> json;
+        std::shared_ptr<const std::string> image;
+    };
+
+    /**
+     * @brief Packs a style into a bundle.
+     *
+     * The style is validated, minified and encoded. When `glyphRanges` is not
+     * empty, the manifest lists those ranges for every font stack the style
+     * uses.
+     *
+     * @throws util::StyleParseException if the style does not parse.
+     */
+    static std::string create(const std::string& styleJSON,
+                              const std::map<std::string, Sprite>& sprites,
+                              const std::vector<uint16_t>& glyphRanges);
+
+    /// Reads a bundle from `data`, which must stay valid as long as `owner` is alive.
+    static expected<StyleBundle, std::exception_ptr> read(std::shared_ptr<const void> owner, std::string_view data);
+
+    /// Reads a bundle from `data`, which the bundle takes over.
+    static expected<StyleBundle, std::exception_ptr> read(std::string data);
+
+    /// Memory-maps a bundle file and reads it.
+    static expected<StyleBundle, std::exception_ptr> readFile(const std::string& path);
+
+    std::string_view getStyleJSON() const;
+    const GlyphManifest& getGlyphManifest() const;
+
+    /// Returns the sprite sheet for the given sprite ID and pixel ratio, if the bundle contains it.
+    std::optional<SpriteData> getSpriteSheet(const std::string& id, float pixelRatio) const;
+
+    class Impl;
+    std::shared_ptr<const Impl> impl;
+
+private:
+    explicit StyleBundle(std::shared_ptr<const Impl>);
+};
+
+} // namespace style
+} // namespace mbgl
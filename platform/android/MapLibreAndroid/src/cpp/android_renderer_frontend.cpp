@@ -14,9 +14,38 @@
 #include "android_renderer_backend.hpp"
 #include "attach_env.hpp"
 
+#include <algorithm>
+#include <future>
+
 namespace mbgl {
 namespace android {
 
+namespace {
+
+// Cancelled waits return within this interval
+constexpr auto cancellationInterval = std::chrono::milliseconds(10);
+
+template <typename T>
+std::optional<T> waitFor(std::future<T>& future,
+                         const std::chrono::milliseconds& timeout,
+                         const std::atomic<bool>& cancelled) {
+    const auto deadline = std::chrono::steady_clock::now() + timeout;
+    while (!cancelled) {
+        const auto remaining = deadline - std::chrono::steady_clock::now();
+        if (remaining <= std::chrono::steady_clock::duration::zero()) {
+            return std::nullopt;
+        }
+
+        const auto interval = std::min<std::chrono::steady_clock::duration>(remaining, cancellationInterval);
+        if (future.wait_for(interval) == std::future_status::ready) {
+            return future.get();
+        }
+    }
+    return std::nullopt;
+}
+
+} // namespace
+
 // Forwards RendererObserver signals to the given
 // Delegate RendererObserver on the given RunLoop
 class ForwardingRendererObserver : public RendererObserver {
@@ -188,11 +217,40 @@ std::vector<Feature> AndroidRendererFrontend::queryRenderedFeatures(const Screen
     return mapRenderer.actor().ask(fn, point, options).get();
 }
 
+std::optional<std::vector<Feature>> AndroidRendererFrontend::queryRenderedFeatures(
+    const ScreenBox& box,
+    const RenderedQueryOptions& options,
+    const std::chrono::milliseconds& timeout,
+    const std::atomic<bool>& cancelled) const {
+    // Select the right overloaded method
+    std::vector<Feature> (Renderer::*fn)(const ScreenBox&, const RenderedQueryOptions&)
+        const = &Renderer::queryRenderedFeatures;
+
+    // Waits for the result from the orchestration thread and returns
+    auto future = mapRenderer.actor().ask(fn, box, options);
+    return waitFor(future, timeout, cancelled);
+}
+
+std::optional<std::vector<Feature>> AndroidRendererFrontend::queryRenderedFeatures(
+    const ScreenCoordinate& point,
+    const RenderedQueryOptions& options,
+    const std::chrono::milliseconds& timeout,
+    const std::atomic<bool>& cancelled) const {
+    // Select the right overloaded method
+    std::vector<Feature> (Renderer::*fn)(const ScreenCoordinate&, const RenderedQueryOptions&)
+        const = &Renderer::queryRenderedFeatures;
+
+    // Waits for the result from the orchestration thread and returns
+    auto future = mapRenderer.actor().ask(fn, point, options);
+    return waitFor(future, timeout, cancelled);
+}
+
 AnnotationIDs AndroidRendererFrontend::queryPointAnnotations(const ScreenBox& box,
                                                              const std::chrono::milliseconds& timeout) const {
     // Waits for the result from the orchestration thread and returns
     auto future = mapRenderer.actor().ask(&Renderer::queryPointAnnotations, box);
     if (future.wait_for(timeout) != std::future_status::ready) {
+        Log::Warning(Event::Render, "Point annotation query timed out");
         return {};
     }
 
@@ -204,12 +262,60 @@ AnnotationIDs AndroidRendererFrontend::queryShapeAnnotations(const ScreenBox& bo
     // Waits for the result from the orchestration thread and returns
     auto future = mapRenderer.actor().ask(&Renderer::queryShapeAnnotations, box);
     if (future.wait_for(timeout) != std::future_status::ready) {
+        Log::Warning(Event::Render, "Shape annotation query timed out");
         return {};
     }
 
     return future.get();
 }
 
+std::vector<std::vector<Feature>> AndroidRendererFrontend::hitTest(const std::vector<HitTestQuery>& queries,
+                                                                  const std::chrono::milliseconds& annotationTimeout,
+                                                                  bool firstOnly) const {
+    std::vector<Feature> (Renderer::*fn)(const ScreenBox&, const RenderedQueryOptions&)
+        const = &Renderer::queryRenderedFeatures;
+
+    // Post all queries before waiting, so they're answered in one round trip
+    std::vector<std::future<std::vector<Feature>>> featureFutures(queries.size());
+    std::vector<std::future<AnnotationIDs>> annotationFutures(queries.size());
+    for (std::size_t i = 0; i < queries.size(); i++) {
+        const auto& query = queries[i];
+        switch (query.type) {
+            case HitTestQuery::Type::Features:
+                featureFutures[i] = mapRenderer.actor().ask(fn, query.box, query.options);
+                break;
+            case HitTestQuery::Type::PointAnnotations:
+                annotationFutures[i] = mapRenderer.actor().ask(&Renderer::queryPointAnnotations, query.box);
+                break;
+            case HitTestQuery::Type::ShapeAnnotations:
+                annotationFutures[i] = mapRenderer.actor().ask(&Renderer::queryShapeAnnotations, query.box);
+                break;
+        }
+    }
+
+    std::vector<std::vector<Feature>> results(queries.size());
+    for (std::size_t i = 0; i < queries.size(); i++) {
+        if (featureFutures[i].valid()) {
+            results[i] = featureFutures[i].get();
+        } else if (annotationFutures[i].wait_for(annotationTimeout) == std::future_status::ready) {
+            // Annotations are reported as features without geometry, identified by the annotation id
+            for (auto id : annotationFutures[i].get()) {
+                Feature feature;
+                feature.id = static_cast<uint64_t>(id);
+                results[i].push_back(std::move(feature));
+            }
+        } else {
+            Log::Warning(Event::Render, "Annotation hit test timed out");
+        }
+
+        if (firstOnly && !results[i].empty()) {
+            results.resize(i + 1);
+            break;
+        }
+    }
+    return results;
+}
+
 FeatureExtensionValue AndroidRendererFrontend::queryFeatureExtensions(
     const std::string& sourceID,
     const Feature& feature,
@@ -2,12 +2,15 @@
 
 #include <mbgl/actor/actor.hpp>
 #include <mbgl/annotation/annotation.hpp>
+#include <mbgl/renderer/query.hpp>
 #include <mbgl/renderer/renderer_frontend.hpp>
 #include <mbgl/util/geo.hpp>
 #include <mbgl/util/run_loop.hpp>
 
+#include <atomic>
 #include <functional>
 #include <memory>
+#include <optional>
 #include <vector>
 #include <string>
 #include <mbgl/util/geojson.hpp>
@@ -18,8 +21,6 @@
 
 namespace mbgl {
 
-class RenderedQueryOptions;
-class SourceQueryOptions;
 
 namespace util {
 
@@ -51,10 +52,38 @@ public:
     // Feature querying
     std::vector<Feature> queryRenderedFeatures(const ScreenCoordinate&, const RenderedQueryOptions&) const;
     std::vector<Feature> queryRenderedFeatures(const ScreenBox&, const RenderedQueryOptions&) const;
+    // Waits at most `timeout` for the result. Returns nothing if it times out, or once `cancelled` is set.
+    std::optional<std::vector<Feature>> queryRenderedFeatures(const ScreenCoordinate&,
+                                                              const RenderedQueryOptions&,
+                                                              const std::chrono::milliseconds& timeout,
+                                                              const std::atomic<bool>& cancelled) const;
+    std::optional<std::vector<Feature>> queryRenderedFeatures(const ScreenBox&,
+                                                              const RenderedQueryOptions&,
+                                                              const std::chrono::milliseconds& timeout,
+                                                              const std::atomic<bool>& cancelled) const;
     std::vector<Feature> querySourceFeatures(const std::string& sourceID, const SourceQueryOptions&) const;
     AnnotationIDs queryPointAnnotations(const ScreenBox& box, const std::chrono::milliseconds& timeout) const;
     AnnotationIDs queryShapeAnnotations(const ScreenBox& box, const std::chrono::milliseconds& timeout) const;
 
+    // Hit testing
+    struct HitTestQuery {
+        enum class Type {
+            Features,
+            PointAnnotations,
+            ShapeAnnotations
+        };
+
+        Type type;
+        ScreenBox box;
+        RenderedQueryOptions options;
+    };
+
+    // Runs the queries in a single round trip to the orchestration thread, the results are in the order of the
+    // queries. With firstOnly, the results end with the first non-empty one.
+    std::vector<std::vector<Feature>> hitTest(const std::vector<HitTestQuery>&,
+                                              const std::chrono::milliseconds& annotationTimeout,
+                                              bool firstOnly) const;
+
     // Feature extension query
     FeatureExtensionValue queryFeatureExtensions(const std::string& sourceID,
                                                  const Feature& feature,
@@ -0,0 +1,316 @@
+#include "feature_columns.hpp"
+#include "../conversion/collection.hpp"
+
+#include <mbgl/util/string.hpp>
+
+#include <cmath>
+#include <limits>
+#include <unordered_map>
+
+namespace mbgl {
+namespace android {
+namespace geojson {
+
+namespace {
+
+// Keep in sync with FeatureColumns.java
+constexpr jni::jbyte GEOMETRY_EMPTY = 0;
+constexpr jni::jbyte GEOMETRY_POINT = 1;
+constexpr jni::jbyte GEOMETRY_MULTI_POINT = 2;
+constexpr jni::jbyte GEOMETRY_LINE_STRING = 3;
+constexpr jni::jbyte GEOMETRY_MULTI_LINE_STRING = 4;
+constexpr jni::jbyte GEOMETRY_POLYGON = 5;
+constexpr jni::jbyte GEOMETRY_MULTI_POLYGON = 6;
+constexpr jni::jbyte GEOMETRY_COLLECTION = 7;
+
+constexpr jni::jbyte VALUE_NULL = 0;
+constexpr jni::jbyte VALUE_BOOLEAN = 1;
+constexpr jni::jbyte VALUE_NUMBER = 2;
+constexpr jni::jbyte VALUE_STRING = 3;
+constexpr jni::jbyte VALUE_OTHER = 4;
+
+constexpr jni::jbyte ID_NONE = 0;
+constexpr jni::jbyte ID_NUMBER = 1;
+constexpr jni::jbyte ID_STRING = 2;
+
+constexpr jni::jlong NO_ID = std::numeric_limits<jni::jlong>::min();
+
+class ColumnsBuilder {
+public:
+    ColumnsBuilder(std::size_t featureCount_, const std::vector<std::string>& propertyNames_)
+        : propertyNames(propertyNames_),
+          featureCount(featureCount_) {
+        const std::size_t valueCount = featureCount * propertyNames.size();
+        ids.reserve(featureCount);
+        idTypes.reserve(featureCount);
+        geometryTypes.reserve(featureCount);
+        featureParts.reserve(featureCount + 1);
+        featureParts.push_back(0);
+        partRings.push_back(0);
+        ringCoordinates.push_back(0);
+        valueTypes.resize(valueCount, VALUE_NULL);
+        numberValues.resize(valueCount, 0);
+        stringValues.resize(valueCount, -1);
+    }
+
+    void add(const mbgl::GeoJSONFeature& feature) {
+        const std::size_t index = ids.size();
+        addId(feature.id, index);
+        geometryTypes.push_back(mbgl::Feature::GeometryType::visit(feature.geometry, *this));
+        featureParts.push_back(static_cast<jni::jint>(partRings.size() - 1));
+
+        // Properties are column-major, so the values of one property are contiguous
+        for (std::size_t property = 0; property < propertyNames.size(); property++) {
+            auto it = feature.properties.find(propertyNames[property]);
+            if (it != feature.properties.end()) {
+                addValue(it->second, property * featureCount + index);
+            }
+        }
+    }
+
+    jni::Local<jni::Object<FeatureColumns>> build(jni::JNIEnv& env) {
+        static auto& javaClass = jni::Class<FeatureColumns>::Singleton(env);
+        static auto constructor = javaClass.GetConstructor<jni::Array<jni::jlong>,
+                                                           jni::Array<jni::jbyte>,
+                                                           jni::Array<jni::String>,
+                                                           jni::Array<jni::jbyte>,
+                                                           jni::Array<jni::jint>,
+                                                           jni::Array<jni::jint>,
+                                                           jni::Array<jni::jint>,
+                                                           jni::Array<jni::jdouble>,
+                                                           jni::Array<jni::String>,
+                                                           jni::Array<jni::jbyte>,
+                                                           jni::Array<jni::jdouble>,
+                                                           jni::Array<jni::jint>,
+                                                           jni::Array<jni::String>>(env);
+
+        // String ids are rare, only allocate their array when there are any
+        jni::Local<jni::Array<jni::String>> jStringIds;
+        if (!stringIds.empty()) {
+            jStringIds = jni::Array<jni::String>::New(env, ids.size());
+            for (const auto& stringId : stringIds) {
+                jStringIds.Set(env, stringId.first, jni::Make<jni::String>(env, stringId.second));
+            }
+        }
+
+        return javaClass.New(env,
+                             constructor,
+                             toArray<jni::jlong>(env, ids),
+                             toArray<jni::jbyte>(env, idTypes),
+                             jStringIds,
+                             toArray<jni::jbyte>(env, geometryTypes),
+                             toArray<jni::jint>(env, featureParts),
+                             toArray<jni::jint>(env, partRings),
+                             toArray<jni::jint>(env, ringCoordinates),
+                             toArray<jni::jdouble>(env, coordinates),
+                             conversion::toArray(env, propertyNames),
+                             toArray<jni::jbyte>(env, valueTypes),
+                             toArray<jni::jdouble>(env, numberValues),
+                             toArray<jni::jint>(env, stringValues),
+                             conversion::toArray(env, strings));
+    }
+
+    // Geometry visitor, appends the coordinates and returns the geometry type
+
+    jni::jbyte operator()(const mbgl::EmptyGeometry&) {
+        return GEOMETRY_EMPTY;
+    }
+
+    jni::jbyte operator()(const mbgl::Point<double>& point) {
+        addCoordinate(point);
+        endRing();
+        endPart();
+        return GEOMETRY_POINT;
+    }
+
+    jni::jbyte operator()(const mbgl::MultiPoint<double>& multiPoint) {
+        addRing(multiPoint);
+        endPart();
+        return GEOMETRY_MULTI_POINT;
+    }
+
+    jni::jbyte operator()(const mbgl::LineString<double>& lineString) {
+        addRing(lineString);
+        endPart();
+        return GEOMETRY_LINE_STRING;
+    }
+
+    jni::jbyte operator()(const mbgl::MultiLineString<double>& multiLineString) {
+        for (const auto& lineString : multiLineString) {
+            addRing(lineString);
+            endPart();
+        }
+        return GEOMETRY_MULTI_LINE_STRING;
+    }
+
+    jni::jbyte operator()(const mbgl::Polygon<double>& polygon) {
+        addPolygon(polygon);
+        return GEOMETRY_POLYGON;
+    }
+
+    jni::jbyte operator()(const mbgl::MultiPolygon<double>& multiPolygon) {
+        for (const auto& polygon : multiPolygon) {
+            addPolygon(polygon);
+        }
+        return GEOMETRY_MULTI_POLYGON;
+    }
+
+    jni::jbyte operator()(const mapbox::geometry::geometry_collection<double>&) {
+        // Collections don't fit the fixed nesting, they're left empty
+        return GEOMETRY_COLLECTION;
+    }
+
+private:
+    template <class T, class V>
+    static jni::Local<jni::Array<T>> toArray(jni::JNIEnv& env, const V& vector) {
+        auto array = jni::Array<T>::New(env, vector.size());
+        array.template SetRegion<std::vector<T>>(env, 0, vector);
+        return array;
+    }
+
+    // Numeric ids that don't fit a jlong are stored as strings, formatted like the id of a Feature
+    void addId(const mbgl::FeatureIdentifier& id, std::size_t index) {
+        id.match(
+            [&](uint64_t value) {
+                if (value <= static_cast<uint64_t>(std::numeric_limits<jni::jlong>::max())) {
+                    addNumberId(static_cast<jni::jlong>(value));
+                } else {
+                    addStringId(util::toString(value), index);
+                }
+            },
+            [&](int64_t value) { addNumberId(value); },
+            [&](double value) {
+                // 2^63 is exactly representable, the largest double below it is the largest one in range
+                constexpr double limit = 9223372036854775808.0;
+                if (std::trunc(value) == value && value >= -limit && value < limit) {
+                    addNumberId(static_cast<jni::jlong>(value));
+                } else {
+                    addStringId(util::toString(value), index);
+                }
+            },
+            [&](const std::string& value) { addStringId(value, index); },
+            [&](const auto&) {
+                ids.push_back(NO_ID);
+                idTypes.push_back(ID_NONE);
+            });
+    }
+
+    void addNumberId(jni::jlong value) {
+        ids.push_back(value);
+        idTypes.push_back(ID_NUMBER);
+    }
+
+    void addStringId(std::string value, std::size_t index) {
+        ids.push_back(NO_ID);
+        idTypes.push_back(ID_STRING);
+        stringIds.emplace_back(index, std::move(value));
+    }
+
+    void addValue(const mbgl::Value& value, std::size_t cell) {
+        value.match(
+            [&](bool boolean) {
+                valueTypes[cell] = VALUE_BOOLEAN;
+                numberValues[cell] = boolean ? 1 : 0;
+            },
+            [&](uint64_t number) {
+                valueTypes[cell] = VALUE_NUMBER;
+                numberValues[cell] = static_cast<jni::jdouble>(number);
+            },
+            [&](int64_t number) {
+                valueTypes[cell] = VALUE_NUMBER;
+                numberValues[cell] = static_cast<jni::jdouble>(number);
+            },
+            [&](double number) {
+                valueTypes[cell] = VALUE_NUMBER;
+                numberValues[cell] = number;
+            },
+            [&](const std::string& string) {
+                valueTypes[cell] = VALUE_STRING;
+                stringValues[cell] = intern(string);
+            },
+            [&](const mbgl::NullValue&) {},
+            [&](const auto&) { valueTypes[cell] = VALUE_OTHER; });
+    }
+
+    jni::jint intern(const std::string& string) {
+        auto result = stringIndices.emplace(string, static_cast<jni::jint>(strings.size()));
+        if (result.second) {
+            strings.push_back(string);
+        }
+        return result.first->second;
+    }
+
+    void addCoordinate(const mbgl::Point<double>& point) {
+        coordinates.push_back(point.x);
+        coordinates.push_back(point.y);
+    }
+
+    template <class Points>
+    void addRing(const Points& points) {
+        for (const auto& point : points) {
+            addCoordinate(point);
+        }
+        endRing();
+    }
+
+    void addPolygon(const mbgl::Polygon<double>& polygon) {
+        for (const auto& ring : polygon) {
+            addRing(ring);
+        }
+        endPart();
+    }
+
+    void endRing() { ringCoordinates.push_back(static_cast<jni::jint>(coordinates.size() / 2)); }
+
+    void endPart() { partRings.push_back(static_cast<jni::jint>(ringCoordinates.size() - 1)); }
+
+    const std::vector<std::string>& propertyNames;
+    const std::size_t featureCount;
+
+    std::vector<jni::jlong> ids;
+    std::vector<jni::jbyte> idTypes;
+    std::vector<std::pair<std::size_t, std::string>> stringIds;
+    std::vector<jni::jbyte> geometryTypes;
+    std::vector<jni::jint> featureParts;
+    std::vector<jni::jint> partRings;
+    std::vector<jni::jint> ringCoordinates;
+    std::vector<jni::jdouble> coordinates;
+    std::vector<jni::jbyte> valueTypes;
+    std::vector<jni::jdouble> numberValues;
+    std::vector<jni::jint> stringValues;
+    std::vector<std::string> strings;
+    std::unordered_map<std::string, jni::jint> stringIndices;
+};
+
+template <class Features>
+jni::Local<jni::Object<FeatureColumns>> convert(jni::JNIEnv& env,
+                                                const Features& features,
+                                                const std::vector<std::string>& propertyNames) {
+    ColumnsBuilder builder(features.size(), propertyNames);
+    for (const auto& feature : features) {
+        builder.add(feature);
+    }
+    return builder.build(env);
+}
+
+} // namespace
+
+jni::Local<jni::Object<FeatureColumns>> FeatureColumns::New(jni::JNIEnv& env,
+                                                            const std::vector<mbgl::Feature>& features,
+                                                            const std::vector<std::string>& propertyNames) {
+    return convert(env, features, propertyNames);
+}
+
+jni::Local<jni::Object<FeatureColumns>> FeatureColumns::New(jni::JNIEnv& env,
+                                                            const std::vector<mbgl::GeoJSONFeature>& features,
+                                                            const std::vector<std::string>& propertyNames) {
+    return convert(env, features, propertyNames);
+}
+
+void FeatureColumns::registerNative(jni::JNIEnv& env) {
+    jni::Class<FeatureColumns>::Singleton(env);
+}
+
+} // namespace geojson
+} // namespace android
+} // namespace mbgl
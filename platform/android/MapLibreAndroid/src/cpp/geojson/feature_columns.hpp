@@ -0,0 +1,34 @@
+#pragma once
+
+#include <mbgl/util/feature.hpp>
+
+#include <jni/jni.hpp>
+
+#include <string>
+#include <vector>
+
+namespace mbgl {
+namespace android {
+namespace geojson {
+
+/**
+ * Converts features into the columnar org.maplibre.android.maps.FeatureColumns, using primitive arrays instead of a
+ * Java object per feature, geometry and property.
+ */
+class FeatureColumns {
+public:
+    static constexpr auto Name() { return "org/maplibre/android/maps/FeatureColumns"; };
+
+    static jni::Local<jni::Object<FeatureColumns>> New(jni::JNIEnv&,
+                                                       const std::vector<mbgl::Feature>&,
+                                                       const std::vector<std::string>& propertyNames);
+    static jni::Local<jni::Object<FeatureColumns>> New(jni::JNIEnv&,
+                                                       const std::vector<mbgl::GeoJSONFeature>&,
+                                                       const std::vector<std::string>& propertyNames);
+
+    static void registerNative(jni::JNIEnv&);
+};
+
+} // namespace geojson
+} // namespace android
+} // namespace mbgl
@@ -11,6 +11,7 @@
 #include "file_source.hpp"
 #include "geojson/feature.hpp"
 #include "geojson/feature_collection.hpp"
+#include "geojson/feature_columns.hpp"
 #include "geojson/geometry.hpp"
 #include "geojson/geometry_collection.hpp"
 #include "geojson/line_string.hpp"
@@ -43,6 +44,7 @@
 #include "offline/offline_region.hpp"
 #include "offline/offline_region_definition.hpp"
 #include "offline/offline_region_error.hpp"
+#include "offline/offline_region_estimate.hpp"
 #include "offline/offline_region_status.hpp"
 #endif
 #include "style/transition_options.hpp"
@@ -82,6 +84,7 @@ void registerNatives(JavaVM* vm) {
     // GeoJSON
     geojson::Feature::registerNative(env);
     geojson::FeatureCollection::registerNative(env);
+    geojson::FeatureColumns::registerNative(env);
     geojson::Geometry::registerNative(env);
     geojson::GeometryCollection::registerNative(env);
     geojson::LineString::registerNative(env);
@@ -151,6 +154,7 @@ void registerNatives(JavaVM* vm) {
     OfflineTilePyramidRegionDefinition::registerNative(env);
     OfflineGeometryRegionDefinition::registerNative(env);
     OfflineRegionError::registerNative(env);
+    OfflineRegionEstimate::registerNative(env);
     OfflineRegionStatus::registerNative(env);
 #endif
 
@@ -11,6 +11,8 @@ mbgl::style::Image Image::getImage(jni::JNIEnv& env, const jni::Object<Image>& i
     static auto heightField = javaClass.GetField<jni::jint>(env, "height");
     static auto pixelRatioField = javaClass.GetField<jni::jfloat>(env, "pixelRatio");
     static auto bufferField = javaClass.GetField<jni::Array<jbyte>>(env, "buffer");
+    static auto bitmapField = javaClass.GetField<jni::Object<Bitmap>>(env, "bitmap");
+    static auto nativePixelsField = javaClass.GetField<jni::jlong>(env, "nativePixels");
     static auto nameField = javaClass.GetField<jni::String>(env, "name");
     static auto sdfField = javaClass.GetField<jni::jboolean>(env, "sdf");
     static auto contentField = javaClass.GetField<jni::Array<jfloat>>(env, "content");
@@ -20,21 +22,40 @@ mbgl::style::Image Image::getImage(jni::JNIEnv& env, const jni::Object<Image>& i
     auto height = image.Get(env, heightField);
     auto width = image.Get(env, widthField);
     auto pixelRatio = image.Get(env, pixelRatioField);
-    auto pixels = image.Get(env, bufferField);
     auto name = jni::Make<std::string>(env, image.Get(env, nameField));
     auto sdf = (bool)image.Get(env, sdfField);
     auto content = image.Get(env, contentField);
     auto stretchX = image.Get(env, stretchXField);
     auto stretchY = image.Get(env, stretchYField);
-    jni::NullCheck(env, pixels.get());
-    std::size_t size = pixels.Length(env);
 
-    mbgl::PremultipliedImage premultipliedImage({static_cast<uint32_t>(width), static_cast<uint32_t>(height)});
-    if (premultipliedImage.bytes() != uint32_t(size)) {
-        throw mbgl::util::StyleImageException("Image pixel count mismatch");
-    }
+    mbgl::PremultipliedImage premultipliedImage;
+    if (auto nativePixels = image.Get(env, nativePixelsField)) {
+        // Copied from the bitmap when the image was created, usually off the main thread. The
+        // pixels are taken over, adding the image again copies them from the bitmap.
+        image.Set(env, nativePixelsField, jni::jlong(0));
+        std::unique_ptr<mbgl::PremultipliedImage> pixels(reinterpret_cast<mbgl::PremultipliedImage*>(nativePixels));
+        premultipliedImage = std::move(*pixels);
+        if (premultipliedImage.size != Size{static_cast<uint32_t>(width), static_cast<uint32_t>(height)}) {
+            throw mbgl::util::StyleImageException("Image size mismatch");
+        }
+    } else if (auto bitmap = image.Get(env, bitmapField)) {
+        // Bitmap backed images are copied once, straight from the locked bitmap pixels.
+        premultipliedImage = Bitmap::GetImage(env, bitmap);
+        if (premultipliedImage.size != Size{static_cast<uint32_t>(width), static_cast<uint32_t>(height)}) {
+            throw mbgl::util::StyleImageException("Image size mismatch");
+        }
+    } else {
+        auto pixels = image.Get(env, bufferField);
+        jni::NullCheck(env, pixels.get());
+        std::size_t size = pixels.Length(env);
 
-    jni::GetArrayRegion(env, *pixels, 0, size, reinterpret_cast<jbyte*>(premultipliedImage.data.get()));
+        premultipliedImage = mbgl::PremultipliedImage({static_cast<uint32_t>(width), static_cast<uint32_t>(height)});
+        if (premultipliedImage.bytes() != uint32_t(size)) {
+            throw mbgl::util::StyleImageException("Image pixel count mismatch");
+        }
+
+        jni::GetArrayRegion(env, *pixels, 0, size, reinterpret_cast<jbyte*>(premultipliedImage.data.get()));
+    }
 
     style::ImageStretches imageStretchesX = {};
     style::ImageStretches imageStretchesY = {};
@@ -66,8 +87,21 @@ mbgl::style::Image Image::getImage(jni::JNIEnv& env, const jni::Object<Image>& i
     return mbgl::style::Image{name, std::move(premultipliedImage), pixelRatio, sdf, imageStretchesX, imageStretchesY};
 }
 
+jni::jlong Image::copyPixels(jni::JNIEnv& env, const jni::Class<Image>&, const jni::Object<Bitmap>& bitmap) {
+    return reinterpret_cast<jni::jlong>(new mbgl::PremultipliedImage(Bitmap::GetImage(env, bitmap)));
+}
+
+void Image::releasePixels(jni::JNIEnv&, const jni::Class<Image>&, jni::jlong nativePixels) {
+    delete reinterpret_cast<mbgl::PremultipliedImage*>(nativePixels);
+}
+
 void Image::registerNative(jni::JNIEnv& env) {
-    jni::Class<Image>::Singleton(env);
+    static auto& javaClass = jni::Class<Image>::Singleton(env);
+    jni::RegisterNatives(
+        env,
+        *javaClass,
+        jni::MakeNativeMethod<decltype(&Image::copyPixels), &Image::copyPixels>("nativeCopyPixels"),
+        jni::MakeNativeMethod<decltype(&Image::releasePixels), &Image::releasePixels>("nativeReleasePixels"));
 }
 
 } // namespace android
@@ -5,6 +5,8 @@
 #include <jni/jni.hpp>
 #include <mbgl/style/image.hpp>
 
+#include "bitmap.hpp"
+
 namespace mbgl {
 namespace android {
 
@@ -14,6 +16,10 @@ public:
 
     static mbgl::style::Image getImage(jni::JNIEnv&, const jni::Object<Image>&);
 
+    static jni::jlong copyPixels(jni::JNIEnv&, const jni::Class<Image>&, const jni::Object<Bitmap>&);
+
+    static void releasePixels(jni::JNIEnv&, const jni::Class<Image>&, jni::jlong);
+
     static void registerNative(jni::JNIEnv&);
 };
 
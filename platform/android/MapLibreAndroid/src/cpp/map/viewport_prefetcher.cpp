@@ -0,0 +1,134 @@
+#include "viewport_prefetcher.hpp"
+
+#include <mbgl/storage/resource.hpp>
+#include <mbgl/storage/response.hpp>
+#include <mbgl/style/source.hpp>
+#include <mbgl/style/sources/tile_source.hpp>
+#include <mbgl/style/style.hpp>
+#include <mbgl/tile/tile_id.hpp>
+
+// Private core headers
+#include <mbgl/style/sources/tile_source_impl.hpp>
+#include <mbgl/util/tile_cover.hpp>
+
+#include <algorithm>
+#include <unordered_set>
+
+namespace mbgl {
+namespace android {
+
+ViewportPrefetcher::ViewportPrefetcher(std::shared_ptr<FileSource> fileSource_, float pixelRatio_)
+    : fileSource(std::move(fileSource_)),
+      pixelRatio(pixelRatio_) {}
+
+ViewportPrefetcher::~ViewportPrefetcher() = default;
+
+void ViewportPrefetcher::setEnabled(bool enabled_) {
+    enabled = enabled_;
+    if (!enabled) {
+        cancel();
+    }
+}
+
+void ViewportPrefetcher::prefetch(const style::Style& style, const LatLngBounds& bounds, double zoom) {
+    if (!enabled || !fileSource) {
+        return;
+    }
+
+    // A new prediction replaces the previous one, whose camera animation was interrupted
+    cancel();
+    stats[Predictions]++;
+
+    for (auto& resource : coveringTiles(style, bounds, zoom)) {
+        const std::string url = resource.url;
+        if (predictions.count(url)) {
+            continue;
+        }
+
+        resource.setPriority(Resource::Priority::Low);
+        stats[RequestedTiles]++;
+        auto& prediction = predictions[url];
+        prediction.request = fileSource->request(resource, [this, url](const Response& res) {
+            auto it = predictions.find(url);
+            if (it == predictions.end() || it->second.loaded) {
+                return;
+            }
+            if (!res.error || res.error->reason == Response::Error::Reason::NotFound) {
+                it->second.loaded = true;
+                stats[LoadedTiles]++;
+            }
+        });
+    }
+}
+
+void ViewportPrefetcher::evaluate(const style::Style& style, const LatLngBounds& bounds, double zoom) {
+    if (predictions.empty()) {
+        return;
+    }
+
+    for (const auto& resource : coveringTiles(style, bounds, zoom)) {
+        if (predictions.count(resource.url)) {
+            stats[UsedTiles]++;
+        }
+    }
+    cancel();
+}
+
+void ViewportPrefetcher::cancel() {
+    for (const auto& entry : predictions) {
+        if (!entry.second.loaded) {
+            stats[CanceledTiles]++;
+        }
+    }
+    // Releasing the requests cancels the pending ones
+    predictions.clear();
+}
+
+std::vector<Resource> ViewportPrefetcher::coveringTiles(const style::Style& style,
+                                                        const LatLngBounds& bounds,
+                                                        double zoom) const {
+    std::vector<Resource> resources;
+    std::unordered_set<std::string> urls;
+    for (const auto* source : style.getSources()) {
+        const auto type = source->getType();
+        if (type != style::SourceType::Vector && type != style::SourceType::Raster &&
+            type != style::SourceType::RasterDEM) {
+            continue;
+        }
+
+        const auto& impl = static_cast<const style::TileSource*>(source)->impl();
+        if (!impl.tileset || impl.tileset->tiles.empty()) {
+            // The tileset is not loaded yet
+            continue;
+        }
+        const Tileset& tileset = *impl.tileset;
+
+        const int32_t coveringZoom = util::coveringZoomLevel(zoom, type, impl.getTileSize());
+        if (coveringZoom < tileset.zoomRange.min) {
+            continue;
+        }
+        const auto z = static_cast<uint8_t>(std::min<int32_t>(coveringZoom, tileset.zoomRange.max));
+
+        // Sorted by distance to the center, so the cap drops the outermost tiles
+        size_t count = 0;
+        for (const auto& tile : util::tileCover(bounds, z)) {
+            if (count == maxTilesPerSource) {
+                break;
+            }
+            Resource resource = Resource::tile(tileset.tiles.at(0),
+                                               pixelRatio,
+                                               tile.canonical.x,
+                                               tile.canonical.y,
+                                               tile.canonical.z,
+                                               tileset.scheme);
+            if (urls.insert(resource.url).second) {
+                resources.push_back(std::move(resource));
+                count++;
+            }
+        }
+    }
+    return resources;
+}
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,78 @@
+#pragma once
+
+#include <mbgl/storage/file_source.hpp>
+#include <mbgl/util/async_request.hpp>
+#include <mbgl/util/geo.hpp>
+#include <mbgl/util/noncopyable.hpp>
+
+#include <array>
+#include <cstdint>
+#include <memory>
+#include <string>
+#include <unordered_map>
+#include <vector>
+
+namespace mbgl {
+
+namespace style {
+class Style;
+} // namespace style
+
+namespace android {
+
+/**
+ * Requests the tiles of the viewport a camera animation is heading to at low
+ * priority, so they are cached by the time the camera arrives. The prediction
+ * is compared to the viewport the camera actually settles on.
+ */
+class ViewportPrefetcher : private util::noncopyable {
+public:
+    // Counters returned by getStats(), in this order
+    enum Stat : size_t {
+        Predictions,
+        RequestedTiles,
+        LoadedTiles,
+        UsedTiles,
+        CanceledTiles,
+        StatCount
+    };
+
+    // Upper bound of tiles requested per source and prediction
+    static constexpr size_t maxTilesPerSource = 64;
+
+    ViewportPrefetcher(std::shared_ptr<FileSource>, float pixelRatio);
+    ~ViewportPrefetcher();
+
+    void setEnabled(bool);
+    bool isEnabled() const { return enabled; }
+
+    // Requests the tiles of the tile sources covering the bounds at the given zoom.
+    void prefetch(const style::Style&, const LatLngBounds&, double zoom);
+
+    // Counts the predicted tiles that cover the viewport the camera arrived at
+    // and cancels the requests that are still pending.
+    void evaluate(const style::Style&, const LatLngBounds&, double zoom);
+
+    void cancel();
+
+    std::array<int64_t, StatCount> getStats() const { return stats; }
+
+private:
+    std::vector<Resource> coveringTiles(const style::Style&, const LatLngBounds&, double zoom) const;
+
+    struct Prediction {
+        std::unique_ptr<AsyncRequest> request;
+        bool loaded = false;
+    };
+
+    std::shared_ptr<FileSource> fileSource;
+    const float pixelRatio;
+    bool enabled = false;
+
+    // Keyed by tile URL
+    std::unordered_map<std::string, Prediction> predictions;
+    std::array<int64_t, StatCount> stats{};
+};
+
+} // namespace android
+} // namespace mbgl
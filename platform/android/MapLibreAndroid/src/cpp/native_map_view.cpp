@@ -9,12 +9,15 @@
 
 #include <sys/system_properties.h>
 
+#include <android/asset_manager.h>
+#include <android/asset_manager_jni.h>
 #include <android/native_window_jni.h>
 
 #include <jni/jni.hpp>
 
 #include <mbgl/map/map.hpp>
 #include <mbgl/map/map_options.hpp>
+#include <mbgl/map/transform_state.hpp>
 #include <mbgl/math/minmax.hpp>
 #include <mbgl/util/action_journal.hpp>
 #include <mbgl/util/constants.hpp>
@@ -23,9 +26,12 @@
 #include <mbgl/util/geo.hpp>
 #include <mbgl/util/image.hpp>
 #include <mbgl/util/logging.hpp>
+#include <mbgl/util/mat4.hpp>
 #include <mbgl/util/platform.hpp>
 #include <mbgl/util/projection.hpp>
+#include <mbgl/util/string.hpp>
 #include <mbgl/style/style.hpp>
+#include <mbgl/style/style_bundle.hpp>
 #include <mbgl/style/image.hpp>
 #include <mbgl/style/filter.hpp>
 #include <mbgl/renderer/query.hpp>
@@ -55,6 +61,7 @@
 #include "map/camera_position.hpp"
 #include "map/image.hpp"
 #include "map_renderer.hpp"
+#include "maplibre.hpp"
 #include "run_loop_impl.hpp"
 #include "style/light.hpp"
 #include "tile/tile_operation.hpp"
@@ -62,6 +69,33 @@
 namespace mbgl {
 namespace android {
 
+namespace {
+
+constexpr std::string_view assetProtocol = "asset://";
+
+// Uncompressed assets are memory-mapped straight from the APK.
+expected<style::StyleBundle, std::exception_ptr> readAssetStyleBundle(jni::JNIEnv& env, const std::string& name) {
+    auto assetManager = MapLibre::getAssetManager(env);
+    AAsset* asset = AAssetManager_open(
+        AAssetManager_fromJava(&env, jni::Unwrap(assetManager.get())), name.c_str(), AASSET_MODE_BUFFER);
+    if (!asset) {
+        return unexpected<std::exception_ptr>(
+            std::make_exception_ptr(std::runtime_error("Could not read asset " + name)));
+    }
+
+    std::shared_ptr<const void> owner(asset, [](AAsset* asset_) { AAsset_close(asset_); });
+    const void* buffer = AAsset_getBuffer(asset);
+    if (!buffer) {
+        return unexpected<std::exception_ptr>(
+            std::make_exception_ptr(std::runtime_error("Could not map asset " + name)));
+    }
+    return style::StyleBundle::read(
+        std::move(owner),
+        std::string_view(static_cast<const char*>(buffer), static_cast<size_t>(AAsset_getLength64(asset))));
+}
+
+} // namespace
+
 NativeMapView::NativeMapView(jni::JNIEnv& _env,
                              const jni::Object<NativeMapView>& _obj,
                              const jni::Object<FileSource>& jFileSource,
@@ -88,20 +122,36 @@ NativeMapView::NativeMapView(jni::JNIEnv& _env,
         .withViewportMode(ViewportMode::Default)
         .withCrossSourceCollisions(NativeMapOptions::crossSourceCollisions(_env, jNativeMapOptions));
 
+    const auto resourceOptions = mbgl::android::FileSource::getSharedResourceOptions(_env, jFileSource);
+    const auto clientOptions = mbgl::android::FileSource::getSharedClientOptions(_env, jFileSource);
+
+    // Shares the file source, and with it the ambient cache, of the map
+    viewportPrefetcher = std::make_unique<ViewportPrefetcher>(
+        FileSourceManager::get()
+            ? FileSourceManager::get()->getFileSource(FileSourceType::ResourceLoader, resourceOptions, clientOptions)
+            : nullptr,
+        pixelRatio);
+
+    // Buffers the ambient cache writes of the map, dropped when low on memory
+    if (FileSourceManager::get()) {
+        databaseFileSource = std::static_pointer_cast<mbgl::DatabaseFileSource>(std::shared_ptr<mbgl::FileSource>(
+            FileSourceManager::get()->getFileSource(FileSourceType::Database, resourceOptions, clientOptions)));
+    }
+
     // Create the core map
-    map = std::make_unique<mbgl::Map>(
-        *rendererFrontend,
-        *this,
-        options,
-        mbgl::android::FileSource::getSharedResourceOptions(_env, jFileSource),
-        mbgl::android::FileSource::getSharedClientOptions(_env, jFileSource),
-        mbgl::android::NativeMapOptions::getActionJournalOptions(_env, jNativeMapOptions));
+    map = std::make_unique<mbgl::Map>(*rendererFrontend,
+                                      *this,
+                                      options,
+                                      resourceOptions,
+                                      clientOptions,
+                                      mbgl::android::NativeMapOptions::getActionJournalOptions(_env, jNativeMapOptions));
 }
 
 /**
  * Called through NativeMapView#destroy()
  */
 NativeMapView::~NativeMapView() {
+    viewportPrefetcher.reset();
     map.reset();
     vm = nullptr;
 }
@@ -133,6 +183,11 @@ void NativeMapView::onCameraIsChanging() {
 void NativeMapView::onCameraDidChange(MapObserver::CameraChangeMode mode) {
     assert(vm != nullptr);
 
+    if (mode == MapObserver::CameraChangeMode::Animated) {
+        const auto camera = map->getCameraOptions();
+        viewportPrefetcher->evaluate(map->getStyle(), map->latLngBoundsForCameraUnwrapped(camera), *camera.zoom);
+    }
+
     android::UniqueEnv _env = android::AttachEnv();
     static auto& javaClass = jni::Class<NativeMapView>::Singleton(*_env);
     static auto onCameraDidChange = javaClass.GetMethod<void(jboolean)>(*_env, "onCameraDidChange");
@@ -312,16 +367,28 @@ jni::Local<jni::String> NativeMapView::getStyleUrl(jni::JNIEnv& env) {
     return jni::Make<jni::String>(env, map->getStyle().getURL());
 }
 
-void NativeMapView::setStyleUrl(jni::JNIEnv& env, const jni::String& url) {
-    map->getStyle().loadURL(jni::Make<std::string>(env, url));
+void NativeMapView::setStyleUrl(jni::JNIEnv& env, const jni::String& url, jni::jboolean diff) {
+    map->getStyle().loadURL(jni::Make<std::string>(env, url), diff);
 }
 
 jni::Local<jni::String> NativeMapView::getStyleJson(jni::JNIEnv& env) {
     return jni::Make<jni::String>(env, map->getStyle().getJSON());
 }
 
-void NativeMapView::setStyleJson(jni::JNIEnv& env, const jni::String& json) {
-    map->getStyle().loadJSON(jni::Make<std::string>(env, json));
+void NativeMapView::setStyleJson(jni::JNIEnv& env, const jni::String& json, jni::jboolean diff) {
+    map->getStyle().loadJSON(jni::Make<std::string>(env, json), diff);
+}
+
+void NativeMapView::setStyleBundle(jni::JNIEnv& env, const jni::String& jPath) {
+    const std::string path = jni::Make<std::string>(env, jPath);
+    auto bundle = path.starts_with(assetProtocol) ? readAssetStyleBundle(env, path.substr(assetProtocol.size()))
+                                                  : style::StyleBundle::readFile(path);
+    if (!bundle) {
+        jni::ThrowNew(
+            env, jni::FindClass(env, "java/lang/IllegalArgumentException"), util::toString(bundle.error()).c_str());
+        return;
+    }
+    map->getStyle().loadBundle(*bundle);
 }
 
 void NativeMapView::setLatLngBounds(jni::JNIEnv& env, const jni::Object<mbgl::android::LatLngBounds>& jBounds) {
@@ -349,6 +416,15 @@ void NativeMapView::moveBy(jni::JNIEnv&, jni::jdouble dx, jni::jdouble dy, jni::
         animationOptions.easing.emplace(mbgl::util::UnitBezier{0.1, 0.4, 0.35, 1.0});
     }
     map->moveBy({dx, dy}, animationOptions);
+
+    if (duration > 0 && viewportPrefetcher->isEnabled()) {
+        // A fling ends where the map center is moved by the offset, see Transform::moveBy
+        const auto size = map->getMapOptions().size();
+        auto camera = map->getCameraOptions();
+        camera.center = map->latLngForPixel(
+            {static_cast<double>(size.width) / 2 - dx, static_cast<double>(size.height) / 2 - dy});
+        prefetchCamera(camera);
+    }
 }
 
 void NativeMapView::jumpTo(jni::JNIEnv& env,
@@ -412,6 +488,9 @@ void NativeMapView::easeTo(jni::JNIEnv& env,
     }
 
     map->easeTo(cameraOptions, animationOptions);
+    if (duration > 0) {
+        prefetchCamera(cameraOptions);
+    }
 }
 
 void NativeMapView::flyTo(jni::JNIEnv& env,
@@ -442,6 +521,9 @@ void NativeMapView::flyTo(jni::JNIEnv& env,
     mbgl::AnimationOptions animationOptions;
     animationOptions.duration.emplace(mbgl::Milliseconds(duration));
     map->flyTo(cameraOptions, animationOptions);
+    if (duration > 0) {
+        prefetchCamera(cameraOptions);
+    }
 }
 
 jni::Local<jni::Object<LatLng>> NativeMapView::getLatLng(JNIEnv& env) {
@@ -574,6 +656,30 @@ void NativeMapView::setBearingXY(
                 mbgl::AnimationOptions{mbgl::Milliseconds(duration)});
 }
 
+void NativeMapView::animateInertia(jni::JNIEnv&,
+                                   jni::jdouble zoomVelocity,
+                                   jni::jdouble bearingVelocity,
+                                   jni::jdouble cx,
+                                   jni::jdouble cy,
+                                   jni::jlong duration) {
+    // The velocities, in units per second, decay linearly to zero over the duration: the camera covers half the
+    // distance of a constant velocity animation, along a quadratic ease out.
+    const double distanceFactor = duration / 1000.0 / 2;
+    const mbgl::CameraOptions camera = map->getCameraOptions();
+
+    mbgl::CameraOptions options = mbgl::CameraOptions().withAnchor(mbgl::ScreenCoordinate{cx, cy});
+    if (zoomVelocity != 0) {
+        options.withZoom(*camera.zoom + zoomVelocity * distanceFactor);
+    }
+    if (bearingVelocity != 0) {
+        options.withBearing(*camera.bearing + bearingVelocity * distanceFactor);
+    }
+
+    mbgl::AnimationOptions animationOptions{mbgl::Milliseconds(duration)};
+    animationOptions.easing.emplace(mbgl::util::UnitBezier{1.0 / 3, 2.0 / 3, 2.0 / 3, 1.0});
+    map->easeTo(options, animationOptions);
+}
+
 jni::jdouble NativeMapView::getBearing(jni::JNIEnv&) {
     return *map->getCameraOptions().bearing;
 }
@@ -636,6 +742,73 @@ void NativeMapView::getVisibleCoordinateBounds(JNIEnv& env, jni::Array<jdouble>&
     output.SetRegion<std::vector<jdouble>>(env, 0, buffer);
 }
 
+void NativeMapView::getCameraSnapshot(JNIEnv& env, jni::Array<jdouble>& output) {
+    // Keep the layout in sync with CameraSnapshot.java
+    constexpr std::size_t snapshotSize = 41;
+
+    const mbgl::TransformState state = map->getTransfromState();
+    const mbgl::CameraOptions camera = map->getCameraOptions(std::nullopt);
+    const mbgl::Size size = state.getSize();
+    const mbgl::LatLng center = camera.center.value_or(mbgl::LatLng());
+    const double zoom = camera.zoom.value_or(0);
+
+    std::vector<jdouble> buffer;
+    buffer.reserve(snapshotSize);
+
+    // Camera, in the same units as CameraPosition
+    double bearing = camera.bearing.value_or(0);
+    while (bearing > 360) {
+        bearing -= 360;
+    }
+    while (bearing < 0) {
+        bearing += 360;
+    }
+    const auto insets = camera.padding.value_or(mbgl::EdgeInsets{0, 0, 0, 0});
+    buffer.insert(buffer.end(),
+                  {center.latitude(),
+                   center.longitude(),
+                   zoom,
+                   bearing,
+                   camera.pitch.value_or(0),
+                   insets.left() * pixelRatio,
+                   insets.top() * pixelRatio,
+                   insets.right() * pixelRatio,
+                   insets.bottom() * pixelRatio,
+                   mbgl::Projection::getMetersPerPixelAtLatitude(center.latitude(), zoom)});
+
+    // Visible quad: top left, top right, bottom right, bottom left
+    const double width = size.width;
+    const double height = size.height;
+    for (const auto& latLng : map->latLngsForPixels({{0, 0}, {width, 0}, {width, height}, {0, height}})) {
+        buffer.push_back(latLng.latitude());
+        buffer.push_back(latLng.longitude());
+    }
+
+    const auto bounds = map->latLngBoundsForCameraUnwrapped(camera);
+    buffer.insert(buffer.end(), {bounds.north(), bounds.east(), bounds.south(), bounds.west()});
+
+    // Maps Mercator coordinates normalized to [0, 1] to Android screen pixels:
+    // the projection matrix scaled to world size, followed by the viewport
+    // transform of latLngToScreenCoordinate and the pixel ratio.
+    const double worldSize = mbgl::util::tileSize_D * state.getScale();
+    mbgl::mat4 world;
+    mbgl::matrix::scale(world, state.getProjectionMatrix(), worldSize, worldSize, 1);
+    mbgl::mat4 viewport;
+    mbgl::matrix::identity(viewport);
+    viewport[0] = viewport[12] = width / 2 * pixelRatio;
+    viewport[5] = viewport[13] = height / 2 * pixelRatio;
+    mbgl::mat4 matrix;
+    mbgl::matrix::multiply(matrix, viewport, world);
+    buffer.insert(buffer.end(), matrix.begin(), matrix.end());
+
+    buffer.push_back(width * pixelRatio);
+    buffer.push_back(height * pixelRatio);
+    buffer.push_back(worldSize * pixelRatio);
+
+    assert(buffer.size() == snapshotSize);
+    output.SetRegion<std::vector<jdouble>>(env, 0, buffer);
+}
+
 void NativeMapView::scheduleSnapshot(jni::JNIEnv&) {
     mapRenderer.requestSnapshot([&](PremultipliedImage image) {
         auto _env = android::AttachEnv();
@@ -689,6 +862,9 @@ jni::Local<jni::Array<jni::jlong>> NativeMapView::addMarkers(jni::JNIEnv& env,
 
 void NativeMapView::onLowMemory(JNIEnv&) {
     rendererFrontend->reduceMemoryUse();
+    if (databaseFileSource) {
+        databaseFileSource->reduceMemoryUse();
+    }
 }
 
 using DebugOptions = mbgl::MapDebugOptions;
@@ -906,6 +1082,15 @@ void NativeMapView::addAnnotationIcon(
         std::make_unique<mbgl::style::Image>(symbolName, std::move(premultipliedImage), static_cast<float>(scale)));
 }
 
+void NativeMapView::addAnnotationIconBitmap(JNIEnv& env,
+                                            const jni::String& symbol,
+                                            const jni::Object<Bitmap>& bitmap,
+                                            jfloat scale) {
+    jni::NullCheck(env, &bitmap);
+    map->addAnnotationImage(std::make_unique<mbgl::style::Image>(
+        jni::Make<std::string>(env, symbol), Bitmap::GetImage(env, bitmap), static_cast<float>(scale)));
+}
+
 void NativeMapView::removeAnnotationIcon(JNIEnv& env, const jni::String& symbol) {
     const std::string symbolName = jni::Make<std::string>(env, symbol);
     map->removeAnnotationImage(symbolName);
@@ -1016,6 +1201,167 @@ jni::Local<jni::Array<jni::Object<geojson::Feature>>> NativeMapView::queryRender
     return Feature::convert(env, rendererFrontend->queryRenderedFeatures(box, {layers, toFilter(env, jfilter)}));
 }
 
+void NativeMapView::cancelBackgroundQueries(JNIEnv&) {
+    backgroundQueriesCancelled = true;
+}
+
+jni::Local<jni::Array<jni::Object<geojson::Feature>>> NativeMapView::convertBackgroundQueryResult(
+    JNIEnv& env, const std::optional<std::vector<mbgl::Feature>>& features) {
+    if (!features) {
+        if (backgroundQueriesCancelled) {
+            // The map is being destroyed, there's no result to deliver
+            return geojson::Feature::convert(env, std::vector<mbgl::Feature>());
+        }
+        jni::ThrowNew(env,
+                      jni::FindClass(env, "java/util/concurrent/TimeoutException"),
+                      "The renderer didn't answer the rendered feature query in time");
+        return jni::Local<jni::Array<jni::Object<geojson::Feature>>>();
+    }
+    return geojson::Feature::convert(env, *features);
+}
+
+jni::Local<jni::Array<jni::Object<geojson::Feature>>> NativeMapView::queryRenderedFeaturesForPointInBackground(
+    JNIEnv& env,
+    jni::jfloat x,
+    jni::jfloat y,
+    const jni::Array<jni::String>& layerIds,
+    const jni::Array<jni::Object<>>& jfilter) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::optional<std::vector<std::string>> layers;
+    if (layerIds && layerIds.Length(env) > 0) {
+        layers = toVector(env, layerIds);
+    }
+    mapbox::geometry::point<double> point = {x, y};
+
+    auto features = rendererFrontend->queryRenderedFeatures(
+        point, {layers, toFilter(env, jfilter)}, backgroundQueryTimeout, backgroundQueriesCancelled);
+    return convertBackgroundQueryResult(env, features);
+}
+
+jni::Local<jni::Array<jni::Object<geojson::Feature>>> NativeMapView::queryRenderedFeaturesForBoxInBackground(
+    JNIEnv& env,
+    jni::jfloat left,
+    jni::jfloat top,
+    jni::jfloat right,
+    jni::jfloat bottom,
+    const jni::Array<jni::String>& layerIds,
+    const jni::Array<jni::Object<>>& jfilter) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::optional<std::vector<std::string>> layers;
+    if (layerIds && layerIds.Length(env) > 0) {
+        layers = toVector(env, layerIds);
+    }
+    mapbox::geometry::box<double> box = {mapbox::geometry::point<double>{left, top},
+                                         mapbox::geometry::point<double>{right, bottom}};
+
+    auto features = rendererFrontend->queryRenderedFeatures(
+        box, {layers, toFilter(env, jfilter)}, backgroundQueryTimeout, backgroundQueriesCancelled);
+    return convertBackgroundQueryResult(env, features);
+}
+
+jni::Local<jni::Array<jni::Object<geojson::FeatureColumns>>> NativeMapView::hitTest(
+    JNIEnv& env,
+    const jni::Array<jni::jint>& jTypes,
+    const jni::Array<jni::jfloat>& jBoxes,
+    const jni::Array<jni::String>& jLayerIds,
+    const jni::Array<jni::jint>& jLayerOffsets,
+    const jni::Array<jni::String>& jPropertyNames,
+    const jni::Array<jni::jint>& jPropertyOffsets,
+    jni::jboolean firstOnly) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+    using Query = AndroidRendererFrontend::HitTestQuery;
+
+    auto toInts = [&](const jni::Array<jni::jint>& array) {
+        std::vector<jni::jint> values(array.Length(env));
+        for (std::size_t i = 0; i < values.size(); i++) {
+            values[i] = array.Get(env, i);
+        }
+        return values;
+    };
+
+    // The layer ids and property names of target i are in [offsets[i], offsets[i + 1])
+    auto types = toInts(jTypes);
+    auto layerOffsets = toInts(jLayerOffsets);
+    auto propertyOffsets = toInts(jPropertyOffsets);
+    auto layerIds = toVector(env, jLayerIds);
+    auto propertyNames = toVector(env, jPropertyNames);
+
+    std::vector<Query> queries;
+    queries.reserve(types.size());
+    for (std::size_t i = 0; i < types.size(); i++) {
+        Query query{static_cast<Query::Type>(types[i]),
+                    {{jBoxes.Get(env, 4 * i), jBoxes.Get(env, 4 * i + 1)},
+                     {jBoxes.Get(env, 4 * i + 2), jBoxes.Get(env, 4 * i + 3)}},
+                    {}};
+        if (layerOffsets[i + 1] > layerOffsets[i]) {
+            query.options.layerIDs = std::vector<std::string>(layerIds.begin() + layerOffsets[i],
+                                                              layerIds.begin() + layerOffsets[i + 1]);
+        }
+        queries.push_back(std::move(query));
+    }
+
+    auto results = rendererFrontend->hitTest(queries, annotationRequestTimeout, firstOnly);
+
+    // Targets that weren't evaluated are left null
+    auto hits = jni::Array<jni::Object<FeatureColumns>>::New(env, types.size());
+    for (std::size_t i = 0; i < results.size(); i++) {
+        std::vector<std::string> targetPropertyNames(propertyNames.begin() + propertyOffsets[i],
+                                                     propertyNames.begin() + propertyOffsets[i + 1]);
+        hits.Set(env, i, FeatureColumns::New(env, results[i], targetPropertyNames));
+    }
+    return hits;
+}
+
+jni::Local<jni::Object<geojson::FeatureColumns>> NativeMapView::queryRenderedFeatureColumnsForPoint(
+    JNIEnv& env,
+    jni::jfloat x,
+    jni::jfloat y,
+    const jni::Array<jni::String>& layerIds,
+    const jni::Array<jni::Object<>>& jfilter,
+    const jni::Array<jni::String>& propertyNames) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::optional<std::vector<std::string>> layers;
+    if (layerIds && layerIds.Length(env) > 0) {
+        layers = toVector(env, layerIds);
+    }
+    mapbox::geometry::point<double> point = {x, y};
+
+    return FeatureColumns::New(env,
+                               rendererFrontend->queryRenderedFeatures(point, {layers, toFilter(env, jfilter)}),
+                               toVector(env, propertyNames));
+}
+
+jni::Local<jni::Object<geojson::FeatureColumns>> NativeMapView::queryRenderedFeatureColumnsForBox(
+    JNIEnv& env,
+    jni::jfloat left,
+    jni::jfloat top,
+    jni::jfloat right,
+    jni::jfloat bottom,
+    const jni::Array<jni::String>& layerIds,
+    const jni::Array<jni::Object<>>& jfilter,
+    const jni::Array<jni::String>& propertyNames) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::optional<std::vector<std::string>> layers;
+    if (layerIds && layerIds.Length(env) > 0) {
+        layers = toVector(env, layerIds);
+    }
+    mapbox::geometry::box<double> box = {mapbox::geometry::point<double>{left, top},
+                                         mapbox::geometry::point<double>{right, bottom}};
+
+    return FeatureColumns::New(env,
+                               rendererFrontend->queryRenderedFeatures(box, {layers, toFilter(env, jfilter)}),
+                               toVector(env, propertyNames));
+}
+
 jni::Local<jni::Object<Light>> NativeMapView::getLight(JNIEnv& env) {
     mbgl::style::Light* light = map->getStyle().getLight();
     if (light) {
@@ -1231,10 +1577,13 @@ void NativeMapView::addImages(JNIEnv& env, const jni::Array<jni::Object<mbgl::an
     jni::NullCheck(env, &jimages);
     std::size_t len = jimages.Length(env);
 
+    std::vector<std::unique_ptr<mbgl::style::Image>> images;
+    images.reserve(len);
     for (std::size_t i = 0; i < len; i++) {
-        auto image = mbgl::android::Image::getImage(env, jimages.Get(env, i));
-        map->getStyle().addImage(std::make_unique<mbgl::style::Image>(image));
+        images.push_back(
+            std::make_unique<mbgl::style::Image>(mbgl::android::Image::getImage(env, jimages.Get(env, i))));
     }
+    map->getStyle().addImages(std::move(images));
 }
 
 void NativeMapView::removeImage(JNIEnv& env, const jni::String& name) {
@@ -1264,6 +1613,47 @@ jni::jint NativeMapView::getPrefetchZoomDelta(JNIEnv&) {
     return jni::jint(map->getPrefetchZoomDelta());
 }
 
+void NativeMapView::setPredictivePrefetchEnabled(JNIEnv&, jni::jboolean enabled) {
+    viewportPrefetcher->setEnabled(enabled);
+}
+
+jni::jboolean NativeMapView::isPredictivePrefetchEnabled(JNIEnv&) {
+    return jni::jboolean(viewportPrefetcher->isEnabled());
+}
+
+jni::Local<jni::Array<jni::jlong>> NativeMapView::getPredictivePrefetchStats(JNIEnv& env) {
+    const auto stats = viewportPrefetcher->getStats();
+    std::vector<jni::jlong> values(stats.begin(), stats.end());
+    auto result = jni::Array<jni::jlong>::New(env, values.size());
+    result.SetRegion<std::vector<jni::jlong>>(env, 0, values);
+    return result;
+}
+
+void NativeMapView::prefetchCamera(const mbgl::CameraOptions& target) {
+    if (!viewportPrefetcher->isEnabled()) {
+        return;
+    }
+
+    // Fill in what the animation keeps from the current camera
+    auto camera = map->getCameraOptions();
+    if (target.center) {
+        camera.center = target.center;
+    }
+    if (target.padding) {
+        camera.padding = target.padding;
+    }
+    if (target.zoom) {
+        camera.zoom = target.zoom;
+    }
+    if (target.bearing) {
+        camera.bearing = target.bearing;
+    }
+    if (target.pitch) {
+        camera.pitch = target.pitch;
+    }
+    viewportPrefetcher->prefetch(map->getStyle(), map->latLngBoundsForCameraUnwrapped(camera), *camera.zoom);
+}
+
 void NativeMapView::setTileCacheEnabled(JNIEnv&, jni::jboolean enabled) {
     rendererFrontend->setTileCacheEnabled(enabled);
 }
@@ -1448,6 +1838,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::setStyleUrl, "nativeSetStyleUrl"),
         METHOD(&NativeMapView::getStyleJson, "nativeGetStyleJson"),
         METHOD(&NativeMapView::setStyleJson, "nativeSetStyleJson"),
+        METHOD(&NativeMapView::setStyleBundle, "nativeSetStyleBundle"),
         METHOD(&NativeMapView::cancelTransitions, "nativeCancelTransitions"),
         METHOD(&NativeMapView::setGestureInProgress, "nativeSetGestureInProgress"),
         METHOD(&NativeMapView::moveBy, "nativeMoveBy"),
@@ -1476,6 +1867,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::rotateBy, "nativeRotateBy"),
         METHOD(&NativeMapView::setBearing, "nativeSetBearing"),
         METHOD(&NativeMapView::setBearingXY, "nativeSetBearingXY"),
+        METHOD(&NativeMapView::animateInertia, "nativeAnimateInertia"),
         METHOD(&NativeMapView::getBearing, "nativeGetBearing"),
         METHOD(&NativeMapView::resetNorth, "nativeResetNorth"),
         METHOD(&NativeMapView::setVisibleCoordinateBounds, "nativeSetVisibleCoordinateBounds"),
@@ -1495,6 +1887,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::pixelForLatLng, "nativePixelForLatLng"),
         METHOD(&NativeMapView::pixelsForLatLngs, "nativePixelsForLatLngs"),
         METHOD(&NativeMapView::getVisibleCoordinateBounds, "nativeGetVisibleCoordinateBounds"),
+        METHOD(&NativeMapView::getCameraSnapshot, "nativeGetCameraSnapshot"),
         METHOD(&NativeMapView::latLngForProjectedMeters, "nativeLatLngForProjectedMeters"),
         METHOD(&NativeMapView::latLngForPixel, "nativeLatLngForPixel"),
         METHOD(&NativeMapView::latLngsForPixels, "nativeLatLngsForPixels"),
@@ -1504,6 +1897,7 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::updatePolygon, "nativeUpdatePolygon"),
         METHOD(&NativeMapView::removeAnnotations, "nativeRemoveAnnotations"),
         METHOD(&NativeMapView::addAnnotationIcon, "nativeAddAnnotationIcon"),
+        METHOD(&NativeMapView::addAnnotationIconBitmap, "nativeAddAnnotationIconBitmap"),
         METHOD(&NativeMapView::removeAnnotationIcon, "nativeRemoveAnnotationIcon"),
         METHOD(&NativeMapView::getTopOffsetPixelsForAnnotationSymbol, "nativeGetTopOffsetPixelsForAnnotationSymbol"),
         METHOD(&NativeMapView::getTransitionOptions, "nativeGetTransitionOptions"),
@@ -1512,6 +1906,14 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::queryShapeAnnotations, "nativeQueryShapeAnnotations"),
         METHOD(&NativeMapView::queryRenderedFeaturesForPoint, "nativeQueryRenderedFeaturesForPoint"),
         METHOD(&NativeMapView::queryRenderedFeaturesForBox, "nativeQueryRenderedFeaturesForBox"),
+        METHOD(&NativeMapView::queryRenderedFeaturesForPointInBackground,
+               "nativeQueryRenderedFeaturesForPointInBackground"),
+        METHOD(&NativeMapView::queryRenderedFeaturesForBoxInBackground,
+               "nativeQueryRenderedFeaturesForBoxInBackground"),
+        METHOD(&NativeMapView::cancelBackgroundQueries, "nativeCancelBackgroundQueries"),
+        METHOD(&NativeMapView::hitTest, "nativeHitTest"),
+        METHOD(&NativeMapView::queryRenderedFeatureColumnsForPoint, "nativeQueryRenderedFeatureColumnsForPoint"),
+        METHOD(&NativeMapView::queryRenderedFeatureColumnsForBox, "nativeQueryRenderedFeatureColumnsForBox"),
         METHOD(&NativeMapView::getLight, "nativeGetLight"),
         METHOD(&NativeMapView::getLayers, "nativeGetLayers"),
         METHOD(&NativeMapView::getLayer, "nativeGetLayer"),
@@ -1533,6 +1935,9 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
         METHOD(&NativeMapView::getPrefetchTiles, "nativeGetPrefetchTiles"),
         METHOD(&NativeMapView::setPrefetchZoomDelta, "nativeSetPrefetchZoomDelta"),
         METHOD(&NativeMapView::getPrefetchZoomDelta, "nativeGetPrefetchZoomDelta"),
+        METHOD(&NativeMapView::setPredictivePrefetchEnabled, "nativeSetPredictivePrefetchEnabled"),
+        METHOD(&NativeMapView::isPredictivePrefetchEnabled, "nativeIsPredictivePrefetchEnabled"),
+        METHOD(&NativeMapView::getPredictivePrefetchStats, "nativeGetPredictivePrefetchStats"),
         METHOD(&NativeMapView::setTileCacheEnabled, "nativeSetTileCacheEnabled"),
         METHOD(&NativeMapView::getTileCacheEnabled, "nativeGetTileCacheEnabled"),
         METHOD(&NativeMapView::isRenderingStatsViewEnabled, "nativeIsRenderingStatsViewEnabled"),
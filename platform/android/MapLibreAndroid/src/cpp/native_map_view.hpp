@@ -6,6 +6,7 @@
 #include <mbgl/util/noncopyable.hpp>
 #include <mbgl/util/run_loop.hpp>
 #include <mbgl/tile/tile_operation.hpp>
+#include <mbgl/storage/database_file_source.hpp>
 #include <mbgl/storage/network_status.hpp>
 
 #include "annotation/marker.hpp"
@@ -14,6 +15,7 @@
 #include "graphics/pointf.hpp"
 #include "graphics/rectf.hpp"
 #include "geojson/feature.hpp"
+#include "geojson/feature_columns.hpp"
 #include "geojson/geometry.hpp"
 #include "geometry/lat_lng.hpp"
 #include "geometry/projected_meters.hpp"
@@ -22,11 +24,14 @@
 #include "geometry/lat_lng_bounds.hpp"
 #include "map/camera_position.hpp"
 #include "map/image.hpp"
+#include "map/viewport_prefetcher.hpp"
 #include "style/light.hpp"
 #include "native_map_options.hpp"
 #include "bitmap.hpp"
 #include "plugin/plugin_file_source.hpp"
+#include <atomic>
 #include <exception>
+#include <optional>
 #include <string>
 #include <jni.h>
 #include <android/native_window.h>
@@ -78,11 +83,13 @@ public:
 
     jni::Local<jni::String> getStyleUrl(jni::JNIEnv&);
 
-    void setStyleUrl(jni::JNIEnv&, const jni::String&);
+    void setStyleUrl(jni::JNIEnv&, const jni::String&, jni::jboolean);
 
     jni::Local<jni::String> getStyleJson(jni::JNIEnv&);
 
-    void setStyleJson(jni::JNIEnv&, const jni::String&);
+    void setStyleJson(jni::JNIEnv&, const jni::String&, jni::jboolean);
+
+    void setStyleBundle(jni::JNIEnv&, const jni::String&);
 
     void setLatLngBounds(jni::JNIEnv&, const jni::Object<mbgl::android::LatLngBounds>&);
 
@@ -177,6 +184,8 @@ public:
 
     void setBearingXY(jni::JNIEnv&, jni::jdouble, jni::jdouble, jni::jdouble, jni::jlong);
 
+    void animateInertia(jni::JNIEnv&, jni::jdouble, jni::jdouble, jni::jdouble, jni::jdouble, jni::jlong);
+
     jni::jdouble getBearing(jni::JNIEnv&);
 
     void resetNorth(jni::JNIEnv&);
@@ -186,6 +195,8 @@ public:
 
     void getVisibleCoordinateBounds(JNIEnv& env, jni::Array<jdouble>& output);
 
+    void getCameraSnapshot(JNIEnv& env, jni::Array<jdouble>& output);
+
     void scheduleSnapshot(jni::JNIEnv&);
 
     jni::Local<jni::Object<CameraPosition>> getCameraPosition(jni::JNIEnv&);
@@ -234,6 +245,8 @@ public:
 
     void addAnnotationIcon(JNIEnv&, const jni::String&, jint, jint, jfloat, const jni::Array<jbyte>&);
 
+    void addAnnotationIconBitmap(JNIEnv&, const jni::String&, const jni::Object<Bitmap>&, jfloat);
+
     void removeAnnotationIcon(JNIEnv&, const jni::String&);
 
     jni::jdouble getTopOffsetPixelsForAnnotationSymbol(JNIEnv&, const jni::String&);
@@ -258,6 +271,47 @@ public:
         const jni::Array<jni::String>&,
         const jni::Array<jni::Object<>>& jfilter);
 
+    jni::Local<jni::Array<jni::Object<geojson::Feature>>> queryRenderedFeaturesForPointInBackground(
+        JNIEnv&, jni::jfloat, jni::jfloat, const jni::Array<jni::String>&, const jni::Array<jni::Object<>>& jfilter);
+
+    jni::Local<jni::Array<jni::Object<geojson::Feature>>> queryRenderedFeaturesForBoxInBackground(
+        JNIEnv&,
+        jni::jfloat,
+        jni::jfloat,
+        jni::jfloat,
+        jni::jfloat,
+        const jni::Array<jni::String>&,
+        const jni::Array<jni::Object<>>& jfilter);
+
+    void cancelBackgroundQueries(JNIEnv&);
+
+    jni::Local<jni::Array<jni::Object<geojson::FeatureColumns>>> hitTest(JNIEnv&,
+                                                                        const jni::Array<jni::jint>& types,
+                                                                        const jni::Array<jni::jfloat>& boxes,
+                                                                        const jni::Array<jni::String>& layerIds,
+                                                                        const jni::Array<jni::jint>& layerOffsets,
+                                                                        const jni::Array<jni::String>& propertyNames,
+                                                                        const jni::Array<jni::jint>& propertyOffsets,
+                                                                        jni::jboolean firstOnly);
+
+    jni::Local<jni::Object<geojson::FeatureColumns>> queryRenderedFeatureColumnsForPoint(
+        JNIEnv&,
+        jni::jfloat,
+        jni::jfloat,
+        const jni::Array<jni::String>&,
+        const jni::Array<jni::Object<>>& jfilter,
+        const jni::Array<jni::String>& propertyNames);
+
+    jni::Local<jni::Object<geojson::FeatureColumns>> queryRenderedFeatureColumnsForBox(
+        JNIEnv&,
+        jni::jfloat,
+        jni::jfloat,
+        jni::jfloat,
+        jni::jfloat,
+        const jni::Array<jni::String>&,
+        const jni::Array<jni::Object<>>& jfilter,
+        const jni::Array<jni::String>& propertyNames);
+
     jni::Local<jni::Object<Light>> getLight(JNIEnv&);
 
     jni::Local<jni::Array<jni::Object<Layer>>> getLayers(JNIEnv&);
@@ -298,6 +352,12 @@ public:
 
     jni::jint getPrefetchZoomDelta(JNIEnv&);
 
+    void setPredictivePrefetchEnabled(JNIEnv&, jni::jboolean);
+
+    jni::jboolean isPredictivePrefetchEnabled(JNIEnv&);
+
+    jni::Local<jni::Array<jni::jlong>> getPredictivePrefetchStats(JNIEnv&);
+
     void setTileCacheEnabled(JNIEnv&, jni::jboolean);
 
     jni::jboolean getTileCacheEnabled(JNIEnv&);
@@ -352,6 +412,9 @@ public:
     void onSpriteRequested(const std::optional<mbgl::style::Sprite>&) override;
 
 private:
+    // Prefetches the viewport a camera animation ends in
+    void prefetchCamera(const mbgl::CameraOptions&);
+
     std::shared_ptr<AndroidRendererFrontend> rendererFrontend;
 
     JavaVM* vm = nullptr;
@@ -370,6 +433,16 @@ private:
     int height = 64;
 
     static constexpr auto annotationRequestTimeout = std::chrono::milliseconds(200);
+    // Bounds how long a background query waits for the renderer before it fails.
+    static constexpr auto backgroundQueryTimeout = std::chrono::milliseconds(1000);
+    // Set before the map is destroyed, so that background queries stop waiting and destroy() doesn't wait on them.
+    std::atomic<bool> backgroundQueriesCancelled{false};
+
+    jni::Local<jni::Array<jni::Object<geojson::Feature>>> convertBackgroundQueryResult(
+        JNIEnv&, const std::optional<std::vector<mbgl::Feature>>&);
+
+    std::unique_ptr<ViewportPrefetcher> viewportPrefetcher;
+    std::shared_ptr<mbgl::DatabaseFileSource> databaseFileSource;
 
     // Ensure these are initialised last
     std::unique_ptr<mbgl::Map> map;
@@ -1,15 +1,72 @@
 #include "offline_manager.hpp"
 
 #include <mbgl/storage/file_source_manager.hpp>
+#include <mbgl/storage/pmtiles_file_source.hpp>
 #include <mbgl/storage/resource.hpp>
+#include <mbgl/storage/response.hpp>
+#include <mbgl/util/chrono.hpp>
+#include <mbgl/util/http_header.hpp>
 #include <mbgl/util/string.hpp>
 
+#include <algorithm>
+#include <cctype>
+#include <list>
+#include <vector>
+
 #include "attach_env.hpp"
 
 namespace mbgl {
 namespace android {
 
 namespace {
+
+std::string trim(const std::string& value) {
+    const auto begin = value.find_first_not_of(" \t\r");
+    if (begin == std::string::npos) {
+        return {};
+    }
+    return value.substr(begin, value.find_last_not_of(" \t\r") - begin + 1);
+}
+
+// Reads the validators and expiration of a response from its HTTP headers, one
+// "Name: value" per line, the same way the HTTP file sources do.
+mbgl::Response parseHeaders(const std::string& headers) {
+    mbgl::Response response;
+    std::size_t begin = 0;
+    while (begin < headers.size()) {
+        std::size_t end = headers.find('\n', begin);
+        if (end == std::string::npos) {
+            end = headers.size();
+        }
+        const std::string line = headers.substr(begin, end - begin);
+        begin = end + 1;
+
+        const std::size_t colon = line.find(':');
+        if (colon == std::string::npos) {
+            continue;
+        }
+        std::string name = trim(line.substr(0, colon));
+        std::transform(name.begin(), name.end(), name.begin(), [](unsigned char c) { return std::tolower(c); });
+        const std::string value = trim(line.substr(colon + 1));
+
+        if (name == "etag") {
+            response.etag = value;
+        } else if (name == "last-modified") {
+            response.modified = util::parseTimestamp(value.c_str());
+        } else if (name == "cache-control") {
+            const auto cc = http::CacheControl::parse(value);
+            // An Expires header takes precedence, as in the HTTP file sources.
+            if (!response.expires) {
+                response.expires = cc.toTimePoint();
+            }
+            response.mustRevalidate = cc.mustRevalidate;
+        } else if (name == "expires") {
+            response.expires = util::parseTimestamp(value.c_str());
+        }
+    }
+    return response;
+}
+
 // Reattach, the callback comes from a different thread
 void handleException(std::exception_ptr exception,
                      const jni::Object<OfflineManager::FileSourceCallback>& callback,
@@ -40,6 +97,50 @@ void OfflineManager::setOfflineMapboxTileCountLimit(jni::JNIEnv&, jni::jlong lim
     fileSource->setOfflineMapboxTileCountLimit(limit);
 }
 
+void OfflineManager::setMaximumConcurrentOfflineRequests(jni::JNIEnv&, jni::jint limit) {
+    fileSource->setMaximumConcurrentOfflineRequests(limit > 0 ? static_cast<uint32_t>(limit) : 0);
+}
+
+jni::jlong OfflineManager::getAmbientCacheWriteQueueDepth(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(fileSource->getAmbientCacheWriteQueueDepth());
+}
+
+void OfflineManager::setMaximumMemoryCacheSize(jni::JNIEnv&, jni::jlong size) {
+    fileSource->setMaximumMemoryCacheSize(size > 0 ? static_cast<uint64_t>(size) : 0);
+}
+
+void OfflineManager::trimMemoryCache(jni::JNIEnv&, jni::jlong size) {
+    fileSource->trimMemoryCache(size > 0 ? static_cast<uint64_t>(size) : 0);
+}
+
+jni::jlong OfflineManager::getMemoryCacheHitCount(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(fileSource->getMemoryCacheStatistics().hitCount);
+}
+
+jni::jlong OfflineManager::getMemoryCacheMissCount(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(fileSource->getMemoryCacheStatistics().missCount);
+}
+
+jni::jlong OfflineManager::getMemoryCacheSize(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(fileSource->getMemoryCacheStatistics().size);
+}
+
+void OfflineManager::setMaximumPMTilesDirectoryCacheSize(jni::JNIEnv&, jni::jlong size) {
+    PMTilesFileSource::setMaximumDirectoryCacheSize(size > 0 ? static_cast<uint64_t>(size) : 0);
+}
+
+jni::jlong OfflineManager::getPMTilesDirectoryCacheHitCount(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(PMTilesFileSource::getDirectoryCacheStatistics().hitCount);
+}
+
+jni::jlong OfflineManager::getPMTilesDirectoryCacheMissCount(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(PMTilesFileSource::getDirectoryCacheStatistics().missCount);
+}
+
+jni::jlong OfflineManager::getPMTilesDirectoryCacheCoalescedCount(jni::JNIEnv&) {
+    return static_cast<jni::jlong>(PMTilesFileSource::getDirectoryCacheStatistics().coalescedCount);
+}
+
 void OfflineManager::listOfflineRegions(jni::JNIEnv& env_,
                                         const jni::Object<FileSource>& jFileSource_,
                                         const jni::Object<ListOfflineRegionsCallback>& callback_) {
@@ -131,6 +232,30 @@ void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
         });
 }
 
+void OfflineManager::estimateOfflineRegion(jni::JNIEnv& env_,
+                                           const jni::Object<OfflineRegionDefinition>& definition_,
+                                           const jni::Object<EstimateOfflineRegionCallback>& callback_) {
+    auto definition = OfflineRegionDefinition::getDefinition(env_, definition_);
+    auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
+
+    fileSource->estimateOfflineRegion(
+        definition,
+        [
+            // Keep a shared ptr to a global reference of the callback so it is
+            // not GC'd in the meanwhile
+            callback = std::make_shared<decltype(globalCallback)>(std::move(globalCallback))](
+            mbgl::expected<mbgl::OfflineRegionEstimate, std::exception_ptr> estimate) mutable {
+            // Reattach, the callback comes from a different thread
+            android::UniqueEnv env = android::AttachEnv();
+
+            if (estimate) {
+                OfflineManager::EstimateOfflineRegionCallback::onEstimate(*env, *callback, *estimate);
+            } else {
+                OfflineManager::EstimateOfflineRegionCallback::onError(*env, *callback, estimate.error());
+            }
+        });
+}
+
 void OfflineManager::mergeOfflineRegions(jni::JNIEnv& env_,
                                          const jni::Object<FileSource>& jFileSource_,
                                          const jni::String& jString_,
@@ -158,6 +283,49 @@ void OfflineManager::mergeOfflineRegions(jni::JNIEnv& env_,
         });
 }
 
+void OfflineManager::putResources(jni::JNIEnv& env_,
+                                  const jni::Array<jni::String>& urls_,
+                                  const jni::Array<jni::String>& headers_,
+                                  const jni::Array<jni::jbyte>& data_,
+                                  const jni::Array<jni::jint>& sizes_,
+                                  const jni::Object<ResourceBatchCallback>& callback_) {
+    // The payloads of the batch are concatenated, so that they are copied at once.
+    std::string data(data_.Length(env_), char());
+    jni::GetArrayRegion(env_, *data_, 0, data.size(), reinterpret_cast<jbyte*>(data.data()));
+    std::vector<jni::jint> sizes(sizes_.Length(env_));
+    jni::GetArrayRegion(env_, *sizes_, 0, sizes.size(), sizes.data());
+
+    std::list<std::tuple<mbgl::Resource, mbgl::Response>> resources;
+    std::size_t offset = 0;
+    for (std::size_t i = 0; i < sizes.size(); i++) {
+        const auto size = static_cast<std::size_t>(sizes[i]);
+        if (offset + size > data.size()) {
+            break;
+        }
+        auto headers = headers_.Get(env_, i);
+        mbgl::Response response = headers ? parseHeaders(jni::Make<std::string>(env_, headers)) : mbgl::Response();
+        response.data = std::make_shared<std::string>(data, offset, size);
+        offset += size;
+        resources.emplace_back(
+            mbgl::Resource(mbgl::Resource::Kind::Unknown, jni::Make<std::string>(env_, urls_.Get(env_, i))),
+            std::move(response));
+    }
+
+    auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
+
+    fileSource->putResources(
+        std::move(resources),
+        [
+            // Keep a shared ptr to a global reference of the callback so it is
+            // not GC'd in the meanwhile
+            callback = std::make_shared<decltype(globalCallback)>(std::move(globalCallback))](
+            std::size_t inserted) mutable {
+            // Reattach, the callback comes from a different thread
+            android::UniqueEnv env = android::AttachEnv();
+            OfflineManager::ResourceBatchCallback::onStored(*env, *callback, inserted);
+        });
+}
+
 void OfflineManager::resetDatabase(jni::JNIEnv& env_, const jni::Object<FileSourceCallback>& callback_) {
     auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
 
@@ -213,10 +381,71 @@ void OfflineManager::setMaximumAmbientCacheSize(jni::JNIEnv& env_,
             std::exception_ptr exception) mutable { handleException(exception, *callback); });
 }
 
+void OfflineManager::setDatabaseDurability(jni::JNIEnv& env_,
+                                           const jni::jint durability_,
+                                           const jni::Object<FileSourceCallback>& callback_) {
+    auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
+
+    fileSource->setDatabaseDurability(
+        static_cast<mbgl::DatabaseDurability>(durability_),
+        [
+            // Keep a shared ptr to a global reference of the callback so
+            // they are not GC'd in the meanwhile
+            callback = std::make_shared<decltype(globalCallback)>(std::move(globalCallback))](
+            std::exception_ptr exception) mutable { handleException(exception, *callback); });
+}
+
 void OfflineManager::runPackDatabaseAutomatically(jni::JNIEnv&, jboolean autopack) {
     fileSource->runPackDatabaseAutomatically(autopack);
 }
 
+void OfflineManager::runPackDatabaseInBackground(jni::JNIEnv&, jboolean packInBackground) {
+    fileSource->runPackDatabaseInBackground(packInBackground);
+}
+
+void OfflineManager::packDatabaseWhileIdle(jni::JNIEnv& env_,
+                                           const jni::Object<PackDatabaseProgressCallback>& callback_) {
+    auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
+
+    fileSource->packDatabaseWhileIdle(
+        [
+            // Keep a shared ptr to a global reference of the callback so it is
+            // not GC'd in the meanwhile
+            callback = std::make_shared<decltype(globalCallback)>(std::move(globalCallback))](
+            mbgl::DatabasePackProgress progress) mutable {
+            // Reattach, the callback comes from a different thread
+            android::UniqueEnv env = android::AttachEnv();
+            OfflineManager::PackDatabaseProgressCallback::onProgress(*env, *callback, progress);
+        });
+}
+
+// OfflineManager::ResourceBatchCallback //
+
+void OfflineManager::ResourceBatchCallback::onStored(jni::JNIEnv& env,
+                                                     const jni::Object<OfflineManager::ResourceBatchCallback>& callback,
+                                                     std::size_t inserted) {
+    static auto& javaClass = jni::Class<OfflineManager::ResourceBatchCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void(jni::jlong)>(env, "onStored");
+
+    callback.Call(env, method, jni::jlong(inserted));
+}
+
+// OfflineManager::PackDatabaseProgressCallback //
+
+void OfflineManager::PackDatabaseProgressCallback::onProgress(
+    jni::JNIEnv& env,
+    const jni::Object<OfflineManager::PackDatabaseProgressCallback>& callback,
+    const mbgl::DatabasePackProgress& progress) {
+    static auto& javaClass = jni::Class<OfflineManager::PackDatabaseProgressCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void(jni::jlong, jni::jlong, jni::jboolean)>(env, "onProgress");
+
+    callback.Call(env,
+                  method,
+                  jni::jlong(progress.reclaimedSize),
+                  jni::jlong(progress.remainingSize),
+                  jni::jboolean(progress.paused));
+}
+
 // FileSource::FileSourceCallback //
 
 void OfflineManager::FileSourceCallback::onSuccess(jni::JNIEnv& env,
@@ -238,8 +467,11 @@ void OfflineManager::registerNative(jni::JNIEnv& env) {
     jni::Class<ListOfflineRegionsCallback>::Singleton(env);
     jni::Class<GetOfflineRegionCallback>::Singleton(env);
     jni::Class<CreateOfflineRegionCallback>::Singleton(env);
+    jni::Class<EstimateOfflineRegionCallback>::Singleton(env);
     jni::Class<MergeOfflineRegionsCallback>::Singleton(env);
     jni::Class<FileSourceCallback>::Singleton(env);
+    jni::Class<PackDatabaseProgressCallback>::Singleton(env);
+    jni::Class<ResourceBatchCallback>::Singleton(env);
 
     static auto& javaClass = jni::Class<OfflineManager>::Singleton(env);
 
@@ -253,17 +485,33 @@ void OfflineManager::registerNative(jni::JNIEnv& env) {
         "initialize",
         "finalize",
         METHOD(&OfflineManager::setOfflineMapboxTileCountLimit, "setOfflineMapboxTileCountLimit"),
+        METHOD(&OfflineManager::setMaximumConcurrentOfflineRequests, "setMaximumConcurrentOfflineRequests"),
+        METHOD(&OfflineManager::getAmbientCacheWriteQueueDepth, "getAmbientCacheWriteQueueDepth"),
+        METHOD(&OfflineManager::setMaximumMemoryCacheSize, "setMaximumMemoryCacheSize"),
+        METHOD(&OfflineManager::trimMemoryCache, "nativeTrimMemoryCache"),
+        METHOD(&OfflineManager::getMemoryCacheHitCount, "getMemoryCacheHitCount"),
+        METHOD(&OfflineManager::getMemoryCacheMissCount, "getMemoryCacheMissCount"),
+        METHOD(&OfflineManager::getMemoryCacheSize, "getMemoryCacheSize"),
+        METHOD(&OfflineManager::setMaximumPMTilesDirectoryCacheSize, "setMaximumPMTilesDirectoryCacheSize"),
+        METHOD(&OfflineManager::getPMTilesDirectoryCacheHitCount, "getPMTilesDirectoryCacheHitCount"),
+        METHOD(&OfflineManager::getPMTilesDirectoryCacheMissCount, "getPMTilesDirectoryCacheMissCount"),
+        METHOD(&OfflineManager::getPMTilesDirectoryCacheCoalescedCount, "getPMTilesDirectoryCacheCoalescedCount"),
         METHOD(&OfflineManager::listOfflineRegions, "listOfflineRegions"),
         METHOD(&OfflineManager::getOfflineRegion, "getOfflineRegion"),
         METHOD(&OfflineManager::createOfflineRegion, "createOfflineRegion"),
+        METHOD(&OfflineManager::estimateOfflineRegion, "nativeEstimateOfflineRegion"),
         METHOD(&OfflineManager::mergeOfflineRegions, "mergeOfflineRegions"),
         METHOD(&OfflineManager::resetDatabase, "nativeResetDatabase"),
         METHOD(&OfflineManager::packDatabase, "nativePackDatabase"),
         METHOD(&OfflineManager::invalidateAmbientCache, "nativeInvalidateAmbientCache"),
         METHOD(&OfflineManager::clearAmbientCache, "nativeClearAmbientCache"),
         METHOD(&OfflineManager::setMaximumAmbientCacheSize, "nativeSetMaximumAmbientCacheSize"),
+        METHOD(&OfflineManager::setDatabaseDurability, "nativeSetDatabaseDurability"),
         METHOD(&OfflineManager::runPackDatabaseAutomatically, "runPackDatabaseAutomatically"),
-        METHOD(&OfflineManager::putResourceWithUrl, "putResourceWithUrl"));
+        METHOD(&OfflineManager::runPackDatabaseInBackground, "runPackDatabaseInBackground"),
+        METHOD(&OfflineManager::packDatabaseWhileIdle, "nativePackDatabaseWhileIdle"),
+        METHOD(&OfflineManager::putResourceWithUrl, "putResourceWithUrl"),
+        METHOD(&OfflineManager::putResources, "nativePutResources"));
 }
 
 // OfflineManager::ListOfflineRegionsCallback //
@@ -350,6 +598,28 @@ void OfflineManager::CreateOfflineRegionCallback::onCreate(
     callback.Call(env, method, OfflineRegion::New(env, jFileSource, std::move(region)));
 }
 
+// OfflineManager::EstimateOfflineRegionCallback //
+
+void OfflineManager::EstimateOfflineRegionCallback::onError(
+    jni::JNIEnv& env,
+    const jni::Object<OfflineManager::EstimateOfflineRegionCallback>& callback,
+    std::exception_ptr error) {
+    static auto& javaClass = jni::Class<OfflineManager::EstimateOfflineRegionCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void(jni::String)>(env, "onError");
+
+    callback.Call(env, method, jni::Make<jni::String>(env, mbgl::util::toString(error)));
+}
+
+void OfflineManager::EstimateOfflineRegionCallback::onEstimate(
+    jni::JNIEnv& env,
+    const jni::Object<OfflineManager::EstimateOfflineRegionCallback>& callback,
+    const mbgl::OfflineRegionEstimate& estimate) {
+    static auto& javaClass = jni::Class<OfflineManager::EstimateOfflineRegionCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void(jni::Object<OfflineRegionEstimate>)>(env, "onEstimate");
+
+    callback.Call(env, method, OfflineRegionEstimate::New(env, estimate));
+}
+
 // OfflineManager::MergeOfflineRegionsCallback //
 
 void OfflineManager::MergeOfflineRegionsCallback::onError(
@@ -6,6 +6,7 @@
 #include "../file_source.hpp"
 #include "offline_region.hpp"
 #include "offline_region_definition.hpp"
+#include "offline_region_estimate.hpp"
 #include "../java_types.hpp"
 
 #include <memory>
@@ -70,6 +71,22 @@ public:
                              mbgl::OfflineRegion&);
     };
 
+    class EstimateOfflineRegionCallback {
+    public:
+        static constexpr auto Name() {
+            return "org/maplibre/android/offline/"
+                   "OfflineManager$EstimateOfflineRegionCallback";
+        }
+
+        static void onError(jni::JNIEnv&,
+                            const jni::Object<OfflineManager::EstimateOfflineRegionCallback>&,
+                            std::exception_ptr);
+
+        static void onEstimate(jni::JNIEnv&,
+                               const jni::Object<OfflineManager::EstimateOfflineRegionCallback>&,
+                               const mbgl::OfflineRegionEstimate&);
+    };
+
     class MergeOfflineRegionsCallback {
     public:
         static constexpr auto Name() {
@@ -98,6 +115,26 @@ public:
         static void onError(jni::JNIEnv&, const jni::Object<OfflineManager::FileSourceCallback>&, const jni::String&);
     };
 
+    struct ResourceBatchCallback {
+        static constexpr auto Name() {
+            return "org/maplibre/android/offline/"
+                   "OfflineManager$ResourceBatchCallback";
+        }
+
+        static void onStored(jni::JNIEnv&, const jni::Object<OfflineManager::ResourceBatchCallback>&, std::size_t);
+    };
+
+    struct PackDatabaseProgressCallback {
+        static constexpr auto Name() {
+            return "org/maplibre/android/offline/"
+                   "OfflineManager$PackDatabaseProgressCallback";
+        }
+
+        static void onProgress(jni::JNIEnv&,
+                               const jni::Object<OfflineManager::PackDatabaseProgressCallback>&,
+                               const mbgl::DatabasePackProgress&);
+    };
+
     static constexpr auto Name() { return "org/maplibre/android/offline/OfflineManager"; };
 
     static void registerNative(jni::JNIEnv&);
@@ -107,6 +144,28 @@ public:
 
     void setOfflineMapboxTileCountLimit(jni::JNIEnv&, jni::jlong limit);
 
+    void setMaximumConcurrentOfflineRequests(jni::JNIEnv&, jni::jint limit);
+
+    jni::jlong getAmbientCacheWriteQueueDepth(jni::JNIEnv&);
+
+    void setMaximumMemoryCacheSize(jni::JNIEnv&, jni::jlong size);
+
+    void trimMemoryCache(jni::JNIEnv&, jni::jlong size);
+
+    jni::jlong getMemoryCacheHitCount(jni::JNIEnv&);
+
+    jni::jlong getMemoryCacheMissCount(jni::JNIEnv&);
+
+    jni::jlong getMemoryCacheSize(jni::JNIEnv&);
+
+    void setMaximumPMTilesDirectoryCacheSize(jni::JNIEnv&, jni::jlong size);
+
+    jni::jlong getPMTilesDirectoryCacheHitCount(jni::JNIEnv&);
+
+    jni::jlong getPMTilesDirectoryCacheMissCount(jni::JNIEnv&);
+
+    jni::jlong getPMTilesDirectoryCacheCoalescedCount(jni::JNIEnv&);
+
     void listOfflineRegions(jni::JNIEnv&,
                             const jni::Object<FileSource>&,
                             const jni::Object<ListOfflineRegionsCallback>& callback);
@@ -122,6 +181,10 @@ public:
                              const jni::Array<jni::jbyte>& metadata,
                              const jni::Object<OfflineManager::CreateOfflineRegionCallback>& callback);
 
+    void estimateOfflineRegion(jni::JNIEnv&,
+                               const jni::Object<OfflineRegionDefinition>& definition,
+                               const jni::Object<OfflineManager::EstimateOfflineRegionCallback>& callback);
+
     void mergeOfflineRegions(jni::JNIEnv&,
                              const jni::Object<FileSource>&,
                              const jni::String&,
@@ -135,6 +198,13 @@ public:
                             const jni::String& eTag,
                             jboolean mustRevalidate);
 
+    void putResources(jni::JNIEnv&,
+                      const jni::Array<jni::String>& urls,
+                      const jni::Array<jni::String>& headers,
+                      const jni::Array<jni::jbyte>& data,
+                      const jni::Array<jni::jint>& sizes,
+                      const jni::Object<ResourceBatchCallback>& callback_);
+
     void resetDatabase(jni::JNIEnv&, const jni::Object<FileSourceCallback>& callback_);
 
     void packDatabase(jni::JNIEnv&, const jni::Object<FileSourceCallback>& callback_);
@@ -147,8 +217,16 @@ public:
                                     const jni::jlong size,
                                     const jni::Object<FileSourceCallback>& callback_);
 
+    void setDatabaseDurability(jni::JNIEnv&,
+                               const jni::jint durability,
+                               const jni::Object<FileSourceCallback>& callback_);
+
     void runPackDatabaseAutomatically(jni::JNIEnv&, jboolean autopack);
 
+    void runPackDatabaseInBackground(jni::JNIEnv&, jboolean packInBackground);
+
+    void packDatabaseWhileIdle(jni::JNIEnv&, const jni::Object<PackDatabaseProgressCallback>& callback_);
+
 private:
     std::shared_ptr<mbgl::DatabaseFileSource> fileSource;
 };
@@ -95,6 +95,10 @@ void OfflineRegion::setOfflineRegionDownloadState(jni::JNIEnv&, jni::jint jState
     fileSource->setOfflineRegionDownloadState(*region, state);
 }
 
+void OfflineRegion::refreshOfflineRegion(jni::JNIEnv&) {
+    fileSource->refreshOfflineRegion(*region);
+}
+
 void OfflineRegion::getOfflineRegionStatus(jni::JNIEnv& env_,
                                            const jni::Object<OfflineRegionStatusCallback>& callback_) {
     auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
@@ -155,6 +159,31 @@ void OfflineRegion::invalidateOfflineRegion(jni::JNIEnv& env_,
                                         });
 }
 
+void OfflineRegion::exportOfflineRegion(jni::JNIEnv& env_,
+                                        const jni::String& jPath,
+                                        const jni::String& jUrlTemplate,
+                                        const jni::Object<OfflineRegionExportCallback>& callback_) {
+    auto globalCallback = jni::NewGlobal<jni::EnvAttachingDeleter>(env_, callback_);
+
+    fileSource->exportOfflineRegion(
+        *region,
+        jni::Make<std::string>(env_, jUrlTemplate),
+        jni::Make<std::string>(env_, jPath),
+        [
+            // Ensure the object is not gc'd in the meanwhile
+            callback = std::make_shared<decltype(globalCallback)>(std::move(globalCallback))](
+            std::exception_ptr error) mutable {
+            // Reattach, the callback comes from a different thread
+            android::UniqueEnv env = android::AttachEnv();
+
+            if (error) {
+                OfflineRegionExportCallback::onError(*env, *callback, error);
+            } else {
+                OfflineRegionExportCallback::onExport(*env, *callback);
+            }
+        });
+}
+
 void OfflineRegion::updateOfflineRegionMetadata(jni::JNIEnv& env_,
                                                 const jni::Array<jni::jbyte>& jMetadata,
                                                 const jni::Object<OfflineRegionUpdateMetadataCallback>& callback_) {
@@ -232,6 +261,7 @@ void OfflineRegion::registerNative(jni::JNIEnv& env) {
     jni::Class<OfflineRegionDeleteCallback>::Singleton(env);
     jni::Class<OfflineRegionUpdateMetadataCallback>::Singleton(env);
     jni::Class<OfflineRegionInvalidateCallback>::Singleton(env);
+    jni::Class<OfflineRegionExportCallback>::Singleton(env);
 
     static auto& javaClass = jni::Class<OfflineRegion>::Singleton(env);
 
@@ -246,9 +276,11 @@ void OfflineRegion::registerNative(jni::JNIEnv& env) {
         "finalize",
         METHOD(&OfflineRegion::setOfflineRegionObserver, "setOfflineRegionObserver"),
         METHOD(&OfflineRegion::setOfflineRegionDownloadState, "setOfflineRegionDownloadState"),
+        METHOD(&OfflineRegion::refreshOfflineRegion, "refreshOfflineRegion"),
         METHOD(&OfflineRegion::getOfflineRegionStatus, "getOfflineRegionStatus"),
         METHOD(&OfflineRegion::deleteOfflineRegion, "deleteOfflineRegion"),
         METHOD(&OfflineRegion::invalidateOfflineRegion, "invalidateOfflineRegion"),
+        METHOD(&OfflineRegion::exportOfflineRegion, "exportOfflineRegion"),
         METHOD(&OfflineRegion::updateOfflineRegionMetadata, "updateOfflineRegionMetadata"));
 }
 
@@ -337,5 +369,23 @@ void OfflineRegion::OfflineRegionInvalidateCallback::onInvalidate(
     callback.Call(env, method);
 }
 
+// OfflineRegionExportCallback //
+
+void OfflineRegion::OfflineRegionExportCallback::onError(
+    jni::JNIEnv& env,
+    const jni::Object<OfflineRegion::OfflineRegionExportCallback>& callback,
+    std::exception_ptr error) {
+    static auto& javaClass = jni::Class<OfflineRegion::OfflineRegionExportCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void(jni::String)>(env, "onError");
+    callback.Call(env, method, jni::Make<jni::String>(env, mbgl::util::toString(error)));
+}
+
+void OfflineRegion::OfflineRegionExportCallback::onExport(
+    jni::JNIEnv& env, const jni::Object<OfflineRegion::OfflineRegionExportCallback>& callback) {
+    static auto& javaClass = jni::Class<OfflineRegion::OfflineRegionExportCallback>::Singleton(env);
+    static auto method = javaClass.GetMethod<void()>(env, "onExport");
+    callback.Call(env, method);
+}
+
 } // namespace android
 } // namespace mbgl
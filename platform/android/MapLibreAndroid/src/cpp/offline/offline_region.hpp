@@ -58,6 +58,18 @@ public:
         static void onInvalidate(jni::JNIEnv&, const jni::Object<OfflineRegionInvalidateCallback>&);
     };
 
+    class OfflineRegionExportCallback {
+    public:
+        static constexpr auto Name() {
+            return "org/maplibre/android/offline/"
+                   "OfflineRegion$OfflineRegionExportCallback";
+        };
+
+        static void onError(jni::JNIEnv&, const jni::Object<OfflineRegionExportCallback>&, std::exception_ptr);
+
+        static void onExport(jni::JNIEnv&, const jni::Object<OfflineRegionExportCallback>&);
+    };
+
     class OfflineRegionUpdateMetadataCallback {
     public:
         static constexpr auto Name() {
@@ -82,12 +94,19 @@ public:
 
     void setOfflineRegionDownloadState(jni::JNIEnv&, jni::jint);
 
+    void refreshOfflineRegion(jni::JNIEnv&);
+
     void getOfflineRegionStatus(jni::JNIEnv&, const jni::Object<OfflineRegion::OfflineRegionStatusCallback>&);
 
     void deleteOfflineRegion(jni::JNIEnv&, const jni::Object<OfflineRegionDeleteCallback>&);
 
     void invalidateOfflineRegion(jni::JNIEnv&, const jni::Object<OfflineRegionInvalidateCallback>&);
 
+    void exportOfflineRegion(jni::JNIEnv&,
+                             const jni::String&,
+                             const jni::String&,
+                             const jni::Object<OfflineRegionExportCallback>&);
+
     void updateOfflineRegionMetadata(jni::JNIEnv&,
                                      const jni::Array<jni::jbyte>&,
                                      const jni::Object<OfflineRegionUpdateMetadataCallback>&);
@@ -0,0 +1,23 @@
+#include "offline_region_estimate.hpp"
+
+namespace mbgl {
+namespace android {
+
+jni::Local<jni::Object<OfflineRegionEstimate>> OfflineRegionEstimate::New(
+    jni::JNIEnv& env, const mbgl::OfflineRegionEstimate& estimate) {
+    static auto& javaClass = jni::Class<OfflineRegionEstimate>::Singleton(env);
+    static auto constructor = javaClass.GetConstructor<jlong, jlong, jlong, jboolean>(env);
+    return javaClass.New(env,
+                         constructor,
+                         jlong(estimate.tileCount),
+                         jlong(estimate.tileSize),
+                         jlong(estimate.unsizedTileCount),
+                         jboolean(estimate.includesAllSources));
+}
+
+void OfflineRegionEstimate::registerNative(jni::JNIEnv& env) {
+    jni::Class<OfflineRegionEstimate>::Singleton(env);
+}
+
+} // namespace android
+} // namespace mbgl
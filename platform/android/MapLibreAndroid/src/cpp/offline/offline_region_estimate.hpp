@@ -0,0 +1,19 @@
+#pragma once
+
+#include <mbgl/storage/offline.hpp>
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+
+class OfflineRegionEstimate {
+public:
+    static constexpr auto Name() { return "org/maplibre/android/offline/OfflineRegionEstimate"; };
+
+    static jni::Local<jni::Object<OfflineRegionEstimate>> New(jni::JNIEnv&, const mbgl::OfflineRegionEstimate& estimate);
+
+    static void registerNative(jni::JNIEnv&);
+};
+
+} // namespace android
+} // namespace mbgl
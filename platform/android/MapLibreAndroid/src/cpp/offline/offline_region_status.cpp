@@ -18,7 +18,9 @@ jni::Local<jni::Object<OfflineRegionStatus>> OfflineRegionStatus::New(jni::JNIEn
 
     // Create java object
     static auto& javaClass = jni::Class<OfflineRegionStatus>::Singleton(env);
-    static auto constructor = javaClass.GetConstructor<jint, jlong, jlong, jlong, jlong, jlong, jboolean>(env);
+    static auto constructor =
+        javaClass.GetConstructor<jint, jlong, jlong, jlong, jlong, jlong, jboolean, jdouble, jdouble, jlong, jlong>(
+            env);
     return javaClass.New(env,
                          constructor,
                          downloadState,
@@ -27,7 +29,11 @@ jni::Local<jni::Object<OfflineRegionStatus>> OfflineRegionStatus::New(jni::JNIEn
                          jlong(status.completedTileCount),
                          jlong(status.completedTileSize),
                          jlong(status.requiredResourceCount),
-                         jboolean(status.requiredResourceCountIsPrecise));
+                         jboolean(status.requiredResourceCountIsPrecise),
+                         jdouble(status.downloadedBytesPerSecond),
+                         jdouble(status.downloadedTilesPerSecond),
+                         jlong(status.unchangedResourceCount),
+                         jlong(status.unchangedResourceSize));
 }
 
 void OfflineRegionStatus::registerNative(jni::JNIEnv& env) {
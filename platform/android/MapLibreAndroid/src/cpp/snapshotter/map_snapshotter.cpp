@@ -289,10 +289,13 @@ void MapSnapshotter::addImages(JNIEnv& env, const jni::Array<jni::Object<mbgl::a
     jni::NullCheck(env, &jimages);
     std::size_t len = jimages.Length(env);
 
+    std::vector<std::unique_ptr<mbgl::style::Image>> images;
+    images.reserve(len);
     for (std::size_t i = 0; i < len; ++i) {
-        auto image = mbgl::android::Image::getImage(env, jimages.Get(env, i));
-        snapshotter->getStyle().addImage(std::make_unique<mbgl::style::Image>(image));
+        images.push_back(
+            std::make_unique<mbgl::style::Image>(mbgl::android::Image::getImage(env, jimages.Get(env, i))));
     }
+    snapshotter->getStyle().addImages(std::move(images));
 }
 
 jni::Local<jni::Object<Layer>> MapSnapshotter::getLayer(JNIEnv& env, const jni::String& layerId) {
@@ -169,6 +169,18 @@ jni::Local<jni::Array<jni::Object<geojson::Feature>>> CustomGeometrySource::quer
     return Feature::convert(env, features);
 }
 
+jni::Local<jni::Object<geojson::FeatureColumns>> CustomGeometrySource::querySourceFeatureColumns(
+    jni::JNIEnv& env, const jni::Array<jni::Object<>>& jfilter, const jni::Array<jni::String>& propertyNames) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::vector<mbgl::Feature> features;
+    if (rendererFrontend) {
+        features = rendererFrontend->querySourceFeatures(source.getID(), {{}, toFilter(env, jfilter)});
+    }
+    return FeatureColumns::New(env, features, toVector(env, propertyNames));
+}
+
 jni::Local<jni::Object<Source>> CustomGeometrySource::createJavaPeer(jni::JNIEnv& env) {
     static auto& javaClass = jni::Class<CustomGeometrySource>::Singleton(env);
     static auto constructor = javaClass.GetConstructor<jni::jlong>(env);
@@ -206,6 +218,7 @@ void CustomGeometrySource::registerNative(jni::JNIEnv& env) {
         "initialize",
         "finalize",
         METHOD(&CustomGeometrySource::querySourceFeatures, "querySourceFeatures"),
+        METHOD(&CustomGeometrySource::querySourceFeatureColumns, "nativeQuerySourceFeatureColumns"),
         METHOD(&CustomGeometrySource::setTileData, "nativeSetTileData"),
         METHOD(&CustomGeometrySource::invalidateTile, "nativeInvalidateTile"),
         METHOD(&CustomGeometrySource::invalidateBounds, "nativeInvalidateBounds"));
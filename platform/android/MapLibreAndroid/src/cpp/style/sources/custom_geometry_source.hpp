@@ -7,6 +7,7 @@
 #include "../../geojson/geometry.hpp"
 #include "../../geojson/feature.hpp"
 #include "../../geojson/feature_collection.hpp"
+#include "../../geojson/feature_columns.hpp"
 #include "../../geometry/lat_lng_bounds.hpp"
 #include <jni/jni.hpp>
 
@@ -42,6 +43,9 @@ private:
 
     jni::Local<jni::Array<jni::Object<geojson::Feature>>> querySourceFeatures(jni::JNIEnv&,
                                                                               const jni::Array<jni::Object<>>&);
+    jni::Local<jni::Object<geojson::FeatureColumns>> querySourceFeatureColumns(jni::JNIEnv&,
+                                                                              const jni::Array<jni::Object<>>&,
+                                                                              const jni::Array<jni::String>&);
 
     jni::Local<jni::Object<Source>> createJavaPeer(jni::JNIEnv&);
 
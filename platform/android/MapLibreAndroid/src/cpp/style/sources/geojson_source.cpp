@@ -17,6 +17,7 @@
 #include "../../geojson/feature.hpp"
 #include "../conversion/url_or_tileset.hpp"
 
+#include <atomic>
 #include <string>
 
 // GeoJSONSource uses a "coalescing" model for high frequency asynchronous data
@@ -106,6 +107,105 @@ void GeoJSONSource::setGeometrySync(jni::JNIEnv& env, const jni::Object<geojson:
     setCollectionSync(env, jGeometry);
 }
 
+void GeoJSONSource::setPointFeature(jni::JNIEnv& env,
+                                    jni::jdouble longitude,
+                                    jni::jdouble latitude,
+                                    const jni::Array<jni::String>& keys,
+                                    const jni::Array<jni::jbyte>& types,
+                                    const jni::Array<jni::jdouble>& numbers,
+                                    const jni::Array<jni::String>& strings,
+                                    jni::jint count,
+                                    jni::jint layoutVersion,
+                                    jni::jboolean synchronous) {
+    // Property types of MutablePointFeature
+    constexpr jni::jbyte typeNumber = 0;
+    constexpr jni::jbyte typeBoolean = 1;
+    constexpr jni::jbyte typeString = 2;
+    constexpr jni::jbyte typeNumberPair = 3;
+
+    const auto size = static_cast<std::size_t>(count);
+    PointFeatureBuffer& buffer = getPointFeatureBuffer();
+    auto& feature = buffer.geoJSON->get<mbgl::GeoJSONFeature>();
+    if (layoutVersion != buffer.layoutVersion || buffer.values.size() != size) {
+        // Keys, types or string values changed, rebuild the properties
+        buffer.types.resize(size);
+        jni::GetArrayRegion(env, *types, 0, size, buffer.types.data());
+
+        feature.properties.clear();
+        buffer.values.clear();
+        for (std::size_t i = 0; i < size; i++) {
+            mbgl::Value& value = feature.properties[jni::Make<std::string>(env, keys.Get(env, i))];
+            switch (buffer.types[i]) {
+                case typeString: {
+                    auto string = strings.Get(env, i);
+                    if (string) {
+                        value = jni::Make<std::string>(env, string);
+                    }
+                    break;
+                }
+                case typeNumberPair:
+                    value = std::vector<mbgl::Value>{0.0, 0.0};
+                    break;
+                default:
+                    break;
+            }
+            buffer.values.push_back(&value);
+        }
+        buffer.layoutVersion = layoutVersion;
+    }
+
+    // Numbers change on every update and are written into the cached values
+    pointFeatureNumbers.resize(2 * size);
+    jni::GetArrayRegion(env, *numbers, 0, 2 * size, pointFeatureNumbers.data());
+    feature.geometry = mbgl::Point<double>(longitude, latitude);
+    for (std::size_t i = 0; i < size; i++) {
+        mbgl::Value& value = *buffer.values[i];
+        switch (buffer.types[i]) {
+            case typeNumber:
+                value = pointFeatureNumbers[2 * i];
+                break;
+            case typeBoolean:
+                value = pointFeatureNumbers[2 * i] != 0;
+                break;
+            case typeNumberPair: {
+                auto& pair = value.get<std::vector<mbgl::Value>>();
+                pair[0] = pointFeatureNumbers[2 * i];
+                pair[1] = pointFeatureNumbers[2 * i + 1];
+                break;
+            }
+            default:
+                break;
+        }
+    }
+
+    // The update holds the feature until it's converted, only the index is created there
+    std::shared_ptr<GeoJSON> geoJSON = buffer.geoJSON;
+    ActorRef<FeatureConverter> converterRef = converter->self();
+    Update::Converter converterFn = [converterRef, geoJSON, synchronous](ActorRef<GeoJSONDataCallback> _callback) {
+        if (synchronous) {
+            converterRef.ask(&FeatureConverter::convertGeoJSON, geoJSON, _callback).wait();
+        } else {
+            converterRef.invoke(&FeatureConverter::convertGeoJSON, geoJSON, _callback);
+        }
+    };
+
+    setAsync(converterFn);
+}
+
+GeoJSONSource::PointFeatureBuffer& GeoJSONSource::getPointFeatureBuffer() {
+    for (auto& buffer : pointFeatureBuffers) {
+        if (buffer.geoJSON.use_count() == 1) {
+            // Released by the converter thread, make its reads happen before the writes to the feature
+            std::atomic_thread_fence(std::memory_order_acquire);
+            return buffer;
+        }
+    }
+
+    auto& buffer = pointFeatureBuffers.emplace_back();
+    buffer.geoJSON = std::make_shared<GeoJSON>(mbgl::GeoJSONFeature{});
+    return buffer;
+}
+
 void GeoJSONSource::setURL(jni::JNIEnv& env, const jni::String& url) {
     // Update the core source
     source.as<style::GeoJSONSource>()->setURL(jni::Make<std::string>(env, url));
@@ -128,6 +228,18 @@ jni::Local<jni::Array<jni::Object<geojson::Feature>>> GeoJSONSource::querySource
     return Feature::convert(env, features);
 }
 
+jni::Local<jni::Object<geojson::FeatureColumns>> GeoJSONSource::querySourceFeatureColumns(
+    jni::JNIEnv& env, const jni::Array<jni::Object<>>& jfilter, const jni::Array<jni::String>& propertyNames) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    std::vector<mbgl::Feature> features;
+    if (rendererFrontend) {
+        features = rendererFrontend->querySourceFeatures(source.getID(), {{}, toFilter(env, jfilter)});
+    }
+    return FeatureColumns::New(env, features, toVector(env, propertyNames));
+}
+
 jni::Local<jni::Array<jni::Object<geojson::Feature>>> GeoJSONSource::getClusterChildren(
     jni::JNIEnv& env, const jni::Object<geojson::Feature>& feature) {
     using namespace mbgl::android::conversion;
@@ -165,6 +277,30 @@ jni::Local<jni::Array<jni::Object<geojson::Feature>>> GeoJSONSource::getClusterL
     ;
 }
 
+jni::Local<jni::Object<geojson::FeatureColumns>> GeoJSONSource::getClusterLeafColumns(
+    jni::JNIEnv& env,
+    const jni::Object<geojson::Feature>& feature,
+    jni::jlong limit,
+    jni::jlong offset,
+    const jni::Array<jni::String>& propertyNames) {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    if (rendererFrontend) {
+        mbgl::Feature _feature = Feature::convert(env, feature);
+        _feature.properties["cluster_id"] = static_cast<uint64_t>(_feature.properties["cluster_id"].get<double>());
+        const std::map<std::string, mbgl::Value> options = {{"limit", static_cast<uint64_t>(limit)},
+                                                            {"offset", static_cast<uint64_t>(offset)}};
+        auto featureExtension = rendererFrontend->queryFeatureExtensions(
+            source.getID(), _feature, "supercluster", "leaves", options);
+        if (featureExtension.is<mbgl::FeatureCollection>()) {
+            return FeatureColumns::New(
+                env, featureExtension.get<mbgl::FeatureCollection>(), toVector(env, propertyNames));
+        }
+    }
+    return FeatureColumns::New(env, std::vector<mbgl::GeoJSONFeature>{}, toVector(env, propertyNames));
+}
+
 jint GeoJSONSource::getClusterExpansionZoom(jni::JNIEnv& env, const jni::Object<geojson::Feature>& feature) {
     using namespace mbgl::android::conversion;
     using namespace mbgl::android::geojson;
@@ -272,11 +408,14 @@ void GeoJSONSource::registerNative(jni::JNIEnv& env) {
         METHOD(&GeoJSONSource::setFeatureCollectionSync, "nativeSetFeatureCollectionSync"),
         METHOD(&GeoJSONSource::setFeatureSync, "nativeSetFeatureSync"),
         METHOD(&GeoJSONSource::setGeometrySync, "nativeSetGeometrySync"),
+        METHOD(&GeoJSONSource::setPointFeature, "nativeSetPointFeature"),
         METHOD(&GeoJSONSource::setURL, "nativeSetUrl"),
         METHOD(&GeoJSONSource::getURL, "nativeGetUrl"),
         METHOD(&GeoJSONSource::querySourceFeatures, "querySourceFeatures"),
+        METHOD(&GeoJSONSource::querySourceFeatureColumns, "nativeQuerySourceFeatureColumns"),
         METHOD(&GeoJSONSource::getClusterChildren, "nativeGetClusterChildren"),
         METHOD(&GeoJSONSource::getClusterLeaves, "nativeGetClusterLeaves"),
+        METHOD(&GeoJSONSource::getClusterLeafColumns, "nativeGetClusterLeafColumns"),
         METHOD(&GeoJSONSource::getClusterExpansionZoom, "nativeGetClusterExpansionZoom"),
         METHOD(&GeoJSONSource::isUpdateSynchronous, "nativeIsUpdateSynchronous"));
 }
@@ -297,6 +436,11 @@ void FeatureConverter::convertJson(std::shared_ptr<std::string> json, ActorRef<G
                     style::GeoJSONData::create(*converted, sequencedScheduler, options));
 }
 
+void FeatureConverter::convertGeoJSON(std::shared_ptr<GeoJSON> geoJSON, ActorRef<GeoJSONDataCallback> callback) {
+    callback.invoke(&GeoJSONDataCallback::operator(),
+                    style::GeoJSONData::create(*geoJSON, sequencedScheduler, options));
+}
+
 template <class JNIType>
 void FeatureConverter::convertObject(
     std::shared_ptr<jni::Global<jni::Object<JNIType>, jni::EnvAttachingDeleter>> jObject,
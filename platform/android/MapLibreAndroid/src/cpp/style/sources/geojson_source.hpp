@@ -5,6 +5,7 @@
 #include "../../geojson/geometry.hpp"
 #include "../../geojson/feature.hpp"
 #include "../../geojson/feature_collection.hpp"
+#include "../../geojson/feature_columns.hpp"
 #include "../../android_renderer_frontend.hpp"
 #include <jni/jni.hpp>
 
@@ -20,6 +21,8 @@ public:
           sequencedScheduler(Scheduler::GetSequenced()) {}
     void convertJson(std::shared_ptr<std::string>, ActorRef<GeoJSONDataCallback>);
 
+    void convertGeoJSON(std::shared_ptr<GeoJSON>, ActorRef<GeoJSONDataCallback>);
+
     template <class JNIType>
     void convertObject(std::shared_ptr<jni::Global<jni::Object<JNIType>, jni::EnvAttachingDeleter>>,
                        ActorRef<GeoJSONDataCallback>);
@@ -60,10 +63,24 @@ private:
     void setFeatureSync(jni::JNIEnv&, const jni::Object<geojson::Feature>&);
     void setGeometrySync(jni::JNIEnv&, const jni::Object<geojson::Geometry>&);
 
+    void setPointFeature(jni::JNIEnv&,
+                         jni::jdouble,
+                         jni::jdouble,
+                         const jni::Array<jni::String>&,
+                         const jni::Array<jni::jbyte>&,
+                         const jni::Array<jni::jdouble>&,
+                         const jni::Array<jni::String>&,
+                         jni::jint,
+                         jni::jint,
+                         jni::jboolean);
+
     void setURL(jni::JNIEnv&, const jni::String&);
 
     jni::Local<jni::Array<jni::Object<geojson::Feature>>> querySourceFeatures(jni::JNIEnv&,
                                                                               const jni::Array<jni::Object<>>&);
+    jni::Local<jni::Object<geojson::FeatureColumns>> querySourceFeatureColumns(jni::JNIEnv&,
+                                                                              const jni::Array<jni::Object<>>&,
+                                                                              const jni::Array<jni::String>&);
 
     jni::Local<jni::Array<jni::Object<geojson::Feature>>> getClusterChildren(jni::JNIEnv&,
                                                                              const jni::Object<geojson::Feature>&);
@@ -71,6 +88,11 @@ private:
                                                                            const jni::Object<geojson::Feature>&,
                                                                            jni::jlong,
                                                                            jni::jlong);
+    jni::Local<jni::Object<geojson::FeatureColumns>> getClusterLeafColumns(jni::JNIEnv&,
+                                                                          const jni::Object<geojson::Feature>&,
+                                                                          jni::jlong,
+                                                                          jni::jlong,
+                                                                          const jni::Array<jni::String>&);
     jint getClusterExpansionZoom(jni::JNIEnv&, const jni::Object<geojson::Feature>&);
 
     jni::Local<jni::String> getURL(jni::JNIEnv&);
@@ -81,6 +103,22 @@ private:
     std::shared_ptr<ThreadPool> threadPool;
     std::unique_ptr<Actor<FeatureConverter>> converter;
 
+    // A feature set by setPointFeature(), its keys and string values are only
+    // read again when the layout version of the Java feature changes.
+    struct PointFeatureBuffer {
+        std::shared_ptr<GeoJSON> geoJSON;
+        std::vector<mbgl::Value*> values;
+        std::vector<jni::jbyte> types;
+        jni::jint layoutVersion = -1;
+    };
+
+    // A buffer is reused once no pending update holds its feature anymore,
+    // a few of them cover the update being converted and the one waiting.
+    std::vector<PointFeatureBuffer> pointFeatureBuffers;
+    std::vector<jni::jdouble> pointFeatureNumbers;
+
+    PointFeatureBuffer& getPointFeatureBuffer();
+
     template <class JNIType>
     void setCollectionAsync(jni::JNIEnv&, const jni::Object<JNIType>&);
 
@@ -241,6 +241,7 @@ public class MapLibreConstants {
   public static final String STATE_SCALE_ANIMATION_ENABLED = "maplibre_scaleAnimationEnabled";
   public static final String STATE_ROTATE_ANIMATION_ENABLED = "maplibre_rotateAnimationEnabled";
   public static final String STATE_FLING_ANIMATION_ENABLED = "maplibre_flingAnimationEnabled";
+  public static final String STATE_NATIVE_GESTURE_ANIMATIONS_ENABLED = "maplibre_nativeGestureAnimationsEnabled";
   public static final String STATE_INCREASE_ROTATE_THRESHOLD = "maplibre_increaseRotateThreshold";
   public static final String STATE_DISABLE_ROTATE_WHEN_SCALING = "maplibre_disableRotateWhenScaling";
   public static final String STATE_INCREASE_SCALE_THRESHOLD = "maplibre_increaseScaleThreshold";
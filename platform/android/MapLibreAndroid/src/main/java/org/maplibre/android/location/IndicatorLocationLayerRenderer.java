@@ -206,6 +206,16 @@ class IndicatorLocationLayerRenderer implements LocationLayerRenderer {
     // not supported at this time
   }
 
+  @Override
+  public void beginBatch() {
+    // each value is a separate layer property, there is nothing to coalesce
+  }
+
+  @Override
+  public void endBatch() {
+    // each value is a separate layer property, there is nothing to coalesce
+  }
+
   private void setImages(@RenderMode.Mode int renderMode, boolean isStale) {
     String topImage = "";
     String bearingImage = "";
@@ -3,20 +3,19 @@ package org.maplibre.android.location;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import org.maplibre.geojson.Feature;
-import org.maplibre.geojson.Point;
+import org.maplibre.android.style.sources.MutablePointFeature;
 
 class LayerFeatureProvider {
 
   @NonNull
-  Feature generateLocationFeature(@Nullable Feature locationFeature, boolean isStale) {
+  MutablePointFeature generateLocationFeature(@Nullable MutablePointFeature locationFeature, boolean isStale) {
     if (locationFeature != null) {
       return locationFeature;
     }
-    locationFeature = Feature.fromGeometry(Point.fromLngLat(0.0, 0.0));
-    locationFeature.addNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, 0f);
-    locationFeature.addNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, 0f);
-    locationFeature.addBooleanProperty(LocationComponentConstants.PROPERTY_LOCATION_STALE, isStale);
+    locationFeature = new MutablePointFeature();
+    locationFeature.setNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, 0);
+    locationFeature.setNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, 0);
+    locationFeature.setBooleanProperty(LocationComponentConstants.PROPERTY_LOCATION_STALE, isStale);
     return locationFeature;
   }
 }
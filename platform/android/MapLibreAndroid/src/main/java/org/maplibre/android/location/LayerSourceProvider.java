@@ -2,8 +2,6 @@ package org.maplibre.android.location;
 
 import androidx.annotation.NonNull;
 
-import org.maplibre.geojson.Feature;
-
 import org.maplibre.android.style.expressions.Expression;
 import org.maplibre.android.style.layers.CircleLayer;
 import org.maplibre.android.style.layers.Layer;
@@ -13,6 +11,7 @@ import org.maplibre.android.style.layers.SymbolLayer;
 import org.maplibre.android.style.layers.TransitionOptions;
 import org.maplibre.android.style.sources.GeoJsonOptions;
 import org.maplibre.android.style.sources.GeoJsonSource;
+import org.maplibre.android.style.sources.MutablePointFeature;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -22,17 +21,18 @@ class LayerSourceProvider {
   private static final String EMPTY_STRING = "";
 
   @NonNull
-  GeoJsonSource generateSource(Feature locationFeature) {
+  GeoJsonSource generateSource(MutablePointFeature locationFeature) {
     return generateSource(locationFeature, false);
   }
 
   @NonNull
-  GeoJsonSource generateSource(Feature locationFeature, Boolean synchronousUpdate) {
-    return new GeoJsonSource(
+  GeoJsonSource generateSource(MutablePointFeature locationFeature, Boolean synchronousUpdate) {
+    GeoJsonSource source = new GeoJsonSource(
       LocationComponentConstants.LOCATION_SOURCE,
-      locationFeature,
       new GeoJsonOptions().withMaxZoom(16).withSynchronousUpdate(synchronousUpdate)
     );
+    source.setGeoJson(locationFeature);
+    return source;
   }
 
   @NonNull
@@ -1,9 +1,11 @@
 package org.maplibre.android.location;
 
 import android.animation.Animator;
+import android.animation.ValueAnimator;
 import android.location.Location;
 import android.os.SystemClock;
 import android.util.SparseArray;
+import android.view.Choreographer;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.LinearInterpolator;
 
@@ -63,6 +65,13 @@ final class LocationAnimatorCoordinator {
   @VisibleForTesting
   int maxAnimationFps = Integer.MAX_VALUE;
 
+  @VisibleForTesting
+  @Nullable
+  LocationAnimatorTicker ticker;
+  private boolean batchedAnimationsEnabled;
+  @Nullable
+  private LocationAnimatorTicker.OnFrameListener frameListener;
+
   @VisibleForTesting
   final SparseArray<MapLibreAnimator.AnimationsValueChangeListener> listeners = new SparseArray<>();
 
@@ -398,7 +407,11 @@ final class LocationAnimatorCoordinator {
         animators.add(animator);
       }
     }
-    animatorSetProvider.startAnimation(animators, new LinearInterpolator(), duration);
+    if (batchedAnimationsEnabled) {
+      ticker.startAnimation(animators, new LinearInterpolator(), duration);
+    } else {
+      animatorSetProvider.startAnimation(animators, new LinearInterpolator(), duration);
+    }
   }
 
   /**
@@ -407,8 +420,13 @@ final class LocationAnimatorCoordinator {
    * customizable animation parameters than the other {@link MapLibreAnimator}s.
    */
   private void playPulsingAnimator() {
-    Animator animator = animatorArray.get(ANIMATOR_PULSING_CIRCLE);
-    if (animator != null) {
+    ValueAnimator animator = animatorArray.get(ANIMATOR_PULSING_CIRCLE);
+    if (animator == null) {
+      return;
+    }
+    if (batchedAnimationsEnabled) {
+      ticker.startAnimation(animator);
+    } else {
       animator.start();
     }
   }
@@ -541,6 +559,9 @@ final class LocationAnimatorCoordinator {
     MapLibreAnimator animator = animatorArray.get(animatorType);
     if (animator != null) {
       animator.cancel();
+      if (ticker != null) {
+        ticker.cancel(animator);
+      }
       animator.removeAllUpdateListeners();
       animator.removeAllListeners();
     }
@@ -565,4 +586,27 @@ final class LocationAnimatorCoordinator {
     }
     this.maxAnimationFps = maxAnimationFps;
   }
+
+  /**
+   * Sets whether animations are evaluated by a single {@link LocationAnimatorTicker} each frame,
+   * instead of each animator ticking on its own. Animations that are running keep their current driver.
+   */
+  void setBatchedAnimationsEnabled(boolean enabled) {
+    if (enabled && ticker == null) {
+      ticker = new LocationAnimatorTicker(Choreographer.getInstance());
+      ticker.setOnFrameListener(frameListener);
+    }
+    batchedAnimationsEnabled = enabled;
+  }
+
+  boolean isBatchedAnimationsEnabled() {
+    return batchedAnimationsEnabled;
+  }
+
+  void setOnFrameListener(@Nullable LocationAnimatorTicker.OnFrameListener frameListener) {
+    this.frameListener = frameListener;
+    if (ticker != null) {
+      ticker.setOnFrameListener(frameListener);
+    }
+  }
 }
@@ -0,0 +1,190 @@
+package org.maplibre.android.location;
+
+import android.animation.Animator;
+import android.animation.ValueAnimator;
+import android.view.Choreographer;
+import android.view.animation.Interpolator;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.VisibleForTesting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the location animators from a single frame callback.
+ * <p>
+ * Instead of each animator ticking on its own, every frame evaluates all active animators in one pass.
+ * The pass is wrapped in {@link OnFrameListener#onFrameStarted()} and {@link OnFrameListener#onFrameFinished()},
+ * which lets the layer and camera apply all values of a frame with a single update each.
+ * </p>
+ */
+final class LocationAnimatorTicker implements Choreographer.FrameCallback {
+
+  interface OnFrameListener {
+    void onFrameStarted();
+
+    void onFrameFinished();
+  }
+
+  private final Choreographer choreographer;
+  private final List<Entry> entries = new ArrayList<>();
+  private final List<ValueAnimator> finished = new ArrayList<>();
+
+  @Nullable
+  private OnFrameListener frameListener;
+  private boolean scheduled;
+
+  LocationAnimatorTicker(@NonNull Choreographer choreographer) {
+    this.choreographer = choreographer;
+  }
+
+  void setOnFrameListener(@Nullable OnFrameListener frameListener) {
+    this.frameListener = frameListener;
+  }
+
+  /**
+   * Starts animators together, like an {@link android.animation.AnimatorSet} would.
+   */
+  void startAnimation(@NonNull List<Animator> animators, @NonNull Interpolator interpolator, long duration) {
+    for (Animator animator : animators) {
+      animator.setInterpolator(interpolator);
+      animator.setDuration(duration);
+      startAnimation((ValueAnimator) animator);
+    }
+  }
+
+  /**
+   * Starts an animator with its own duration, interpolator and repetition.
+   */
+  void startAnimation(@NonNull ValueAnimator animator) {
+    remove(animator);
+    entries.add(new Entry(animator));
+    List<Animator.AnimatorListener> listeners = copyListeners(animator);
+    for (Animator.AnimatorListener listener : listeners) {
+      listener.onAnimationStart(animator);
+    }
+    schedule();
+  }
+
+  void cancel(@NonNull Animator animator) {
+    if (remove(animator)) {
+      notifyEnd(animator, true);
+    }
+    if (entries.isEmpty() && scheduled) {
+      choreographer.removeFrameCallback(this);
+      scheduled = false;
+    }
+  }
+
+  boolean isRunning(@NonNull Animator animator) {
+    return indexOf(animator) >= 0;
+  }
+
+  @Override
+  public void doFrame(long frameTimeNanos) {
+    scheduled = false;
+    if (frameListener != null) {
+      frameListener.onFrameStarted();
+    }
+
+    for (int i = 0; i < entries.size(); i++) {
+      Entry entry = entries.get(i);
+      if (entry.startTimeNanos < 0) {
+        // animations start with the first frame after they were started
+        entry.startTimeNanos = frameTimeNanos;
+      }
+
+      ValueAnimator animator = entry.animator;
+      long playTime = TimeUnit.NANOSECONDS.toMillis(frameTimeNanos - entry.startTimeNanos);
+      long totalDuration = getTotalDuration(animator);
+      if (totalDuration != ValueAnimator.DURATION_INFINITE && playTime >= totalDuration) {
+        animator.setCurrentPlayTime(totalDuration);
+        finished.add(animator);
+      } else {
+        animator.setCurrentPlayTime(playTime);
+      }
+    }
+
+    // end callbacks post the final values and may start new animations, which tick from the next frame
+    for (int i = 0; i < finished.size(); i++) {
+      ValueAnimator animator = finished.get(i);
+      if (remove(animator)) {
+        notifyEnd(animator, false);
+      }
+    }
+    finished.clear();
+
+    if (frameListener != null) {
+      frameListener.onFrameFinished();
+    }
+
+    if (!entries.isEmpty()) {
+      schedule();
+    }
+  }
+
+  private void schedule() {
+    if (!scheduled) {
+      choreographer.postFrameCallback(this);
+      scheduled = true;
+    }
+  }
+
+  private int indexOf(@NonNull Animator animator) {
+    for (int i = 0; i < entries.size(); i++) {
+      if (entries.get(i).animator == animator) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private boolean remove(@NonNull Animator animator) {
+    int index = indexOf(animator);
+    if (index < 0) {
+      return false;
+    }
+    entries.remove(index);
+    return true;
+  }
+
+  @VisibleForTesting
+  static long getTotalDuration(@NonNull ValueAnimator animator) {
+    int repeatCount = animator.getRepeatCount();
+    if (repeatCount == ValueAnimator.INFINITE) {
+      return ValueAnimator.DURATION_INFINITE;
+    }
+    return animator.getDuration() * (repeatCount + 1);
+  }
+
+  private static void notifyEnd(@NonNull Animator animator, boolean canceled) {
+    List<Animator.AnimatorListener> listeners = copyListeners(animator);
+    if (canceled) {
+      for (Animator.AnimatorListener listener : listeners) {
+        listener.onAnimationCancel(animator);
+      }
+    }
+    for (Animator.AnimatorListener listener : listeners) {
+      listener.onAnimationEnd(animator);
+    }
+  }
+
+  @NonNull
+  private static List<Animator.AnimatorListener> copyListeners(@NonNull Animator animator) {
+    // copied, listeners may remove themselves when notified
+    List<Animator.AnimatorListener> listeners = animator.getListeners();
+    return listeners != null ? new ArrayList<>(listeners) : new ArrayList<Animator.AnimatorListener>();
+  }
+
+  private static final class Entry {
+    private final ValueAnimator animator;
+    private long startTimeNanos = -1;
+
+    Entry(ValueAnimator animator) {
+      this.animator = animator;
+    }
+  }
+}
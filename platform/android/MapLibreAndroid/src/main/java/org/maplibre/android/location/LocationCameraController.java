@@ -49,6 +49,18 @@ final class LocationCameraController {
 
   private boolean concurrentAnimations;
 
+  // Camera values of the current animation frame, unchanged values are null or -1
+  private boolean batchOpen;
+  private boolean batchChanged;
+  private boolean batchCancelsTransitions;
+  @Nullable
+  private LatLng batchTarget;
+  private double batchBearing = -1;
+  private double batchZoom = -1;
+  private double batchTilt = -1;
+  @Nullable
+  private double[] batchPadding;
+
   LocationCameraController(
     Context context,
     MapLibreMap maplibreMap,
@@ -207,6 +219,11 @@ final class LocationCameraController {
     }
 
     boolean shouldCancelTransitions = !(options.concurrentCameraAnimation() && isLocationTracking());
+    if (batchOpen) {
+      batchBearing = bearing;
+      addToBatch(shouldCancelTransitions);
+      return;
+    }
     transform.moveCamera(maplibreMap, CameraUpdateFactory.bearingTo(bearing), shouldCancelTransitions, null);
     onCameraMoveInvalidateListener.onInvalidateCameraMove();
   }
@@ -218,6 +235,11 @@ final class LocationCameraController {
 
     lastLocation = latLng;
     boolean shouldCancelTransitions = !(options.concurrentCameraAnimation() && isLocationTracking());
+    if (batchOpen) {
+      batchTarget = latLng;
+      addToBatch(shouldCancelTransitions);
+      return;
+    }
     transform.moveCamera(maplibreMap, CameraUpdateFactory.newLatLng(latLng), shouldCancelTransitions, null);
     onCameraMoveInvalidateListener.onInvalidateCameraMove();
   }
@@ -228,6 +250,11 @@ final class LocationCameraController {
     }
 
     boolean shouldCancelTransitions = !(options.concurrentCameraAnimation() && isLocationTracking());
+    if (batchOpen) {
+      batchZoom = zoom;
+      addToBatch(shouldCancelTransitions);
+      return;
+    }
     transform.moveCamera(maplibreMap, CameraUpdateFactory.zoomTo(zoom), shouldCancelTransitions, null);
     onCameraMoveInvalidateListener.onInvalidateCameraMove();
   }
@@ -237,7 +264,11 @@ final class LocationCameraController {
       return;
     }
 
-    boolean shouldCancelTransitions = !(options.concurrentCameraAnimation() && isLocationTracking());
+    if (batchOpen) {
+      batchPadding = padding;
+      addToBatch(true);
+      return;
+    }
     transform.moveCamera(maplibreMap, CameraUpdateFactory.paddingTo(padding), true, null);
     onCameraMoveInvalidateListener.onInvalidateCameraMove();
   }
@@ -248,10 +279,53 @@ final class LocationCameraController {
     }
 
     boolean shouldCancelTransitions = !(options.concurrentCameraAnimation() && isLocationTracking());
+    if (batchOpen) {
+      batchTilt = tilt;
+      addToBatch(shouldCancelTransitions);
+      return;
+    }
     transform.moveCamera(maplibreMap, CameraUpdateFactory.tiltTo(tilt), shouldCancelTransitions, null);
     onCameraMoveInvalidateListener.onInvalidateCameraMove();
   }
 
+  /**
+   * Starts collecting the camera values of an animation frame, which are applied by {@link #endBatch()}
+   * with a single camera update.
+   */
+  void beginBatch() {
+    batchOpen = true;
+  }
+
+  void endBatch() {
+    batchOpen = false;
+    if (!batchChanged) {
+      return;
+    }
+
+    // built directly, CameraPosition.Builder would normalize the unchanged values
+    CameraUpdate update = new CameraUpdateFactory.CameraPositionUpdate(
+      batchBearing, batchTarget, -1, batchTilt, -1, -1, batchZoom, batchPadding);
+    boolean shouldCancelTransitions = batchCancelsTransitions;
+    clearBatch();
+    transform.moveCamera(maplibreMap, update, shouldCancelTransitions, null);
+    onCameraMoveInvalidateListener.onInvalidateCameraMove();
+  }
+
+  private void addToBatch(boolean shouldCancelTransitions) {
+    batchChanged = true;
+    batchCancelsTransitions |= shouldCancelTransitions;
+  }
+
+  private void clearBatch() {
+    batchChanged = false;
+    batchCancelsTransitions = false;
+    batchTarget = null;
+    batchBearing = -1;
+    batchZoom = -1;
+    batchTilt = -1;
+    batchPadding = null;
+  }
+
   private final MapLibreAnimator.AnimationsValueChangeListener<LatLng> latLngValueListener =
     new MapLibreAnimator.AnimationsValueChangeListener<LatLng>() {
       @Override
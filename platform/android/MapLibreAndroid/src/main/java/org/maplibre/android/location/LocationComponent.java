@@ -844,6 +844,36 @@ public final class LocationComponent {
     locationAnimatorCoordinator.setMaxAnimationFps(maxAnimationFps);
   }
 
+  /**
+   * Sets whether the location animations are evaluated together, once per frame.
+   * <p>
+   * By default each animation, like the position, bearings, accuracy, zoom, tilt, padding and the pulsing circle,
+   * ticks on its own and writes its value to the location layer or camera as soon as it changes. With batched
+   * animations enabled, all running animations are evaluated in a single frame callback and their values are
+   * applied with one location layer update and one camera update per frame.
+   * </p>
+   * <p>
+   * The setting applies to animations started afterwards.
+   * </p>
+   *
+   * @param enabled true to evaluate the animations together
+   */
+  public void setBatchedAnimationsEnabled(boolean enabled) {
+    checkActivationState();
+    locationAnimatorCoordinator.setBatchedAnimationsEnabled(enabled);
+  }
+
+  /**
+   * Returns whether the location animations are evaluated together, once per frame.
+   *
+   * @return true if batched animations are enabled
+   * @see #setBatchedAnimationsEnabled(boolean)
+   */
+  public boolean isBatchedAnimationsEnabled() {
+    checkActivationState();
+    return locationAnimatorCoordinator.isBatchedAnimationsEnabled();
+  }
+
   /**
    * Set the location engine to update the current user location.
    * <p>
@@ -1204,6 +1234,7 @@ public final class LocationComponent {
     );
     locationAnimatorCoordinator.setTrackingAnimationDurationMultiplier(options
       .trackingAnimationDurationMultiplier());
+    locationAnimatorCoordinator.setOnFrameListener(animationFrameListener);
 
     WindowManager windowManager = (WindowManager) context.getSystemService(Context.WINDOW_SERVICE);
     SensorManager sensorManager = (SensorManager) context.getSystemService(Context.SENSOR_SERVICE);
@@ -1501,6 +1532,22 @@ public final class LocationComponent {
     }
   };
 
+  @NonNull
+  private final LocationAnimatorTicker.OnFrameListener animationFrameListener =
+    new LocationAnimatorTicker.OnFrameListener() {
+      @Override
+      public void onFrameStarted() {
+        locationLayerController.beginBatch();
+        locationCameraController.beginBatch();
+      }
+
+      @Override
+      public void onFrameFinished() {
+        locationLayerController.endBatch();
+        locationCameraController.endBatch();
+      }
+    };
+
   @NonNull
   private CompassListener compassListener = new CompassListener() {
     @Override
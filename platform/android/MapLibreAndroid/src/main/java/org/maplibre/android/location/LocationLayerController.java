@@ -22,11 +22,12 @@ import androidx.annotation.Nullable;
 import org.maplibre.android.geometry.LatLng;
 import org.maplibre.android.location.modes.RenderMode;
 import org.maplibre.android.log.Logger;
+import org.maplibre.android.maps.HitTarget;
 import org.maplibre.android.maps.MapLibreMap;
 import org.maplibre.android.maps.Style;
 import org.maplibre.android.style.expressions.Expression;
-import org.maplibre.geojson.Feature;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -35,6 +36,9 @@ final class LocationLayerController {
 
   private static final String TAG = "Mbgl-LocationLayerController";
 
+  private static final List<HitTarget> LOCATION_HIT_TARGETS = Collections.singletonList(
+    HitTarget.layers(0, BACKGROUND_LAYER, FOREGROUND_LAYER, BEARING_LAYER));
+
   @RenderMode.Mode
   private int renderMode;
 
@@ -248,13 +252,9 @@ final class LocationLayerController {
   //
 
   boolean onMapClick(@NonNull LatLng point) {
+    // Clicks and long clicks on the same point are answered by a single query
     PointF screenLoc = maplibreMap.getProjection().toScreenLocation(point);
-    List<Feature> features = maplibreMap.queryRenderedFeatures(screenLoc,
-      BACKGROUND_LAYER,
-      FOREGROUND_LAYER,
-      BEARING_LAYER
-    );
-    return !features.isEmpty();
+    return maplibreMap.getHitTester().hitTest(screenLoc, LOCATION_HIT_TARGETS, true).hasHit();
   }
 
   private final MapLibreAnimator.AnimationsValueChangeListener<LatLng> latLngValueListener =
@@ -326,6 +326,14 @@ final class LocationLayerController {
     return holders;
   }
 
+  void beginBatch() {
+    locationLayerRenderer.beginBatch();
+  }
+
+  void endBatch() {
+    locationLayerRenderer.endBatch();
+  }
+
   void cameraBearingUpdated(double bearing) {
     if (renderMode != RenderMode.GPS) {
       locationLayerRenderer.cameraBearingUpdated(bearing);
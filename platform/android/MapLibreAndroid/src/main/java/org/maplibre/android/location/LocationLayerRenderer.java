@@ -47,6 +47,13 @@ interface LocationLayerRenderer {
   void updateIconIds(String foregroundIconString, String foregroundStaleIconString, String backgroundIconString,
                      String backgroundStaleIconString, String bearingIconString);
 
+  /**
+   * Starts collecting the values of an animation frame, which are applied together by {@link #endBatch()}.
+   */
+  void beginBatch();
+
+  void endBatch();
+
   void addBitmaps(@RenderMode.Mode int renderMode, @Nullable Bitmap shadowBitmap, Bitmap backgroundBitmap,
                   Bitmap backgroundStaleBitmap, Bitmap bearingBitmap,
                   Bitmap foregroundBitmap, Bitmap foregroundStaleBitmap);
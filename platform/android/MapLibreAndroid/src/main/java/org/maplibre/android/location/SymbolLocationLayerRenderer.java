@@ -44,11 +44,6 @@ import android.graphics.Bitmap;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import org.maplibre.geojson.Feature;
-import org.maplibre.geojson.Point;
-
 import org.maplibre.android.geometry.LatLng;
 import org.maplibre.android.location.modes.RenderMode;
 import org.maplibre.android.maps.Style;
@@ -56,23 +51,34 @@ import org.maplibre.android.style.expressions.Expression;
 import org.maplibre.android.style.layers.Layer;
 import org.maplibre.android.style.layers.SymbolLayer;
 import org.maplibre.android.style.sources.GeoJsonSource;
+import org.maplibre.android.style.sources.MutablePointFeature;
 
 import java.util.Set;
 
+/**
+ * Renders the location with symbol and circle layers of a GeoJSON source holding a single point feature.
+ * <p>
+ * The feature is updated in place, so animator ticks don't allocate once all of its properties have been added.
+ * </p>
+ */
 final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
   private Style style;
   private final LayerSourceProvider layerSourceProvider;
 
   private final Set<String> layerSet;
-  private Feature locationFeature;
+  private final MutablePointFeature locationFeature;
   private GeoJsonSource locationSource;
 
+  // While a batch is open the source is refreshed once, when the batch ends
+  private boolean batchOpen;
+  private boolean sourceChanged;
+
   SymbolLocationLayerRenderer(LayerSourceProvider layerSourceProvider,
                               LayerFeatureProvider featureProvider,
                               boolean isStale) {
     this.layerSourceProvider = layerSourceProvider;
     this.layerSet = layerSourceProvider.getEmptyLayerSet();
-    this.locationFeature = featureProvider.generateLocationFeature(locationFeature, isStale);
+    this.locationFeature = featureProvider.generateLocationFeature(null, isStale);
   }
 
   @Override
@@ -152,15 +158,15 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
 
   @Override
   public void styleAccuracy(float accuracyAlpha, int accuracyColor) {
-    locationFeature.addNumberProperty(PROPERTY_ACCURACY_ALPHA, accuracyAlpha);
-    locationFeature.addStringProperty(PROPERTY_ACCURACY_COLOR, colorToRgbaString(accuracyColor));
+    locationFeature.setNumberProperty(PROPERTY_ACCURACY_ALPHA, accuracyAlpha);
+    locationFeature.setStringProperty(PROPERTY_ACCURACY_COLOR, colorToRgbaString(accuracyColor));
     refreshSource();
   }
 
   @Override
   public void setLatLng(LatLng latLng) {
-    Point point = Point.fromLngLat(latLng.getLongitude(), latLng.getLatitude());
-    setLocationPoint(point);
+    locationFeature.setCoordinates(latLng.getLongitude(), latLng.getLatitude());
+    refreshSource();
   }
 
   @Override
@@ -192,7 +198,7 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
 
   @Override
   public void setLocationStale(boolean isStale, int renderMode) {
-    locationFeature.addBooleanProperty(PROPERTY_LOCATION_STALE, isStale);
+    locationFeature.setBooleanProperty(PROPERTY_LOCATION_STALE, isStale);
     refreshSource();
     if (renderMode != RenderMode.GPS) {
       setLayerVisibility(ACCURACY_LAYER, !isStale);
@@ -202,11 +208,11 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
   @Override
   public void updateIconIds(String foregroundIconString, String foregroundStaleIconString, String backgroundIconString,
                             String backgroundStaleIconString, String bearingIconString) {
-    locationFeature.addStringProperty(PROPERTY_FOREGROUND_ICON, foregroundIconString);
-    locationFeature.addStringProperty(PROPERTY_BACKGROUND_ICON, backgroundIconString);
-    locationFeature.addStringProperty(PROPERTY_FOREGROUND_STALE_ICON, foregroundStaleIconString);
-    locationFeature.addStringProperty(PROPERTY_BACKGROUND_STALE_ICON, backgroundStaleIconString);
-    locationFeature.addStringProperty(PROPERTY_BEARING_ICON, bearingIconString);
+    locationFeature.setStringProperty(PROPERTY_FOREGROUND_ICON, foregroundIconString);
+    locationFeature.setStringProperty(PROPERTY_BACKGROUND_ICON, backgroundIconString);
+    locationFeature.setStringProperty(PROPERTY_FOREGROUND_STALE_ICON, foregroundStaleIconString);
+    locationFeature.setStringProperty(PROPERTY_BACKGROUND_STALE_ICON, backgroundStaleIconString);
+    locationFeature.setStringProperty(PROPERTY_BEARING_ICON, bearingIconString);
     refreshSource();
   }
 
@@ -227,16 +233,8 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
   }
 
   private void updateForegroundOffset(double tilt) {
-    JsonArray foregroundJsonArray = new JsonArray();
-    foregroundJsonArray.add(0f);
-    foregroundJsonArray.add((float) (-0.05 * tilt));
-    locationFeature.addProperty(PROPERTY_FOREGROUND_ICON_OFFSET, foregroundJsonArray);
-
-    JsonArray backgroundJsonArray = new JsonArray();
-    backgroundJsonArray.add(0f);
-    backgroundJsonArray.add((float) (0.05 * tilt));
-    locationFeature.addProperty(PROPERTY_SHADOW_ICON_OFFSET, backgroundJsonArray);
-
+    locationFeature.setNumberPairProperty(PROPERTY_FOREGROUND_ICON_OFFSET, 0, (float) (-0.05 * tilt));
+    locationFeature.setNumberPairProperty(PROPERTY_SHADOW_ICON_OFFSET, 0, (float) (0.05 * tilt));
     refreshSource();
   }
 
@@ -287,9 +285,9 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
    */
   @Override
   public void updatePulsingUi(float radius, @Nullable Float opacity) {
-    locationFeature.addNumberProperty(PROPERTY_PULSING_RADIUS, radius);
+    locationFeature.setNumberProperty(PROPERTY_PULSING_RADIUS, radius);
     if (opacity != null) {
-      locationFeature.addNumberProperty(PROPERTY_PULSING_OPACITY, opacity);
+      locationFeature.setNumberProperty(PROPERTY_PULSING_OPACITY, opacity);
     }
     refreshSource();
   }
@@ -322,7 +320,26 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
     style.addSource(locationSource);
   }
 
+  @Override
+  public void beginBatch() {
+    batchOpen = true;
+  }
+
+  @Override
+  public void endBatch() {
+    batchOpen = false;
+    if (sourceChanged) {
+      sourceChanged = false;
+      refreshSource();
+    }
+  }
+
   private void refreshSource() {
+    if (batchOpen) {
+      sourceChanged = true;
+      return;
+    }
+
     // prevents exception when other style has been set with an update in flight
     // https://github.com/maplibre/maplibre-native/issues/3348
     if (!style.isFullyLoaded()) {
@@ -334,21 +351,13 @@ final class SymbolLocationLayerRenderer implements LocationLayerRenderer {
     }
   }
 
-  private void setLocationPoint(Point locationPoint) {
-    JsonObject properties = locationFeature.properties();
-    if (properties != null) {
-      locationFeature = Feature.fromGeometry(locationPoint, properties);
-      refreshSource();
-    }
-  }
-
   private void setBearingProperty(@NonNull String propertyId, float bearing) {
-    locationFeature.addNumberProperty(propertyId, bearing);
+    locationFeature.setNumberProperty(propertyId, bearing);
     refreshSource();
   }
 
   private void updateAccuracyRadius(float accuracy) {
-    locationFeature.addNumberProperty(PROPERTY_ACCURACY_RADIUS, accuracy);
+    locationFeature.setNumberProperty(PROPERTY_ACCURACY_RADIUS, accuracy);
     refreshSource();
   }
 }
@@ -0,0 +1,181 @@
+package org.maplibre.android.maps;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.maplibre.android.log.Logger;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Converts style image bitmaps on a bounded pool of worker threads shared by all maps, and adds the converted
+ * images to the map in a single batch on the main thread. The pixels are copied into native memory on the worker
+ * threads, so adding the images doesn't copy them on the main thread.
+ */
+final class BitmapImageConverter {
+
+  private static final String TAG = "Mbgl-BitmapImageConverter";
+  private static final String THREAD_PREFIX = "MapLibreImageConverter";
+  private static final int THREAD_POOL_LIMIT =
+    Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private static ThreadPoolExecutor executor;
+
+  private BitmapImageConverter() {
+  }
+
+  /**
+   * Converts the images in parallel and adds them to the map once all of them are converted.
+   * <p>
+   * The returned future completes once the images are added to the map, which happens on the main thread.
+   * Cancelling it stops outstanding conversions, skips adding the images and releases their copied pixels.
+   * Images that fail to convert are skipped, the failure is logged and reported to the callback.
+   * </p>
+   *
+   * @param nativeMap the map to add the images to
+   * @param callback  invoked on the main thread once the images are added or failed
+   * @param wrappers  the images to convert
+   * @return the future tracking the conversion and upload
+   */
+  @NonNull
+  static Future<Void> convert(@NonNull NativeMap nativeMap, @Nullable final Style.OnImagesAdded callback,
+                              @NonNull final Style.Builder.ImageWrapper... wrappers) {
+    final Image[] images = new Image[wrappers.length];
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final WeakReference<NativeMap> nativeMapReference = new WeakReference<>(nativeMap);
+    final FutureTask<Void> upload = new FutureTask<Void>(() -> {
+      NativeMap map = nativeMapReference.get();
+      if (map == null || map.isDestroyed()) {
+        return null;
+      }
+
+      // Images that failed to convert are skipped, the others are still added.
+      Throwable exception = failure.get();
+      try {
+        Image[] converted = withoutMissing(images);
+        if (converted.length > 0) {
+          map.addImages(converted);
+        }
+      } catch (Throwable addException) {
+        if (exception == null) {
+          exception = addException;
+        }
+      }
+
+      if (exception != null) {
+        Logger.e(TAG, "Failed to add images", exception);
+        if (callback != null) {
+          callback.onError(exception.getMessage() != null ? exception.getMessage() : exception.toString());
+        }
+      } else if (callback != null) {
+        callback.onImagesAdded();
+      }
+      return null;
+    }) {
+      @Override
+      protected void done() {
+        // Adding the images takes their pixels over, whatever is left wasn't added.
+        release(images, 0, images.length);
+      }
+    };
+
+    if (wrappers.length == 0) {
+      mainHandler.post(upload);
+      return upload;
+    }
+
+    // Split the images into contiguous chunks, one per worker thread.
+    final int chunkCount = Math.min(THREAD_POOL_LIMIT, wrappers.length);
+    final AtomicInteger remainingChunks = new AtomicInteger(chunkCount);
+    ThreadPoolExecutor executor = getExecutor();
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      final int start = chunk * wrappers.length / chunkCount;
+      final int end = (chunk + 1) * wrappers.length / chunkCount;
+      executor.execute(() -> {
+        try {
+          for (int i = start; i < end && !upload.isCancelled(); i++) {
+            try {
+              Image image = Style.toImage(wrappers[i]);
+              NativeMap map = nativeMapReference.get();
+              if (map != null) {
+                map.copyImagePixels(new Image[] {image});
+              }
+              images[i] = image;
+            } catch (Throwable exception) {
+              failure.compareAndSet(null, exception);
+            }
+          }
+        } finally {
+          if (upload.isDone()) {
+            // Cancelled while copying, after the images were released.
+            release(images, start, end);
+          } else if (remainingChunks.decrementAndGet() == 0) {
+            mainHandler.post(upload);
+          }
+        }
+      });
+    }
+    return upload;
+  }
+
+  @NonNull
+  private static Image[] withoutMissing(@NonNull Image[] images) {
+    List<Image> converted = new ArrayList<>(images.length);
+    for (Image image : images) {
+      if (image != null) {
+        converted.add(image);
+      }
+    }
+    return converted.toArray(new Image[0]);
+  }
+
+  private static void release(@NonNull Image[] images, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (images[i] != null) {
+        images[i].release();
+      }
+    }
+  }
+
+  @NonNull
+  static synchronized ThreadPoolExecutor getExecutor() {
+    if (executor == null) {
+      executor = new ThreadPoolExecutor(
+        THREAD_POOL_LIMIT,
+        THREAD_POOL_LIMIT,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactory() {
+          private final AtomicInteger threadCount = new AtomicInteger();
+
+          @Override
+          public Thread newThread(@NonNull Runnable runnable) {
+            Thread thread = new Thread(runnable,
+              String.format(Locale.US, "%s-%d", THREAD_PREFIX, threadCount.getAndIncrement()));
+            thread.setDaemon(true);
+            return thread;
+          }
+        }
+      );
+      executor.allowCoreThreadTimeOut(true);
+    }
+    return executor;
+  }
+}
@@ -2,14 +2,19 @@ package org.maplibre.android.maps;
 
 import android.os.Handler;
 import android.os.Message;
+import android.os.SystemClock;
 
 import androidx.annotation.IntDef;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.maplibre.android.camera.CameraPosition;
 
 import java.lang.annotation.Retention;
 import java.lang.ref.WeakReference;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import static org.maplibre.android.maps.MapLibreMap.OnCameraChangeListener;
 import static org.maplibre.android.maps.MapLibreMap.OnCameraIdleListener;
 import static org.maplibre.android.maps.MapLibreMap.OnCameraMoveCanceledListener;
 import static org.maplibre.android.maps.MapLibreMap.OnCameraMoveListener;
@@ -31,6 +36,10 @@ class CameraChangeDispatcher implements MapLibreMap.OnCameraMoveStartedListener,
   private final CopyOnWriteArrayList<OnCameraMoveCanceledListener> onCameraMoveCanceled = new CopyOnWriteArrayList<>();
   private final CopyOnWriteArrayList<OnCameraMoveListener> onCameraMove = new CopyOnWriteArrayList<>();
   private final CopyOnWriteArrayList<OnCameraIdleListener> onCameraIdle = new CopyOnWriteArrayList<>();
+  private final CopyOnWriteArrayList<CameraChangeRegistration> onCameraChange = new CopyOnWriteArrayList<>();
+
+  @Nullable
+  private Transform transform;
 
   @Retention(SOURCE)
   @IntDef( {MOVE_STARTED, MOVE, MOVE_CANCELED, IDLE})
@@ -103,6 +112,31 @@ class CameraChangeDispatcher implements MapLibreMap.OnCameraMoveStartedListener,
     }
   }
 
+  void setTransform(@Nullable Transform transform) {
+    this.transform = transform;
+  }
+
+  void addOnCameraChangeListener(@NonNull OnCameraChangeListener listener, @NonNull CameraChangePolicy policy) {
+    onCameraChange.add(new CameraChangeRegistration(listener, policy));
+  }
+
+  void removeOnCameraChangeListener(@NonNull OnCameraChangeListener listener) {
+    for (CameraChangeRegistration registration : onCameraChange) {
+      if (registration.listener == listener) {
+        handler.removeCallbacks(registration);
+        onCameraChange.remove(registration);
+      }
+    }
+  }
+
+  /**
+   * Returns the camera position cached by the transform, which has been updated before the move is dispatched.
+   */
+  @Nullable
+  private CameraPosition getCameraPosition() {
+    return transform != null ? transform.getCameraPosition() : null;
+  }
+
   private void executeOnCameraMoveStarted() {
     if (!idle) {
       return;
@@ -121,6 +155,15 @@ class CameraChangeDispatcher implements MapLibreMap.OnCameraMoveStartedListener,
         cameraMoveListener.onCameraMove();
       }
     }
+    if (!onCameraChange.isEmpty() && !idle) {
+      CameraPosition cameraPosition = getCameraPosition();
+      if (cameraPosition != null) {
+        long now = SystemClock.uptimeMillis();
+        for (CameraChangeRegistration registration : onCameraChange) {
+          registration.onCameraMove(cameraPosition, now);
+        }
+      }
+    }
   }
 
   private void executeOnCameraMoveCancelled() {
@@ -141,6 +184,14 @@ class CameraChangeDispatcher implements MapLibreMap.OnCameraMoveStartedListener,
         cameraIdleListener.onCameraIdle();
       }
     }
+    if (!onCameraChange.isEmpty()) {
+      CameraPosition cameraPosition = getCameraPosition();
+      if (cameraPosition != null) {
+        for (CameraChangeRegistration registration : onCameraChange) {
+          registration.onCameraIdle(cameraPosition);
+        }
+      }
+    }
   }
 
   void onDestroy() {
@@ -149,6 +200,109 @@ class CameraChangeDispatcher implements MapLibreMap.OnCameraMoveStartedListener,
     onCameraMoveCanceled.clear();
     onCameraMove.clear();
     onCameraIdle.clear();
+    onCameraChange.clear();
+  }
+
+  /**
+   * Applies the policy of a camera change listener. Runs as the trailing notification of a max rate policy.
+   */
+  private class CameraChangeRegistration implements Runnable {
+
+    @NonNull
+    private final OnCameraChangeListener listener;
+    @NonNull
+    private final CameraChangePolicy policy;
+
+    private long lastDispatchTime = Long.MIN_VALUE;
+    private boolean pending;
+    private int tileZoom = -1;
+    private long tileX;
+    private long tileY;
+
+    CameraChangeRegistration(@NonNull OnCameraChangeListener listener, @NonNull CameraChangePolicy policy) {
+      this.listener = listener;
+      this.policy = policy;
+    }
+
+    void onCameraMove(@NonNull CameraPosition cameraPosition, long now) {
+      switch (policy.getType()) {
+        case CameraChangePolicy.MAX_RATE:
+          long nextDispatchTime = lastDispatchTime + policy.getInterval();
+          if (lastDispatchTime == Long.MIN_VALUE || now >= nextDispatchTime) {
+            dispatch(cameraPosition, now);
+          } else if (!pending) {
+            pending = true;
+            handler.postAtTime(this, nextDispatchTime);
+          }
+          break;
+        case CameraChangePolicy.ON_TILE_BOUNDARY:
+          if (updateTile(cameraPosition)) {
+            dispatch(cameraPosition, now);
+          }
+          break;
+        case CameraChangePolicy.ON_IDLE:
+        default:
+          break;
+      }
+    }
+
+    void onCameraIdle(@NonNull CameraPosition cameraPosition) {
+      switch (policy.getType()) {
+        case CameraChangePolicy.MAX_RATE:
+          if (pending) {
+            dispatch(cameraPosition, SystemClock.uptimeMillis());
+          }
+          break;
+        case CameraChangePolicy.ON_TILE_BOUNDARY:
+          if (updateTile(cameraPosition)) {
+            dispatch(cameraPosition, SystemClock.uptimeMillis());
+          }
+          break;
+        case CameraChangePolicy.ON_IDLE:
+        default:
+          dispatch(cameraPosition, SystemClock.uptimeMillis());
+          break;
+      }
+    }
+
+    @Override
+    public void run() {
+      CameraPosition cameraPosition = getCameraPosition();
+      if (pending && !idle && cameraPosition != null) {
+        dispatch(cameraPosition, SystemClock.uptimeMillis());
+      }
+    }
+
+    private void dispatch(@NonNull CameraPosition cameraPosition, long now) {
+      if (pending) {
+        pending = false;
+        handler.removeCallbacks(this);
+      }
+      lastDispatchTime = now;
+      listener.onCameraChange(cameraPosition);
+    }
+
+    /**
+     * Updates the tile of the camera center and returns true if it changed.
+     */
+    private boolean updateTile(@NonNull CameraPosition cameraPosition) {
+      if (cameraPosition.target == null) {
+        return false;
+      }
+      int zoom = (int) Math.floor(cameraPosition.zoom);
+      double tiles = Math.pow(2, zoom);
+      double longitude = cameraPosition.target.getLongitude();
+      double latitude = Math.toRadians(cameraPosition.target.getLatitude());
+      long x = (long) Math.floor((longitude + 180) / 360 * tiles);
+      long y = (long) Math.floor((1 - Math.log(Math.tan(latitude) + 1 / Math.cos(latitude)) / Math.PI) / 2 * tiles);
+      if (zoom == tileZoom && x == tileX && y == tileY) {
+        return false;
+      }
+      tileZoom = zoom;
+      tileX = x;
+      tileY = y;
+      return true;
+    }
   }
 
   private static class CameraChangeHandler extends Handler {
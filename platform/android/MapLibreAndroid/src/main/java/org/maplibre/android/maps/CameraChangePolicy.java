@@ -0,0 +1,107 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.NonNull;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * Describes how often a {@link MapLibreMap.OnCameraChangeListener} is notified while the camera moves.
+ * <p>
+ * Policies are applied by the camera change dispatcher on the main thread, so throttled listeners don't run at all
+ * for the frames they skip.
+ * </p>
+ */
+public final class CameraChangePolicy {
+
+  /**
+   * Notifies at most once per interval while the camera moves, and with the final camera when it becomes idle.
+   */
+  public static final int MAX_RATE = 0;
+
+  /**
+   * Notifies only when the camera becomes idle.
+   */
+  public static final int ON_IDLE = 1;
+
+  /**
+   * Notifies when the camera center moves to another tile of the tile grid at the current integer zoom level,
+   * which includes crossing an integer zoom level.
+   */
+  public static final int ON_TILE_BOUNDARY = 2;
+
+  @Retention(SOURCE)
+  @IntDef( {MAX_RATE, ON_IDLE, ON_TILE_BOUNDARY})
+  @interface Type {
+  }
+
+  @Type
+  private final int type;
+  private final long interval;
+
+  private CameraChangePolicy(@Type int type, long interval) {
+    this.type = type;
+    this.interval = interval;
+  }
+
+  /**
+   * Creates a policy that notifies at most once per interval while the camera moves.
+   *
+   * @param intervalMillis the minimum time between two notifications, in milliseconds
+   * @return the policy
+   */
+  @NonNull
+  public static CameraChangePolicy maxRate(long intervalMillis) {
+    if (intervalMillis < 0) {
+      throw new IllegalArgumentException("The interval must not be negative: " + intervalMillis);
+    }
+    return new CameraChangePolicy(MAX_RATE, intervalMillis);
+  }
+
+  /**
+   * Creates a policy that notifies only when the camera becomes idle.
+   *
+   * @return the policy
+   */
+  @NonNull
+  public static CameraChangePolicy onIdle() {
+    return new CameraChangePolicy(ON_IDLE, 0);
+  }
+
+  /**
+   * Creates a policy that notifies when the camera center crosses a tile boundary.
+   *
+   * @return the policy
+   */
+  @NonNull
+  public static CameraChangePolicy onTileBoundary() {
+    return new CameraChangePolicy(ON_TILE_BOUNDARY, 0);
+  }
+
+  /**
+   * Returns the type of the policy.
+   *
+   * @return one of {@link #MAX_RATE}, {@link #ON_IDLE} or {@link #ON_TILE_BOUNDARY}
+   */
+  @Type
+  public int getType() {
+    return type;
+  }
+
+  /**
+   * Returns the minimum time between two notifications of a {@link #MAX_RATE} policy.
+   *
+   * @return the interval in milliseconds
+   */
+  public long getInterval() {
+    return interval;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "CameraChangePolicy{type=" + type + ", interval=" + interval + '}';
+  }
+}
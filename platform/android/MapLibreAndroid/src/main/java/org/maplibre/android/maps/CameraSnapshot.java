@@ -0,0 +1,200 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * A reusable, primitive-backed snapshot of the camera state, filled by
+ * {@link Projection#getCameraSnapshot(CameraSnapshot)} in a single call into native code.
+ * <p>
+ * A snapshot contains the camera, the visible quad of the map view, the visible bounds, the meters per pixel at
+ * the camera center and a matrix to project coordinates to the screen. Reading it does not cross into native code
+ * and filling it does not allocate Java objects, which makes it suitable for consumers that read the camera on
+ * every frame. Screen distances are in screen pixels, as in {@link Projection}.
+ */
+public final class CameraSnapshot {
+
+  /**
+   * Index of the top left corner of the visible quad.
+   */
+  public static final int TOP_LEFT = 0;
+
+  /**
+   * Index of the top right corner of the visible quad.
+   */
+  public static final int TOP_RIGHT = 1;
+
+  /**
+   * Index of the bottom right corner of the visible quad.
+   */
+  public static final int BOTTOM_RIGHT = 2;
+
+  /**
+   * Index of the bottom left corner of the visible quad.
+   */
+  public static final int BOTTOM_LEFT = 3;
+
+  // Layout of the values, kept in sync with NativeMapView::getCameraSnapshot
+  static final int LATITUDE = 0;
+  static final int LONGITUDE = 1;
+  static final int ZOOM = 2;
+  static final int BEARING = 3;
+  static final int TILT = 4;
+  static final int PADDING = 5;
+  static final int METERS_PER_PIXEL = 9;
+  static final int QUAD = 10;
+  static final int BOUNDS = 18;
+  static final int MATRIX = 22;
+  static final int WIDTH = 38;
+  static final int HEIGHT = 39;
+  static final int WORLD_SIZE = 40;
+  static final int SIZE = 41;
+
+  @NonNull
+  final double[] values = new double[SIZE];
+
+  private boolean valid;
+
+  /**
+   * Returns true once the snapshot has been filled.
+   *
+   * @return true if the snapshot contains a camera state
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  void setValid(boolean valid) {
+    this.valid = valid;
+  }
+
+  public double getLatitude() {
+    return values[LATITUDE];
+  }
+
+  public double getLongitude() {
+    return values[LONGITUDE];
+  }
+
+  public double getZoom() {
+    return values[ZOOM];
+  }
+
+  /**
+   * Returns the bearing in degrees clockwise from north, between 0 and 360.
+   *
+   * @return the bearing
+   */
+  public double getBearing() {
+    return values[BEARING];
+  }
+
+  public double getTilt() {
+    return values[TILT];
+  }
+
+  public double getPaddingLeft() {
+    return values[PADDING];
+  }
+
+  public double getPaddingTop() {
+    return values[PADDING + 1];
+  }
+
+  public double getPaddingRight() {
+    return values[PADDING + 2];
+  }
+
+  public double getPaddingBottom() {
+    return values[PADDING + 3];
+  }
+
+  /**
+   * Returns the distance spanned by one pixel at the latitude of the camera center,
+   * the value {@link Projection#getMetersPerPixelAtLatitude(double)} returns for it.
+   *
+   * @return the distance in meters
+   */
+  public double getMetersPerPixel() {
+    return values[METERS_PER_PIXEL];
+  }
+
+  /**
+   * Returns the latitude of a corner of the visible quad, ignoring the content padding.
+   *
+   * @param corner one of {@link #TOP_LEFT}, {@link #TOP_RIGHT}, {@link #BOTTOM_RIGHT} or {@link #BOTTOM_LEFT}
+   * @return the latitude of the corner
+   */
+  public double getCornerLatitude(int corner) {
+    return values[QUAD + corner * 2];
+  }
+
+  /**
+   * Returns the longitude of a corner of the visible quad, ignoring the content padding.
+   *
+   * @param corner one of {@link #TOP_LEFT}, {@link #TOP_RIGHT}, {@link #BOTTOM_RIGHT} or {@link #BOTTOM_LEFT}
+   * @return the longitude of the corner
+   */
+  public double getCornerLongitude(int corner) {
+    return values[QUAD + corner * 2 + 1];
+  }
+
+  public double getLatNorth() {
+    return values[BOUNDS];
+  }
+
+  /**
+   * Returns the east bound, which is not wrapped and may exceed 180 when the bounds cross the antimeridian.
+   *
+   * @return the east bound
+   */
+  public double getLonEast() {
+    return values[BOUNDS + 1];
+  }
+
+  public double getLatSouth() {
+    return values[BOUNDS + 2];
+  }
+
+  public double getLonWest() {
+    return values[BOUNDS + 3];
+  }
+
+  /**
+   * Copies the 4x4 projection matrix, in column-major order, to {@code out}.
+   * <p>
+   * The matrix maps spherical Mercator coordinates normalized to [0, 1], with x growing eastwards from the
+   * antimeridian and y growing southwards from the north edge of the world, to screen pixels after the
+   * perspective division.
+   *
+   * @param out an array of at least 16 values
+   */
+  public void getProjectionMatrix(@NonNull double[] out) {
+    System.arraycopy(values, MATRIX, out, 0, 16);
+  }
+
+  public double getWidth() {
+    return values[WIDTH];
+  }
+
+  public double getHeight() {
+    return values[HEIGHT];
+  }
+
+  /**
+   * Returns the size of the world at the current zoom level in screen pixels, the scale between
+   * normalized Mercator coordinates and screen pixels at the camera center without tilt.
+   *
+   * @return the world size
+   */
+  public double getWorldSize() {
+    return values[WORLD_SIZE];
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "CameraSnapshot{valid=" + valid + ", values=" + Arrays.toString(values) + '}';
+  }
+}
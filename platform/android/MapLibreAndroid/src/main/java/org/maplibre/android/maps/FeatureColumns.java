@@ -0,0 +1,360 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.Keep;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.lang.annotation.Retention;
+
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * The result of a feature query in a columnar layout, backed by a few primitive arrays instead of a
+ * {@link org.maplibre.geojson.Feature} with a geometry and property map per feature.
+ * <p>
+ * Geometries are stored as packed longitude, latitude pairs, grouped in three levels of offsets: a feature has parts,
+ * a part has rings and a ring has coordinates. A point, multi point and line string are a single part with a single
+ * ring, a multi line string has a part with a single ring per line string, a polygon is a single part with a ring
+ * per linear ring, and a multi polygon has a part per polygon. Geometry collections are left empty.
+ * </p>
+ * <p>
+ * Only the requested properties are stored, in a column per property. Scalar values are stored unboxed, strings are
+ * stored once per result in a shared string table, and arrays and objects are only marked as such.
+ * </p>
+ * <p>
+ * The getters for arrays return the backing arrays without copying them, they must not be modified.
+ * </p>
+ */
+public final class FeatureColumns {
+
+  /**
+   * The value of {@link #getId(int)} for features without a numeric id. It is a valid numeric id as well, use
+   * {@link #getIdType(int)} to tell them apart.
+   */
+  public static final long NO_ID = Long.MIN_VALUE;
+
+  public static final int ID_NONE = 0;
+  /**
+   * An integer id that fits a long, returned by {@link #getId(int)}.
+   */
+  public static final int ID_NUMBER = 1;
+  /**
+   * A string id, or a numeric id that doesn't fit a long, returned by {@link #getStringId(int)}.
+   */
+  public static final int ID_STRING = 2;
+
+  public static final int GEOMETRY_EMPTY = 0;
+  public static final int GEOMETRY_POINT = 1;
+  public static final int GEOMETRY_MULTI_POINT = 2;
+  public static final int GEOMETRY_LINE_STRING = 3;
+  public static final int GEOMETRY_MULTI_LINE_STRING = 4;
+  public static final int GEOMETRY_POLYGON = 5;
+  public static final int GEOMETRY_MULTI_POLYGON = 6;
+  public static final int GEOMETRY_COLLECTION = 7;
+
+  public static final int VALUE_NULL = 0;
+  public static final int VALUE_BOOLEAN = 1;
+  public static final int VALUE_NUMBER = 2;
+  public static final int VALUE_STRING = 3;
+  /**
+   * An array or object value, which isn't stored.
+   */
+  public static final int VALUE_OTHER = 4;
+
+  @Retention(SOURCE)
+  @IntDef( {ID_NONE, ID_NUMBER, ID_STRING})
+  @interface IdType {
+  }
+
+  @Retention(SOURCE)
+  @IntDef( {GEOMETRY_EMPTY, GEOMETRY_POINT, GEOMETRY_MULTI_POINT, GEOMETRY_LINE_STRING, GEOMETRY_MULTI_LINE_STRING,
+    GEOMETRY_POLYGON, GEOMETRY_MULTI_POLYGON, GEOMETRY_COLLECTION})
+  @interface GeometryType {
+  }
+
+  @Retention(SOURCE)
+  @IntDef( {VALUE_NULL, VALUE_BOOLEAN, VALUE_NUMBER, VALUE_STRING, VALUE_OTHER})
+  @interface ValueType {
+  }
+
+  private static final String[] EMPTY_STRINGS = new String[0];
+
+  private final long[] ids;
+  private final byte[] idTypes;
+  @Nullable
+  private final String[] stringIds;
+  private final byte[] geometryTypes;
+  private final int[] featureParts;
+  private final int[] partRings;
+  private final int[] ringCoordinates;
+  private final double[] coordinates;
+  private final String[] propertyNames;
+  private final byte[] valueTypes;
+  private final double[] numberValues;
+  private final int[] stringValues;
+  private final String[] strings;
+
+  /**
+   * Called from native code, the values of a property are contiguous in the value arrays.
+   */
+  @Keep
+  FeatureColumns(@NonNull long[] ids, @NonNull byte[] idTypes, @Nullable String[] stringIds,
+                 @NonNull byte[] geometryTypes,
+                 @NonNull int[] featureParts, @NonNull int[] partRings, @NonNull int[] ringCoordinates,
+                 @NonNull double[] coordinates, @Nullable String[] propertyNames, @NonNull byte[] valueTypes,
+                 @NonNull double[] numberValues, @NonNull int[] stringValues, @Nullable String[] strings) {
+    this.ids = ids;
+    this.idTypes = idTypes;
+    this.stringIds = stringIds;
+    this.geometryTypes = geometryTypes;
+    this.featureParts = featureParts;
+    this.partRings = partRings;
+    this.ringCoordinates = ringCoordinates;
+    this.coordinates = coordinates;
+    this.propertyNames = propertyNames != null ? propertyNames : EMPTY_STRINGS;
+    this.valueTypes = valueTypes;
+    this.numberValues = numberValues;
+    this.stringValues = stringValues;
+    this.strings = strings != null ? strings : EMPTY_STRINGS;
+  }
+
+  /**
+   * Returns an empty result with the given property columns.
+   */
+  @NonNull
+  static FeatureColumns empty(@Nullable String[] propertyNames) {
+    return new FeatureColumns(new long[0], new byte[0], null, new byte[0], new int[] {0}, new int[] {0},
+      new int[] {0}, new double[0], propertyNames, new byte[0], new double[0], new int[0], null);
+  }
+
+  /**
+   * Returns the number of features.
+   *
+   * @return the number of features
+   */
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Returns the type of the id of a feature.
+   *
+   * @param feature the index of the feature
+   * @return one of the ID_ constants
+   */
+  @IdType
+  public int getIdType(int feature) {
+    return idTypes[feature];
+  }
+
+  /**
+   * Returns the numeric id of a feature.
+   *
+   * @param feature the index of the feature
+   * @return the id, or {@link #NO_ID} if the id type isn't {@link #ID_NUMBER}
+   */
+  public long getId(int feature) {
+    return ids[feature];
+  }
+
+  /**
+   * Returns the string id of a feature. Numeric ids that don't fit a long, like fractions or unsigned ids above
+   * {@link Long#MAX_VALUE}, are formatted like the id of a {@link org.maplibre.geojson.Feature}.
+   *
+   * @param feature the index of the feature
+   * @return the id, or null if the id type isn't {@link #ID_STRING}
+   */
+  @Nullable
+  public String getStringId(int feature) {
+    return stringIds != null ? stringIds[feature] : null;
+  }
+
+  /**
+   * Returns the numeric ids of all features, see {@link #getIdTypes()} for which of them are set.
+   *
+   * @return the backing array of ids
+   */
+  @NonNull
+  public long[] getIds() {
+    return ids;
+  }
+
+  /**
+   * Returns the id types of all features.
+   *
+   * @return the backing array of ID_ constants
+   */
+  @NonNull
+  public byte[] getIdTypes() {
+    return idTypes;
+  }
+
+  //
+  // Geometries
+  //
+
+  /**
+   * Returns the geometry type of a feature.
+   *
+   * @param feature the index of the feature
+   * @return one of the GEOMETRY_ constants
+   */
+  @GeometryType
+  public int getGeometryType(int feature) {
+    return geometryTypes[feature];
+  }
+
+  /**
+   * Returns the offsets of the parts of each feature, the parts of feature i are in
+   * [offsets[i], offsets[i + 1]).
+   *
+   * @return the backing array of offsets, with one more element than there are features
+   */
+  @NonNull
+  public int[] getFeaturePartOffsets() {
+    return featureParts;
+  }
+
+  /**
+   * Returns the offsets of the rings of each part, the rings of part i are in [offsets[i], offsets[i + 1]).
+   *
+   * @return the backing array of offsets, with one more element than there are parts
+   */
+  @NonNull
+  public int[] getPartRingOffsets() {
+    return partRings;
+  }
+
+  /**
+   * Returns the offsets of the coordinates of each ring, the coordinates of ring i are in
+   * [offsets[i], offsets[i + 1]).
+   *
+   * @return the backing array of offsets, with one more element than there are rings
+   */
+  @NonNull
+  public int[] getRingCoordinateOffsets() {
+    return ringCoordinates;
+  }
+
+  /**
+   * Returns the coordinates of all features as longitude, latitude pairs, coordinate i is at index 2 * i.
+   *
+   * @return the backing array of coordinates
+   */
+  @NonNull
+  public double[] getCoordinates() {
+    return coordinates;
+  }
+
+  //
+  // Properties
+  //
+
+  /**
+   * Returns the names of the property columns, in the order they were requested.
+   *
+   * @return the property names
+   */
+  @NonNull
+  public String[] getPropertyNames() {
+    return propertyNames;
+  }
+
+  /**
+   * Returns the column of a property.
+   *
+   * @param name the name of the property
+   * @return the column, or -1 if the property wasn't requested
+   */
+  public int getPropertyColumn(@NonNull String name) {
+    for (int i = 0; i < propertyNames.length; i++) {
+      if (propertyNames[i].equals(name)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns the type of a property value of a feature.
+   *
+   * @param column  the column of the property
+   * @param feature the index of the feature
+   * @return one of the VALUE_ constants, {@link #VALUE_NULL} if the feature doesn't have the property
+   */
+  @ValueType
+  public int getValueType(int column, int feature) {
+    return valueTypes[cell(column, feature)];
+  }
+
+  /**
+   * Returns a numeric property value of a feature.
+   *
+   * @param column  the column of the property
+   * @param feature the index of the feature
+   * @return the value, or 0 if the value isn't a number
+   */
+  public double getNumber(int column, int feature) {
+    return valueTypes[cell(column, feature)] == VALUE_NUMBER ? numberValues[cell(column, feature)] : 0;
+  }
+
+  /**
+   * Returns a boolean property value of a feature.
+   *
+   * @param column  the column of the property
+   * @param feature the index of the feature
+   * @return the value, or false if the value isn't a boolean
+   */
+  public boolean getBoolean(int column, int feature) {
+    return valueTypes[cell(column, feature)] == VALUE_BOOLEAN && numberValues[cell(column, feature)] != 0;
+  }
+
+  /**
+   * Returns a string property value of a feature.
+   *
+   * @param column  the column of the property
+   * @param feature the index of the feature
+   * @return the value, or null if the value isn't a string
+   */
+  @Nullable
+  public String getString(int column, int feature) {
+    int index = stringValues[cell(column, feature)];
+    return index >= 0 ? strings[index] : null;
+  }
+
+  /**
+   * Returns the index of a string property value of a feature in the string table.
+   * <p>
+   * Equal strings share an index, so comparing indices is a cheap alternative to comparing strings.
+   * </p>
+   *
+   * @param column  the column of the property
+   * @param feature the index of the feature
+   * @return the index in {@link #getStrings()}, or -1 if the value isn't a string
+   */
+  public int getStringIndex(int column, int feature) {
+    return stringValues[cell(column, feature)];
+  }
+
+  /**
+   * Returns the distinct string values of all properties.
+   *
+   * @return the backing string table
+   */
+  @NonNull
+  public String[] getStrings() {
+    return strings;
+  }
+
+  private int cell(int column, int feature) {
+    return column * ids.length + feature;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "FeatureColumns{size=" + ids.length + ", properties=" + propertyNames.length
+      + ", coordinates=" + coordinates.length / 2 + '}';
+  }
+}
@@ -0,0 +1,163 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.IntDef;
+import androidx.annotation.NonNull;
+
+import java.lang.annotation.Retention;
+import java.util.Arrays;
+
+import static java.lang.annotation.RetentionPolicy.SOURCE;
+
+/**
+ * Something that can be hit by a tap, tested by the {@link HitTester}.
+ * <p>
+ * A target is tested against a square around the tap point, which extends by the tolerance in each direction.
+ * </p>
+ */
+public final class HitTarget {
+
+  /**
+   * Rendered features of style layers.
+   */
+  public static final int TYPE_LAYERS = 0;
+
+  /**
+   * Point annotations, such as markers. Their hits only carry the annotation id.
+   */
+  public static final int TYPE_POINT_ANNOTATIONS = 1;
+
+  /**
+   * Shape annotations, such as polylines and polygons. Their hits only carry the annotation id.
+   */
+  public static final int TYPE_SHAPE_ANNOTATIONS = 2;
+
+  @Retention(SOURCE)
+  @IntDef( {TYPE_LAYERS, TYPE_POINT_ANNOTATIONS, TYPE_SHAPE_ANNOTATIONS})
+  @interface Type {
+  }
+
+  private static final String[] EMPTY = new String[0];
+
+  @Type
+  private final int type;
+  private final float tolerance;
+  private final String[] layerIds;
+  private final String[] propertyNames;
+
+  private HitTarget(@Type int type, float tolerance, @NonNull String[] layerIds, @NonNull String[] propertyNames) {
+    if (tolerance < 0) {
+      throw new IllegalArgumentException("The tolerance must not be negative: " + tolerance);
+    }
+    this.type = type;
+    this.tolerance = tolerance;
+    this.layerIds = layerIds;
+    this.propertyNames = propertyNames;
+  }
+
+  /**
+   * Creates a target for the rendered features of style layers.
+   *
+   * @param tolerance the distance around the tap point to test, in pixels
+   * @param layerIds  the layers to test, or none to test all layers
+   * @return the target
+   */
+  @NonNull
+  public static HitTarget layers(float tolerance, @NonNull String... layerIds) {
+    return new HitTarget(TYPE_LAYERS, tolerance, layerIds.clone(), EMPTY);
+  }
+
+  /**
+   * Creates a target for point annotations.
+   *
+   * @param tolerance the distance around the tap point to test, in pixels
+   * @return the target
+   */
+  @NonNull
+  public static HitTarget pointAnnotations(float tolerance) {
+    return new HitTarget(TYPE_POINT_ANNOTATIONS, tolerance, EMPTY, EMPTY);
+  }
+
+  /**
+   * Creates a target for shape annotations.
+   *
+   * @param tolerance the distance around the tap point to test, in pixels
+   * @return the target
+   */
+  @NonNull
+  public static HitTarget shapeAnnotations(float tolerance) {
+    return new HitTarget(TYPE_SHAPE_ANNOTATIONS, tolerance, EMPTY, EMPTY);
+  }
+
+  /**
+   * Returns a copy of this target, whose hits carry the given feature properties.
+   *
+   * @param propertyNames the properties to return
+   * @return the target
+   */
+  @NonNull
+  public HitTarget withProperties(@NonNull String... propertyNames) {
+    return new HitTarget(type, tolerance, layerIds, propertyNames.clone());
+  }
+
+  @Type
+  public int getType() {
+    return type;
+  }
+
+  public float getTolerance() {
+    return tolerance;
+  }
+
+  @NonNull
+  public String[] getLayerIds() {
+    return layerIds.clone();
+  }
+
+  @NonNull
+  public String[] getPropertyNames() {
+    return propertyNames.clone();
+  }
+
+  // Used to flatten the targets without copying
+  @NonNull
+  String[] layerIds() {
+    return layerIds;
+  }
+
+  @NonNull
+  String[] propertyNames() {
+    return propertyNames;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+
+    HitTarget other = (HitTarget) o;
+    return type == other.type
+      && Float.compare(tolerance, other.tolerance) == 0
+      && Arrays.equals(layerIds, other.layerIds)
+      && Arrays.equals(propertyNames, other.propertyNames);
+  }
+
+  @Override
+  public int hashCode() {
+    int result = type;
+    result = 31 * result + Float.floatToIntBits(tolerance);
+    result = 31 * result + Arrays.hashCode(layerIds);
+    result = 31 * result + Arrays.hashCode(propertyNames);
+    return result;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "HitTarget{type=" + type + ", tolerance=" + tolerance + ", layerIds=" + Arrays.toString(layerIds)
+      + ", propertyNames=" + Arrays.toString(propertyNames) + '}';
+  }
+}
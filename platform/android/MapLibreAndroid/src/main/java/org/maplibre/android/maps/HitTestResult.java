@@ -0,0 +1,89 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The result of a {@link HitTester} test, with the hits of each target in the order of the targets.
+ */
+public final class HitTestResult {
+
+  private final List<HitTarget> targets;
+  private final FeatureColumns[] hits;
+  private final int firstHit;
+
+  HitTestResult(@NonNull List<HitTarget> targets, @NonNull FeatureColumns[] hits) {
+    this.targets = Collections.unmodifiableList(targets);
+    this.hits = hits;
+
+    int first = -1;
+    for (int i = 0; i < hits.length; i++) {
+      if (hits[i] != null && hits[i].size() > 0) {
+        first = i;
+        break;
+      }
+    }
+    this.firstHit = first;
+  }
+
+  /**
+   * Returns the tested targets.
+   *
+   * @return the targets
+   */
+  @NonNull
+  public List<HitTarget> getTargets() {
+    return targets;
+  }
+
+  /**
+   * Returns whether any target was hit.
+   *
+   * @return true if a target was hit
+   */
+  public boolean hasHit() {
+    return firstHit >= 0;
+  }
+
+  /**
+   * Returns the index of the first target that was hit.
+   *
+   * @return the index, or -1 if no target was hit
+   */
+  public int getFirstHitTarget() {
+    return firstHit;
+  }
+
+  /**
+   * Returns the hits of a target.
+   * <p>
+   * When testing for the first hit only, targets after the first hit aren't tested and have no hits.
+   * </p>
+   *
+   * @param target the index of the target
+   * @return the hits, or null if the target wasn't tested
+   */
+  @Nullable
+  public FeatureColumns getHits(int target) {
+    return hits[target];
+  }
+
+  /**
+   * Returns the hits of the first target that was hit.
+   *
+   * @return the hits, or null if no target was hit
+   */
+  @Nullable
+  public FeatureColumns getFirstHits() {
+    return firstHit >= 0 ? hits[firstHit] : null;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "HitTestResult{targets=" + targets.size() + ", firstHitTarget=" + firstHit + '}';
+  }
+}
@@ -0,0 +1,170 @@
+package org.maplibre.android.maps;
+
+import android.graphics.PointF;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tests a tap against a prioritized list of targets, such as annotations and style layers, in a single native query.
+ * <p>
+ * Results are cached until the next frame is rendered, so repeated taps on a static map don't query the map again.
+ * </p>
+ */
+@UiThread
+public final class HitTester {
+
+  static final int MAX_CACHED_RESULTS = 8;
+
+  private final NativeMap nativeMap;
+  private final Map<CacheKey, HitTestResult> cache =
+    new LinkedHashMap<CacheKey, HitTestResult>(MAX_CACHED_RESULTS, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<CacheKey, HitTestResult> eldest) {
+        return size() > MAX_CACHED_RESULTS;
+      }
+    };
+
+  private long cacheHitCount;
+  private long queryCount;
+
+  HitTester(@NonNull NativeMap nativeMap) {
+    this.nativeMap = nativeMap;
+  }
+
+  /**
+   * Tests a point against the targets, in order.
+   *
+   * @param point     the point to test, in screen pixels
+   * @param targets   the targets, in order of priority
+   * @param firstOnly true to stop at the first target that is hit, false to test all targets
+   * @return the hits of each target
+   */
+  @NonNull
+  public HitTestResult hitTest(@NonNull PointF point, @NonNull List<HitTarget> targets, boolean firstOnly) {
+    List<HitTarget> targetsCopy = new ArrayList<>(targets);
+    CacheKey key = new CacheKey(point.x, point.y, targetsCopy, firstOnly);
+    HitTestResult result = cache.get(key);
+    if (result != null) {
+      cacheHitCount++;
+      return result;
+    }
+
+    result = query(point, targetsCopy, firstOnly);
+    queryCount++;
+    if (!nativeMap.isDestroyed()) {
+      cache.put(key, result);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of tests answered from the cache.
+   *
+   * @return the number of cached answers
+   */
+  public long getCacheHitCount() {
+    return cacheHitCount;
+  }
+
+  /**
+   * Returns the number of tests that queried the map.
+   *
+   * @return the number of queries
+   */
+  public long getQueryCount() {
+    return queryCount;
+  }
+
+  /**
+   * Clears the cached results, called when a frame is rendered.
+   */
+  void invalidate() {
+    cache.clear();
+  }
+
+  @NonNull
+  private HitTestResult query(@NonNull PointF point, @NonNull List<HitTarget> targets, boolean firstOnly) {
+    int layerCount = 0;
+    int propertyCount = 0;
+    for (HitTarget target : targets) {
+      layerCount += target.layerIds().length;
+      propertyCount += target.propertyNames().length;
+    }
+
+    // Flatten the targets, the layer ids and property names of target i are in [offsets[i], offsets[i + 1])
+    int size = targets.size();
+    int[] types = new int[size];
+    float[] boxes = new float[4 * size];
+    String[] layerIds = new String[layerCount];
+    int[] layerOffsets = new int[size + 1];
+    String[] propertyNames = new String[propertyCount];
+    int[] propertyOffsets = new int[size + 1];
+    for (int i = 0; i < size; i++) {
+      HitTarget target = targets.get(i);
+      types[i] = target.getType();
+      float tolerance = target.getTolerance();
+      boxes[4 * i] = point.x - tolerance;
+      boxes[4 * i + 1] = point.y - tolerance;
+      boxes[4 * i + 2] = point.x + tolerance;
+      boxes[4 * i + 3] = point.y + tolerance;
+
+      String[] targetLayerIds = target.layerIds();
+      System.arraycopy(targetLayerIds, 0, layerIds, layerOffsets[i], targetLayerIds.length);
+      layerOffsets[i + 1] = layerOffsets[i] + targetLayerIds.length;
+
+      String[] targetPropertyNames = target.propertyNames();
+      System.arraycopy(targetPropertyNames, 0, propertyNames, propertyOffsets[i], targetPropertyNames.length);
+      propertyOffsets[i + 1] = propertyOffsets[i] + targetPropertyNames.length;
+    }
+
+    FeatureColumns[] hits = nativeMap.hitTest(types, boxes, layerIds, layerOffsets, propertyNames, propertyOffsets,
+      firstOnly);
+    return new HitTestResult(targets, hits);
+  }
+
+  private static final class CacheKey {
+
+    private final float x;
+    private final float y;
+    private final List<HitTarget> targets;
+    private final boolean firstOnly;
+
+    CacheKey(float x, float y, @NonNull List<HitTarget> targets, boolean firstOnly) {
+      this.x = x;
+      this.y = y;
+      this.targets = targets;
+      this.firstOnly = firstOnly;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+
+      CacheKey other = (CacheKey) o;
+      return Float.compare(x, other.x) == 0
+        && Float.compare(y, other.y) == 0
+        && firstOnly == other.firstOnly
+        && targets.equals(other.targets);
+    }
+
+    @Override
+    public int hashCode() {
+      int result = Float.floatToIntBits(x);
+      result = 31 * result + Float.floatToIntBits(y);
+      result = 31 * result + targets.hashCode();
+      result = 31 * result + (firstOnly ? 1 : 0);
+      return result;
+    }
+  }
+}
@@ -101,12 +101,7 @@ class IconManager {
   }
 
   private void loadIcon(Icon icon) {
-    Bitmap bitmap = icon.getBitmap();
-    nativeMap.addAnnotationIcon(icon.getId(),
-      bitmap.getWidth(),
-      bitmap.getHeight(),
-      icon.getScale(),
-      icon.toBytes());
+    nativeMap.addAnnotationIcon(icon.getId(), icon.getBitmap(), icon.getScale());
   }
 
   void reloadIcons() {
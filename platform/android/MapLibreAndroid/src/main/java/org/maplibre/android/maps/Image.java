@@ -1,10 +1,13 @@
 package org.maplibre.android.maps;
 
+import android.graphics.Bitmap;
+
 import androidx.annotation.Keep;
 
 @Keep
 public class Image {
   private final byte[] buffer;
+  private final Bitmap bitmap;
   private final float pixelRatio;
   private final String name;
   private final int width;
@@ -13,6 +16,8 @@ public class Image {
   private final float[] content;
   private final float[] stretchX;
   private final float[] stretchY;
+  // Pixels copied by native code in copyPixels, taken over when the image is added
+  private long nativePixels;
 
   public Image(byte[] buffer, float pixelRatio, String name, int width, int height, boolean sdf) {
     this(buffer, pixelRatio, name, width, height, sdf, null, null, null);
@@ -21,6 +26,7 @@ public class Image {
   public Image(byte[] buffer, float pixelRatio, String name, int width, int height, boolean sdf,
                float[] stretchX, float[] stretchY, float[] content) {
     this.buffer = buffer;
+    this.bitmap = null;
     this.pixelRatio = pixelRatio;
     this.name = name;
     this.width = width;
@@ -30,4 +36,51 @@ public class Image {
     this.stretchX = stretchX;
     this.stretchY = stretchY;
   }
+
+  /**
+   * Creates an image backed by a Bitmap. The pixels are read straight from the Bitmap by native code,
+   * without an intermediate copy on the Java heap. The Bitmap must not be recycled before the image is added.
+   */
+  public Image(Bitmap bitmap, float pixelRatio, String name, boolean sdf) {
+    this(bitmap, pixelRatio, name, sdf, null, null, null);
+  }
+
+  public Image(Bitmap bitmap, float pixelRatio, String name, boolean sdf,
+               float[] stretchX, float[] stretchY, float[] content) {
+    this.buffer = null;
+    this.bitmap = bitmap;
+    this.pixelRatio = pixelRatio;
+    this.name = name;
+    this.width = bitmap.getWidth();
+    this.height = bitmap.getHeight();
+    this.sdf = sdf;
+    this.content = content;
+    this.stretchX = stretchX;
+    this.stretchY = stretchY;
+  }
+
+  /**
+   * Copies the pixels of the Bitmap into native memory on the calling thread, premultiplying them if the Bitmap
+   * isn't. Adding the image takes the copy over, so calling this on a worker thread keeps the copy off the
+   * main thread. Images that end up not being added must be released with {@link #release()}.
+   */
+  synchronized void copyPixels() {
+    if (bitmap != null && nativePixels == 0) {
+      nativePixels = nativeCopyPixels(bitmap);
+    }
+  }
+
+  /**
+   * Frees the pixels copied by {@link #copyPixels()} if they weren't taken over by adding the image.
+   */
+  synchronized void release() {
+    if (nativePixels != 0) {
+      nativeReleasePixels(nativePixels);
+      nativePixels = 0;
+    }
+  }
+
+  private static native long nativeCopyPixels(Bitmap bitmap);
+
+  private static native void nativeReleasePixels(long nativePixels);
 }
@@ -0,0 +1,34 @@
+package org.maplibre.android.maps;
+
+import android.graphics.Bitmap;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+/**
+ * Provides images that are referenced by the style but have not been added to it.
+ * <p>
+ * Unlike {@link MapView.OnStyleImageMissingListener}, an image provider is invoked on a worker thread, so images can
+ * be generated or decoded without blocking the main thread. Provided images are added to the map in batches.
+ * </p>
+ * <p>
+ * {@link MapView#setImageProvider(ImageProvider)}
+ * </p>
+ */
+public interface ImageProvider {
+
+  /**
+   * Called on a worker thread when the map is missing an image. Concurrent requests for the same id are coalesced
+   * into a single call.
+   * <p>
+   * The pixel ratio of the image is derived from the density of the returned bitmap.
+   * </p>
+   *
+   * @param id the id of the image that is missing
+   * @return the image to add to the style, or null if this provider has no image for the id
+   */
+  @Nullable
+  @WorkerThread
+  Bitmap provideImage(@NonNull String id);
+}
@@ -0,0 +1,164 @@
+package org.maplibre.android.maps;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.maplibre.android.log.Logger;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Fulfills missing style images with an {@link ImageProvider} on the shared image worker pool.
+ * <p>
+ * Requests for an image that is already being generated are coalesced. Generated images are added to the map in a
+ * single batch per main thread message, and tiles that were laid out without them are laid out again. The ids of the
+ * most recently provided images are kept in an LRU, and those images stay in the style when the map reports them as
+ * unused, so that panning back does not regenerate them.
+ * </p>
+ */
+final class ImageProviderController
+  implements MapView.OnStyleImageMissingListener, MapView.OnCanRemoveUnusedStyleImageListener {
+
+  private static final String TAG = "Mbgl-ImageProviderController";
+
+  static final int DEFAULT_RETAINED_IMAGE_COUNT = 256;
+
+  private final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private final NativeMap nativeMap;
+  private final ImageProvider imageProvider;
+  private final Set<String> pendingImages = new HashSet<>();
+  private final Set<String> providedImages = new HashSet<>();
+  private final LinkedHashMap<String, Boolean> retainedImages;
+  private final ConcurrentLinkedQueue<Result> results = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private volatile boolean released;
+
+  private final Runnable flush = this::flush;
+
+  ImageProviderController(@NonNull NativeMap nativeMap, @NonNull ImageProvider imageProvider,
+                          final int retainedImageCount) {
+    this.nativeMap = nativeMap;
+    this.imageProvider = imageProvider;
+    this.retainedImages = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+        return size() > retainedImageCount;
+      }
+    };
+  }
+
+  @Override
+  public void onStyleImageMissing(@NonNull final String id) {
+    if (released || !pendingImages.add(id)) {
+      return;
+    }
+
+    BitmapImageConverter.getExecutor().execute(() -> {
+      Image image = null;
+      if (!released) {
+        try {
+          Bitmap bitmap = imageProvider.provideImage(id);
+          if (bitmap != null) {
+            image = Style.toImage(new Style.Builder.ImageWrapper(id, bitmap, false));
+            nativeMap.copyImagePixels(new Image[] {image});
+          }
+        } catch (RuntimeException exception) {
+          Logger.e(TAG, "Exception in provideImage for " + id, exception);
+        }
+      }
+
+      results.add(new Result(id, image));
+      if (released) {
+        // Released meanwhile, nothing flushes the results anymore.
+        releaseResults();
+      } else if (flushScheduled.compareAndSet(false, true)) {
+        mainHandler.post(flush);
+      }
+    });
+  }
+
+  @Override
+  public boolean onCanRemoveUnusedStyleImage(@NonNull String id) {
+    if (!providedImages.contains(id)) {
+      return true;
+    }
+
+    if (retainedImages.containsKey(id)) {
+      return false;
+    }
+
+    providedImages.remove(id);
+    return true;
+  }
+
+  /**
+   * Stops fulfilling requests. Images that are still being generated are dropped.
+   */
+  void release() {
+    released = true;
+    mainHandler.removeCallbacks(flush);
+    releaseResults();
+  }
+
+  private void releaseResults() {
+    Result result;
+    while ((result = results.poll()) != null) {
+      if (result.image != null) {
+        result.image.release();
+      }
+    }
+  }
+
+  private void flush() {
+    flushScheduled.set(false);
+    if (released) {
+      releaseResults();
+      return;
+    }
+
+    List<Image> batch = new ArrayList<>();
+    Result result;
+    while ((result = results.poll()) != null) {
+      pendingImages.remove(result.id);
+      if (result.image != null) {
+        batch.add(result.image);
+        providedImages.add(result.id);
+        retainedImages.put(result.id, Boolean.TRUE);
+      }
+    }
+
+    Image[] images = batch.toArray(new Image[0]);
+    try {
+      if (images.length > 0 && !nativeMap.isDestroyed()) {
+        nativeMap.addImages(images);
+      }
+    } finally {
+      // Adding the images takes their pixels over, whatever is left wasn't added.
+      for (Image image : images) {
+        image.release();
+      }
+    }
+  }
+
+  private static final class Result {
+    final String id;
+    @Nullable
+    final Image image;
+
+    Result(@NonNull String id, @Nullable Image image) {
+      this.id = id;
+      this.image = image;
+    }
+  }
+}
@@ -49,6 +49,11 @@ import static org.maplibre.android.utils.MathUtils.normalize;
 final class MapGestureDetector {
   private static final String TAG = "MapGestureDetector";
 
+  /**
+   * Frame duration the velocities of Java gesture animators are tuned for.
+   */
+  private static final double FRAME_DURATION_MILLIS = 1000.0 / 60;
+
   private final Transform transform;
   private final Projection projection;
   private final UiSettings uiSettings;
@@ -655,7 +660,12 @@ final class MapGestureDetector {
       // (log(x + 1 / e^2) + 2) * 150, x=0 to 2.5 (MapboxConstants#MAX_ABSOLUTE_SCALE_VELOCITY_CHANGE)
       long animationTime = (long) ((Math.log((Math.abs(zoomAddition)) + 1 / Math.pow(Math.E, 2)) + 2)
         * SCALE_VELOCITY_ANIMATION_DURATION_MULTIPLIER);
-      scaleAnimator = createScaleAnimator(currentZoom, zoomAddition, focalPoint, animationTime);
+      if (uiSettings.isNativeGestureAnimationsEnabled()) {
+        scaleAnimator = createInertiaAnimator(
+          zoomAddition * 2 / (animationTime / 1000.0), 0, focalPoint, animationTime);
+      } else {
+        scaleAnimator = createScaleAnimator(currentZoom, zoomAddition, focalPoint, animationTime);
+      }
       scheduleAnimator(scaleAnimator);
     }
 
@@ -784,7 +794,15 @@ final class MapGestureDetector {
         * SCALE_VELOCITY_ANIMATION_DURATION_MULTIPLIER);
 
       PointF focalPoint = getRotateFocalPoint(detector);
-      rotateAnimator = createRotateAnimator(angularVelocity, animationTime, focalPoint);
+      if (uiSettings.isNativeGestureAnimationsEnabled()) {
+        // the Java animator adds the per frame velocity, decelerating to zero, on every frame, which
+        // rotates by a third of the initial velocity times the number of frames
+        double rotation = angularVelocity * animationTime / FRAME_DURATION_MILLIS / 3;
+        rotateAnimator = createInertiaAnimator(
+          0, rotation * 2 / (animationTime / 1000.0), focalPoint, animationTime);
+      } else {
+        rotateAnimator = createRotateAnimator(angularVelocity, animationTime, focalPoint);
+      }
       scheduleAnimator(rotateAnimator);
     }
 
@@ -945,6 +963,37 @@ final class MapGestureDetector {
     return animator;
   }
 
+  /**
+   * Creates an animator that hands the animation to native code when started, as a single camera animation whose
+   * velocities decay linearly to zero over the animation time. The animator itself doesn't update the camera,
+   * it only keeps track of the animation to schedule, cancel and end it like the other gesture animators.
+   */
+  private Animator createInertiaAnimator(final double zoomVelocity, final double bearingVelocity,
+                                         @NonNull final PointF animationFocalPoint, final long animationTime) {
+    ValueAnimator animator = ValueAnimator.ofFloat(0f, 1f);
+    animator.setDuration(animationTime);
+    animator.addListener(new AnimatorListenerAdapter() {
+
+      @Override
+      public void onAnimationStart(Animator animation) {
+        transform.cancelTransitions();
+        cameraChangeDispatcher.onCameraMoveStarted(REASON_API_GESTURE);
+        transform.animateInertia(zoomVelocity, bearingVelocity, animationFocalPoint, animationTime);
+      }
+
+      @Override
+      public void onAnimationCancel(Animator animation) {
+        transform.cancelTransitions();
+      }
+
+      @Override
+      public void onAnimationEnd(Animator animation) {
+        dispatchCameraIdle();
+      }
+    });
+    return animator;
+  }
+
   /**
    * Zoom in by 1.
    *
@@ -971,12 +1020,20 @@ final class MapGestureDetector {
     //canceling here as well, because when using a button it will not be canceled automatically by onDown()
     cancelAnimator(scaleAnimator);
 
-    double currentZoom = transform.getRawZoom();
-    scaleAnimator = createScaleAnimator(
-      currentZoom,
-      zoomIn ? 1 : -1,
-      zoomFocalPoint,
-      MapLibreConstants.ANIMATION_DURATION);
+    if (uiSettings.isNativeGestureAnimationsEnabled()) {
+      scaleAnimator = createInertiaAnimator(
+        (zoomIn ? 1 : -1) * 2 / (MapLibreConstants.ANIMATION_DURATION / 1000.0),
+        0,
+        zoomFocalPoint,
+        MapLibreConstants.ANIMATION_DURATION);
+    } else {
+      double currentZoom = transform.getRawZoom();
+      scaleAnimator = createScaleAnimator(
+        currentZoom,
+        zoomIn ? 1 : -1,
+        zoomFocalPoint,
+        MapLibreConstants.ANIMATION_DURATION);
+    }
     if (runImmediately) {
       scaleAnimator.start();
     } else {
@@ -46,6 +46,7 @@ import org.maplibre.android.style.expressions.Expression;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Future;
 
 /**
  * The general class to interact with in the Android MapLibre SDK. It exposes the entry point for all
@@ -69,6 +70,8 @@ public final class MapLibreMap {
   private final OnGesturesManagerInteractionListener onGesturesManagerInteractionListener;
   private final List<Style.OnStyleLoaded> awaitingStyleGetters = new ArrayList<>();
   private final List<OnDeveloperAnimationListener> developerAnimationStartedListeners;
+  private final RenderedFeatureQueryExecutor featureQueryExecutor = new RenderedFeatureQueryExecutor();
+  private final HitTester hitTester;
 
   @Nullable
   private Style.OnStyleLoaded styleLoadedCallback;
@@ -95,6 +98,7 @@ public final class MapLibreMap {
     this.onGesturesManagerInteractionListener = listener;
     this.cameraChangeDispatcher = cameraChangeDispatcher;
     this.developerAnimationStartedListeners = developerAnimationStartedListeners;
+    this.hitTester = new HitTester(map);
   }
 
   /**
@@ -231,6 +235,8 @@ public final class MapLibreMap {
       style.clear();
     }
     cameraChangeDispatcher.onDestroy();
+    featureQueryExecutor.cancelAll();
+    hitTester.invalidate();
   }
 
   /**
@@ -274,10 +280,18 @@ public final class MapLibreMap {
     annotationManager.update();
   }
 
+  /**
+   * Called when the camera or the size of the map changed.
+   */
+  void onUpdateProjection() {
+    projection.onProjectionChange();
+  }
+
   /**
    * Called when the map frame is fully rendered.
    */
   void onUpdateFullyRendered() {
+    hitTester.invalidate();
     CameraPosition cameraPosition = transform.invalidateCameraPosition();
     if (cameraPosition != null) {
       uiSettings.update(cameraPosition);
@@ -355,6 +369,40 @@ public final class MapLibreMap {
     return nativeMapView.getPrefetchZoomDelta();
   }
 
+  /**
+   * Enable or disable predictive pre-fetching. When enabled, the tiles of the viewport an animated camera
+   * transition or a fling ends in are requested at low priority when the transition starts, rather than
+   * once the camera arrives.
+   * Disabled by default.
+   *
+   * @param enabled true to enable predictive pre-fetching
+   * @see MapLibreMap#getPredictivePrefetchStats()
+   */
+  public void setPredictivePrefetchEnabled(boolean enabled) {
+    nativeMapView.setPredictivePrefetchEnabled(enabled);
+  }
+
+  /**
+   * Check whether predictive pre-fetching is enabled.
+   *
+   * @return true if predictive pre-fetching is enabled
+   * @see MapLibreMap#setPredictivePrefetchEnabled(boolean)
+   */
+  public boolean isPredictivePrefetchEnabled() {
+    return nativeMapView.isPredictivePrefetchEnabled();
+  }
+
+  /**
+   * Get the counters of predictive pre-fetching, to measure how many pre-fetched tiles were used.
+   *
+   * @return a snapshot of the counters
+   * @see MapLibreMap#setPredictivePrefetchEnabled(boolean)
+   */
+  @NonNull
+  public PredictivePrefetchStats getPredictivePrefetchStats() {
+    return nativeMapView.getPredictivePrefetchStats();
+  }
+
   /**
    * Indicating whether the map may cache tiles for different zoom levels or not.
    *
@@ -1170,9 +1218,11 @@ public final class MapLibreMap {
 
     style = builder.build(nativeMapView);
     if (!TextUtils.isEmpty(builder.getUri())) {
-      nativeMapView.setStyleUri(builder.getUri());
+      nativeMapView.setStyleUri(builder.getUri(), builder.isDiff());
     } else if (!TextUtils.isEmpty(builder.getJson())) {
-      nativeMapView.setStyleJson(builder.getJson());
+      nativeMapView.setStyleJson(builder.getJson(), builder.isDiff());
+    } else if (!TextUtils.isEmpty(builder.getBundle())) {
+      nativeMapView.setStyleBundle(builder.getBundle());
     } else {
       // user didn't provide a `from` component, load a blank style instead
       nativeMapView.setStyleJson(Style.EMPTY_JSON);
@@ -1989,6 +2039,31 @@ public final class MapLibreMap {
     cameraChangeDispatcher.removeOnCameraMoveListener(listener);
   }
 
+  /**
+   * Adds a callback that is invoked with the camera position when the camera changes, as often as the policy allows.
+   * <p>
+   * Unlike {@link OnCameraMoveListener}, which is invoked on every frame of a camera animation, throttled listeners
+   * are skipped by the dispatcher for the frames their policy filters out, and receive the camera position so they
+   * don't need to query it.
+   * </p>
+   *
+   * @param listener the listener to notify
+   * @param policy   the policy that decides when the listener is notified
+   */
+  public void addOnCameraChangeListener(@NonNull OnCameraChangeListener listener,
+                                        @NonNull CameraChangePolicy policy) {
+    cameraChangeDispatcher.addOnCameraChangeListener(listener, policy);
+  }
+
+  /**
+   * Removes a callback added with {@link #addOnCameraChangeListener(OnCameraChangeListener, CameraChangePolicy)}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeOnCameraChangeListener(@NonNull OnCameraChangeListener listener) {
+    cameraChangeDispatcher.removeOnCameraChangeListener(listener);
+  }
+
   /**
    * Sets a callback that's invoked on every frame rendered to the map view.
    *
@@ -2309,6 +2384,116 @@ public final class MapLibreMap {
     return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
   }
 
+  /**
+   * Returns the hit tester, which tests taps against annotations and style layers in a single query.
+   *
+   * @return the hit tester
+   */
+  @NonNull
+  public HitTester getHitTester() {
+    return hitTester;
+  }
+
+  /**
+   * Queries the map for rendered features, returning them in a columnar layout.
+   * <p>
+   * Only the requested properties are converted, and the result is backed by a few primitive arrays instead of an
+   * object graph per feature, which keeps large queries cheap.
+   * Returns an empty result if either the map or underlying render surface has been destroyed.
+   * </p>
+   *
+   * @param coordinates   the point to query
+   * @param filter        filters the returned features with an expression
+   * @param propertyNames the properties to return, or null to return none
+   * @param layerIds      optionally - only query these layers
+   * @return the features
+   */
+  @NonNull
+  public FeatureColumns queryRenderedFeatureColumns(@NonNull PointF coordinates,
+                                                    @Nullable Expression filter,
+                                                    @Nullable String[] propertyNames,
+                                                    @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatureColumns(coordinates, layerIds, filter, propertyNames);
+  }
+
+  /**
+   * Queries the map for rendered features, returning them in a columnar layout.
+   * <p>
+   * Only the requested properties are converted, and the result is backed by a few primitive arrays instead of an
+   * object graph per feature, which keeps large queries cheap.
+   * Returns an empty result if either the map or underlying render surface has been destroyed.
+   * </p>
+   *
+   * @param coordinates   the box to query
+   * @param filter        filters the returned features with an expression
+   * @param propertyNames the properties to return, or null to return none
+   * @param layerIds      optionally - only query these layers
+   * @return the features
+   */
+  @NonNull
+  public FeatureColumns queryRenderedFeatureColumns(@NonNull RectF coordinates,
+                                                    @Nullable Expression filter,
+                                                    @Nullable String[] propertyNames,
+                                                    @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatureColumns(coordinates, layerIds, filter, propertyNames);
+  }
+
+  /**
+   * Queries the map for rendered features without blocking the main thread.
+   * <p>
+   * The query and the conversion of its result run on a worker thread, and the features are delivered to the
+   * callback on the main thread. The query reflects a single rendered frame.
+   * A query supersedes the unfinished query issued with the same callback, whose result is then discarded.
+   * Delivers an empty list if either the map or underlying render surface has been destroyed.
+   * If the renderer doesn't answer within a second, the callback isn't invoked and the returned future fails with
+   * a {@link java.util.concurrent.TimeoutException}.
+   * </p>
+   *
+   * @param coordinates the point to query
+   * @param filter      filters the returned features with an expression
+   * @param callback    the callback to deliver the features to
+   * @param layerIds    optionally - only query these layers
+   * @return the future tracking the query, cancelling it skips the callback
+   */
+  @NonNull
+  @UiThread
+  public Future<List<Feature>> queryRenderedFeaturesAsync(@NonNull final PointF coordinates,
+                                                          @Nullable final Expression filter,
+                                                          @NonNull RenderedFeaturesCallback callback,
+                                                          @Nullable final String... layerIds) {
+    final PointF point = new PointF(coordinates.x, coordinates.y);
+    return featureQueryExecutor.execute(
+      () -> nativeMapView.queryRenderedFeaturesInBackground(point, layerIds, filter), callback);
+  }
+
+  /**
+   * Queries the map for rendered features without blocking the main thread.
+   * <p>
+   * The query and the conversion of its result run on a worker thread, and the features are delivered to the
+   * callback on the main thread. The query reflects a single rendered frame.
+   * A query supersedes the unfinished query issued with the same callback, whose result is then discarded.
+   * Delivers an empty list if either the map or underlying render surface has been destroyed.
+   * If the renderer doesn't answer within a second, the callback isn't invoked and the returned future fails with
+   * a {@link java.util.concurrent.TimeoutException}.
+   * </p>
+   *
+   * @param coordinates the box to query
+   * @param filter      filters the returned features with an expression
+   * @param callback    the callback to deliver the features to
+   * @param layerIds    optionally - only query these layers
+   * @return the future tracking the query, cancelling it skips the callback
+   */
+  @NonNull
+  @UiThread
+  public Future<List<Feature>> queryRenderedFeaturesAsync(@NonNull final RectF coordinates,
+                                                          @Nullable final Expression filter,
+                                                          @NonNull RenderedFeaturesCallback callback,
+                                                          @Nullable final String... layerIds) {
+    final RectF box = new RectF(coordinates);
+    return featureQueryExecutor.execute(
+      () -> nativeMapView.queryRenderedFeaturesInBackground(box, layerIds, filter), callback);
+  }
+
   //
   // LocationComponent
   //
@@ -2421,6 +2606,19 @@ public final class MapLibreMap {
     void onCameraMoveStarted(int reason);
   }
 
+  /**
+   * Interface definition for a callback to be invoked with the camera position when the camera changes, as often
+   * as its {@link CameraChangePolicy} allows.
+   */
+  public interface OnCameraChangeListener {
+    /**
+     * Called on the main thread when the camera changed.
+     *
+     * @param cameraPosition the camera position, shared between all listeners notified for the same change
+     */
+    void onCameraChange(@NonNull CameraPosition cameraPosition);
+  }
+
   /**
    * Interface definition for a callback to be invoked for when the camera changes position.
    */
@@ -2706,6 +2904,18 @@ public final class MapLibreMap {
     void onSnapshotReady(@NonNull Bitmap snapshot);
   }
 
+  /**
+   * Interface definition for a callback to be invoked when an asynchronous rendered features query completes.
+   */
+  public interface RenderedFeaturesCallback {
+    /**
+     * Invoked on the main thread with the queried features.
+     *
+     * @param features the list of features
+     */
+    void onRenderedFeatures(@NonNull List<Feature> features);
+  }
+
   /**
    * Internal use.
    */
@@ -72,6 +72,11 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
   private AttributionClickListener attributionClickListener;
   MapLibreMapOptions maplibreMapOptions;
   private MapRenderer mapRenderer;
+  @Nullable
+  private ImageProvider imageProvider;
+  private int retainedImageCount = ImageProviderController.DEFAULT_RETAINED_IMAGE_COUNT;
+  @Nullable
+  private ImageProviderController imageProviderController;
   private boolean destroyed;
 
   @Nullable
@@ -163,6 +168,7 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
     AnnotationManager annotationManager = new AnnotationManager(this, annotationsArray, iconManager,
             annotations, markers, polygons, polylines, shapeAnnotations);
     Transform transform = new Transform(this, nativeMapView, cameraDispatcher);
+    cameraDispatcher.setTransform(transform);
 
     // MapLibreMap
     List<MapLibreMap.OnDeveloperAnimationListener> developerAnimationListeners = new ArrayList<>();
@@ -314,6 +320,7 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
 
     options.pixelRatio(getPixelRatio());
     nativeMapView = new NativeMapView(getContext(), options, this, mapChangeReceiver, mapRenderer);
+    installImageProvider();
   }
 
   private void onSurfaceCreated() {
@@ -414,6 +421,10 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
   @UiThread
   public void onDestroy() {
     destroyed = true;
+    if (imageProviderController != null) {
+      imageProviderController.release();
+      imageProviderController = null;
+    }
     mapChangeReceiver.clear();
     mapCallback.onDestroy();
     initialRenderCallback.onDestroy();
@@ -424,6 +435,7 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
     }
 
     if (maplibreMap != null) {
+      maplibreMap.getProjection().clearOnProjectionChangeListeners();
       maplibreMap.onDestroy();
     }
 
@@ -920,6 +932,56 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
     mapChangeReceiver.removeOnCanRemoveUnusedStyleImageListener(listener);
   }
 
+  /**
+   * Set a provider that generates missing style images on a worker thread.
+   * <p>
+   * Missing images are requested from the provider off the main thread and added to the style in batches. The 256
+   * most recently provided images are kept in the style when the map reports them as unused, see
+   * {@link #setImageProvider(ImageProvider, int)}.
+   * </p>
+   *
+   * @param imageProvider the provider of missing images, or null to stop providing images
+   */
+  @UiThread
+  public void setImageProvider(@Nullable ImageProvider imageProvider) {
+    setImageProvider(imageProvider, ImageProviderController.DEFAULT_RETAINED_IMAGE_COUNT);
+  }
+
+  /**
+   * Set a provider that generates missing style images on a worker thread.
+   * <p>
+   * Missing images are requested from the provider off the main thread and added to the style in batches. When the
+   * map needs to release unused image resources, the most recently provided images are kept in the style, up to
+   * the given count, and the others are removed.
+   * </p>
+   *
+   * @param imageProvider      the provider of missing images, or null to stop providing images
+   * @param retainedImageCount the number of unused provided images to keep in the style
+   */
+  @UiThread
+  public void setImageProvider(@Nullable ImageProvider imageProvider, int retainedImageCount) {
+    if (imageProviderController != null) {
+      mapChangeReceiver.removeOnStyleImageMissingListener(imageProviderController);
+      mapChangeReceiver.removeOnCanRemoveUnusedStyleImageListener(imageProviderController);
+      imageProviderController.release();
+      imageProviderController = null;
+    }
+
+    this.imageProvider = imageProvider;
+    this.retainedImageCount = retainedImageCount;
+    installImageProvider();
+  }
+
+  private void installImageProvider() {
+    if (imageProvider == null || nativeMapView == null || destroyed) {
+      return;
+    }
+
+    imageProviderController = new ImageProviderController(nativeMapView, imageProvider, retainedImageCount);
+    mapChangeReceiver.addOnStyleImageMissingListener(imageProviderController);
+    mapChangeReceiver.addOnCanRemoveUnusedStyleImageListener(imageProviderController);
+  }
+
   /**
    * Set a callback that's invoked before a shader is compiled.
    *
@@ -1765,6 +1827,7 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
     public void onCameraIsChanging() {
       if (maplibreMap != null) {
         maplibreMap.onUpdateRegionChange();
+        maplibreMap.onUpdateProjection();
       }
     }
 
@@ -1772,6 +1835,7 @@ public class MapView extends FrameLayout implements NativeMapView.ViewCallback {
     public void onCameraDidChange(boolean animated) {
       if (maplibreMap != null) {
         maplibreMap.onUpdateRegionChange();
+        maplibreMap.onUpdateProjection();
       }
     }
   }
@@ -7,6 +7,7 @@ import android.graphics.RectF;
 import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import org.maplibre.android.plugin.PluginProtocolHandler;
 import org.maplibre.geojson.Feature;
@@ -25,6 +26,7 @@ import org.maplibre.android.style.light.Light;
 import org.maplibre.android.style.sources.Source;
 
 import java.util.List;
+import java.util.concurrent.TimeoutException;
 
 interface NativeMap {
 
@@ -104,6 +106,8 @@ interface NativeMap {
 
   void setBearing(double degrees, double fx, double fy, long duration);
 
+  void animateInertia(double zoomVelocity, double bearingVelocity, double fx, double fy, long duration);
+
   double getBearing();
 
   void resetNorth();
@@ -116,11 +120,17 @@ interface NativeMap {
 
   void setStyleUri(String url);
 
+  void setStyleUri(String url, boolean diff);
+
   @NonNull
   String getStyleUri();
 
   void setStyleJson(String newStyleJson);
 
+  void setStyleJson(String newStyleJson, boolean diff);
+
+  void setStyleBundle(String path);
+
   @NonNull
   String getStyleJson();
 
@@ -163,6 +173,11 @@ interface NativeMap {
 
   void addImages(Image[] images);
 
+  /**
+   * Copies the pixels of the images into native memory on the calling thread, ahead of {@link #addImages}.
+   */
+  void copyImagePixels(Image[] images);
+
   Bitmap getImage(String name);
 
   void removeImage(String name);
@@ -191,6 +206,40 @@ interface NativeMap {
                                       @Nullable String[] layerIds,
                                       @Nullable Expression filter);
 
+  @NonNull
+  FeatureColumns queryRenderedFeatureColumns(@NonNull PointF coordinates,
+                                             @Nullable String[] layerIds,
+                                             @Nullable Expression filter,
+                                             @Nullable String[] propertyNames);
+
+  @NonNull
+  FeatureColumns queryRenderedFeatureColumns(@NonNull RectF coordinates,
+                                             @Nullable String[] layerIds,
+                                             @Nullable Expression filter,
+                                             @Nullable String[] propertyNames);
+
+  // Targets are flattened, their layer ids and property names are in [offsets[i], offsets[i + 1])
+  @NonNull
+  FeatureColumns[] hitTest(@NonNull int[] types, @NonNull float[] boxes,
+                           @NonNull String[] layerIds, @NonNull int[] layerOffsets,
+                           @NonNull String[] propertyNames, @NonNull int[] propertyOffsets,
+                           boolean firstOnly);
+
+  // Safe to call from any thread, returns an empty list once the map is destroyed.
+  // Fails with a TimeoutException if the renderer doesn't answer in time.
+
+  @NonNull
+  @WorkerThread
+  List<Feature> queryRenderedFeaturesInBackground(@NonNull PointF coordinates,
+                                                  @Nullable String[] layerIds,
+                                                  @Nullable Expression filter) throws TimeoutException;
+
+  @NonNull
+  @WorkerThread
+  List<Feature> queryRenderedFeaturesInBackground(@NonNull RectF coordinates,
+                                                  @Nullable String[] layerIds,
+                                                  @Nullable Expression filter) throws TimeoutException;
+
   //
   // Projection API
   //
@@ -208,6 +257,8 @@ interface NativeMap {
 
   void getVisibleCoordinateBounds(@NonNull double[] output);
 
+  void getCameraSnapshot(@NonNull double[] output);
+
   LatLng latLngForPixel(@NonNull PointF pixel);
 
   void latLngsForPixels(@NonNull double[] input, @NonNull double[] output);
@@ -241,6 +292,13 @@ interface NativeMap {
   @IntRange(from = 0)
   int getPrefetchZoomDelta();
 
+  void setPredictivePrefetchEnabled(boolean enabled);
+
+  boolean isPredictivePrefetchEnabled();
+
+  @NonNull
+  PredictivePrefetchStats getPredictivePrefetchStats();
+
   void setTileCacheEnabled(boolean enabled);
 
   boolean getTileCacheEnabled();
@@ -312,6 +370,8 @@ interface NativeMap {
 
   void addAnnotationIcon(String symbol, int width, int height, float scale, byte[] pixels);
 
+  void addAnnotationIcon(String symbol, Bitmap bitmap, float scale);
+
   void removeAnnotationIcon(String symbol);
 
   @NonNull
@@ -12,6 +12,7 @@ import androidx.annotation.IntRange;
 import androidx.annotation.Keep;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 
 import org.maplibre.android.plugin.PluginFileSource;
 import org.maplibre.android.plugin.PluginProtocolHandler;
@@ -44,6 +45,9 @@ import org.maplibre.android.tile.TileOperation;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 // Class that wraps the native methods for convenience
 final class NativeMapView implements NativeMap {
@@ -74,6 +78,9 @@ final class NativeMapView implements NativeMap {
   // Flag to indicate destroy was called
   private boolean destroyed = false;
 
+  // Held while querying from a worker thread, so the native peer isn't destroyed during the query
+  private final ReadWriteLock queryLock = new ReentrantReadWriteLock();
+
   // Cached to enable lazily set padding.
   // Whenever an animation is schedule, this value is cleared and the source of truth becomes the core transform state.
   private double[] edgeInsets;
@@ -146,9 +153,18 @@ final class NativeMapView implements NativeMap {
 
   @Override
   public void destroy() {
-    destroyed = true;
-    viewCallback = null;
-    nativeDestroy();
+    if (!destroyed) {
+      // Background queries stop waiting for the renderer, so the lock below isn't held up by them
+      nativeCancelBackgroundQueries();
+    }
+    queryLock.writeLock().lock();
+    try {
+      destroyed = true;
+      viewCallback = null;
+      nativeDestroy();
+    } finally {
+      queryLock.writeLock().unlock();
+    }
   }
 
   @Override
@@ -194,10 +210,15 @@ final class NativeMapView implements NativeMap {
 
   @Override
   public void setStyleUri(String url) {
+    setStyleUri(url, false);
+  }
+
+  @Override
+  public void setStyleUri(String url, boolean diff) {
     if (checkState("setStyleUri")) {
       return;
     }
-    nativeSetStyleUrl(url);
+    nativeSetStyleUrl(url, diff);
   }
 
   @Override
@@ -211,10 +232,23 @@ final class NativeMapView implements NativeMap {
 
   @Override
   public void setStyleJson(String newStyleJson) {
+    setStyleJson(newStyleJson, false);
+  }
+
+  @Override
+  public void setStyleJson(String newStyleJson, boolean diff) {
     if (checkState("setStyleJson")) {
       return;
     }
-    nativeSetStyleJson(newStyleJson);
+    nativeSetStyleJson(newStyleJson, diff);
+  }
+
+  @Override
+  public void setStyleBundle(String path) {
+    if (checkState("setStyleBundle")) {
+      return;
+    }
+    nativeSetStyleBundle(path);
   }
 
   @Override
@@ -475,6 +509,14 @@ final class NativeMapView implements NativeMap {
     nativeSetBearingXY(degrees, fx / pixelRatio, fy / pixelRatio, duration);
   }
 
+  @Override
+  public void animateInertia(double zoomVelocity, double bearingVelocity, double fx, double fy, long duration) {
+    if (checkState("animateInertia")) {
+      return;
+    }
+    nativeAnimateInertia(zoomVelocity, bearingVelocity, fx / pixelRatio, fy / pixelRatio, duration);
+  }
+
   @Override
   public double getBearing() {
     if (checkState("getBearing")) {
@@ -614,6 +656,14 @@ final class NativeMapView implements NativeMap {
     nativeAddAnnotationIcon(symbol, width, height, scale, pixels);
   }
 
+  @Override
+  public void addAnnotationIcon(String symbol, Bitmap bitmap, float scale) {
+    if (checkState("addAnnotationIcon")) {
+      return;
+    }
+    nativeAddAnnotationIconBitmap(symbol, bitmap, scale);
+  }
+
   @Override
   public void removeAnnotationIcon(String symbol) {
     if (checkState("removeAnnotationIcon")) {
@@ -744,6 +794,13 @@ final class NativeMapView implements NativeMap {
     }
   }
 
+  @Override
+  public void getCameraSnapshot(@NonNull double[] output) {
+    if (!checkState("getCameraSnapshot")) {
+      nativeGetCameraSnapshot(output);
+    }
+  }
+
   @Override
   public LatLng latLngForPixel(@NonNull PointF pixel) {
     if (checkState("latLngForPixel")) {
@@ -842,6 +899,31 @@ final class NativeMapView implements NativeMap {
     return nativeGetPrefetchZoomDelta();
   }
 
+  @Override
+  public void setPredictivePrefetchEnabled(boolean enabled) {
+    if (checkState("nativeSetPredictivePrefetchEnabled")) {
+      return;
+    }
+    nativeSetPredictivePrefetchEnabled(enabled);
+  }
+
+  @Override
+  public boolean isPredictivePrefetchEnabled() {
+    if (checkState("nativeIsPredictivePrefetchEnabled")) {
+      return false;
+    }
+    return nativeIsPredictivePrefetchEnabled();
+  }
+
+  @NonNull
+  @Override
+  public PredictivePrefetchStats getPredictivePrefetchStats() {
+    if (checkState("nativeGetPredictivePrefetchStats")) {
+      return new PredictivePrefetchStats(new long[PredictivePrefetchStats.STAT_COUNT]);
+    }
+    return new PredictivePrefetchStats(nativeGetPredictivePrefetchStats());
+  }
+
   @Override
   public void setTileCacheEnabled(boolean enabled) {
     if (checkState("setTileCacheEnabled")) {
@@ -1066,6 +1148,15 @@ final class NativeMapView implements NativeMap {
     nativeAddImages(images);
   }
 
+  @Override
+  @WorkerThread
+  public void copyImagePixels(@NonNull Image[] images) {
+    // Doesn't touch the map, so it's safe to call while the map is being destroyed
+    for (Image image : images) {
+      image.copyPixels();
+    }
+  }
+
   @Override
   public void removeImage(String name) {
     if (checkState("removeImage")) {
@@ -1115,6 +1206,97 @@ final class NativeMapView implements NativeMap {
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  @Override
+  @NonNull
+  public FeatureColumns[] hitTest(@NonNull int[] types, @NonNull float[] boxes,
+                                  @NonNull String[] layerIds, @NonNull int[] layerOffsets,
+                                  @NonNull String[] propertyNames, @NonNull int[] propertyOffsets,
+                                  boolean firstOnly) {
+    if (checkState("hitTest")) {
+      return new FeatureColumns[types.length];
+    }
+    float[] scaledBoxes = new float[boxes.length];
+    for (int i = 0; i < boxes.length; i++) {
+      scaledBoxes[i] = boxes[i] / pixelRatio;
+    }
+    return nativeHitTest(types, scaledBoxes, layerIds, layerOffsets, propertyNames, propertyOffsets, firstOnly);
+  }
+
+  @Override
+  @NonNull
+  public FeatureColumns queryRenderedFeatureColumns(@NonNull PointF coordinates,
+                                                    @Nullable String[] layerIds,
+                                                    @Nullable Expression filter,
+                                                    @Nullable String[] propertyNames) {
+    if (checkState("queryRenderedFeatureColumns")) {
+      return FeatureColumns.empty(propertyNames);
+    }
+    return nativeQueryRenderedFeatureColumnsForPoint(coordinates.x / pixelRatio, coordinates.y / pixelRatio,
+      layerIds, filter != null ? filter.toArray() : null, propertyNames != null ? propertyNames : new String[0]);
+  }
+
+  @Override
+  @NonNull
+  public FeatureColumns queryRenderedFeatureColumns(@NonNull RectF coordinates,
+                                                    @Nullable String[] layerIds,
+                                                    @Nullable Expression filter,
+                                                    @Nullable String[] propertyNames) {
+    if (checkState("queryRenderedFeatureColumns")) {
+      return FeatureColumns.empty(propertyNames);
+    }
+    return nativeQueryRenderedFeatureColumnsForBox(
+      coordinates.left / pixelRatio,
+      coordinates.top / pixelRatio,
+      coordinates.right / pixelRatio,
+      coordinates.bottom / pixelRatio,
+      layerIds,
+      filter != null ? filter.toArray() : null,
+      propertyNames != null ? propertyNames : new String[0]);
+  }
+
+  @Override
+  @NonNull
+  @WorkerThread
+  public List<Feature> queryRenderedFeaturesInBackground(@NonNull PointF coordinates,
+                                                         @Nullable String[] layerIds,
+                                                         @Nullable Expression filter) throws TimeoutException {
+    queryLock.readLock().lock();
+    try {
+      if (destroyed) {
+        return new ArrayList<>();
+      }
+      Feature[] features = nativeQueryRenderedFeaturesForPointInBackground(coordinates.x / pixelRatio,
+        coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null);
+      return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
+    } finally {
+      queryLock.readLock().unlock();
+    }
+  }
+
+  @Override
+  @NonNull
+  @WorkerThread
+  public List<Feature> queryRenderedFeaturesInBackground(@NonNull RectF coordinates,
+                                                         @Nullable String[] layerIds,
+                                                         @Nullable Expression filter) throws TimeoutException {
+    queryLock.readLock().lock();
+    try {
+      if (destroyed) {
+        return new ArrayList<>();
+      }
+      Feature[] features = nativeQueryRenderedFeaturesForBoxInBackground(
+        coordinates.left / pixelRatio,
+        coordinates.top / pixelRatio,
+        coordinates.right / pixelRatio,
+        coordinates.bottom / pixelRatio,
+        layerIds,
+        filter != null ? filter.toArray() : null);
+      return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
+    } finally {
+      queryLock.readLock().unlock();
+    }
+  }
+
   @Override
   public void setApiBaseUrl(String baseUrl) {
     if (checkState("setApiBaseUrl")) {
@@ -1412,14 +1594,17 @@ final class NativeMapView implements NativeMap {
   private native void nativeResizeView(int width, int height);
 
   @Keep
-  private native void nativeSetStyleUrl(String url);
+  private native void nativeSetStyleUrl(String url, boolean diff);
 
   @NonNull
   @Keep
   private native String nativeGetStyleUrl();
 
   @Keep
-  private native void nativeSetStyleJson(String newStyleJson);
+  private native void nativeSetStyleJson(String newStyleJson, boolean diff);
+
+  @Keep
+  private native void nativeSetStyleBundle(String path);
 
   @NonNull
   @Keep
@@ -1505,6 +1690,10 @@ final class NativeMapView implements NativeMap {
   @Keep
   private native void nativeSetBearingXY(double degrees, double fx, double fy, long duration);
 
+  @Keep
+  private native void nativeAnimateInertia(double zoomVelocity, double bearingVelocity, double fx, double fy,
+                                           long duration);
+
   @Keep
   private native double nativeGetBearing();
 
@@ -1540,6 +1729,9 @@ final class NativeMapView implements NativeMap {
   @Keep
   private native void nativeAddAnnotationIcon(String symbol, int width, int height, float scale, byte[] pixels);
 
+  @Keep
+  private native void nativeAddAnnotationIconBitmap(String symbol, Bitmap bitmap, float scale);
+
   @Keep
   private native void nativeRemoveAnnotationIcon(String symbol);
 
@@ -1592,6 +1784,9 @@ final class NativeMapView implements NativeMap {
   @Keep
   private native void nativeGetVisibleCoordinateBounds(double[] output);
 
+  @Keep
+  private native void nativeGetCameraSnapshot(double[] output);
+
   @NonNull
   @Keep
   private native LatLng nativeLatLngForPixel(float x, float y);
@@ -1710,6 +1905,46 @@ final class NativeMapView implements NativeMap {
                                                              String[] layerIds,
                                                              Object[] filter);
 
+  @NonNull
+  @Keep
+  private native Feature[] nativeQueryRenderedFeaturesForPointInBackground(float x, float y,
+                                                                           String[] layerIds,
+                                                                           Object[] filter)
+    throws TimeoutException;
+
+  @NonNull
+  @Keep
+  private native Feature[] nativeQueryRenderedFeaturesForBoxInBackground(float left, float top,
+                                                                         float right, float bottom,
+                                                                         String[] layerIds,
+                                                                         Object[] filter)
+    throws TimeoutException;
+
+  @Keep
+  private native void nativeCancelBackgroundQueries();
+
+  @NonNull
+  @Keep
+  private native FeatureColumns[] nativeHitTest(int[] types, float[] boxes,
+                                                String[] layerIds, int[] layerOffsets,
+                                                String[] propertyNames, int[] propertyOffsets,
+                                                boolean firstOnly);
+
+  @NonNull
+  @Keep
+  private native FeatureColumns nativeQueryRenderedFeatureColumnsForPoint(float x, float y,
+                                                                          String[] layerIds,
+                                                                          Object[] filter,
+                                                                          String[] propertyNames);
+
+  @NonNull
+  @Keep
+  private native FeatureColumns nativeQueryRenderedFeatureColumnsForBox(float left, float top,
+                                                                        float right, float bottom,
+                                                                        String[] layerIds,
+                                                                        Object[] filter,
+                                                                        String[] propertyNames);
+
   @NonNull
   @Keep
   private native Light nativeGetLight();
@@ -1732,6 +1967,15 @@ final class NativeMapView implements NativeMap {
   @Keep
   private native int nativeGetPrefetchZoomDelta();
 
+  @Keep
+  private native void nativeSetPredictivePrefetchEnabled(boolean enabled);
+
+  @Keep
+  private native boolean nativeIsPredictivePrefetchEnabled();
+
+  @Keep
+  private native long[] nativeGetPredictivePrefetchStats();
+
   @Keep
   private native void nativeSetTileLodMinRadius(double radius);
 
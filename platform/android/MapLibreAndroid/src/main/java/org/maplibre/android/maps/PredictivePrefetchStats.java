@@ -0,0 +1,94 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Counters of predictive pre-fetching, see {@link MapLibreMap#setPredictivePrefetchEnabled(boolean)}.
+ * <p>
+ * A prediction requests the tiles of the viewport an animated camera transition or fling ends in.
+ * When the camera arrives, the predicted tiles that cover the actual viewport are counted as used,
+ * and the requests that are still pending are canceled.
+ * </p>
+ */
+public final class PredictivePrefetchStats {
+
+  // Order of the counters reported by native code
+  static final int PREDICTIONS = 0;
+  static final int REQUESTED_TILES = 1;
+  static final int LOADED_TILES = 2;
+  static final int USED_TILES = 3;
+  static final int CANCELED_TILES = 4;
+  static final int STAT_COUNT = 5;
+
+  private final long[] stats;
+
+  PredictivePrefetchStats(@NonNull long[] stats) {
+    this.stats = stats;
+  }
+
+  /**
+   * Returns the number of predicted camera destinations.
+   *
+   * @return the number of predictions
+   */
+  public long getPredictionCount() {
+    return stats[PREDICTIONS];
+  }
+
+  /**
+   * Returns the number of tiles requested ahead of the camera.
+   *
+   * @return the number of requested tiles
+   */
+  public long getRequestedTileCount() {
+    return stats[REQUESTED_TILES];
+  }
+
+  /**
+   * Returns the number of requested tiles that loaded before the camera arrived.
+   *
+   * @return the number of loaded tiles
+   */
+  public long getLoadedTileCount() {
+    return stats[LOADED_TILES];
+  }
+
+  /**
+   * Returns the number of requested tiles that cover the viewport the camera arrived at.
+   *
+   * @return the number of used tiles
+   */
+  public long getUsedTileCount() {
+    return stats[USED_TILES];
+  }
+
+  /**
+   * Returns the number of requests canceled before they loaded, because the camera arrived
+   * or the transition was interrupted.
+   *
+   * @return the number of canceled tiles
+   */
+  public long getCanceledTileCount() {
+    return stats[CANCELED_TILES];
+  }
+
+  /**
+   * Returns the share of requested tiles that covered the viewport the camera arrived at.
+   *
+   * @return the hit rate between 0 and 1, or 0 if no tile was requested
+   */
+  public double getHitRate() {
+    long requested = getRequestedTileCount();
+    return requested > 0 ? (double) getUsedTileCount() / requested : 0;
+  }
+
+  @NonNull
+  @Override
+  public String toString() {
+    return "PredictivePrefetchStats{predictions=" + getPredictionCount()
+      + ", requestedTiles=" + getRequestedTileCount()
+      + ", loadedTiles=" + getLoadedTileCount()
+      + ", usedTiles=" + getUsedTileCount()
+      + ", canceledTiles=" + getCanceledTileCount() + '}';
+  }
+}
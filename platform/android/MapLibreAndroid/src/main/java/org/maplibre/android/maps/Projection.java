@@ -14,6 +14,7 @@ import org.maplibre.android.geometry.VisibleRegion;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A projection is used to translate between on screen location and geographic coordinates on
@@ -26,6 +27,7 @@ public class Projection {
   private final NativeMap nativeMapView;
   @NonNull
   private final MapView mapView;
+  private final List<OnProjectionChangeListener> onProjectionChangeListeners = new CopyOnWriteArrayList<>();
 
   Projection(@NonNull NativeMap nativeMapView, @NonNull MapView mapView) {
     this.nativeMapView = nativeMapView;
@@ -220,6 +222,23 @@ public class Projection {
     nativeMapView.getVisibleCoordinateBounds(bounds);
   }
 
+  /**
+   * Fills a snapshot of the current camera state with a single call into native code.
+   * <p>
+   * The snapshot can be reused across calls, which avoids allocating when the camera is read on every frame.
+   * It is left invalid when the map has been destroyed.
+   *
+   * @param snapshot the snapshot to fill
+   */
+  public void getCameraSnapshot(@NonNull CameraSnapshot snapshot) {
+    if (nativeMapView.isDestroyed()) {
+      snapshot.setValid(false);
+      return;
+    }
+    nativeMapView.getCameraSnapshot(snapshot.values);
+    snapshot.setValid(true);
+  }
+
   /**
    * Takes two {@link Point}s and finds the geographic bearing between them.
    *
@@ -305,6 +324,35 @@ public class Projection {
     nativeMapView.pixelsForLatLngs(input, output);
   }
 
+  /**
+   * Adds a callback that is invoked whenever the projection changes, as a result of a camera change or of the map
+   * being resized. Consumers of {@link CameraSnapshot} or {@link ScreenProjector} use it to know when to refresh.
+   *
+   * @param listener the listener to add
+   */
+  public void addOnProjectionChangeListener(@NonNull OnProjectionChangeListener listener) {
+    onProjectionChangeListeners.add(listener);
+  }
+
+  /**
+   * Removes a callback added with {@link #addOnProjectionChangeListener(OnProjectionChangeListener)}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removeOnProjectionChangeListener(@NonNull OnProjectionChangeListener listener) {
+    onProjectionChangeListeners.remove(listener);
+  }
+
+  void onProjectionChange() {
+    for (OnProjectionChangeListener listener : onProjectionChangeListeners) {
+      listener.onProjectionChange();
+    }
+  }
+
+  void clearOnProjectionChangeListeners() {
+    onProjectionChangeListeners.clear();
+  }
+
   float getHeight() {
     return mapView.getHeight();
   }
@@ -322,4 +370,14 @@ public class Projection {
   public double calculateZoom(float minScale) {
     return nativeMapView.getZoom() + Math.log(minScale) / Math.log(2);
   }
+
+  /**
+   * Interface definition for a callback to be invoked when the projection changes.
+   */
+  public interface OnProjectionChangeListener {
+    /**
+     * Called on the main thread when the camera or the size of the map changed.
+     */
+    void onProjectionChange();
+  }
 }
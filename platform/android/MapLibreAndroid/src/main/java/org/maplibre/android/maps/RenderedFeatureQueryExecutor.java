@@ -0,0 +1,139 @@
+package org.maplibre.android.maps;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.UiThread;
+
+import org.maplibre.android.log.Logger;
+import org.maplibre.geojson.Feature;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs rendered feature queries and the conversion of their results on a worker thread shared by all maps, and
+ * delivers the features on the main thread.
+ * <p>
+ * A query supersedes the unfinished query issued with the same callback: the superseded query is skipped if it
+ * hasn't started yet, and its result is dropped otherwise.
+ * </p>
+ */
+final class RenderedFeatureQueryExecutor {
+
+  private static final String TAG = "Mbgl-RenderedFeatureQueryExecutor";
+  private static final String THREAD_NAME = "MapLibreFeatureQuery";
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+  private static ThreadPoolExecutor executor;
+
+  // Only accessed on the main thread
+  private final Map<MapLibreMap.RenderedFeaturesCallback, Future<List<Feature>>> pending = new HashMap<>();
+
+  /**
+   * Schedules a query, cancelling the unfinished query issued with the same callback.
+   * <p>
+   * The returned future completes on the main thread, right before the callback is invoked.
+   * Cancelling it skips the query if it hasn't started yet, and the callback isn't invoked.
+   * </p>
+   *
+   * @param query    the query, invoked on a worker thread
+   * @param callback the callback to deliver the features to
+   * @return the future tracking the query and delivery
+   */
+  @NonNull
+  @UiThread
+  Future<List<Feature>> execute(@NonNull final Callable<List<Feature>> query,
+                                @NonNull final MapLibreMap.RenderedFeaturesCallback callback) {
+    final AtomicReference<List<Feature>> features = new AtomicReference<>();
+    final AtomicReference<Exception> failure = new AtomicReference<>();
+    final FutureTask<List<Feature>> delivery = new FutureTask<List<Feature>>(() -> {
+      Exception exception = failure.get();
+      if (exception != null) {
+        throw exception;
+      }
+      return features.get();
+    }) {
+      @Override
+      protected void done() {
+        if (pending.get(callback) == this) {
+          pending.remove(callback);
+        }
+        if (isCancelled()) {
+          return;
+        }
+
+        try {
+          callback.onRenderedFeatures(get());
+        } catch (InterruptedException | ExecutionException exception) {
+          Logger.e(TAG, "Querying rendered features failed", exception);
+        }
+      }
+    };
+
+    Future<List<Feature>> superseded = pending.put(callback, delivery);
+    if (superseded != null) {
+      superseded.cancel(false);
+    }
+
+    getExecutor().execute(() -> {
+      if (delivery.isCancelled()) {
+        return;
+      }
+
+      try {
+        features.set(query.call());
+      } catch (Exception exception) {
+        failure.set(exception);
+      }
+      if (!delivery.isCancelled()) {
+        mainHandler.post(delivery);
+      }
+    });
+    return delivery;
+  }
+
+  /**
+   * Cancels all unfinished queries, their callbacks won't be invoked.
+   */
+  @UiThread
+  void cancelAll() {
+    // cancelling a query removes it from the pending queries
+    for (Future<List<Feature>> future : new ArrayList<>(pending.values())) {
+      future.cancel(false);
+    }
+  }
+
+  @NonNull
+  static synchronized ThreadPoolExecutor getExecutor() {
+    if (executor == null) {
+      // The core serializes queries on the render thread, so a single worker suffices
+      executor = new ThreadPoolExecutor(
+        1,
+        1,
+        KEEP_ALIVE_SECONDS,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, THREAD_NAME);
+          thread.setDaemon(true);
+          return thread;
+        }
+      );
+      executor.allowCoreThreadTimeOut(true);
+    }
+    return executor;
+  }
+}
@@ -0,0 +1,147 @@
+package org.maplibre.android.maps;
+
+import androidx.annotation.NonNull;
+
+import org.maplibre.android.constants.GeometryConstants;
+
+/**
+ * Projects geographic coordinates to screen locations without calling into native code.
+ * <p>
+ * A projector holds a copy of the projection matrix of a {@link CameraSnapshot}, and must be updated with a new
+ * snapshot whenever the projection changes, see {@link Projection#addOnProjectionChangeListener}. It is not tied
+ * to the map, so packed coordinate arrays can be projected on any thread as long as the projector is not updated
+ * concurrently. For coordinates in front of the camera, results match
+ * {@link Projection#toScreenLocations(double[], double[])} for the camera of the snapshot.
+ * <p>
+ * Coordinates that are projected every frame can be converted to normalized Mercator coordinates once with
+ * {@link #toMercator(double[], double[], int)} and projected with {@link #projectMercator(double[], double[], int)}.
+ */
+public final class ScreenProjector {
+
+  private final double[] matrix = new double[16];
+  private double centerLongitude;
+  private double worldSize;
+  private boolean valid;
+
+  /**
+   * Updates the projector with the projection of a snapshot.
+   *
+   * @param snapshot a valid camera snapshot
+   */
+  public void update(@NonNull CameraSnapshot snapshot) {
+    snapshot.getProjectionMatrix(matrix);
+    centerLongitude = snapshot.getLongitude();
+    worldSize = snapshot.getWorldSize();
+    valid = snapshot.isValid();
+  }
+
+  /**
+   * Returns true if the projector has been updated with a valid snapshot.
+   *
+   * @return true if the projector can be used
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Returns the world size of the snapshot the projector was last updated with.
+   *
+   * @return the world size in screen pixels
+   */
+  public double getWorldSize() {
+    return worldSize;
+  }
+
+  /**
+   * Projects geographic coordinates to screen locations.
+   * <p>
+   * Longitudes are wrapped to the copy of the world closest to the camera center, like
+   * {@link Projection#toScreenLocation}. Coordinates behind the camera are projected to {@link Double#NaN}.
+   *
+   * @param latLngs packed latitude and longitude pairs
+   * @param out     packed x and y screen locations in screen pixels, may be the same array as {@code latLngs}
+   * @param count   the number of coordinates to project
+   */
+  public void project(@NonNull double[] latLngs, @NonNull double[] out, int count) {
+    toMercator(latLngs, out, count);
+    projectMercator(out, out, count);
+  }
+
+  /**
+   * Converts geographic coordinates to normalized Mercator coordinates for
+   * {@link #projectMercator(double[], double[], int)}.
+   * <p>
+   * The longitudes are unwrapped against the camera center of the last update, so converted coordinates
+   * remain valid for as long as the camera does not cross the antimeridian.
+   *
+   * @param latLngs  packed latitude and longitude pairs
+   * @param mercator packed x and y normalized Mercator coordinates, may be the same array as {@code latLngs}
+   * @param count    the number of coordinates to convert
+   */
+  public void toMercator(@NonNull double[] latLngs, @NonNull double[] mercator, int count) {
+    final double center = centerLongitude;
+    for (int i = 0, end = count * 2; i < end; i += 2) {
+      final double latitude = Math.max(GeometryConstants.MIN_MERCATOR_LATITUDE,
+        Math.min(GeometryConstants.MAX_MERCATOR_LATITUDE, latLngs[i]));
+      final double longitude = unwrapForShortestPath(wrap(latLngs[i + 1]), center);
+      mercator[i] = (GeometryConstants.LONGITUDE_SPAN / 2 + longitude) / GeometryConstants.LONGITUDE_SPAN;
+      mercator[i + 1] = (GeometryConstants.LONGITUDE_SPAN / 2 - Math.toDegrees(
+        Math.log(Math.tan(Math.PI / 4 + Math.toRadians(latitude) / 2)))) / GeometryConstants.LONGITUDE_SPAN;
+    }
+  }
+
+  /**
+   * Projects normalized Mercator coordinates to screen locations.
+   * Coordinates behind the camera are projected to {@link Double#NaN}.
+   *
+   * @param mercator packed x and y normalized Mercator coordinates
+   * @param out      packed x and y screen locations in screen pixels, may be the same array as {@code mercator}
+   * @param count    the number of coordinates to project
+   */
+  public void projectMercator(@NonNull double[] mercator, @NonNull double[] out, int count) {
+    // Coordinates lie on the ground plane, so the third column of the matrix does not contribute.
+    final double m0 = matrix[0];
+    final double m1 = matrix[1];
+    final double m3 = matrix[3];
+    final double m4 = matrix[4];
+    final double m5 = matrix[5];
+    final double m7 = matrix[7];
+    final double m12 = matrix[12];
+    final double m13 = matrix[13];
+    final double m15 = matrix[15];
+    for (int i = 0, end = count * 2; i < end; i += 2) {
+      final double x = mercator[i];
+      final double y = mercator[i + 1];
+      final double w = m3 * x + m7 * y + m15;
+      final double scale = w > 0 ? 1 / w : Double.NaN;
+      out[i] = (m0 * x + m4 * y + m12) * scale;
+      out[i + 1] = (m1 * x + m5 * y + m13) * scale;
+    }
+  }
+
+  private static double wrap(double longitude) {
+    final double min = GeometryConstants.MIN_WRAP_LONGITUDE;
+    final double max = GeometryConstants.MAX_WRAP_LONGITUDE;
+    if (longitude >= min && longitude < max) {
+      return longitude;
+    } else if (longitude == max) {
+      return min;
+    }
+    final double wrapped = min + (longitude - min) % GeometryConstants.LONGITUDE_SPAN;
+    return longitude < min ? wrapped + GeometryConstants.LONGITUDE_SPAN : wrapped;
+  }
+
+  private static double unwrapForShortestPath(double longitude, double center) {
+    final double delta = Math.abs(center - longitude);
+    if (delta <= GeometryConstants.MAX_WRAP_LONGITUDE || delta >= GeometryConstants.LONGITUDE_SPAN) {
+      return longitude;
+    }
+    if (longitude > 0 && center < 0) {
+      return longitude - GeometryConstants.LONGITUDE_SPAN;
+    } else if (longitude < 0 && center > 0) {
+      return longitude + GeometryConstants.LONGITUDE_SPAN;
+    }
+    return longitude;
+  }
+}
@@ -2,7 +2,6 @@ package org.maplibre.android.maps;
 
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
-import android.os.AsyncTask;
 import android.util.DisplayMetrics;
 import android.util.Pair;
 
@@ -22,13 +21,13 @@ import org.maplibre.android.style.sources.Source;
 import org.maplibre.android.util.DefaultStyle;
 import org.maplibre.android.utils.BitmapUtils;
 
-import java.lang.ref.WeakReference;
-import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 /**
  * The proxy object for current map style.
@@ -48,6 +47,7 @@ public class Style {
   private final HashMap<String, Source> sources = new HashMap<>();
   private final HashMap<String, Layer> layers = new HashMap<>();
   private final HashMap<String, Bitmap> images = new HashMap<>();
+  private final List<Future<Void>> pendingImageConversions = new ArrayList<>();
   private final Builder builder;
   private boolean fullyLoaded;
 
@@ -477,7 +477,7 @@ public class Style {
    */
   public void addImageAsync(@NonNull final String name, @NonNull Bitmap bitmap, boolean sdf) {
     validateState("addImage");
-    new BitmapImageConversionTask(nativeMap).execute(new Builder.ImageWrapper(name, bitmap, sdf));
+    convertImagesAsync(null, new Builder.ImageWrapper(name, bitmap, sdf));
   }
 
   /**
@@ -495,8 +495,7 @@ public class Style {
                             @NonNull List<ImageStretches> stretchY,
                             @Nullable ImageContent content) {
     validateState("addImage");
-    new BitmapImageConversionTask(nativeMap)
-      .execute(new Builder.ImageWrapper(name, bitmap, sdf, stretchX, stretchY, content));
+    convertImagesAsync(null, new Builder.ImageWrapper(name, bitmap, sdf, stretchX, stretchY, content));
   }
 
   /**
@@ -594,7 +593,7 @@ public class Style {
    */
   public void addImagesAsync(@NonNull HashMap<String, Bitmap> images, boolean sdf) {
     validateState("addImages");
-    new BitmapImageConversionTask(nativeMap).execute(Builder.ImageWrapper.convertToImageArray(images, sdf));
+    convertImagesAsync(null, Builder.ImageWrapper.convertToImageArray(images, sdf));
   }
 
   /**
@@ -611,8 +610,54 @@ public class Style {
                              @NonNull List<ImageStretches> stretchY,
                              @Nullable ImageContent content) {
     validateState("addImages");
-    new BitmapImageConversionTask(nativeMap)
-      .execute(Builder.ImageWrapper.convertToImageArray(images, sdf, stretchX, stretchY, content));
+    convertImagesAsync(null, Builder.ImageWrapper.convertToImageArray(images, sdf, stretchX, stretchY, content));
+  }
+
+  /**
+   * Adds images asynchronously, to be used in the map's style.
+   *
+   * @param images   the map of images to add
+   * @param sdf      the flag indicating image is an SDF or template image
+   * @param callback invoked on the main thread once the images are added to the map, or failed
+   */
+  public void addImagesAsync(@NonNull HashMap<String, Bitmap> images, boolean sdf,
+                             @NonNull OnImagesAdded callback) {
+    validateState("addImages");
+    convertImagesAsync(callback, Builder.ImageWrapper.convertToImageArray(images, sdf));
+  }
+
+  /**
+   * Adds images asynchronously, to be used in the map's style.
+   *
+   * @param images   the map of images to add
+   * @param sdf      the flag indicating image is an SDF or template image
+   * @param stretchX image stretch areas for x axix
+   * @param stretchY image stretch areas for y axix
+   * @param content  image content for text to fit
+   * @param callback invoked on the main thread once the images are added to the map, or failed
+   */
+  public void addImagesAsync(@NonNull HashMap<String, Bitmap> images, boolean sdf,
+                             @NonNull List<ImageStretches> stretchX,
+                             @NonNull List<ImageStretches> stretchY,
+                             @Nullable ImageContent content,
+                             @NonNull OnImagesAdded callback) {
+    validateState("addImages");
+    convertImagesAsync(callback, Builder.ImageWrapper.convertToImageArray(images, sdf, stretchX, stretchY, content));
+  }
+
+  /**
+   * Converts the images on the shared conversion pool and adds them in one batch once all are converted.
+   * The conversion is cancelled when this style is replaced.
+   */
+  private void convertImagesAsync(@Nullable OnImagesAdded callback, @NonNull Builder.ImageWrapper... wrappers) {
+    Iterator<Future<Void>> iterator = pendingImageConversions.iterator();
+    while (iterator.hasNext()) {
+      if (iterator.next().isDone()) {
+        iterator.remove();
+      }
+    }
+
+    pendingImageConversions.add(BitmapImageConverter.convert(nativeMap, callback, wrappers));
   }
 
   /**
@@ -709,6 +754,12 @@ public class Style {
    */
   void clear() {
     fullyLoaded = false;
+    for (Future<Void> conversion : pendingImageConversions) {
+      // Releases the pixels of the images that weren't added yet.
+      conversion.cancel(false);
+    }
+    pendingImageConversions.clear();
+
     for (Layer layer : layers.values()) {
       if (layer != null) {
         layer.setDetached();
@@ -812,6 +863,8 @@ public class Style {
     private TransitionOptions transitionOptions;
     private String styleUri;
     private String styleJson;
+    private String styleBundle;
+    private boolean diff;
 
     /**
      * <p>
@@ -901,6 +954,50 @@ public class Style {
       return this;
     }
 
+    /**
+     * Will load a new map style from a style bundle.
+     * <p>
+     * A bundle contains the minified style together with its sprite sheets and a manifest of the glyph ranges the
+     * style uses, and is created with the {@code mbgl-style-bundle} tool. The style is stored pre-parsed, so no JSON is
+     * parsed when loading it. Sprites are read from the bundle instead of being requested, and the listed glyph ranges
+     * are requested as soon as the style is loaded.
+     * </p>
+     * {@code path} can take the following forms:
+     * <ul>
+     * <li>{@code asset://...}:
+     * loads the bundle from the APK {@code assets/} directory. Store the bundle uncompressed, eg. with
+     * {@code androidResources.noCompress}, so that it can be memory-mapped.</li>
+     * <li>an absolute file path, eg. in the cache directory, which is memory-mapped.</li>
+     * </ul>
+     *
+     * @param path the path of the style bundle
+     * @return this
+     */
+    @NonNull
+    public Builder fromBundle(@NonNull String path) {
+      this.styleBundle = path;
+      return this;
+    }
+
+    /**
+     * Will diff the new style against the currently loaded style instead of replacing it.
+     * <p>
+     * Sources whose definition didn't change keep their loaded tiles, unchanged layers are not re-laid out and
+     * images are kept when the sprite definitions are identical. This makes switching between similar styles,
+     * eg. a light and a dark theme, cheap. Images added at runtime are kept as well when the sprite definitions are
+     * identical. Sources and layers added at runtime are removed as with a regular style change, they need to be
+     * added again with the with-prefixed builder methods.
+     * </p>
+     *
+     * @param diff true to apply the style as a diff against the current style
+     * @return this
+     */
+    @NonNull
+    public Builder withDiff(boolean diff) {
+      this.diff = diff;
+      return this;
+    }
+
     /**
      * Will add the source when map style has loaded.
      *
@@ -1203,6 +1300,14 @@ public class Style {
       return styleJson;
     }
 
+    public String getBundle() {
+      return styleBundle;
+    }
+
+    public boolean isDiff() {
+      return diff;
+    }
+
     public List<Source> getSources() {
       return sources;
     }
@@ -1348,14 +1453,17 @@ public class Style {
     }
   }
 
+  /**
+   * Wraps the bitmap of the image wrapper into an Image. The pixels are not copied on the Java side, native code
+   * copies them once, either on the image worker pool for the async variants or when the image is added.
+   * Bitmaps that aren't premultiplied are premultiplied on every API level.
+   */
   public static Image toImage(Builder.ImageWrapper imageWrapper) {
     Bitmap bitmap = imageWrapper.bitmap;
     if (bitmap.getConfig() != Bitmap.Config.ARGB_8888) {
       bitmap = bitmap.copy(Bitmap.Config.ARGB_8888, false);
     }
 
-    ByteBuffer buffer = ByteBuffer.allocate(bitmap.getByteCount());
-    bitmap.copyPixelsToBuffer(buffer);
     float pixelRatio = (float) bitmap.getDensity() / DisplayMetrics.DENSITY_DEFAULT;
 
     if (imageWrapper.getStretchX() != null && imageWrapper.getStretchY() != null) {
@@ -1370,43 +1478,12 @@ public class Style {
         arrayY[i * 2] = imageWrapper.getStretchY().get(i).getFirst();
         arrayY[i * 2 + 1] = imageWrapper.getStretchY().get(i).getSecond();
       }
-      return new Image(buffer.array(), pixelRatio, imageWrapper.id,
-        bitmap.getWidth(), bitmap.getHeight(), imageWrapper.sdf, arrayX, arrayY,
+      return new Image(bitmap, pixelRatio, imageWrapper.id, imageWrapper.sdf, arrayX, arrayY,
         imageWrapper.getContent() == null ? null : imageWrapper.getContent().getContentArray()
       );
     }
 
-    return new Image(buffer.array(), pixelRatio, imageWrapper.id,
-      bitmap.getWidth(), bitmap.getHeight(), imageWrapper.sdf
-    );
-  }
-
-  private static class BitmapImageConversionTask extends AsyncTask<Builder.ImageWrapper, Void, Image[]> {
-
-    private WeakReference<NativeMap> nativeMap;
-
-    BitmapImageConversionTask(NativeMap nativeMap) {
-      this.nativeMap = new WeakReference<>(nativeMap);
-    }
-
-    @NonNull
-    @Override
-    protected Image[] doInBackground(Builder.ImageWrapper... params) {
-      List<Image> images = new ArrayList<>();
-      for (Builder.ImageWrapper param : params) {
-        images.add(toImage(param));
-      }
-      return images.toArray(new Image[images.size()]);
-    }
-
-    @Override
-    protected void onPostExecute(@NonNull Image[] images) {
-      super.onPostExecute(images);
-      NativeMap nativeMap = this.nativeMap.get();
-      if (nativeMap != null && !nativeMap.isDestroyed()) {
-        nativeMap.addImages(images);
-      }
-    }
+    return new Image(bitmap, pixelRatio, imageWrapper.id, imageWrapper.sdf);
   }
 
   /**
@@ -1421,6 +1498,25 @@ public class Style {
     void onStyleLoaded(@NonNull Style style);
   }
 
+  /**
+   * Callback to be invoked when images added asynchronously are added to the map.
+   */
+  public interface OnImagesAdded {
+    /**
+     * Invoked on the main thread once the images are added to the map. Not invoked when the conversion is
+     * cancelled because the style was replaced.
+     */
+    void onImagesAdded();
+
+    /**
+     * Invoked on the main thread instead of {@link #onImagesAdded()} when some of the images couldn't be
+     * converted or added. The other images are still added.
+     *
+     * @param message the error message of the first failure
+     */
+    void onError(@NonNull String message);
+  }
+
   //
   // Style URL constants
   //
@@ -296,6 +296,10 @@ public class Transform implements MapView.OnCameraDidChangeListener {
   }
 
 
+  void animateInertia(double zoomVelocity, double bearingVelocity, @NonNull PointF focalPoint, long duration) {
+    nativeMap.animateInertia(zoomVelocity, bearingVelocity, focalPoint.x, focalPoint.y, duration);
+  }
+
   //
   // LatLng / CenterCoordinate
   //
@@ -74,6 +74,7 @@ public final class UiSettings {
   private boolean scaleVelocityAnimationEnabled = true;
   private boolean rotateVelocityAnimationEnabled = true;
   private boolean flingVelocityAnimationEnabled = true;
+  private boolean nativeGestureAnimationsEnabled = false;
 
   private boolean increaseRotateThresholdWhenScaling = true;
   private boolean disableRotateWhenScaling = true;
@@ -157,6 +158,7 @@ public final class UiSettings {
     outState.putBoolean(MapLibreConstants.STATE_SCALE_ANIMATION_ENABLED, isScaleVelocityAnimationEnabled());
     outState.putBoolean(MapLibreConstants.STATE_ROTATE_ANIMATION_ENABLED, isRotateVelocityAnimationEnabled());
     outState.putBoolean(MapLibreConstants.STATE_FLING_ANIMATION_ENABLED, isFlingVelocityAnimationEnabled());
+    outState.putBoolean(MapLibreConstants.STATE_NATIVE_GESTURE_ANIMATIONS_ENABLED, isNativeGestureAnimationsEnabled());
     outState.putBoolean(MapLibreConstants.STATE_INCREASE_ROTATE_THRESHOLD, isIncreaseRotateThresholdWhenScaling());
     outState.putBoolean(MapLibreConstants.STATE_DISABLE_ROTATE_WHEN_SCALING, isDisableRotateWhenScaling());
     outState.putBoolean(MapLibreConstants.STATE_INCREASE_SCALE_THRESHOLD, isIncreaseScaleThresholdWhenRotating());
@@ -174,6 +176,8 @@ public final class UiSettings {
     setScaleVelocityAnimationEnabled(savedInstanceState.getBoolean(MapLibreConstants.STATE_SCALE_ANIMATION_ENABLED));
     setRotateVelocityAnimationEnabled(savedInstanceState.getBoolean(MapLibreConstants.STATE_ROTATE_ANIMATION_ENABLED));
     setFlingVelocityAnimationEnabled(savedInstanceState.getBoolean(MapLibreConstants.STATE_FLING_ANIMATION_ENABLED));
+    setNativeGestureAnimationsEnabled(
+      savedInstanceState.getBoolean(MapLibreConstants.STATE_NATIVE_GESTURE_ANIMATIONS_ENABLED));
     setIncreaseRotateThresholdWhenScaling(
       savedInstanceState.getBoolean(MapLibreConstants.STATE_INCREASE_ROTATE_THRESHOLD));
     setDisableRotateWhenScaling(savedInstanceState.getBoolean(MapLibreConstants.STATE_DISABLE_ROTATE_WHEN_SCALING));
@@ -1060,6 +1064,30 @@ public final class UiSettings {
     this.flingVelocityAnimationEnabled = flingVelocityAnimationEnabled;
   }
 
+  /**
+   * Returns whether scale and rotate velocity animations and animated zooms are driven by native code.
+   *
+   * @return If true, native gesture animations are enabled.
+   */
+  public boolean isNativeGestureAnimationsEnabled() {
+    return nativeGestureAnimationsEnabled;
+  }
+
+  /**
+   * Set whether scale and rotate velocity animations and animated zooms are handed to native code as a single
+   * camera animation with an initial velocity that decays to zero, instead of being driven by a Java animator that
+   * updates the camera on every frame. Fling animations are always driven by native code. False by default.
+   * <p>
+   * Native animations keep running smoothly when the main thread is busy, at the cost of a slightly different
+   * deceleration curve for rotations.
+   * </p>
+   *
+   * @param nativeGestureAnimationsEnabled If true, native gesture animations will be enabled.
+   */
+  public void setNativeGestureAnimationsEnabled(boolean nativeGestureAnimationsEnabled) {
+    this.nativeGestureAnimationsEnabled = nativeGestureAnimationsEnabled;
+  }
+
   /**
    * Set whether all velocity animations should execute after users finishes a gesture.
    *
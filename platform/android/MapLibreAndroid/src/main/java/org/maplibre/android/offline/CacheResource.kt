@@ -0,0 +1,92 @@
+package org.maplibre.android.offline
+
+import java.io.IOException
+import java.nio.ByteBuffer
+import java.nio.channels.ReadableByteChannel
+
+/**
+ * A resource to insert into the ambient cache with [OfflineManager.putResources].
+ *
+ * @property url     The URL of the resource
+ * @property headers The HTTP response headers of the resource. ETag, Last-Modified, Cache-Control and
+ * Expires are used to revalidate the resource with the server once it is stale.
+ * @property data    The uncompressed payload of the resource
+ */
+class CacheResource(
+    val url: String,
+    val headers: Map<String, String>,
+    val data: ByteArray
+)
+
+/**
+ * Reads cache resources from a channel, one record per resource. The lengths are 32-bit
+ * big-endian integers:
+ *
+ *  * the length of the URL, followed by the URL in UTF-8
+ *  * the length of the headers, followed by the headers in UTF-8, one "Name: value" per line
+ *  * the length of the payload, followed by the payload
+ *
+ * The channel ends after the last record.
+ */
+internal class CacheResourceReader(private val channel: ReadableByteChannel) : Iterator<CacheResource> {
+    private var next: CacheResource? = null
+    private var ended = false
+
+    override fun hasNext(): Boolean {
+        if (next == null && !ended) {
+            next = read()
+            ended = next == null
+        }
+        return next != null
+    }
+
+    override fun next(): CacheResource {
+        if (!hasNext()) {
+            throw NoSuchElementException()
+        }
+        val resource = next!!
+        next = null
+        return resource
+    }
+
+    private fun read(): CacheResource? {
+        val urlLength = readLength(true) ?: return null
+        val url = String(readBytes(urlLength), Charsets.UTF_8)
+        val headers = String(readBytes(readLength(false)!!), Charsets.UTF_8)
+            .lineSequence()
+            .mapNotNull { line ->
+                val colon = line.indexOf(':')
+                if (colon < 0) null else line.substring(0, colon).trim() to line.substring(colon + 1).trim()
+            }
+            .toMap()
+        return CacheResource(url, headers, readBytes(readLength(false)!!))
+    }
+
+    private fun readLength(recordStart: Boolean): Int? {
+        val buffer = ByteBuffer.allocate(4)
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                if (recordStart && buffer.position() == 0) {
+                    return null
+                }
+                throw IOException("Truncated cache resource record")
+            }
+        }
+        buffer.flip()
+        val length = buffer.int
+        if (length < 0) {
+            throw IOException("Invalid cache resource record length $length")
+        }
+        return length
+    }
+
+    private fun readBytes(length: Int): ByteArray {
+        val buffer = ByteBuffer.allocate(length)
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw IOException("Truncated cache resource record")
+            }
+        }
+        return buffer.array()
+    }
+}
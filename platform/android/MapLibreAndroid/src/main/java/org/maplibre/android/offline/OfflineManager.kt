@@ -1,14 +1,19 @@
 package org.maplibre.android.offline
 
 import android.annotation.SuppressLint
+import android.content.ComponentCallbacks2
 import android.content.Context
+import android.content.res.Configuration
 import android.os.Handler
 import android.os.Looper
+import android.os.SystemClock
+import androidx.annotation.IntDef
 import androidx.annotation.Keep
 import androidx.annotation.UiThread
 import org.maplibre.android.LibraryLoader
 import org.maplibre.android.R
 import org.maplibre.android.geometry.LatLngBounds.Companion.world
+import org.maplibre.android.maps.MapView
 import org.maplibre.android.net.ConnectivityReceiver
 import org.maplibre.android.storage.FileSource
 import org.maplibre.android.utils.FileUtils
@@ -17,6 +22,9 @@ import java.io.FileInputStream
 import java.io.FileOutputStream
 import java.io.IOException
 import java.nio.channels.FileChannel
+import java.nio.channels.ReadableByteChannel
+import java.util.concurrent.Semaphore
+import java.util.concurrent.atomic.AtomicLong
 
 /**
  * The offline manager is the main entry point for offline-related functionality.
@@ -107,6 +115,27 @@ class OfflineManager private constructor(context: Context) {
         fun onError(error: String)
     }
 
+    /**
+     * This callback receives an asynchronous response containing the estimate
+     * of an offline region or an error message otherwise.
+     */
+    @Keep
+    interface EstimateOfflineRegionCallback {
+        /**
+         * Receives the estimate of the offline region.
+         *
+         * @param estimate the estimated tile count and size
+         */
+        fun onEstimate(estimate: OfflineRegionEstimate)
+
+        /**
+         * Receives the error message.
+         *
+         * @param error the error message
+         */
+        fun onError(error: String)
+    }
+
     /**
      * This callback receives an asynchronous response containing a list of all
      * OfflineRegion added to the database during the merge.
@@ -135,6 +164,18 @@ class OfflineManager private constructor(context: Context) {
 
         // Delete any existing previous ambient cache database
         deleteAmbientDatabase(this.context)
+
+        this.context.registerComponentCallbacks(object : ComponentCallbacks2 {
+            override fun onTrimMemory(level: Int) {
+                this@OfflineManager.onTrimMemory(level)
+            }
+
+            override fun onConfigurationChanged(newConfig: Configuration) {}
+
+            override fun onLowMemory() {
+                nativeTrimMemoryCache(0)
+            }
+        })
     }
 
     private fun deleteAmbientDatabase(context: Context) {
@@ -436,6 +477,49 @@ class OfflineManager private constructor(context: Context) {
         )
     }
 
+    /**
+     * Sets how writes to the offline database, which also holds the ambient cache, are made durable.
+     *
+     * With [DURABILITY_FULL], the default, every write is synced to disk and blocks reads until it
+     * completes. With [DURABILITY_NORMAL], the database uses a write-ahead log that is synced
+     * periodically, and ambient cache reads are served from a separate connection so they don't
+     * wait for writes or offline downloads. A power loss may then roll back the most recent writes,
+     * but doesn't corrupt the database.
+     *
+     * This method should be called at the start of an app, before setting the style and loading a map.
+     *
+     * @param durability the durability mode, [DURABILITY_FULL] or [DURABILITY_NORMAL]
+     * @param callback   the callback to be invoked when the mode has been set or when the operation erred.
+     */
+    fun setDatabaseDurability(@DatabaseDurability durability: Int, callback: FileSourceCallback?) {
+        fileSource.activate()
+        nativeSetDatabaseDurability(
+            durability,
+            object : FileSourceCallback {
+                override fun onSuccess() {
+                    handler.post {
+                        fileSource.deactivate()
+                        callback?.onSuccess()
+                    }
+                }
+
+                override fun onError(message: String) {
+                    handler.post {
+                        fileSource.deactivate()
+                        callback?.onError(message)
+                    }
+                }
+            }
+        )
+    }
+
+    /**
+     * The durability modes of the offline database, see [setDatabaseDurability].
+     */
+    @IntDef(*[DURABILITY_FULL, DURABILITY_NORMAL])
+    @kotlin.annotation.Retention(AnnotationRetention.SOURCE)
+    annotation class DatabaseDurability
+
     /**
      * This callback receives an asynchronous response indicating if an operation has succeeded or failed.
      */
@@ -454,6 +538,59 @@ class OfflineManager private constructor(context: Context) {
         fun onError(message: String)
     }
 
+    /**
+     * This callback receives the progress of packing the database while idle.
+     */
+    @Keep
+    interface PackDatabaseProgressCallback {
+        /**
+         * Receives the progress after each packing step. The last call has no remaining size or is paused.
+         *
+         * @param reclaimedSize the size in bytes returned to the file system since packing started
+         * @param remainingSize the size in bytes of the free pages left in the database file
+         * @param paused        true if packing stopped because resources were requested from the database
+         */
+        fun onProgress(reclaimedSize: Long, remainingSize: Long, paused: Boolean)
+    }
+
+    /**
+     * This callback receives the progress of inserting resources into the ambient cache in bulk.
+     */
+    @Keep
+    interface PutResourcesCallback {
+        /**
+         * Receives the progress after each batch of resources was stored.
+         *
+         * @param resourceCount  the number of resources inserted so far, not counting resources that
+         * replaced a stored version of the same URL
+         * @param resourceSize   the size in bytes of the payloads stored so far
+         * @param bytesPerSecond the average rate at which payloads were stored
+         */
+        fun onProgress(resourceCount: Long, resourceSize: Long, bytesPerSecond: Double)
+
+        /**
+         * Receives the totals once all resources were stored.
+         *
+         * @param resourceCount the number of resources inserted, not counting resources that replaced
+         * a stored version of the same URL
+         * @param resourceSize  the size in bytes of the payloads stored
+         */
+        fun onComplete(resourceCount: Long, resourceSize: Long)
+
+        /**
+         * Receives the error message if the resources couldn't be read. The resources read before
+         * the error are stored.
+         *
+         * @param message the error message
+         */
+        fun onError(message: String)
+    }
+
+    @Keep
+    private interface ResourceBatchCallback {
+        fun onStored(insertedCount: Long)
+    }
+
     private fun mergeOfflineDatabaseFiles(file: File, callback: MergeOfflineRegionsCallback, isTemporaryFile: Boolean) {
         fileSource.activate()
         mergeOfflineRegions(
@@ -529,6 +666,39 @@ class OfflineManager private constructor(context: Context) {
         )
     }
 
+    /**
+     * Estimates the number and size of the tiles that downloading the given region requires,
+     * without creating the region. The estimate is based on the style, sources and tiles
+     * already stored on the device, for example by the ambient cache, and is fast even for
+     * large regions.
+     *
+     * The provided callback will be executed on the main thread.
+     *
+     * @param definition the offline region definition
+     * @param callback   the callback to be invoked
+     */
+    fun estimateOfflineRegion(definition: OfflineRegionDefinition, callback: EstimateOfflineRegionCallback) {
+        FileSource.getInstance(context).activate()
+        nativeEstimateOfflineRegion(
+            definition,
+            object : EstimateOfflineRegionCallback {
+                override fun onEstimate(estimate: OfflineRegionEstimate) {
+                    handler.post {
+                        FileSource.getInstance(context).deactivate()
+                        callback.onEstimate(estimate)
+                    }
+                }
+
+                override fun onError(error: String) {
+                    handler.post {
+                        FileSource.getInstance(context).deactivate()
+                        callback.onError(error)
+                    }
+                }
+            }
+        )
+    }
+
     /**
      * Validates if the offline region definition bounds is valid for an offline region download.
      *
@@ -552,6 +722,116 @@ class OfflineManager private constructor(context: Context) {
     @Keep
     external fun setOfflineMapboxTileCountLimit(limit: Long)
 
+    /**
+     * Sets the maximum number of resources that each offline region download requests at the same time.
+     * By default, the limit of the network file source is used.
+     *
+     * @param limit the maximum number of concurrent requests per region, or 0 to use the default
+     */
+    @Keep
+    external fun setMaximumConcurrentOfflineRequests(limit: Int)
+
+    /**
+     * Returns the number of resources waiting to be written to the ambient cache.
+     *
+     * Resources loaded by maps are buffered and written to the ambient cache together, once enough of them
+     * were collected or after a short delay. The buffer is dropped when
+     * [org.maplibre.android.maps.MapView.onLowMemory] is called.
+     *
+     * @return the number of buffered ambient cache writes
+     */
+    @Keep
+    external fun getAmbientCacheWriteQueueDepth(): Long
+
+    /**
+     * Sets the maximum size in bytes of the memory cache, which keeps the most recently used resources of the
+     * ambient cache and offline regions in memory so that revisited tiles are served without reading the database.
+     * Setting the size to 0, the default, disables the memory cache.
+     *
+     * The memory cache is trimmed when the application receives [ComponentCallbacks2.onTrimMemory].
+     *
+     * @param size the maximum size of the memory cache
+     */
+    @Keep
+    external fun setMaximumMemoryCacheSize(size: Long)
+
+    /**
+     * Returns the number of requests answered from the memory cache, see [setMaximumMemoryCacheSize].
+     *
+     * @return the number of memory cache hits
+     */
+    @Keep
+    external fun getMemoryCacheHitCount(): Long
+
+    /**
+     * Returns the number of requests that were not answered from the memory cache and read from the database,
+     * see [setMaximumMemoryCacheSize].
+     *
+     * @return the number of memory cache misses
+     */
+    @Keep
+    external fun getMemoryCacheMissCount(): Long
+
+    /**
+     * Returns the size in bytes of the resources held by the memory cache, see [setMaximumMemoryCacheSize].
+     *
+     * @return the current size of the memory cache
+     */
+    @Keep
+    external fun getMemoryCacheSize(): Long
+
+    /**
+     * Sets the maximum size in bytes of the parsed PMTiles directories kept in memory. The directory cache is
+     * shared by all maps showing `pmtiles://` sources, the least recently used directories are evicted first.
+     *
+     * @param size the maximum size of the PMTiles directory cache
+     */
+    @Keep
+    external fun setMaximumPMTilesDirectoryCacheSize(size: Long)
+
+    /**
+     * Returns the number of PMTiles directory lookups answered from memory,
+     * see [setMaximumPMTilesDirectoryCacheSize].
+     *
+     * @return the number of PMTiles directory cache hits
+     */
+    @Keep
+    external fun getPMTilesDirectoryCacheHitCount(): Long
+
+    /**
+     * Returns the number of PMTiles directory lookups that needed the directory to be read from the archive,
+     * see [setMaximumPMTilesDirectoryCacheSize].
+     *
+     * @return the number of PMTiles directory cache misses
+     */
+    @Keep
+    external fun getPMTilesDirectoryCacheMissCount(): Long
+
+    /**
+     * Returns the number of PMTiles directory cache misses that waited for a read of the same directory already
+     * in progress instead of reading it again.
+     *
+     * @return the number of coalesced PMTiles directory reads
+     */
+    @Keep
+    external fun getPMTilesDirectoryCacheCoalescedCount(): Long
+
+    /**
+     * Trims the memory cache for the given [ComponentCallbacks2] trim memory level. Called automatically when
+     * the application receives [ComponentCallbacks2.onTrimMemory].
+     *
+     * @param level the trim memory level
+     */
+    fun onTrimMemory(level: Int) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE ||
+            level == ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL
+        ) {
+            nativeTrimMemoryCache(0)
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            nativeTrimMemoryCache(getMemoryCacheSize() / 2)
+        }
+    }
+
     /**
      * Sets whether database file packing occurs automatically.
      * By default, the automatic database file packing is enabled.
@@ -570,6 +850,53 @@ class OfflineManager private constructor(context: Context) {
     @Keep
     external fun runPackDatabaseAutomatically(autopack: Boolean)
 
+    /**
+     * Sets whether the disk space freed by deleting an offline region or clearing the ambient cache
+     * is left to [OfflineManager.packDatabaseWhileIdle], instead of being reclaimed while the
+     * operation blocks the database. By default, packing in the background is disabled.
+     *
+     * @param enabled flag setting the background database file packing.
+     */
+    @Keep
+    external fun runPackDatabaseInBackground(enabled: Boolean)
+
+    /**
+     * Packs the database file in short steps while the database isn't busy. Packing stops as soon
+     * as resources are requested from the database, for example when the map loads tiles, and
+     * continues with the next call.
+     *
+     * Call it when the map becomes idle, see [OfflineManager.createPackDatabaseWhileIdleListener].
+     *
+     * Databases created by older versions have to be packed once with [OfflineManager.packDatabase]
+     * first, which rewrites the whole file. Until then, packing while idle reports a pause.
+     *
+     * @param callback the callback to be invoked on the main thread with the progress of each step.
+     */
+    fun packDatabaseWhileIdle(callback: PackDatabaseProgressCallback?) {
+        fileSource.activate()
+        nativePackDatabaseWhileIdle(object : PackDatabaseProgressCallback {
+            override fun onProgress(reclaimedSize: Long, remainingSize: Long, paused: Boolean) {
+                handler.post {
+                    if (paused || remainingSize == 0L) {
+                        fileSource.deactivate()
+                    }
+                    callback?.onProgress(reclaimedSize, remainingSize, paused)
+                }
+            }
+        })
+    }
+
+    /**
+     * Creates a listener that packs the database file each time the map becomes idle, to be added
+     * with [MapView.addOnDidBecomeIdleListener]. See [OfflineManager.packDatabaseWhileIdle].
+     *
+     * @param callback the callback to be invoked with the progress of each step.
+     * @return the listener
+     */
+    fun createPackDatabaseWhileIdleListener(callback: PackDatabaseProgressCallback?): MapView.OnDidBecomeIdleListener {
+        return MapView.OnDidBecomeIdleListener { packDatabaseWhileIdle(callback) }
+    }
+
     @Keep
     private external fun initialize(fileSource: FileSource)
 
@@ -586,6 +913,9 @@ class OfflineManager private constructor(context: Context) {
     @Keep
     private external fun createOfflineRegion(fileSource: FileSource, definition: OfflineRegionDefinition, metadata: ByteArray, callback: CreateOfflineRegionCallback)
 
+    @Keep
+    private external fun nativeEstimateOfflineRegion(definition: OfflineRegionDefinition, callback: EstimateOfflineRegionCallback)
+
     @Keep
     private external fun mergeOfflineRegions(fileSource: FileSource, path: String, callback: MergeOfflineRegionsCallback)
 
@@ -604,6 +934,15 @@ class OfflineManager private constructor(context: Context) {
     @Keep
     private external fun nativeSetMaximumAmbientCacheSize(size: Long, callback: FileSourceCallback?)
 
+    @Keep
+    private external fun nativeSetDatabaseDurability(durability: Int, callback: FileSourceCallback?)
+
+    @Keep
+    private external fun nativeTrimMemoryCache(size: Long)
+
+    @Keep
+    private external fun nativePackDatabaseWhileIdle(callback: PackDatabaseProgressCallback)
+
     /**
      * Insert the provided resource into the ambient cache
      * This method mimics the caching that would take place if the equivalent
@@ -626,9 +965,140 @@ class OfflineManager private constructor(context: Context) {
     @Keep
     external fun putResourceWithUrl(url: String?, data: ByteArray?, modified: Long, expires: Long, etag: String?, mustRevalidate: Boolean)
 
+    /**
+     * Inserts resources into the ambient cache in bulk, for example to seed the cache from a bundle
+     * of tiles. Unlike [OfflineManager.putResourceWithUrl], the resources are passed to the database
+     * in batches, each stored in a single transaction.
+     *
+     * The resources are read on a background thread, and reading waits while the database is
+     * storing the previous batches, so that they don't pile up in memory. The provided callback
+     * will be executed on the main thread.
+     *
+     * @param resources the resources to insert
+     * @param callback  the callback to be invoked with the progress
+     */
+    fun putResources(resources: Iterator<CacheResource>, callback: PutResourcesCallback?) {
+        fileSource.activate()
+        Thread({
+            val batchesInFlight = Semaphore(MAX_RESOURCE_BATCHES_IN_FLIGHT)
+            val storedCount = AtomicLong()
+            val storedSize = AtomicLong()
+            val startTime = SystemClock.elapsedRealtime()
+            var error: String? = null
+            try {
+                while (resources.hasNext()) {
+                    val batch = ArrayList<CacheResource>()
+                    var batchSize = 0L
+                    while (resources.hasNext() && batch.size < RESOURCE_BATCH_MAX_COUNT && batchSize < RESOURCE_BATCH_MAX_SIZE) {
+                        val resource = resources.next()
+                        batch.add(resource)
+                        batchSize += resource.data.size
+                    }
+
+                    val data = ByteArray(batchSize.toInt())
+                    var offset = 0
+                    for (resource in batch) {
+                        System.arraycopy(resource.data, 0, data, offset, resource.data.size)
+                        offset += resource.data.size
+                    }
+
+                    val urls = batch.map { it.url }.toTypedArray()
+                    val headers = batch.map { resource ->
+                        resource.headers.entries.joinToString("\n") { "${it.key}: ${it.value}" }
+                    }.toTypedArray()
+                    val sizes = batch.map { it.data.size }.toIntArray()
+                    val size = batchSize
+
+                    batchesInFlight.acquire()
+                    try {
+                        nativePutResources(
+                            urls,
+                            headers,
+                            data,
+                            sizes,
+                            object : ResourceBatchCallback {
+                                override fun onStored(insertedCount: Long) {
+                                    val count = storedCount.addAndGet(insertedCount)
+                                    val bytes = storedSize.addAndGet(size)
+                                    batchesInFlight.release()
+                                    val seconds = (SystemClock.elapsedRealtime() - startTime) / 1000.0
+                                    val bytesPerSecond = if (seconds > 0) bytes / seconds else 0.0
+                                    handler.post { callback?.onProgress(count, bytes, bytesPerSecond) }
+                                }
+                            }
+                        )
+                    } catch (exception: Throwable) {
+                        // The batch never reaches the database, so its callback won't release the permit.
+                        batchesInFlight.release()
+                        throw exception
+                    }
+                }
+            } catch (exception: Throwable) {
+                error = exception.message ?: exception.toString()
+            }
+
+            // Waits for the batches that are still being stored.
+            batchesInFlight.acquireUninterruptibly(MAX_RESOURCE_BATCHES_IN_FLIGHT)
+            val message = error
+            handler.post {
+                fileSource.deactivate()
+                if (message != null) {
+                    callback?.onError(message)
+                } else {
+                    callback?.onComplete(storedCount.get(), storedSize.get())
+                }
+            }
+        }, "CacheResourceImport").start()
+    }
+
+    /**
+     * Inserts resources read from a channel into the ambient cache in bulk, see
+     * [OfflineManager.putResources]. The channel holds one record per resource, in which the
+     * lengths are 32-bit big-endian integers:
+     *
+     *  * the length of the URL, followed by the URL in UTF-8
+     *  * the length of the headers, followed by the HTTP response headers in UTF-8, one
+     *  "Name: value" per line
+     *  * the length of the payload, followed by the uncompressed payload
+     *
+     * The channel is read on a background thread until it ends, and isn't closed.
+     *
+     * @param channel  the channel to read the resources from
+     * @param callback the callback to be invoked with the progress
+     */
+    fun putResources(channel: ReadableByteChannel, callback: PutResourcesCallback?) {
+        putResources(CacheResourceReader(channel), callback)
+    }
+
+    @Keep
+    private external fun nativePutResources(
+        urls: Array<String>,
+        headers: Array<String>,
+        data: ByteArray,
+        sizes: IntArray,
+        callback: ResourceBatchCallback
+    )
+
     companion object {
         private const val TAG = "Mbgl - OfflineManager"
 
+        /**
+         * Every write is synced to disk before it completes.
+         */
+        const val DURABILITY_FULL = 0
+
+        /**
+         * Writes go to a write-ahead log that is synced periodically.
+         */
+        const val DURABILITY_NORMAL = 1
+
+        // Bulk inserts are passed to the database in batches of this many resources or bytes.
+        private const val RESOURCE_BATCH_MAX_COUNT = 1024
+        private const val RESOURCE_BATCH_MAX_SIZE = 8L * 1024 * 1024
+
+        // One batch is stored while the next is read.
+        private const val MAX_RESOURCE_BATCHES_IN_FLIGHT = 2
+
         //
         // Static methods
         //
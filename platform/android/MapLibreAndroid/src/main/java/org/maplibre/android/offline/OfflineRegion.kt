@@ -154,6 +154,25 @@ class OfflineRegion @Keep private constructor(offlineRegionPtr: Long, fileSource
         fun onError(error: String)
     }
 
+    /**
+     * This callback receives an asynchronous response containing a notification when
+     * an offline region has been exported, or a [String] error message otherwise.
+     */
+    @Keep
+    interface OfflineRegionExportCallback {
+        /**
+         * Receives the export notification
+         */
+        fun onExport()
+
+        /**
+         * Receives the error message
+         *
+         * @param error the error message
+         */
+        fun onError(error: String)
+    }
+
     /**
      * This callback receives an asynchronous response containing the newly update
      * OfflineMetadata in the database, or an error message otherwise.
@@ -288,6 +307,24 @@ class OfflineRegion @Keep private constructor(offlineRegionPtr: Long, fileSource
         setOfflineRegionDownloadState(state)
     }
 
+    /**
+     * Resume downloading of regional resources, checking each stored resource that isn't known to be fresh with
+     * the server again. Resources are requested with their ETag or modification time, and the ones the server
+     * reports unchanged aren't downloaded again, see [OfflineRegionStatus.unchangedResourceSize]. Call
+     * [invalidate] beforehand to check all the resources of the region.
+     *
+     *
+     * After the refresh has been completed, you are required to reset the state of the region to STATE_INACTIVE.
+     */
+    fun refresh() {
+        if (state != STATE_ACTIVE) {
+            ConnectivityReceiver.instance(context).activate()
+            fileSource.activate()
+            state = STATE_ACTIVE
+        }
+        refreshOfflineRegion()
+    }
+
     /**
      * Retrieve the current status of the region. The query will be executed
      * asynchronously and the results passed to the given callback which will be
@@ -387,6 +424,40 @@ class OfflineRegion @Keep private constructor(offlineRegionPtr: Long, fileSource
         })
     }
 
+    /**
+     * Export the tiles of this offline region to an MBTiles archive, replacing the file at the path if it exists.
+     *
+     * An archive holds the tiles of a single source. The URL template selects the tiles of the source to export,
+     * and may be null if the region has tiles of one source only. The archive can be used as a read-only tile
+     * source with an `mbtiles://` URL without merging it into a database, see [OfflineManager.mergeOfflineRegions].
+     *
+     * @param path        the absolute path of the archive to write
+     * @param urlTemplate the tile URL template of the source to export, or null
+     * @param callback    the callback to be invoked on the main thread
+     */
+    fun exportToMBTiles(path: String, urlTemplate: String?, callback: OfflineRegionExportCallback?) {
+        fileSource.activate()
+        exportOfflineRegion(
+            path,
+            urlTemplate ?: "",
+            object : OfflineRegionExportCallback {
+                override fun onExport() {
+                    handler.post {
+                        fileSource.deactivate()
+                        callback?.onExport()
+                    }
+                }
+
+                override fun onError(message: String) {
+                    handler.post {
+                        fileSource.deactivate()
+                        callback?.onError(message)
+                    }
+                }
+            }
+        )
+    }
+
     /**
      * Update an offline region metadata from the database.
      *
@@ -431,6 +502,9 @@ class OfflineRegion @Keep private constructor(offlineRegionPtr: Long, fileSource
     @Keep
     private external fun setOfflineRegionDownloadState(@DownloadState offlineRegionDownloadState: Int)
 
+    @Keep
+    private external fun refreshOfflineRegion()
+
     @Keep
     private external fun getOfflineRegionStatus(callback: OfflineRegionStatusCallback)
 
@@ -443,6 +517,9 @@ class OfflineRegion @Keep private constructor(offlineRegionPtr: Long, fileSource
     @Keep
     private external fun invalidateOfflineRegion(callback: OfflineRegionInvalidateCallback)
 
+    @Keep
+    private external fun exportOfflineRegion(path: String, urlTemplate: String, callback: OfflineRegionExportCallback)
+
     companion object {
         //
         // Static methods
@@ -0,0 +1,34 @@
+package org.maplibre.android.offline
+
+import androidx.annotation.Keep
+
+/**
+ * An estimate of the tiles that downloading a region requires, computed before the region
+ * is created from the style and sources already stored on the device.
+ *
+ * Use [OfflineManager.estimateOfflineRegion] to obtain an OfflineRegionEstimate object.
+ */
+class OfflineRegionEstimate
+/*
+ * For JNI use only
+ */ @Keep private constructor(
+    /**
+     * The estimated number of tiles of the region's tiled sources.
+     */
+    val tileCount: Long,
+    /**
+     * The estimated size, in bytes, of the tiles. It is based on the average size of the tiles
+     * stored for each source, or of all stored tiles for sources without stored tiles.
+     */
+    val tileSize: Long,
+    /**
+     * The number of tiles that [tileSize] doesn't include, because no tiles are stored on the
+     * device to base their size on.
+     */
+    val unsizedTileCount: Long,
+    /**
+     * False when the style or the TileJSON of a source isn't stored on the device, in which
+     * case the tiles of the missing sources aren't included in the estimate.
+     */
+    val includesAllSources: Boolean
+)
@@ -85,7 +85,27 @@ class OfflineRegionStatus
      * precise number of required resources, at which point it is set to true.
      *
      */
-    val isRequiredResourceCountPrecise: Boolean
+    val isRequiredResourceCountPrecise: Boolean,
+    /**
+     * The rate, in bytes per second, at which resources were downloaded over the last few seconds.
+     * Resources that were already stored on the device are not included. It is 0 while the download is inactive.
+     */
+    val downloadedBytesPerSecond: Double,
+    /**
+     * The rate, in tiles per second, at which tiles were downloaded over the last few seconds.
+     * Tiles that were already stored on the device are not included. It is 0 while the download is inactive.
+     */
+    val downloadedTilesPerSecond: Double,
+    /**
+     * The number of stored resources that a refresh checked with the server and found unchanged, so that they
+     * weren't downloaded again. It is 0 unless the download was started by [OfflineRegion.refresh].
+     */
+    val unchangedResourceCount: Long,
+    /**
+     * The cumulative size, in bytes, of the stored resources that a refresh found unchanged, an estimate of the
+     * data saved over downloading the region again.
+     */
+    val unchangedResourceSize: Long
 ) {
     /**
      * Get the number of resources (inclusive of tiles) that have been fully downloaded
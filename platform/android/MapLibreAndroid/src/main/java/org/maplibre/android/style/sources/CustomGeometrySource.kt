@@ -5,6 +5,7 @@ import androidx.annotation.UiThread
 import androidx.annotation.WorkerThread
 import org.maplibre.geojson.Feature
 import org.maplibre.geojson.FeatureCollection
+import org.maplibre.android.maps.FeatureColumns
 import org.maplibre.android.geometry.LatLngBounds
 import org.maplibre.android.geometry.LatLngBounds.Companion.from
 import org.maplibre.android.style.expressions.Expression
@@ -109,12 +110,32 @@ class CustomGeometrySource @UiThread constructor(id: String?, options: CustomGeo
         return listOf(*features)
     }
 
+    /**
+     * Queries the source for features, returning them in a columnar layout.
+     *
+     * Only the requested properties are converted, which keeps large queries cheap.
+     *
+     * @param filter        an optional filter expression to filter the returned Features
+     * @param propertyNames the properties to return, or null to return none
+     * @return the features
+     */
+    fun querySourceFeatureColumns(filter: Expression?, propertyNames: Array<String>?): FeatureColumns {
+        checkThread()
+        return nativeQuerySourceFeatureColumns(filter?.toArray(), propertyNames ?: arrayOf())
+    }
+
     @Keep
     private external fun initialize(sourceId: String?, options: Any?)
 
     @Keep
     private external fun querySourceFeatures(filter: Array<Any>?): Array<Feature>
 
+    @Keep
+    private external fun nativeQuerySourceFeatureColumns(
+        filter: Array<Any>?,
+        propertyNames: Array<String>
+    ): FeatureColumns
+
     @Keep
     private external fun nativeSetTileData(z: Int, x: Int, y: Int, data: FeatureCollection)
 
@@ -2,6 +2,7 @@ package org.maplibre.android.style.sources
 
 import androidx.annotation.Keep
 import androidx.annotation.UiThread
+import org.maplibre.android.maps.FeatureColumns
 import org.maplibre.geojson.Feature
 import org.maplibre.geojson.FeatureCollection
 import org.maplibre.geojson.Geometry
@@ -247,6 +248,33 @@ class GeoJsonSource : Source {
         }
     }
 
+    /**
+     * Updates the GeoJson with a single point feature that is updated in place.
+     * The update is performed synchronously or asynchronously, based on the source synchronous update flag.
+     * In the case of asynchronous updates, the data won't be immediately visible or available to query when this method returns.
+     *
+     * Unlike [setGeoJson] with a [Feature], no GeoJSON object is created, so moving a point every frame doesn't allocate.
+     *
+     * @param feature the point feature to set, null is ignored
+     */
+    fun setGeoJson(feature: MutablePointFeature?) {
+        if (detached || feature == null) {
+            return
+        }
+        checkThread()
+        nativeSetPointFeature(
+            feature.longitude,
+            feature.latitude,
+            feature.keys,
+            feature.types,
+            feature.numbers,
+            feature.strings,
+            feature.propertyCount,
+            feature.layoutVersion,
+            nativeIsUpdateSynchronous()
+        )
+    }
+
     /**
      * Updates the GeoJson with a single geometry.
      * The update is performed synchronously or asynchronously, based on the source synchronous update flag.
@@ -498,6 +526,20 @@ class GeoJsonSource : Source {
         return if (features != null) Arrays.asList(*features) else ArrayList()
     }
 
+    /**
+     * Queries the source for features, returning them in a columnar layout.
+     *
+     * Only the requested properties are converted, which keeps large queries cheap.
+     *
+     * @param filter        an optional filter expression to filter the returned Features
+     * @param propertyNames the properties to return, or null to return none
+     * @return the features
+     */
+    fun querySourceFeatureColumns(filter: Expression?, propertyNames: Array<String>?): FeatureColumns {
+        checkThread()
+        return nativeQuerySourceFeatureColumns(filter?.toArray(), propertyNames ?: arrayOf())
+    }
+
     /**
      * Returns the children of a cluster (on the next zoom level) given its id (cluster_id value from feature properties).
      *
@@ -531,6 +573,27 @@ class GeoJsonSource : Source {
         return FeatureCollection.fromFeatures(nativeGetClusterLeaves(cluster, limit, offset)!!)
     }
 
+    /**
+     * Returns the leaves of a cluster like [getClusterLeaves], in a columnar layout.
+     *
+     * Only the requested properties are converted, which keeps large clusters cheap.
+     *
+     * @param cluster       cluster from which to retrieve leaves from
+     * @param limit         limit is the number of points to return
+     * @param offset        offset is the amount of points to skip (for pagination)
+     * @param propertyNames the properties to return, or null to return none
+     * @return the underlying leaves
+     */
+    fun getClusterLeafColumns(
+        cluster: Feature,
+        limit: Long,
+        offset: Long,
+        propertyNames: Array<String>?
+    ): FeatureColumns {
+        checkThread()
+        return nativeGetClusterLeafColumns(cluster, limit, offset, propertyNames ?: arrayOf())
+    }
+
     /**
      * Returns the zoom on which the cluster expands into several children (useful for "click to zoom" feature)
      * given the cluster's cluster_id (cluster_id value from feature properties).
@@ -568,6 +631,19 @@ class GeoJsonSource : Source {
     @Keep
     private external fun nativeSetGeometry(geometry: Geometry?)
 
+    @Keep
+    private external fun nativeSetPointFeature(
+        longitude: Double,
+        latitude: Double,
+        keys: Array<String?>,
+        types: ByteArray,
+        numbers: DoubleArray,
+        strings: Array<String?>,
+        count: Int,
+        layoutVersion: Int,
+        synchronous: Boolean
+    )
+
     @Keep
     private external fun nativeSetGeoJsonStringSync(geoJson: String)
 
@@ -583,12 +659,26 @@ class GeoJsonSource : Source {
     @Keep
     private external fun querySourceFeatures(filter: Array<Any>?): Array<Feature>
 
+    @Keep
+    private external fun nativeQuerySourceFeatureColumns(
+        filter: Array<Any>?,
+        propertyNames: Array<String>
+    ): FeatureColumns
+
     @Keep
     private external fun nativeGetClusterChildren(feature: Feature): Array<Feature?>?
 
     @Keep
     private external fun nativeGetClusterLeaves(feature: Feature, limit: Long, offset: Long): Array<Feature?>?
 
+    @Keep
+    private external fun nativeGetClusterLeafColumns(
+        feature: Feature,
+        limit: Long,
+        offset: Long,
+        propertyNames: Array<String>
+    ): FeatureColumns
+
     @Keep
     private external fun nativeGetClusterExpansionZoom(feature: Feature): Int
 
@@ -0,0 +1,207 @@
+package org.maplibre.android.style.sources
+
+import java.util.concurrent.atomic.AtomicInteger
+
+/**
+ * A point feature that is updated in place and set on a [GeoJsonSource] with [GeoJsonSource.setGeoJson].
+ *
+ * Unlike a [org.maplibre.geojson.Feature], the coordinates and property values are kept in primitive arrays
+ * and handed to native code as they are, without building or converting GeoJSON objects. Once all of its
+ * properties have been added, updating and setting the feature doesn't allocate, which suits a point that
+ * moves every frame, such as a location indicator.
+ */
+class MutablePointFeature {
+
+    /**
+     * The longitude of the point.
+     */
+    var longitude = 0.0
+        private set
+
+    /**
+     * The latitude of the point.
+     */
+    var latitude = 0.0
+        private set
+
+    // Property slots, the number slots hold two values to fit number pairs
+    internal var keys = arrayOfNulls<String>(INITIAL_CAPACITY)
+        private set
+    internal var types = ByteArray(INITIAL_CAPACITY)
+        private set
+    internal var numbers = DoubleArray(2 * INITIAL_CAPACITY)
+        private set
+    internal var strings = arrayOfNulls<String>(INITIAL_CAPACITY)
+        private set
+
+    /**
+     * The number of properties.
+     */
+    var propertyCount = 0
+        private set
+
+    // Changes when keys, types or string values change, native code caches them until then.
+    // Unique across features, so a source that is set another feature doesn't reuse a cached layout.
+    internal var layoutVersion = nextLayoutVersion()
+        private set
+
+    /**
+     * Sets the coordinates of the point.
+     *
+     * @param longitude the longitude
+     * @param latitude  the latitude
+     */
+    fun setCoordinates(longitude: Double, latitude: Double) {
+        this.longitude = longitude
+        this.latitude = latitude
+    }
+
+    /**
+     * Adds or replaces a number property.
+     *
+     * @param key   the property name
+     * @param value the value
+     */
+    fun setNumberProperty(key: String, value: Double) {
+        val slot = slot(key, TYPE_NUMBER)
+        numbers[2 * slot] = value
+    }
+
+    /**
+     * Adds or replaces a property holding an array of two numbers, such as an icon offset.
+     *
+     * @param key    the property name
+     * @param first  the first value
+     * @param second the second value
+     */
+    fun setNumberPairProperty(key: String, first: Double, second: Double) {
+        val slot = slot(key, TYPE_NUMBER_PAIR)
+        numbers[2 * slot] = first
+        numbers[2 * slot + 1] = second
+    }
+
+    /**
+     * Adds or replaces a boolean property.
+     *
+     * @param key   the property name
+     * @param value the value
+     */
+    fun setBooleanProperty(key: String, value: Boolean) {
+        val slot = slot(key, TYPE_BOOLEAN)
+        numbers[2 * slot] = if (value) 1.0 else 0.0
+    }
+
+    /**
+     * Adds or replaces a string property.
+     *
+     * @param key   the property name
+     * @param value the value
+     */
+    fun setStringProperty(key: String, value: String) {
+        val slot = slot(key, TYPE_STRING)
+        if (strings[slot] != value) {
+            strings[slot] = value
+            layoutVersion = nextLayoutVersion()
+        }
+    }
+
+    /**
+     * Returns whether the feature has a property.
+     *
+     * @param key the property name
+     * @return true if the property was set
+     */
+    fun hasProperty(key: String): Boolean = indexOf(key) >= 0
+
+    /**
+     * Returns the value of a number property, or of the first number of a number pair property.
+     *
+     * @param key the property name
+     * @return the value, or NaN if the property isn't a number
+     */
+    fun getNumberProperty(key: String): Double {
+        val slot = indexOf(key)
+        return if (slot >= 0 && (types[slot] == TYPE_NUMBER || types[slot] == TYPE_NUMBER_PAIR)) {
+            numbers[2 * slot]
+        } else {
+            Double.NaN
+        }
+    }
+
+    /**
+     * Returns the value of a boolean property.
+     *
+     * @param key the property name
+     * @return the value, or false if the property isn't a boolean
+     */
+    fun getBooleanProperty(key: String): Boolean {
+        val slot = indexOf(key)
+        return slot >= 0 && types[slot] == TYPE_BOOLEAN && numbers[2 * slot] != 0.0
+    }
+
+    /**
+     * Returns the value of a string property.
+     *
+     * @param key the property name
+     * @return the value, or null if the property isn't a string
+     */
+    fun getStringProperty(key: String): String? {
+        val slot = indexOf(key)
+        return if (slot >= 0 && types[slot] == TYPE_STRING) strings[slot] else null
+    }
+
+    override fun toString(): String {
+        return "MutablePointFeature{longitude=$longitude, latitude=$latitude, propertyCount=$propertyCount}"
+    }
+
+    private fun indexOf(key: String): Int {
+        // Features of this kind have a handful of properties, a linear scan beats hashing
+        for (i in 0 until propertyCount) {
+            if (keys[i] == key) {
+                return i
+            }
+        }
+        return -1
+    }
+
+    private fun slot(key: String, type: Byte): Int {
+        var slot = indexOf(key)
+        if (slot < 0) {
+            if (propertyCount == keys.size) {
+                grow()
+            }
+            slot = propertyCount++
+            keys[slot] = key
+            layoutVersion = nextLayoutVersion()
+        } else if (types[slot] != type) {
+            layoutVersion = nextLayoutVersion()
+        }
+        types[slot] = type
+        if (type != TYPE_STRING) {
+            strings[slot] = null
+        }
+        return slot
+    }
+
+    private fun grow() {
+        val capacity = 2 * keys.size
+        keys = keys.copyOf(capacity)
+        types = types.copyOf(capacity)
+        numbers = numbers.copyOf(2 * capacity)
+        strings = strings.copyOf(capacity)
+    }
+
+    companion object {
+        // Property types, read by native code
+        internal const val TYPE_NUMBER: Byte = 0
+        internal const val TYPE_BOOLEAN: Byte = 1
+        internal const val TYPE_STRING: Byte = 2
+        internal const val TYPE_NUMBER_PAIR: Byte = 3
+
+        private const val INITIAL_CAPACITY = 8
+
+        private val layoutVersions = AtomicInteger()
+
+        private fun nextLayoutVersion(): Int = layoutVersions.incrementAndGet()
+    }
+}
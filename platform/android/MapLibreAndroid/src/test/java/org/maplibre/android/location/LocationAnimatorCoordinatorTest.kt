@@ -574,6 +574,28 @@ class LocationAnimatorCoordinatorTest : BaseTest() {
         verify { animatorSetProvider.startAnimation(eq(listOf(animator)), any<LinearInterpolator>(), DEFAULT_TRACKING_TILT_ANIM_DURATION) }
     }
 
+    @Test
+    fun batchedAnimations_startedOnTicker() {
+        locationAnimatorCoordinator.setBatchedAnimationsEnabled(true)
+        assertTrue(locationAnimatorCoordinator.isBatchedAnimationsEnabled)
+        val ticker: LocationAnimatorTicker = mockk(relaxed = true)
+        locationAnimatorCoordinator.ticker = ticker
+
+        locationAnimatorCoordinator.feedNewZoomLevel(
+            15.0,
+            cameraPosition,
+            DEFAULT_TRACKING_ZOOM_ANIM_DURATION,
+            null
+        )
+
+        val animator = locationAnimatorCoordinator.animatorArray[ANIMATOR_ZOOM]
+        verify { ticker.startAnimation(eq(listOf<Animator>(animator)), any<LinearInterpolator>(), DEFAULT_TRACKING_ZOOM_ANIM_DURATION) }
+        verify(exactly = 0) { animatorSetProvider.startAnimation(any(), any(), any()) }
+
+        locationAnimatorCoordinator.cancelZoomAnimation()
+        verify { ticker.cancel(animator) }
+    }
+
     @Test
     fun cancelAllAnimators() {
         locationAnimatorCoordinator.feedNewLocation(Location(""), cameraPosition, true)
@@ -0,0 +1,123 @@
+package org.maplibre.android.location
+
+import android.animation.Animator
+import android.animation.ValueAnimator
+import android.view.Choreographer
+import android.view.animation.LinearInterpolator
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import io.mockk.verifyOrder
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.robolectric.RobolectricTestRunner
+import java.util.concurrent.TimeUnit
+
+@RunWith(RobolectricTestRunner::class)
+class LocationAnimatorTickerTest : BaseTest() {
+
+    private val choreographer: Choreographer = mockk(relaxed = true)
+    private val frameListener: LocationAnimatorTicker.OnFrameListener = mockk(relaxed = true)
+    private lateinit var ticker: LocationAnimatorTicker
+
+    @Before
+    fun setUp() {
+        ticker = LocationAnimatorTicker(choreographer)
+        ticker.setOnFrameListener(frameListener)
+    }
+
+    @Test
+    fun frame_evaluatesAnimatorsTogether() {
+        val first = mockk<MapLibreAnimator.AnimationsValueChangeListener<Float>>(relaxed = true)
+        val second = mockk<MapLibreAnimator.AnimationsValueChangeListener<Float>>(relaxed = true)
+        val firstAnimator = MapLibreFloatAnimator(arrayOf(0f, 10f), first, Int.MAX_VALUE)
+        val secondAnimator = MapLibreFloatAnimator(arrayOf(0f, 100f), second, Int.MAX_VALUE)
+
+        ticker.startAnimation(listOf<Animator>(firstAnimator, secondAnimator), LinearInterpolator(), 100)
+        verify(exactly = 1) { choreographer.postFrameCallback(ticker) }
+
+        ticker.doFrame(millis(1000))
+        ticker.doFrame(millis(1050))
+
+        verifyOrder {
+            frameListener.onFrameStarted()
+            first.onNewAnimationValue(5f)
+            second.onNewAnimationValue(50f)
+            frameListener.onFrameFinished()
+        }
+        assertTrue(ticker.isRunning(firstAnimator))
+        verify(exactly = 3) { choreographer.postFrameCallback(ticker) }
+    }
+
+    @Test
+    fun frame_endsFinishedAnimators() {
+        val listener = mockk<MapLibreAnimator.AnimationsValueChangeListener<Float>>(relaxed = true)
+        val animator = MapLibreFloatAnimator(arrayOf(0f, 10f), listener, Int.MAX_VALUE)
+        val animatorListener = mockk<Animator.AnimatorListener>(relaxed = true)
+        animator.addListener(animatorListener)
+
+        ticker.startAnimation(listOf<Animator>(animator), LinearInterpolator(), 100)
+        verify { animatorListener.onAnimationStart(animator) }
+        ticker.doFrame(millis(1000))
+        ticker.doFrame(millis(1200))
+
+        verify { listener.onNewAnimationValue(10f) }
+        verify(exactly = 1) { animatorListener.onAnimationEnd(animator) }
+        verify(exactly = 0) { animatorListener.onAnimationCancel(any()) }
+        assertFalse(ticker.isRunning(animator))
+        // nothing left to tick, no further frame is requested
+        verify(exactly = 2) { choreographer.postFrameCallback(ticker) }
+    }
+
+    @Test
+    fun cancel_notifiesListeners() {
+        val listener = mockk<MapLibreAnimator.AnimationsValueChangeListener<Float>>(relaxed = true)
+        val animator = MapLibreFloatAnimator(arrayOf(0f, 10f), listener, Int.MAX_VALUE)
+        val animatorListener = mockk<Animator.AnimatorListener>(relaxed = true)
+        animator.addListener(animatorListener)
+
+        ticker.startAnimation(listOf<Animator>(animator), LinearInterpolator(), 100)
+        ticker.cancel(animator)
+
+        verifyOrder {
+            animatorListener.onAnimationCancel(animator)
+            animatorListener.onAnimationEnd(animator)
+        }
+        verify { choreographer.removeFrameCallback(ticker) }
+        assertFalse(ticker.isRunning(animator))
+    }
+
+    @Test
+    fun repeatingAnimator_keepsRunning() {
+        val listener = mockk<MapLibreAnimator.AnimationsValueChangeListener<Float>>(relaxed = true)
+        val animator = PulsingLocationCircleAnimator(listener, Int.MAX_VALUE, 10f)
+        animator.duration = 100
+        animator.repeatCount = ValueAnimator.INFINITE
+        animator.interpolator = LinearInterpolator()
+
+        ticker.startAnimation(animator)
+        ticker.doFrame(millis(1000))
+        ticker.doFrame(millis(1250))
+
+        verify { listener.onNewAnimationValue(5f) }
+        assertTrue(ticker.isRunning(animator))
+    }
+
+    @Test
+    fun totalDuration() {
+        val animator = ValueAnimator.ofFloat(0f, 1f)
+        animator.duration = 100
+        assertEquals(100, LocationAnimatorTicker.getTotalDuration(animator))
+        animator.repeatCount = 2
+        assertEquals(300, LocationAnimatorTicker.getTotalDuration(animator))
+        animator.repeatCount = ValueAnimator.INFINITE
+        assertEquals(ValueAnimator.DURATION_INFINITE, LocationAnimatorTicker.getTotalDuration(animator))
+    }
+
+    private fun millis(millis: Long) = TimeUnit.MILLISECONDS.toNanos(millis)
+}
@@ -7,6 +7,7 @@ import org.maplibre.android.gestures.AndroidGesturesManager
 import org.maplibre.android.gestures.MoveGestureDetector
 import org.maplibre.android.camera.CameraPosition
 import org.maplibre.android.camera.CameraUpdate
+import org.maplibre.android.camera.CameraUpdateFactory.CameraPositionUpdate
 import org.maplibre.android.camera.CameraUpdateFactory.newCameraPosition
 import org.maplibre.android.geometry.LatLng
 import org.maplibre.android.location.MapLibreAnimator.AnimationsValueChangeListener
@@ -712,6 +713,75 @@ class LocationCameraControllerTest : BaseTest() {
         )
     }
 
+    @Test
+    fun batchedValues_singleCameraUpdate() {
+        val transform = Mockito.mock(
+            Transform::class.java
+        )
+        val camera = buildCamera(transform)
+        camera.initializeOptions(
+            Mockito.mock(
+                LocationComponentOptions::class.java
+            )
+        )
+        camera.cameraMode = CameraMode.TRACKING_GPS
+        val latLng = LatLng(10.0, 20.0)
+        camera.beginBatch()
+        getAnimationListener<Any>(
+            MapLibreAnimator.ANIMATOR_CAMERA_LATLNG,
+            camera.animationListeners
+        )!!.onNewAnimationValue(latLng)
+        getAnimationListener<Any>(
+            MapLibreAnimator.ANIMATOR_CAMERA_GPS_BEARING,
+            camera.animationListeners
+        )!!.onNewAnimationValue(5f)
+        getAnimationListener<Any>(
+            MapLibreAnimator.ANIMATOR_ZOOM,
+            camera.animationListeners
+        )!!.onNewAnimationValue(12f)
+        getAnimationListener<Any>(
+            MapLibreAnimator.ANIMATOR_TILT,
+            camera.animationListeners
+        )!!.onNewAnimationValue(30f)
+        Mockito.verify(transform, Mockito.times(0)).moveCamera(
+            ArgumentMatchers.any(
+                MapLibreMap::class.java
+            ),
+            ArgumentMatchers.any(CameraUpdate::class.java),
+            ArgumentMatchers.any(Boolean::class.java),
+            ArgumentMatchers.nullable(CancelableCallback::class.java)
+        )
+
+        camera.endBatch()
+        val update = ArgumentCaptor.forClass(CameraUpdate::class.java)
+        Mockito.verify(transform).moveCamera(
+            ArgumentMatchers.any(
+                MapLibreMap::class.java
+            ),
+            update.capture(),
+            ArgumentMatchers.any(Boolean::class.java),
+            ArgumentMatchers.nullable(CancelableCallback::class.java)
+        )
+        val cameraPosition = update.value as CameraPositionUpdate
+        Assert.assertEquals(latLng, cameraPosition.target)
+        Assert.assertEquals(5.0, cameraPosition.bearing, 0.0)
+        Assert.assertEquals(12.0, cameraPosition.zoom, 0.0)
+        Assert.assertEquals(30.0, cameraPosition.tilt, 0.0)
+        Assert.assertNull(cameraPosition.padding)
+
+        // an empty batch doesn't move the camera
+        camera.beginBatch()
+        camera.endBatch()
+        Mockito.verify(transform, Mockito.times(1)).moveCamera(
+            ArgumentMatchers.any(
+                MapLibreMap::class.java
+            ),
+            ArgumentMatchers.any(CameraUpdate::class.java),
+            ArgumentMatchers.any(Boolean::class.java),
+            ArgumentMatchers.nullable(CancelableCallback::class.java)
+        )
+    }
+
     @Test
     fun gesturesManagement_enabled() {
         val maplibreMap = Mockito.mock(MapLibreMap::class.java)
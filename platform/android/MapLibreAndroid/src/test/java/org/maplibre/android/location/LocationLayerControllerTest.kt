@@ -1,8 +1,6 @@
 package org.maplibre.android.location
 
 import android.graphics.Bitmap
-import com.google.gson.JsonElement
-import org.maplibre.geojson.Feature
 import org.maplibre.android.geometry.LatLng
 import org.maplibre.android.location.MapLibreAnimator.AnimationsValueChangeListener
 import org.maplibre.android.location.modes.RenderMode
@@ -10,6 +8,7 @@ import org.maplibre.android.maps.MapLibreMap
 import org.maplibre.android.maps.Style
 import org.maplibre.android.style.layers.Layer
 import org.maplibre.android.style.sources.GeoJsonSource
+import org.maplibre.android.style.sources.MutablePointFeature
 import org.junit.Assert
 import org.junit.Before
 import org.junit.Test
@@ -41,7 +40,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -80,7 +79,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -120,7 +119,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -160,7 +159,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -200,7 +199,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -240,7 +239,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -279,7 +278,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -314,7 +313,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -350,7 +349,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -398,7 +397,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -445,7 +444,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -488,7 +487,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -531,7 +530,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -574,7 +573,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -617,7 +616,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -692,7 +691,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -777,7 +776,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -840,7 +839,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -903,7 +902,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -915,7 +914,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -928,11 +927,10 @@ class LocationLayerControllerTest : BaseTest() {
             false
         )
         layer.cameraTiltUpdated(2.0)
-        Mockito.verify(locationFeature).addProperty(
+        Mockito.verify(locationFeature).setNumberPairProperty(
             ArgumentMatchers.eq(LocationComponentConstants.PROPERTY_FOREGROUND_ICON_OFFSET),
-            ArgumentMatchers.any(
-                JsonElement::class.java
-            )
+            ArgumentMatchers.eq(0.0),
+            ArgumentMatchers.anyDouble()
         )
     }
 
@@ -946,7 +944,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -958,7 +956,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -971,11 +969,10 @@ class LocationLayerControllerTest : BaseTest() {
             false
         )
         layer.cameraTiltUpdated(2.0)
-        Mockito.verify(locationFeature).addProperty(
+        Mockito.verify(locationFeature).setNumberPairProperty(
             ArgumentMatchers.eq(LocationComponentConstants.PROPERTY_SHADOW_ICON_OFFSET),
-            ArgumentMatchers.any(
-                JsonElement::class.java
-            )
+            ArgumentMatchers.eq(0.0),
+            ArgumentMatchers.anyDouble()
         )
     }
 
@@ -992,7 +989,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1004,7 +1001,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1037,7 +1034,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1049,7 +1046,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1068,7 +1065,7 @@ class LocationLayerControllerTest : BaseTest() {
             layer.animationListeners
         )!!.onNewAnimationValue(gpsBearing)
         Mockito.verify(locationFeature)
-            .addNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, gpsBearing)
+            .setNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, gpsBearing.toDouble())
     }
 
     @Test
@@ -1083,7 +1080,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1095,7 +1092,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1116,7 +1113,7 @@ class LocationLayerControllerTest : BaseTest() {
             )
         )
         Mockito.verify(locationFeature, Mockito.times(0))
-            .addNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, gpsBearing)
+            .setNumberProperty(LocationComponentConstants.PROPERTY_GPS_BEARING, gpsBearing.toDouble())
     }
 
     @Test
@@ -1131,7 +1128,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1143,7 +1140,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1163,7 +1160,7 @@ class LocationLayerControllerTest : BaseTest() {
         )
             ?.onNewAnimationValue(compassBearing)
         Mockito.verify(locationFeature)
-            .addNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, compassBearing)
+            .setNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, compassBearing.toDouble())
     }
 
     @Test
@@ -1178,7 +1175,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1190,7 +1187,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1211,7 +1208,7 @@ class LocationLayerControllerTest : BaseTest() {
             )
         )
         Mockito.verify(locationFeature, Mockito.times(0))
-            .addNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, compassBearing)
+            .setNumberProperty(LocationComponentConstants.PROPERTY_COMPASS_BEARING, compassBearing.toDouble())
     }
 
     @Test
@@ -1226,7 +1223,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1238,7 +1235,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1254,9 +1251,9 @@ class LocationLayerControllerTest : BaseTest() {
         val accuracyRadiusValue = 2f
         getAnimationListener<Any>(MapLibreAnimator.ANIMATOR_LAYER_ACCURACY, layer.animationListeners)
             ?.onNewAnimationValue(accuracyRadiusValue)
-        Mockito.verify(locationFeature).addNumberProperty(
+        Mockito.verify(locationFeature).setNumberProperty(
             LocationComponentConstants.PROPERTY_ACCURACY_RADIUS,
-            accuracyRadiusValue
+            accuracyRadiusValue.toDouble()
         )
     }
 
@@ -1272,7 +1269,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1284,7 +1281,7 @@ class LocationLayerControllerTest : BaseTest() {
             LocationComponentOptions::class.java
         )
         val locationFeature = Mockito.mock(
-            Feature::class.java
+            MutablePointFeature::class.java
         )
         val layer = LocationLayerController(
             maplibreMap,
@@ -1305,9 +1302,9 @@ class LocationLayerControllerTest : BaseTest() {
             )
         )
         Mockito.verify(locationFeature, Mockito.times(0))
-            .addNumberProperty(
+            .setNumberProperty(
                 LocationComponentConstants.PROPERTY_ACCURACY_RADIUS,
-                accuracyRadiusValue
+                accuracyRadiusValue.toDouble()
             )
     }
 
@@ -1321,7 +1318,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1359,7 +1356,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1396,7 +1393,7 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(
             sourceProvider.generateSource(
                 ArgumentMatchers.any(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 ),
                 ArgumentMatchers.eq(true)
             )
@@ -1446,14 +1443,14 @@ class LocationLayerControllerTest : BaseTest() {
         Mockito.`when`(provider.generateLocationFeature(null, options.enableStaleState()))
             .thenReturn(
                 Mockito.mock(
-                    Feature::class.java
+                    MutablePointFeature::class.java
                 )
             )
         return provider
     }
 
     private fun buildFeatureProvider(
-        feature: Feature,
+        feature: MutablePointFeature,
         options: LocationComponentOptions
     ): LayerFeatureProvider {
         val provider = Mockito.mock(
@@ -0,0 +1,122 @@
+package org.maplibre.android.maps
+
+import android.os.Looper.getMainLooper
+import io.mockk.every
+import io.mockk.mockk
+import org.junit.Assert.assertEquals
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.maplibre.android.camera.CameraPosition
+import org.maplibre.android.geometry.LatLng
+import org.maplibre.android.maps.MapLibreMap.OnCameraMoveStartedListener.REASON_API_GESTURE
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import org.robolectric.shadows.ShadowLooper
+import java.time.Duration
+
+@RunWith(RobolectricTestRunner::class)
+class CameraChangeDispatcherTest : BaseTest() {
+
+    private lateinit var dispatcher: CameraChangeDispatcher
+    private lateinit var mainLooper: ShadowLooper
+    private var cameraPosition = position(0.0, 0.0, 10.0)
+    private val notified = mutableListOf<CameraPosition>()
+    private val listener = MapLibreMap.OnCameraChangeListener { notified.add(it) }
+
+    @Before
+    fun setup() {
+        val transform = mockk<Transform>()
+        every { transform.cameraPosition } answers { cameraPosition }
+        dispatcher = CameraChangeDispatcher()
+        dispatcher.setTransform(transform)
+        mainLooper = shadowOf(getMainLooper())
+    }
+
+    @Test
+    fun testMaxRate() {
+        dispatcher.addOnCameraChangeListener(listener, CameraChangePolicy.maxRate(100))
+        dispatcher.onCameraMoveStarted(REASON_API_GESTURE)
+
+        val first = move(0.001)
+        move(0.002)
+        val last = move(0.003)
+        assertEquals(listOf(first), notified)
+
+        // the trailing notification delivers the latest camera
+        mainLooper.idleFor(Duration.ofMillis(100))
+        assertEquals(listOf(first, last), notified)
+
+        // nothing is pending, so becoming idle doesn't notify again
+        dispatcher.onCameraIdle()
+        mainLooper.idle()
+        assertEquals(listOf(first, last), notified)
+    }
+
+    @Test
+    fun testMaxRateFlushedOnIdle() {
+        dispatcher.addOnCameraChangeListener(listener, CameraChangePolicy.maxRate(100))
+        dispatcher.onCameraMoveStarted(REASON_API_GESTURE)
+
+        val first = move(0.001)
+        val last = move(0.002)
+        dispatcher.onCameraIdle()
+        mainLooper.idle()
+        assertEquals(listOf(first, last), notified)
+
+        mainLooper.idleFor(Duration.ofMillis(100))
+        assertEquals(listOf(first, last), notified)
+    }
+
+    @Test
+    fun testOnIdle() {
+        dispatcher.addOnCameraChangeListener(listener, CameraChangePolicy.onIdle())
+        dispatcher.onCameraMoveStarted(REASON_API_GESTURE)
+
+        move(0.001)
+        val last = move(0.002)
+        assertEquals(emptyList<CameraPosition>(), notified)
+
+        dispatcher.onCameraIdle()
+        mainLooper.idle()
+        assertEquals(listOf(last), notified)
+    }
+
+    @Test
+    fun testOnTileBoundary() {
+        dispatcher.addOnCameraChangeListener(listener, CameraChangePolicy.onTileBoundary())
+        dispatcher.onCameraMoveStarted(REASON_API_GESTURE)
+
+        // a tile at zoom 10 spans about 0.35 degrees of longitude
+        val first = move(0.01)
+        move(0.02)
+        val crossed = move(0.5)
+        val zoomed = move(0.5, 11.0)
+        assertEquals(listOf(first, crossed, zoomed), notified)
+    }
+
+    @Test
+    fun testRemoveListener() {
+        dispatcher.addOnCameraChangeListener(listener, CameraChangePolicy.maxRate(100))
+        dispatcher.onCameraMoveStarted(REASON_API_GESTURE)
+        move(0.001)
+        move(0.002)
+
+        dispatcher.removeOnCameraChangeListener(listener)
+        mainLooper.idleFor(Duration.ofMillis(100))
+        dispatcher.onCameraIdle()
+        mainLooper.idle()
+        assertEquals(1, notified.size)
+    }
+
+    private fun move(longitude: Double, zoom: Double = cameraPosition.zoom): CameraPosition {
+        cameraPosition = position(0.0, longitude, zoom)
+        dispatcher.onCameraMove()
+        mainLooper.idle()
+        return cameraPosition
+    }
+
+    private fun position(latitude: Double, longitude: Double, zoom: Double) =
+        CameraPosition.Builder().target(LatLng(latitude, longitude)).zoom(zoom).build()
+}
@@ -0,0 +1,99 @@
+package org.maplibre.android.maps
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Test
+
+class FeatureColumnsTest {
+
+    @Test
+    fun testIds() {
+        val columns = columns()
+        assertEquals(2, columns.size())
+        assertEquals(FeatureColumns.ID_NUMBER, columns.getIdType(0))
+        assertEquals(7L, columns.getId(0))
+        assertNull(columns.getStringId(0))
+        assertEquals(FeatureColumns.ID_STRING, columns.getIdType(1))
+        assertEquals(FeatureColumns.NO_ID, columns.getId(1))
+        assertEquals("a", columns.getStringId(1))
+    }
+
+    @Test
+    fun testGeometry() {
+        val columns = columns()
+        assertEquals(FeatureColumns.GEOMETRY_POINT, columns.getGeometryType(0))
+        assertEquals(FeatureColumns.GEOMETRY_POLYGON, columns.getGeometryType(1))
+
+        // the polygon is the second part, with an outer ring and a hole
+        val part = columns.featurePartOffsets[1]
+        assertEquals(columns.featurePartOffsets[2] - 1, part)
+        val rings = columns.partRingOffsets
+        assertEquals(2, rings[part + 1] - rings[part])
+        val hole = rings[part] + 1
+        val start = columns.ringCoordinateOffsets[hole]
+        assertEquals(4, columns.ringCoordinateOffsets[hole + 1] - start)
+        assertEquals(0.5, columns.coordinates[2 * start], 0.0)
+    }
+
+    @Test
+    fun testProperties() {
+        val columns = columns()
+        val name = columns.getPropertyColumn("name")
+        val rank = columns.getPropertyColumn("rank")
+        assertEquals(-1, columns.getPropertyColumn("other"))
+
+        assertEquals(FeatureColumns.VALUE_STRING, columns.getValueType(name, 0))
+        assertEquals("park", columns.getString(name, 0))
+        // equal strings are interned
+        assertEquals(columns.getStringIndex(name, 0), columns.getStringIndex(name, 1))
+        assertEquals(1, columns.strings.size)
+
+        assertEquals(FeatureColumns.VALUE_NUMBER, columns.getValueType(rank, 0))
+        assertEquals(3.0, columns.getNumber(rank, 0), 0.0)
+        assertNull(columns.getString(rank, 0))
+        assertEquals(FeatureColumns.VALUE_BOOLEAN, columns.getValueType(rank, 1))
+        assertTrue(columns.getBoolean(rank, 1))
+        assertEquals(0.0, columns.getNumber(rank, 1), 0.0)
+    }
+
+    @Test
+    fun testEmpty() {
+        val columns = FeatureColumns.empty(arrayOf("name"))
+        assertEquals(0, columns.size())
+        assertArrayEquals(arrayOf("name"), columns.propertyNames)
+        assertEquals(0, columns.getPropertyColumn("name"))
+        assertFalse(columns.toString().isEmpty())
+    }
+
+    private fun columns(): FeatureColumns {
+        // a point with numeric id, and a polygon with a hole and a string id
+        val coordinates = doubleArrayOf(
+            1.0, 2.0,
+            0.0, 0.0, 2.0, 0.0, 2.0, 2.0, 0.0, 0.0,
+            0.5, 0.5, 1.0, 0.5, 1.0, 1.0, 0.5, 0.5
+        )
+        return FeatureColumns(
+            longArrayOf(7, FeatureColumns.NO_ID),
+            byteArrayOf(FeatureColumns.ID_NUMBER.toByte(), FeatureColumns.ID_STRING.toByte()),
+            arrayOf(null, "a"),
+            byteArrayOf(FeatureColumns.GEOMETRY_POINT.toByte(), FeatureColumns.GEOMETRY_POLYGON.toByte()),
+            intArrayOf(0, 1, 2),
+            intArrayOf(0, 1, 3),
+            intArrayOf(0, 1, 5, 9),
+            coordinates,
+            arrayOf("name", "rank"),
+            byteArrayOf(
+                FeatureColumns.VALUE_STRING.toByte(),
+                FeatureColumns.VALUE_STRING.toByte(),
+                FeatureColumns.VALUE_NUMBER.toByte(),
+                FeatureColumns.VALUE_BOOLEAN.toByte()
+            ),
+            doubleArrayOf(0.0, 0.0, 3.0, 1.0),
+            intArrayOf(0, 0, -1, -1),
+            arrayOf("park")
+        )
+    }
+}
@@ -0,0 +1,113 @@
+package org.maplibre.android.maps
+
+import android.graphics.PointF
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import io.mockk.verify
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertSame
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.robolectric.RobolectricTestRunner
+
+@RunWith(RobolectricTestRunner::class)
+class HitTesterTest : BaseTest() {
+
+    private lateinit var nativeMap: NativeMap
+    private lateinit var hitTester: HitTester
+    private val targets = listOf(
+        HitTarget.pointAnnotations(20f),
+        HitTarget.layers(5f, "pois", "labels").withProperties("name"),
+        HitTarget.layers(0f, "roads")
+    )
+
+    @Before
+    fun setup() {
+        nativeMap = mockk(relaxed = true)
+        every { nativeMap.isDestroyed } returns false
+        hitTester = HitTester(nativeMap)
+    }
+
+    @Test
+    fun testFlattensTargets() {
+        val types = slot<IntArray>()
+        val boxes = slot<FloatArray>()
+        val layerIds = slot<Array<String>>()
+        val layerOffsets = slot<IntArray>()
+        val propertyNames = slot<Array<String>>()
+        val propertyOffsets = slot<IntArray>()
+        every {
+            nativeMap.hitTest(
+                capture(types),
+                capture(boxes),
+                capture(layerIds),
+                capture(layerOffsets),
+                capture(propertyNames),
+                capture(propertyOffsets),
+                true
+            )
+        } returns arrayOfNulls(3)
+
+        hitTester.hitTest(PointF(100f, 200f), targets, true)
+
+        assertArrayEquals(
+            intArrayOf(HitTarget.TYPE_POINT_ANNOTATIONS, HitTarget.TYPE_LAYERS, HitTarget.TYPE_LAYERS),
+            types.captured
+        )
+        assertArrayEquals(
+            floatArrayOf(80f, 180f, 120f, 220f, 95f, 195f, 105f, 205f, 100f, 200f, 100f, 200f),
+            boxes.captured,
+            0f
+        )
+        assertArrayEquals(arrayOf("pois", "labels", "roads"), layerIds.captured)
+        assertArrayEquals(intArrayOf(0, 0, 2, 3), layerOffsets.captured)
+        assertArrayEquals(arrayOf("name"), propertyNames.captured)
+        assertArrayEquals(intArrayOf(0, 0, 1, 1), propertyOffsets.captured)
+    }
+
+    @Test
+    fun testFirstHit() {
+        val hits = FeatureColumns(
+            longArrayOf(1), byteArrayOf(FeatureColumns.ID_NUMBER.toByte()), null, byteArrayOf(0), intArrayOf(0, 0), intArrayOf(0), intArrayOf(0),
+            DoubleArray(0), null, ByteArray(0), DoubleArray(0), IntArray(0), null
+        )
+        every { nativeMap.hitTest(any(), any(), any(), any(), any(), any(), true) } returns
+            arrayOf(FeatureColumns.empty(null), hits, null)
+
+        val result = hitTester.hitTest(PointF(100f, 200f), targets, true)
+        assertTrue(result.hasHit())
+        assertEquals(1, result.firstHitTarget)
+        assertSame(hits, result.firstHits)
+        assertNull(result.getHits(2))
+    }
+
+    @Test
+    fun testCache() {
+        every { nativeMap.hitTest(any(), any(), any(), any(), any(), any(), any()) } returns arrayOfNulls(3)
+
+        val first = hitTester.hitTest(PointF(100f, 200f), targets, true)
+        assertFalse(first.hasHit())
+        assertSame(first, hitTester.hitTest(PointF(100f, 200f), targets.toList(), true))
+        assertEquals(1, hitTester.cacheHitCount)
+
+        // another point, mode or frame queries again
+        hitTester.hitTest(PointF(101f, 200f), targets, true)
+        hitTester.hitTest(PointF(100f, 200f), targets, false)
+        hitTester.invalidate()
+        hitTester.hitTest(PointF(100f, 200f), targets, true)
+        assertEquals(4, hitTester.queryCount)
+        verify(exactly = 4) { nativeMap.hitTest(any(), any(), any(), any(), any(), any(), any()) }
+    }
+
+    @Test(expected = IllegalArgumentException::class)
+    fun testNegativeTolerance() {
+        HitTarget.shapeAnnotations(-1f)
+    }
+}
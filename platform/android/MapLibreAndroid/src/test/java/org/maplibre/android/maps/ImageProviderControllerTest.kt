@@ -0,0 +1,87 @@
+package org.maplibre.android.maps
+
+import android.graphics.Bitmap
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.slot
+import org.junit.Assert
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.shadows.ShadowLooper
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.AtomicInteger
+
+@RunWith(RobolectricTestRunner::class)
+class ImageProviderControllerTest : BaseTest() {
+
+    private lateinit var nativeMap: NativeMap
+
+    private val addedImages = AtomicInteger()
+
+    private val requestCounts = ConcurrentHashMap<String, AtomicInteger>()
+
+    private val imageProvider = ImageProvider { id ->
+        requestCounts.getOrPut(id) { AtomicInteger() }.incrementAndGet()
+        if (id == "unknown") null else Bitmap.createBitmap(2, 2, Bitmap.Config.ARGB_8888)
+    }
+
+    @Before
+    fun setUp() {
+        nativeMap = mockk(relaxed = true)
+        every { nativeMap.isDestroyed } returns false
+        val images = slot<Array<Image>>()
+        every { nativeMap.addImages(capture(images)) } answers {
+            addedImages.addAndGet(images.captured.size)
+        }
+    }
+
+    @Test
+    fun testDuplicateRequestsAreCoalesced() {
+        val controller = ImageProviderController(nativeMap, imageProvider, 16)
+        controller.onStyleImageMissing("a")
+        controller.onStyleImageMissing("a")
+        controller.onStyleImageMissing("b")
+        controller.onStyleImageMissing("unknown")
+
+        awaitAddedImages(2)
+        Assert.assertEquals(1, requestCounts["unknown"]!!.get())
+        Assert.assertEquals(1, requestCounts["a"]!!.get())
+        Assert.assertEquals(1, requestCounts["b"]!!.get())
+    }
+
+    @Test
+    fun testLeastRecentlyProvidedImagesCanBeRemoved() {
+        val controller = ImageProviderController(nativeMap, imageProvider, 1)
+        controller.onStyleImageMissing("a")
+        awaitAddedImages(1)
+        controller.onStyleImageMissing("b")
+        awaitAddedImages(2)
+
+        Assert.assertTrue(controller.onCanRemoveUnusedStyleImage("a"))
+        Assert.assertFalse(controller.onCanRemoveUnusedStyleImage("b"))
+        Assert.assertTrue(controller.onCanRemoveUnusedStyleImage("not-provided"))
+    }
+
+    @Test
+    fun testReleasedControllerDropsRequests() {
+        val controller = ImageProviderController(nativeMap, imageProvider, 16)
+        controller.release()
+        controller.onStyleImageMissing("a")
+
+        ShadowLooper.idleMainLooper()
+        Assert.assertEquals(0, addedImages.get())
+        Assert.assertNull(requestCounts["a"])
+    }
+
+    private fun awaitAddedImages(count: Int) {
+        val timeout = System.currentTimeMillis() + 5000
+        while (addedImages.get() < count && System.currentTimeMillis() < timeout) {
+            ShadowLooper.idleMainLooper()
+            Thread.sleep(5)
+        }
+        Assert.assertEquals(count, addedImages.get())
+    }
+}
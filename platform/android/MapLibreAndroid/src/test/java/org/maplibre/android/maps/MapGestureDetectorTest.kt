@@ -0,0 +1,65 @@
+package org.maplibre.android.maps
+
+import android.graphics.PointF
+import android.os.Looper.getMainLooper
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Before
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.maplibre.android.constants.MapLibreConstants
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.time.Duration
+
+@RunWith(RobolectricTestRunner::class)
+class MapGestureDetectorTest : BaseTest() {
+
+    private lateinit var transform: Transform
+    private lateinit var uiSettings: UiSettings
+    private lateinit var mapGestureDetector: MapGestureDetector
+
+    @Before
+    fun setup() {
+        transform = mockk(relaxed = true)
+        uiSettings = mockk(relaxed = true)
+        every { transform.rawZoom } returns 10.0
+        mapGestureDetector = MapGestureDetector(
+            null,
+            transform,
+            mockk(relaxed = true),
+            uiSettings,
+            mockk(relaxed = true),
+            mockk(relaxed = true)
+        )
+    }
+
+    @Test
+    fun testNativeZoomAnimation() {
+        every { uiSettings.isNativeGestureAnimationsEnabled } returns true
+        val focalPoint = PointF(100f, 200f)
+
+        mapGestureDetector.zoomInAnimated(focalPoint, true)
+
+        // zooming in by 1 with a velocity decaying to zero requires an initial velocity of 2 zoom levels per duration
+        val velocity = 2 / (MapLibreConstants.ANIMATION_DURATION / 1000.0)
+        verify(exactly = 1) {
+            transform.animateInertia(velocity, 0.0, focalPoint, MapLibreConstants.ANIMATION_DURATION.toLong())
+        }
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(MapLibreConstants.ANIMATION_DURATION.toLong()))
+        verify(exactly = 0) { transform.setZoom(any(), any()) }
+    }
+
+    @Test
+    fun testJavaZoomAnimation() {
+        every { uiSettings.isNativeGestureAnimationsEnabled } returns false
+
+        mapGestureDetector.zoomOutAnimated(PointF(100f, 200f), true)
+        shadowOf(getMainLooper()).idleFor(Duration.ofMillis(MapLibreConstants.ANIMATION_DURATION.toLong()))
+
+        verify(exactly = 0) { transform.animateInertia(any(), any(), any(), any()) }
+        verify(atLeast = 1) { transform.setZoom(any(), any()) }
+    }
+}
@@ -173,6 +173,23 @@ class MapLibreMapTest : BaseTest() {
         verify { nativeMapView.prefetchZoomDelta = 2 }
     }
 
+    @Test
+    fun testSetPredictivePrefetchEnabled() {
+        maplibreMap.isPredictivePrefetchEnabled = true
+        verify { nativeMapView.isPredictivePrefetchEnabled = true }
+    }
+
+    @Test
+    fun testPredictivePrefetchStats() {
+        every { nativeMapView.predictivePrefetchStats } answers {
+            PredictivePrefetchStats(longArrayOf(2, 40, 30, 10, 10))
+        }
+        val stats = maplibreMap.predictivePrefetchStats
+        assertEquals(2, stats.predictionCount)
+        assertEquals(30, stats.loadedTileCount)
+        assertEquals(0.25, stats.hitRate, 0.0)
+    }
+
     @Test
     fun testCameraForLatLngBounds() {
         val bounds = LatLngBounds.Builder().include(LatLng()).include(LatLng(1.0, 1.0)).build()
@@ -0,0 +1,65 @@
+package org.maplibre.android.maps
+
+import io.mockk.every
+import io.mockk.mockk
+import io.mockk.verify
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Before
+import org.junit.Test
+
+class ProjectionTest {
+
+    private lateinit var nativeMapView: NativeMap
+    private lateinit var projection: Projection
+
+    @Before
+    fun setup() {
+        nativeMapView = mockk(relaxed = true)
+        projection = Projection(nativeMapView, mockk(relaxed = true))
+    }
+
+    @Test
+    fun testCameraSnapshot() {
+        every { nativeMapView.isDestroyed } returns false
+        every { nativeMapView.getCameraSnapshot(any()) } answers {
+            val output = firstArg<DoubleArray>()
+            for (i in output.indices) {
+                output[i] = i.toDouble()
+            }
+        }
+
+        val snapshot = CameraSnapshot()
+        projection.getCameraSnapshot(snapshot)
+
+        assertTrue(snapshot.isValid)
+        assertEquals(0.0, snapshot.latitude, 0.0)
+        assertEquals(3.0, snapshot.bearing, 0.0)
+        assertEquals(8.0, snapshot.paddingBottom, 0.0)
+        assertEquals(9.0, snapshot.metersPerPixel, 0.0)
+        assertEquals(16.0, snapshot.getCornerLatitude(CameraSnapshot.BOTTOM_LEFT), 0.0)
+        assertEquals(17.0, snapshot.getCornerLongitude(CameraSnapshot.BOTTOM_LEFT), 0.0)
+        assertEquals(21.0, snapshot.lonWest, 0.0)
+        val matrix = DoubleArray(16)
+        snapshot.getProjectionMatrix(matrix)
+        assertArrayEquals(DoubleArray(16) { it + 22.0 }, matrix, 0.0)
+        assertEquals(39.0, snapshot.height, 0.0)
+
+        // The snapshot is reused rather than reallocated
+        projection.getCameraSnapshot(snapshot)
+        verify(exactly = 2) { nativeMapView.getCameraSnapshot(refEq(snapshot.values)) }
+    }
+
+    @Test
+    fun testCameraSnapshotDestroyed() {
+        every { nativeMapView.isDestroyed } returns true
+
+        val snapshot = CameraSnapshot()
+        projection.getCameraSnapshot(snapshot)
+
+        assertFalse(snapshot.isValid)
+        verify(exactly = 0) { nativeMapView.getCameraSnapshot(any()) }
+    }
+}
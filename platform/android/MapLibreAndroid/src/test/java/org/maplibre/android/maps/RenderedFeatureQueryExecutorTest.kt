@@ -0,0 +1,115 @@
+package org.maplibre.android.maps
+
+import android.os.Looper.getMainLooper
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Assert.fail
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.BaseTest
+import org.maplibre.geojson.Feature
+import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+
+@RunWith(RobolectricTestRunner::class)
+class RenderedFeatureQueryExecutorTest : BaseTest() {
+
+    private val queryExecutor = RenderedFeatureQueryExecutor()
+    private val delivered = mutableListOf<List<Feature>>()
+    private val callback = MapLibreMap.RenderedFeaturesCallback { delivered.add(it) }
+
+    @Test
+    fun testDeliversOnMainThread() {
+        val features = listOf(Feature.fromJson("{\"type\":\"Feature\",\"properties\":{}}"))
+        val future = queryExecutor.execute({ features }, callback)
+
+        awaitWorker()
+        assertEquals(emptyList<List<Feature>>(), delivered)
+        shadowOf(getMainLooper()).idle()
+        assertEquals(listOf(features), delivered)
+        assertEquals(features, future.get())
+    }
+
+    @Test
+    fun testFailureSkipsCallback() {
+        val future = queryExecutor.execute({ throw TimeoutException() }, callback)
+
+        awaitWorker()
+        shadowOf(getMainLooper()).idle()
+        assertEquals(emptyList<List<Feature>>(), delivered)
+        try {
+            future.get()
+            fail()
+        } catch (exception: ExecutionException) {
+            assertTrue(exception.cause is TimeoutException)
+        }
+    }
+
+    @Test
+    fun testSupersede() {
+        val started = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val first = queryExecutor.execute({
+            started.countDown()
+            release.await()
+            listOf<Feature>()
+        }, callback)
+        started.await(1, TimeUnit.SECONDS)
+
+        // the first query is running, so its result is dropped
+        var secondStarted = false
+        val second = queryExecutor.execute({
+            secondStarted = true
+            listOf<Feature>()
+        }, callback)
+        // the second query hasn't started, so it's skipped
+        val third = queryExecutor.execute({ listOf<Feature>() }, callback)
+        release.countDown()
+
+        awaitWorker()
+        shadowOf(getMainLooper()).idle()
+        assertTrue(first.isCancelled)
+        assertTrue(second.isCancelled)
+        assertTrue(third.isDone)
+        assertFalse(secondStarted)
+        assertEquals(1, delivered.size)
+    }
+
+    @Test
+    fun testIndependentCallbacks() {
+        val otherDelivered = mutableListOf<List<Feature>>()
+        queryExecutor.execute({ listOf<Feature>() }, callback)
+        queryExecutor.execute({ listOf<Feature>() }, { otherDelivered.add(it) })
+
+        awaitWorker()
+        shadowOf(getMainLooper()).idle()
+        assertEquals(1, delivered.size)
+        assertEquals(1, otherDelivered.size)
+    }
+
+    @Test
+    fun testCancelAll() {
+        val release = CountDownLatch(1)
+        val future = queryExecutor.execute({
+            release.await()
+            listOf<Feature>()
+        }, callback)
+        queryExecutor.cancelAll()
+        release.countDown()
+
+        awaitWorker()
+        shadowOf(getMainLooper()).idle()
+        assertTrue(future.isCancelled)
+        assertEquals(emptyList<List<Feature>>(), delivered)
+    }
+
+    private fun awaitWorker() {
+        // queries run on a single worker thread, in order
+        RenderedFeatureQueryExecutor.getExecutor().submit {}.get(1, TimeUnit.SECONDS)
+    }
+}
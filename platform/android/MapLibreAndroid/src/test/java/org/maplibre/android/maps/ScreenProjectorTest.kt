@@ -0,0 +1,124 @@
+package org.maplibre.android.maps
+
+import org.junit.Assert.assertArrayEquals
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertTrue
+import org.junit.Test
+import kotlin.math.PI
+import kotlin.math.ln
+import kotlin.math.tan
+
+class ScreenProjectorTest {
+
+    @Test
+    fun testProject() {
+        val projector = ScreenProjector()
+        assertFalse(projector.isValid)
+        projector.update(topDownSnapshot(0.0, 0.0))
+        assertTrue(projector.isValid)
+        assertEquals(WORLD_SIZE, projector.worldSize, 0.0)
+
+        val latLngs = doubleArrayOf(0.0, 0.0, 10.0, 20.0, -45.0, -90.0, 89.0, 0.0)
+        val out = DoubleArray(latLngs.size)
+        projector.project(latLngs, out, 4)
+
+        assertArrayEquals(expected(latLngs, 0.0, 0.0), out, DELTA)
+        assertArrayEquals(doubleArrayOf(WIDTH / 2, HEIGHT / 2), out.copyOf(2), DELTA)
+        // Latitudes are clamped to the Mercator bounds
+        assertEquals(expected(doubleArrayOf(85.051128779806604, 0.0), 0.0, 0.0)[1], out[7], DELTA)
+    }
+
+    @Test
+    fun testProjectInPlace() {
+        val projector = ScreenProjector()
+        projector.update(topDownSnapshot(52.0, 13.0))
+
+        val latLngs = doubleArrayOf(52.5, 13.4, 51.0, 12.0)
+        val expected = expected(latLngs, 52.0, 13.0)
+        projector.project(latLngs, latLngs, 2)
+        assertArrayEquals(expected, latLngs, DELTA)
+    }
+
+    @Test
+    fun testProjectMercator() {
+        val projector = ScreenProjector()
+        projector.update(topDownSnapshot(52.0, 13.0))
+
+        val latLngs = doubleArrayOf(52.5, 13.4, 51.0, 12.0)
+        val mercator = DoubleArray(latLngs.size)
+        projector.toMercator(latLngs, mercator, 2)
+        val out = DoubleArray(latLngs.size)
+        projector.projectMercator(mercator, out, 2)
+        assertArrayEquals(expected(latLngs, 52.0, 13.0), out, DELTA)
+    }
+
+    @Test
+    fun testProjectAcrossAntimeridian() {
+        val projector = ScreenProjector()
+        projector.update(topDownSnapshot(0.0, 170.0))
+
+        // -170 and 550 are the same meridian, 20 degrees east of the center
+        val out = DoubleArray(4)
+        projector.project(doubleArrayOf(0.0, -170.0, 0.0, 550.0), out, 2)
+        val east = WIDTH / 2 + WORLD_SIZE * 20 / 360
+        assertArrayEquals(doubleArrayOf(east, HEIGHT / 2, east, HEIGHT / 2), out, DELTA)
+    }
+
+    @Test
+    fun testProjectBehindCamera() {
+        val snapshot = topDownSnapshot(0.0, 0.0)
+        // w = 1 - 2y, so everything south of the equator is behind the camera
+        snapshot.values[CameraSnapshot.MATRIX + 7] = -2.0
+        val projector = ScreenProjector()
+        projector.update(snapshot)
+
+        val out = DoubleArray(4)
+        projector.project(doubleArrayOf(10.0, 0.0, -10.0, 0.0), out, 2)
+        assertFalse(out[0].isNaN())
+        assertTrue(out[2].isNaN())
+        assertTrue(out[3].isNaN())
+    }
+
+    private fun topDownSnapshot(latitude: Double, longitude: Double): CameraSnapshot {
+        // Without tilt and bearing, the projection is a translation of the scaled Mercator coordinates.
+        val snapshot = CameraSnapshot()
+        snapshot.values[CameraSnapshot.LATITUDE] = latitude
+        snapshot.values[CameraSnapshot.LONGITUDE] = longitude
+        val matrix = CameraSnapshot.MATRIX
+        snapshot.values[matrix] = WORLD_SIZE
+        snapshot.values[matrix + 5] = WORLD_SIZE
+        snapshot.values[matrix + 10] = 1.0
+        snapshot.values[matrix + 12] = WIDTH / 2 - mercatorX(longitude) * WORLD_SIZE
+        snapshot.values[matrix + 13] = HEIGHT / 2 - mercatorY(latitude) * WORLD_SIZE
+        snapshot.values[matrix + 15] = 1.0
+        snapshot.values[CameraSnapshot.WIDTH] = WIDTH
+        snapshot.values[CameraSnapshot.HEIGHT] = HEIGHT
+        snapshot.values[CameraSnapshot.WORLD_SIZE] = WORLD_SIZE
+        snapshot.setValid(true)
+        return snapshot
+    }
+
+    private fun expected(latLngs: DoubleArray, latitude: Double, longitude: Double): DoubleArray {
+        val out = DoubleArray(latLngs.size)
+        for (i in latLngs.indices step 2) {
+            out[i] = WIDTH / 2 + (mercatorX(latLngs[i + 1]) - mercatorX(longitude)) * WORLD_SIZE
+            out[i + 1] = HEIGHT / 2 + (mercatorY(latLngs[i]) - mercatorY(latitude)) * WORLD_SIZE
+        }
+        return out
+    }
+
+    private fun mercatorX(longitude: Double) = (180 + longitude) / 360
+
+    private fun mercatorY(latitude: Double): Double {
+        val clamped = latitude.coerceIn(-85.051128779806604, 85.051128779806604)
+        return (180 - Math.toDegrees(ln(tan(PI / 4 + Math.toRadians(clamped) / 2)))) / 360
+    }
+
+    companion object {
+        const val WIDTH = 1080.0
+        const val HEIGHT = 1920.0
+        const val WORLD_SIZE = 512.0 * 8 * 2.625
+        const val DELTA = 1e-6
+    }
+}
@@ -3,6 +3,7 @@ package org.maplibre.android.maps
 import android.content.Context
 import android.graphics.Bitmap
 import android.graphics.drawable.ShapeDrawable
+import android.os.Looper.getMainLooper
 import org.maplibre.android.MapLibreInjector
 import org.maplibre.android.constants.MapLibreConstants
 import org.maplibre.android.style.layers.CannotAddLayerException
@@ -23,6 +24,9 @@ import org.maplibre.android.BaseTest
 import org.mockito.Mock
 import org.mockito.MockitoAnnotations
 import org.robolectric.RobolectricTestRunner
+import org.robolectric.Shadows.shadowOf
+import java.util.concurrent.CyclicBarrier
+import java.util.concurrent.TimeUnit
 
 @RunWith(RobolectricTestRunner::class)
 class StyleTest : BaseTest() {
@@ -59,14 +63,30 @@ class StyleTest : BaseTest() {
     fun testFromUrl() {
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets"))
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
     }
 
     @Test
     fun testFromJson() {
         val builder = Style.Builder().fromJson("{}")
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleJson = "{}" }
+        verify(exactly = 1) { nativeMapView.setStyleJson("{}", false) }
+    }
+
+    @Test
+    fun testFromJsonWithDiff() {
+        val builder = Style.Builder().fromJson("{}").withDiff(true)
+        maplibreMap.setStyle(builder)
+        verify(exactly = 1) { nativeMapView.setStyleJson("{}", true) }
+        verify(exactly = 0) { nativeMapView.setStyleJson("{}", false) }
+    }
+
+    @Test
+    fun testFromBundle() {
+        val builder = Style.Builder().fromBundle("asset://style.mlsb")
+        maplibreMap.setStyle(builder)
+        verify(exactly = 1) { nativeMapView.setStyleBundle("asset://style.mlsb") }
+        verify(exactly = 0) { nativeMapView.styleJson = Style.EMPTY_JSON }
     }
 
     @Test
@@ -147,7 +167,7 @@ class StyleTest : BaseTest() {
         val builder =
             Style.Builder().fromUri(Style.getPredefinedStyle("Streets")).withSource(source)
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.addSource(source) }
     }
@@ -158,7 +178,7 @@ class StyleTest : BaseTest() {
         every { layer.id } returns "1"
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets")).withLayer(layer)
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) {
             nativeMapView.addLayerBelow(
@@ -175,7 +195,7 @@ class StyleTest : BaseTest() {
         val builder =
             Style.Builder().fromUri(Style.getPredefinedStyle("Streets")).withLayerAt(layer, 1)
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.addLayerAt(layer, 1) }
     }
@@ -187,7 +207,7 @@ class StyleTest : BaseTest() {
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets"))
             .withLayerBelow(layer, "below")
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.addLayerBelow(layer, "below") }
     }
@@ -199,7 +219,7 @@ class StyleTest : BaseTest() {
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets"))
             .withLayerBelow(layer, "below")
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.addLayerBelow(layer, "below") }
     }
@@ -210,7 +230,7 @@ class StyleTest : BaseTest() {
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets"))
             .withTransition(transitionOptions)
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.transitionOptions = transitionOptions }
     }
@@ -221,7 +241,7 @@ class StyleTest : BaseTest() {
         every { callback.onStyleLoaded(any()) } answers {}
         val builder = Style.Builder().fromUri(Style.getPredefinedStyle("Streets"))
         maplibreMap.setStyle(builder, callback)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { callback.onStyleLoaded(any()) }
     }
@@ -262,7 +282,7 @@ class StyleTest : BaseTest() {
         every { source.id } returns "1"
         val builder = Style.Builder().fromJson("{}")
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleJson = "{}" }
+        verify(exactly = 1) { nativeMapView.setStyleJson("{}", false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { callback.onStyleLoaded(any()) }
     }
@@ -277,7 +297,7 @@ class StyleTest : BaseTest() {
         val builder =
             Style.Builder().fromUri(Style.getPredefinedStyle("Streets")).withSource(source)
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleUri = Style.getPredefinedStyle("Streets") }
+        verify(exactly = 1) { nativeMapView.setStyleUri(Style.getPredefinedStyle("Streets"), false) }
         maplibreMap.notifyStyleLoaded()
         verify(exactly = 1) { nativeMapView.addSource(source) }
         verify(exactly = 1) { callback.onStyleLoaded(any()) }
@@ -308,7 +328,7 @@ class StyleTest : BaseTest() {
         every { source.id } returns "1"
         val builder = Style.Builder().fromJson("{}")
         maplibreMap.setStyle(builder)
-        verify(exactly = 1) { nativeMapView.styleJson = "{}" }
+        verify(exactly = 1) { nativeMapView.setStyleJson("{}", false) }
         maplibreMap.notifyStyleLoaded()
         maplibreMap.setStyle(Style.getPredefinedStyle("Streets"))
         verify(exactly = 1) { callback.onStyleLoaded(any()) }
@@ -336,6 +356,86 @@ class StyleTest : BaseTest() {
         verify(exactly = 1) { nativeMapView.addImages(any()) }
     }
 
+    @Test
+    fun testAddImagesAsyncAddsSingleBatch() {
+        maplibreMap.setStyle(Style.Builder().fromUri(Style.getPredefinedStyle("Satellite Hybrid")))
+        maplibreMap.notifyStyleLoaded()
+
+        val images = HashMap<String, Bitmap>()
+        for (i in 0 until 10) {
+            images["id$i"] = Bitmap.createBitmap(2, 2, Bitmap.Config.ARGB_8888)
+        }
+        val callback = ImagesAddedCallback()
+        maplibreMap.style!!.addImagesAsync(images, false, callback)
+        awaitConversions()
+        shadowOf(getMainLooper()).idle()
+
+        Assert.assertTrue(callback.added)
+        Assert.assertNull(callback.error)
+        verify(exactly = 1) { nativeMapView.addImages(match { it.size == 10 }) }
+    }
+
+    @Test
+    fun testAddImagesAsyncReportsFailure() {
+        maplibreMap.setStyle(Style.Builder().fromUri(Style.getPredefinedStyle("Satellite Hybrid")))
+        maplibreMap.notifyStyleLoaded()
+
+        val failingBitmap = mockk<Bitmap>()
+        every { failingBitmap.config } throws OutOfMemoryError("conversion failed")
+        val images = hashMapOf(
+            "id" to Bitmap.createBitmap(2, 2, Bitmap.Config.ARGB_8888),
+            "failing" to failingBitmap
+        )
+        val callback = ImagesAddedCallback()
+        maplibreMap.style!!.addImagesAsync(images, false, callback)
+        awaitConversions()
+        shadowOf(getMainLooper()).idle()
+
+        Assert.assertFalse(callback.added)
+        Assert.assertEquals("conversion failed", callback.error)
+        verify(exactly = 1) { nativeMapView.addImages(match { it.size == 1 }) }
+    }
+
+    @Test
+    fun testAddImagesAsyncCancelledWhenStyleReplaced() {
+        maplibreMap.setStyle(Style.Builder().fromUri(Style.getPredefinedStyle("Satellite Hybrid")))
+        maplibreMap.notifyStyleLoaded()
+
+        val images = hashMapOf("id" to Bitmap.createBitmap(2, 2, Bitmap.Config.ARGB_8888))
+        val callback = ImagesAddedCallback()
+        maplibreMap.style!!.addImagesAsync(images, false, callback)
+        maplibreMap.setStyle(Style.Builder().fromUri(Style.getPredefinedStyle("Bright")))
+        awaitConversions()
+        shadowOf(getMainLooper()).idle()
+
+        Assert.assertFalse(callback.added)
+        Assert.assertNull(callback.error)
+        verify(exactly = 0) { nativeMapView.addImages(any()) }
+    }
+
+    private class ImagesAddedCallback : Style.OnImagesAdded {
+        var added = false
+        var error: String? = null
+
+        override fun onImagesAdded() {
+            added = true
+        }
+
+        override fun onError(message: String) {
+            error = message
+        }
+    }
+
+    private fun awaitConversions() {
+        // once every worker thread reached the barrier, all previously queued conversions have finished
+        val executor = BitmapImageConverter.getExecutor()
+        val barrier = CyclicBarrier(executor.maximumPoolSize + 1)
+        repeat(executor.maximumPoolSize) {
+            executor.execute { barrier.await(1, TimeUnit.SECONDS) }
+        }
+        barrier.await(1, TimeUnit.SECONDS)
+    }
+
     @Test
     fun testAddDrawable() {
         val drawable = ShapeDrawable()
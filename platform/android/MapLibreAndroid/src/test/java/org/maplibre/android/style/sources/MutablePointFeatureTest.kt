@@ -0,0 +1,127 @@
+package org.maplibre.android.style.sources
+
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertFalse
+import org.junit.Assert.assertNull
+import org.junit.Assert.assertTrue
+import org.junit.Assume.assumeTrue
+import org.junit.Test
+import java.lang.management.ManagementFactory
+
+class MutablePointFeatureTest {
+
+    @Test
+    fun testProperties() {
+        val feature = MutablePointFeature()
+        feature.setCoordinates(13.4, 52.5)
+        feature.setNumberProperty("bearing", 90.0)
+        feature.setBooleanProperty("stale", true)
+        feature.setStringProperty("icon", "puck")
+        feature.setNumberPairProperty("offset", 0.0, -1.5)
+
+        assertEquals(13.4, feature.longitude, 0.0)
+        assertEquals(52.5, feature.latitude, 0.0)
+        assertEquals(4, feature.propertyCount)
+        assertEquals(90.0, feature.getNumberProperty("bearing"), 0.0)
+        assertTrue(feature.getBooleanProperty("stale"))
+        assertEquals("puck", feature.getStringProperty("icon"))
+        assertEquals(0.0, feature.getNumberProperty("offset"), 0.0)
+        assertEquals(-1.5, feature.numbers[2 * 3 + 1], 0.0)
+        assertFalse(feature.hasProperty("other"))
+        assertTrue(feature.getNumberProperty("other").isNaN())
+    }
+
+    @Test
+    fun testReplaceProperty() {
+        val feature = MutablePointFeature()
+        feature.setStringProperty("value", "a")
+        feature.setNumberProperty("value", 1.0)
+
+        assertEquals(1, feature.propertyCount)
+        assertEquals(1.0, feature.getNumberProperty("value"), 0.0)
+        assertNull(feature.getStringProperty("value"))
+    }
+
+    @Test
+    fun testGrow() {
+        val feature = MutablePointFeature()
+        for (i in 0 until 20) {
+            feature.setNumberProperty("key$i", i.toDouble())
+        }
+
+        assertEquals(20, feature.propertyCount)
+        for (i in 0 until 20) {
+            assertEquals(i.toDouble(), feature.getNumberProperty("key$i"), 0.0)
+        }
+    }
+
+    @Test
+    fun testLayoutVersion() {
+        val feature = MutablePointFeature()
+        feature.setNumberProperty("bearing", 90.0)
+        feature.setStringProperty("icon", "puck")
+        val version = feature.layoutVersion
+
+        // values of numbers and unchanged strings keep the cached layout
+        feature.setNumberProperty("bearing", 180.0)
+        feature.setStringProperty("icon", "puck")
+        feature.setCoordinates(13.4, 52.5)
+        assertEquals(version, feature.layoutVersion)
+
+        feature.setStringProperty("icon", "stale-puck")
+        assertTrue(feature.layoutVersion != version)
+
+        val stringVersion = feature.layoutVersion
+        feature.setNumberPairProperty("bearing", 0.0, 1.0)
+        assertTrue(feature.layoutVersion != stringVersion)
+    }
+
+    @Test
+    fun testLayoutVersionUniqueAcrossFeatures() {
+        // both features have the same property count, native code must not mix up their layouts
+        val first = MutablePointFeature()
+        first.setStringProperty("icon", "puck")
+        val second = MutablePointFeature()
+        second.setStringProperty("name", "stale-puck")
+
+        assertTrue(first.layoutVersion != second.layoutVersion)
+        assertTrue(MutablePointFeature().layoutVersion != MutablePointFeature().layoutVersion)
+    }
+
+    @Test
+    fun testTickDoesNotAllocate() {
+        val threadBean = ManagementFactory.getThreadMXBean()
+        assumeTrue(threadBean is com.sun.management.ThreadMXBean)
+        val allocations = threadBean as com.sun.management.ThreadMXBean
+        assumeTrue(allocations.isThreadAllocatedMemorySupported && allocations.isThreadAllocatedMemoryEnabled)
+        val threadId = Thread.currentThread().id
+
+        val feature = MutablePointFeature()
+        feature.setStringProperty("foreground-icon", "icon")
+        feature.setBooleanProperty("location-stale", false)
+        // reaches the steady state, all properties have been added
+        for (i in 0 until 1000) {
+            tick(feature, i)
+        }
+
+        // reading the counter may allocate itself, this is subtracted
+        val overheadStart = allocations.getThreadAllocatedBytes(threadId)
+        val overheadEnd = allocations.getThreadAllocatedBytes(threadId)
+        val start = allocations.getThreadAllocatedBytes(threadId)
+        for (i in 0 until 10_000) {
+            tick(feature, i)
+        }
+        val end = allocations.getThreadAllocatedBytes(threadId)
+
+        assertEquals(0L, (end - start) - (overheadEnd - overheadStart))
+    }
+
+    // the properties a location puck updates on every animator tick
+    private fun tick(feature: MutablePointFeature, i: Int) {
+        feature.setCoordinates(13.4 + i * 1e-6, 52.5)
+        feature.setNumberProperty("gps-bearing", i.toDouble())
+        feature.setNumberProperty("compass-bearing", -i.toDouble())
+        feature.setNumberProperty("accuracy-radius", 10.0 + i)
+        feature.setNumberPairProperty("foreground-icon-offset", 0.0, -0.05 * i)
+    }
+}
@@ -0,0 +1,52 @@
+package org.maplibre.android.location
+
+import android.os.Debug
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertNotNull
+import org.junit.Test
+import org.junit.runner.RunWith
+import org.maplibre.android.geometry.LatLng
+import org.maplibre.android.location.LocationComponentConstants.LOCATION_SOURCE
+import org.maplibre.android.testapp.action.MapLibreMapAction
+import org.maplibre.android.testapp.activity.EspressoTest
+
+@RunWith(AndroidJUnit4ClassRunner::class)
+class SymbolLocationLayerRendererTest : EspressoTest() {
+
+    @Test
+    @Suppress("DEPRECATION")
+    fun testTickDoesNotAllocate() {
+        validateTestSetup()
+        MapLibreMapAction.invoke(maplibreMap) { _, maplibreMap ->
+            val renderer = SymbolLocationLayerRenderer(LayerSourceProvider(), LayerFeatureProvider(), false)
+            renderer.initializeComponents(maplibreMap.style!!)
+            assertNotNull(maplibreMap.style!!.getSource(LOCATION_SOURCE))
+
+            val latLng = LatLng(52.5, 13.4)
+            // reaches the steady state, all properties have been added and cached by native code
+            for (i in 0 until 100) {
+                tick(renderer, latLng, i)
+            }
+
+            Debug.startAllocCounting()
+            try {
+                Debug.resetThreadAllocCount()
+                for (i in 0 until 1000) {
+                    tick(renderer, latLng, i)
+                }
+                assertEquals(0, Debug.getThreadAllocCount())
+            } finally {
+                Debug.stopAllocCounting()
+            }
+        }
+    }
+
+    // the updates the location animators and camera deliver on every frame, each one refreshes the source
+    private fun tick(renderer: SymbolLocationLayerRenderer, latLng: LatLng, i: Int) {
+        latLng.longitude = 13.4 + i * 1e-6
+        renderer.setLatLng(latLng)
+        renderer.cameraTiltUpdated(i % 60.0)
+        renderer.cameraBearingUpdated(i % 360.0)
+    }
+}
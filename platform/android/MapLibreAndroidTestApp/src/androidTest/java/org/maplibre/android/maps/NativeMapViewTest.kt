@@ -249,6 +249,15 @@ class NativeMapViewTest : AppCenter() {
         assertEquals("Prefetch zoom delta should match", expected, actual)
     }
 
+    @Test
+    @UiThreadTest
+    fun testPredictivePrefetchEnabled() {
+        assertFalse("Predictive prefetch should be disabled by default", nativeMapView.isPredictivePrefetchEnabled)
+        nativeMapView.isPredictivePrefetchEnabled = true
+        assertTrue("Predictive prefetch should be enabled", nativeMapView.isPredictivePrefetchEnabled)
+        assertEquals("No prediction without a style", 0L, nativeMapView.predictivePrefetchStats.requestedTileCount)
+    }
+
     @Test
     @UiThreadTest
     fun testSetContentPadding() {
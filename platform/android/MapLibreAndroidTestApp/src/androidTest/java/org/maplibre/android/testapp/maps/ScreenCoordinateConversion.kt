@@ -6,7 +6,9 @@ import androidx.test.rule.ActivityTestRule
 import org.junit.Assert.assertArrayEquals
 import org.maplibre.android.AppCenter
 import org.maplibre.android.geometry.LatLng
+import org.maplibre.android.maps.CameraSnapshot
 import org.maplibre.android.maps.MapView
+import org.maplibre.android.maps.ScreenProjector
 import org.maplibre.android.testapp.R
 import org.maplibre.android.testapp.activity.espresso.DeviceIndependentTestActivity
 import org.junit.Assert.assertEquals
@@ -122,8 +124,33 @@ class ScreenCoordinateConversion : AppCenter() {
         latch.await(10, TimeUnit.SECONDS)
     }
 
+    @Test
+    fun testScreenProjector() {
+        rule.runOnUiThread {
+            mapView = rule.activity.findViewById(R.id.mapView)
+            mapView.getMapAsync {
+                val projection = it.projection
+                val input = doubleArrayOf(1.0, 2.0, 3.0, 4.0, 45.0, -120.0, -30.0, 179.0)
+                val expected = DoubleArray(input.size)
+                projection.toScreenLocations(input, expected)
+
+                val snapshot = CameraSnapshot()
+                projection.getCameraSnapshot(snapshot)
+                val projector = ScreenProjector()
+                projector.update(snapshot)
+                val actual = DoubleArray(input.size)
+                projector.project(input, actual, input.size / 2)
+
+                assertArrayEquals(expected, actual, DELTA_PROJECTOR)
+                latch.countDown()
+            }
+        }
+        latch.await(10, TimeUnit.SECONDS)
+    }
+
     companion object {
         const val DELTA_DOUBLE = 0.000001
         const val DELTA_FLOAT = 0.000001f
+        const val DELTA_PROJECTOR = 0.001
     }
 }
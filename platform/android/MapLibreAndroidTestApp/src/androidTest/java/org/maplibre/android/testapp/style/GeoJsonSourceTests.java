@@ -7,6 +7,7 @@ import org.maplibre.geojson.Feature;
 import org.maplibre.geojson.FeatureCollection;
 import org.maplibre.geojson.Point;
 import org.maplibre.android.geometry.LatLng;
+import org.maplibre.android.maps.FeatureColumns;
 import org.maplibre.android.style.layers.CircleLayer;
 import org.maplibre.android.style.layers.Layer;
 import org.maplibre.android.style.sources.GeoJsonSource;
@@ -23,14 +24,18 @@ import org.junit.runner.RunWith;
 import android.view.View;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import androidx.annotation.Nullable;
 import androidx.annotation.RawRes;
 import androidx.test.espresso.ViewAction;
 import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
 
 import static androidx.test.espresso.matcher.ViewMatchers.isDisplayed;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 
 /**
  * Tests for {@link GeoJsonSource}
@@ -228,6 +233,62 @@ public class GeoJsonSourceTests extends EspressoTest {
     });
   }
 
+  @Test
+  public void testQuerySourceFeatureColumnIds() {
+    validateTestSetup();
+    MapLibreMapAction.invoke(maplibreMap, (uiController, maplibreMap) -> {
+      GeoJsonSource source = new GeoJsonSource("source", "{\"type\":\"FeatureCollection\",\"features\":["
+        + idFeature("int", "7") + ","
+        + idFeature("min", "-9223372036854775808") + ","
+        + idFeature("integral", "3.0") + ","
+        + idFeature("fraction", "1.5") + ","
+        + idFeature("unsigned", "18446744073709551615") + ","
+        + idFeature("string", "\"a\"") + ","
+        + idFeature("none", null) + "]}");
+      maplibreMap.getStyle().addSource(source);
+      maplibreMap.getStyle().addLayer(new CircleLayer("layer", source.getId()));
+      TestingAsyncUtils.INSTANCE.waitForLayer(uiController, mapView);
+
+      // features can be returned by more than one tile, look them up by name
+      FeatureColumns columns = source.querySourceFeatureColumns(null, new String[] {"name"});
+      Map<String, Integer> features = new HashMap<>();
+      for (int i = 0; i < columns.size(); i++) {
+        features.put(columns.getString(0, i), i);
+      }
+      assertEquals(7, features.size());
+
+      assertNumberId(columns, features.get("int"), 7);
+      assertNumberId(columns, features.get("min"), Long.MIN_VALUE);
+      assertNumberId(columns, features.get("integral"), 3);
+      assertStringId(columns, features.get("fraction"), "1.5");
+      assertStringId(columns, features.get("unsigned"), "18446744073709551615");
+      assertStringId(columns, features.get("string"), "a");
+
+      int none = features.get("none");
+      assertEquals(FeatureColumns.ID_NONE, columns.getIdType(none));
+      assertEquals(FeatureColumns.NO_ID, columns.getId(none));
+      assertNull(columns.getStringId(none));
+    });
+  }
+
+  private static String idFeature(String name, @Nullable String id) {
+    return "{\"type\":\"Feature\"," + (id != null ? "\"id\":" + id + "," : "")
+      + "\"properties\":{\"name\":\"" + name + "\"},"
+      + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[20,55]}}";
+  }
+
+  private static void assertNumberId(FeatureColumns columns, int feature, long id) {
+    assertEquals(FeatureColumns.ID_NUMBER, columns.getIdType(feature));
+    assertEquals(id, columns.getId(feature));
+    assertNull(columns.getStringId(feature));
+  }
+
+  private static void assertStringId(FeatureColumns columns, int feature, String id) {
+    assertEquals(FeatureColumns.ID_STRING, columns.getIdType(feature));
+    assertEquals(FeatureColumns.NO_ID, columns.getId(feature));
+    assertEquals(id, columns.getStringId(feature));
+  }
+
   @Test
   @Ignore("https://github.com/maplibre/maplibre-native/issues/3493")
   public void testDuplicateSourceDuringAsyncSetGeoJson() {
@@ -1,11 +1,13 @@
 package org.maplibre.android.testapp.style
 
 import android.graphics.Bitmap
+import android.graphics.Color
 import android.graphics.drawable.BitmapDrawable
 import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner
 import org.maplibre.android.testapp.R
 import org.maplibre.android.testapp.action.MapLibreMapAction
 import org.maplibre.android.testapp.activity.EspressoTest
+import org.junit.Assert.assertEquals
 import org.junit.Assert.assertNull
 import org.junit.Assert.assertTrue
 import org.junit.Test
@@ -20,6 +22,7 @@ class ImageTest : EspressoTest() {
 
     companion object {
         private const val IMAGE_ID = "test.image"
+        private const val ASYNC_IMAGE_ID = "test.image.async"
     }
 
     @Test
@@ -42,6 +45,35 @@ class ImageTest : EspressoTest() {
             assertNull(maplibreMap.style!!.getImage(IMAGE_ID))
         }
     }
+
+    @Test
+    fun testAddUnpremultipliedImage() {
+        validateTestSetup()
+        MapLibreMapAction.invoke(maplibreMap) { uiController, maplibreMap ->
+            // the alpha type is read from the bitmap info from API 30 on and from the Bitmap before
+            val bitmap = Bitmap.createBitmap(1, 1, Bitmap.Config.ARGB_8888)
+            bitmap.isPremultiplied = false
+            bitmap.setPixel(0, 0, Color.argb(128, 100, 0, 0))
+
+            maplibreMap.style!!.addImage(IMAGE_ID, bitmap)
+            assertUnpremultipliedColor(maplibreMap.style!!.getImage(IMAGE_ID)!!)
+
+            // the async variant copies the pixels on a worker thread
+            var added = false
+            maplibreMap.style!!.addImagesAsync(hashMapOf(ASYNC_IMAGE_ID to bitmap), false) { added = true }
+            while (!added) {
+                uiController.loopMainThreadForAtLeast(10)
+            }
+            assertUnpremultipliedColor(maplibreMap.style!!.getImage(ASYNC_IMAGE_ID)!!)
+        }
+    }
+
+    private fun assertUnpremultipliedColor(image: Bitmap) {
+        // reads back as the unpremultiplied color, an image taken as premultiplied reads back brighter
+        val pixel = image.getPixel(0, 0)
+        assertEquals(128.0, Color.alpha(pixel).toDouble(), 1.0)
+        assertEquals(100.0, Color.red(pixel).toDouble(), 2.0)
+    }
 }
 
 /**
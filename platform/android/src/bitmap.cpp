@@ -1,7 +1,9 @@
 #include "bitmap.hpp"
 
+#include <android/api-level.h>
 #include <android/bitmap.h>
 #include <mbgl/util/logging.hpp>
+#include <mbgl/util/premultiply.hpp>
 
 namespace mbgl {
 namespace android {
@@ -76,13 +78,27 @@ PremultipliedImage Bitmap::GetImage(jni::JNIEnv& env, const jni::Object<Bitmap>&
 
     PixelGuard guard(env, bitmap);
 
-    // Copy the Android Bitmap into the PremultipliedImage.
-    auto pixels = std::make_unique<uint8_t[]>(info.width * info.height * PremultipliedImage::channels);
-    for (uint32_t y = 0; y < info.height; y++) {
-        auto begin = guard.get() + y * info.stride;
-        std::copy(begin,
-                  begin + info.width * PremultipliedImage::channels,
-                  pixels.get() + y * info.width * PremultipliedImage::channels);
+    // Copy the Android Bitmap into the image, in one go when its rows are tightly packed.
+    const std::size_t rowBytes = info.width * PremultipliedImage::channels;
+    auto pixels = std::make_unique<uint8_t[]>(rowBytes * info.height);
+    if (info.stride == rowBytes) {
+        std::copy(guard.get(), guard.get() + rowBytes * info.height, pixels.get());
+    } else {
+        for (uint32_t y = 0; y < info.height; y++) {
+            auto begin = guard.get() + y * info.stride;
+            std::copy(begin, begin + rowBytes, pixels.get() + y * rowBytes);
+        }
+    }
+
+    // Bitmaps are premultiplied by default, unless Bitmap#setPremultiplied(false) was used.
+    // AndroidBitmapInfo::flags only reports the alpha type from API 30 on and is 0 before,
+    // so older versions ask the Bitmap instead.
+    const bool unpremultiplied = android_get_device_api_level() >= 30
+                                     ? (info.flags & ANDROID_BITMAP_FLAGS_ALPHA_MASK) ==
+                                           ANDROID_BITMAP_FLAGS_ALPHA_UNPREMUL
+                                     : !Bitmap::IsPremultiplied(env, bitmap);
+    if (unpremultiplied) {
+        return util::premultiply(UnassociatedImage{Size{info.width, info.height}, std::move(pixels)});
     }
 
     return {Size{info.width, info.height}, std::move(pixels)};
@@ -120,5 +136,12 @@ jni::Local<jni::Object<Bitmap>> Bitmap::Copy(jni::JNIEnv& env, const jni::Object
     return bitmap.Call(env, copy, Bitmap::Config::Create(env, Bitmap::Config::Value::ARGB_8888), jni::jni_false);
 }
 
+bool Bitmap::IsPremultiplied(jni::JNIEnv& env, const jni::Object<Bitmap>& bitmap) {
+    static auto& klass = jni::Class<Bitmap>::Singleton(env);
+    static auto isPremultiplied = klass.GetMethod<jni::jboolean()>(env, "isPremultiplied");
+
+    return bitmap.Call(env, isPremultiplied);
+}
+
 } // namespace android
 } // namespace mbgl
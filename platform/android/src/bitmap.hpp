@@ -41,6 +41,7 @@ public:
     static PremultipliedImage GetImage(jni::JNIEnv&, const jni::Object<Bitmap>&);
     static jni::Local<jni::Object<Bitmap>> CreateBitmap(jni::JNIEnv&, const PremultipliedImage&);
     static jni::Local<jni::Object<Bitmap>> Copy(jni::JNIEnv&, const jni::Object<Bitmap>&);
+    static bool IsPremultiplied(jni::JNIEnv&, const jni::Object<Bitmap>&);
 };
 
 } // namespace android
@@ -13,6 +13,7 @@
 #include <memory>
 #include <string>
 #include <optional>
+#include <vector>
 
 namespace mapbox {
 namespace sqlite {
@@ -37,9 +38,22 @@ struct MapboxTileLimitExceededException : util::Exception {
         : util::Exception("Mapbox tile limit exceeded") {}
 };
 
+// How far a download got through the tiles of a tileset, in tile cover
+// order. The first `tileCount` tiles are stored in the region, except
+// `missingTileCount` of them which the server didn't have.
+struct OfflineTilesetCheckpoint {
+    uint8_t minZoom = 0;
+    uint8_t maxZoom = 0;
+    uint64_t tileCount = 0;
+    uint64_t missingTileCount = 0;
+    uint64_t tileSize = 0;
+};
+
 class OfflineDatabase {
 public:
-    OfflineDatabase(std::string path, const TileServerOptions& options);
+    // A read-only database never creates, migrates or writes to the file, and
+    // can be used alongside a writable one in DatabaseDurability::Normal.
+    OfflineDatabase(std::string path, const TileServerOptions& options, bool readOnly = false);
     ~OfflineDatabase();
 
     void changePath(const std::string&);
@@ -49,6 +63,10 @@ public:
 
     // Return value is (inserted, stored size)
     std::pair<bool, uint64_t> put(const Resource&, const Response&);
+    // Stores the resources in the ambient cache in a single transaction. A resource
+    // that fails to be stored is skipped and logged, the others are still stored.
+    // Return value is the number of resources inserted.
+    std::size_t putAmbientResources(const std::list<std::tuple<Resource, Response>>&);
 
     // Force Mapbox GL Native to revalidate tiles stored in the ambient
     // cache with the tile server before using them, making sure they
@@ -76,11 +94,23 @@ public:
     std::exception_ptr deleteRegion(OfflineRegion&&);
     std::exception_ptr invalidateRegion(int64_t regionID);
 
+    // Writes the tiles of the region that belong to the tileset with the URL template
+    // to a new MBTiles archive. The URL template may be empty if the region has tiles
+    // of a single tileset only.
+    std::exception_ptr exportRegion(int64_t regionID, const std::string& urlTemplate, const std::string& archivePath);
+
     // Return value is (response, stored size)
     std::optional<std::pair<Response, uint64_t>> getRegionResource(const Resource&);
     std::optional<int64_t> hasRegionResource(const Resource&);
+    // Like getRegionResource, without reading the data. The response holds the
+    // validators used to check the resource with the server again.
+    std::optional<std::pair<Response, uint64_t>> getRegionResourceValidators(const Resource&);
     uint64_t putRegionResource(int64_t regionID, const Resource&, const Response&);
-    void putRegionResources(int64_t regionID, const std::list<std::tuple<Resource, Response>>&, OfflineRegionStatus&);
+    // The stored size of each resource is appended to storedSizes when the whole batch was stored.
+    void putRegionResources(int64_t regionID,
+                            const std::list<std::tuple<Resource, Response>>&,
+                            OfflineRegionStatus&,
+                            std::vector<uint64_t>* storedSizes = nullptr);
 
     expected<OfflineRegionDefinition, std::exception_ptr> getRegionDefinition(int64_t regionID);
     expected<OfflineRegionStatus, std::exception_ptr> getRegionCompletedStatus(int64_t regionID);
@@ -91,12 +121,44 @@ public:
     bool offlineMapboxTileCountLimitExceeded();
     uint64_t getOfflineMapboxTileCount();
     bool exceedsOfflineMapboxTileCountLimit(const Resource&);
-    void markUsedResources(int64_t regionID, const std::list<Resource>&);
+    // Return value is true iff the resources were marked.
+    bool markUsedResources(int64_t regionID, const std::list<Resource>&);
+
+    // The average stored size of the tiles of the tileset with the URL template,
+    // or of all tiles if the URL template is empty. Sampled from a limited number
+    // of tiles to stay fast on large databases.
+    std::optional<uint64_t> getAverageTileSize(const std::string& urlTemplate);
+
+    std::optional<OfflineTilesetCheckpoint> getTilesetCheckpoint(int64_t regionID, const std::string& urlTemplate);
+    void putTilesetCheckpoint(int64_t regionID, const std::string& urlTemplate, const OfflineTilesetCheckpoint&);
+    void deleteTilesetCheckpoints(int64_t regionID);
+    // Whether the download of the region checks its stored resources with the server again.
+    bool isRegionRefreshing(int64_t regionID);
+    void setRegionRefreshing(int64_t regionID, bool refreshing);
     std::exception_ptr pack();
+    // Switches a database created without incremental auto vacuum to it. This
+    // rewrites the whole file once, and does nothing if it is already enabled.
+    std::exception_ptr enableIncrementalVacuum();
+    // Returns at most `pageCount` free pages to the file system, so that packing
+    // can be spread over short steps. Return value is the size in bytes of the
+    // free pages that remain. Fails if incremental vacuum isn't enabled.
+    expected<uint64_t, std::exception_ptr> packIncrementally(uint64_t pageCount);
     void runPackDatabaseAutomatically(bool autopack_) { autopack = autopack_; }
 
     void reopenDatabaseReadOnly(bool readOnly);
 
+    // Switches the journal and sync mode, see DatabaseDurability.
+    std::exception_ptr setDurability(DatabaseDurability);
+    DatabaseDurability getDurability() const { return durability; }
+
+    // Copies the write-ahead log into the database without waiting for readers.
+    // Does nothing unless the durability is DatabaseDurability::Normal.
+    void checkpoint();
+
+    // Updates the access time used for LRU eviction, for resources that were
+    // read through another, read-only connection.
+    void markAccessed(const Resource&);
+
 private:
     class DatabaseSizeChangeStats;
 
@@ -107,18 +169,25 @@ private:
     void handleError(const char* action);
 
     void removeExisting();
+    void applyDurability();
     void removeOldCacheTable();
     void createSchema();
     void migrateToVersion5();
     void migrateToVersion3();
     void migrateToVersion6();
+    void createCheckpointTables();
     void cleanup();
     bool disabled();
     void vacuum();
+    bool isIncrementalVacuumEnabled();
+    void switchToIncrementalVacuum();
     void checkFlags();
 
     mapbox::sqlite::Statement& getStatement(const char*);
 
+    void updateTileAccessed(const Resource::TileData&);
+    void updateResourceAccessed(const std::string& url);
+
     std::optional<std::pair<Response, uint64_t>> getTile(const Resource::TileData&);
     std::optional<int64_t> hasTile(const Resource::TileData&);
     bool putTile(const Resource::TileData&, const Response&, const std::string&, bool compressed);
@@ -186,6 +255,7 @@ private:
 
     bool autopack = true;
     bool readOnly = false;
+    DatabaseDurability durability = DatabaseDurability::Full;
 };
 
 } // namespace mbgl
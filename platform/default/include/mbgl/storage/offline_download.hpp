@@ -2,12 +2,18 @@
 
 #include <mbgl/storage/file_source.hpp>
 #include <mbgl/storage/offline.hpp>
+#include <mbgl/storage/offline_database.hpp>
 #include <mbgl/storage/resource.hpp>
+#include <mbgl/util/chrono.hpp>
+#include <mbgl/util/range.hpp>
 
 #include <list>
+#include <map>
+#include <optional>
 #include <unordered_set>
 #include <memory>
 #include <deque>
+#include <vector>
 
 namespace mbgl {
 
@@ -36,7 +42,62 @@ public:
 
     OfflineRegionStatus getStatus() const;
 
+    /*
+     * Estimates the tiles that downloading a region requires from the style
+     * and sources stored in the database. Tile pyramids are counted exactly
+     * and geometries are only covered at the zoom levels with few tiles, so
+     * that the estimate is fast for any region.
+     */
+    static OfflineRegionEstimate estimate(const OfflineRegionDefinition&, OfflineDatabase&);
+
+    /*
+     * Limits the number of resources that are requested at the same time. With
+     * 0, the default, the limit of the online file source is used.
+     */
+    void setMaximumConcurrentRequests(uint32_t);
+
+    /*
+     * Activates the download, which checks each stored resource that isn't
+     * known to be fresh with the server again, using its ETag or modification
+     * time. Unchanged resources aren't downloaded again. The refresh is stored
+     * in the database until the download completes, so that it resumes after a
+     * restart. Once it completes, stored resources are taken as they are again.
+     */
+    void refresh();
+
 private:
+    // A tile, identified by its tileset and its position in tile cover order.
+    struct TileIndex {
+        size_t tileset;
+        uint64_t index;
+    };
+
+    struct PendingResource {
+        Resource resource;
+        std::optional<TileIndex> tile;
+    };
+
+    /*
+     * Progress through the tiles of a tileset. Tiles finish out of order, so
+     * the ones past the checkpoint are kept until the checkpoint reaches them.
+     * The checkpoint is stored with the region, and a download that is
+     * activated again skips the tiles before it instead of looking each of
+     * them up.
+     */
+    struct TilesetProgress {
+        std::string urlTemplate;
+        OfflineTilesetCheckpoint checkpoint;
+        // Stored size of the finished tiles past the checkpoint, or no value if the tile is missing.
+        std::map<uint64_t, std::optional<uint64_t>> finished;
+        bool changed = false;
+    };
+
+    struct ThroughputSample {
+        TimePoint time;
+        uint64_t bytes;
+        bool tile;
+    };
+
     void activateDownload();
     void continueDownload();
     void deactivateDownload();
@@ -47,10 +108,14 @@ private:
      * While the request is in progress, it is recorded in `requests`. If the download
      * is deactivated, all in progress requests are cancelled.
      */
-    void ensureResource(Resource&&, std::function<void(Response)> = {});
+    void ensureResource(Resource&&, std::function<void(Response)> = {}, std::optional<TileIndex> = {});
 
     void onMapboxTileCountLimitExceeded();
 
+    void finishTile(TileIndex, std::optional<uint64_t> size);
+    void saveCheckpoints();
+    void recordDownload(const Resource&, const Response&);
+
     int64_t id;
     OfflineRegionDefinition definition;
     OfflineDatabase& offlineDatabase;
@@ -60,9 +125,21 @@ private:
 
     std::list<std::unique_ptr<AsyncRequest>> requests;
     std::set<std::string> requiredSourceURLs;
-    std::deque<Resource> resourcesRemaining;
+    std::deque<PendingResource> resourcesRemaining;
     std::list<Resource> resourcesToBeMarkedAsUsed;
     std::list<std::tuple<Resource, Response>> buffer;
+    // Tiles and their sizes in `resourcesToBeMarkedAsUsed` and `buffer`, which finish once stored.
+    std::vector<std::pair<TileIndex, uint64_t>> tilesToBeMarkedAsUsed;
+    std::vector<std::optional<TileIndex>> bufferedTiles;
+
+    std::vector<TilesetProgress> tilesets;
+    uint32_t maximumConcurrentRequests = 0;
+    bool refreshing = false;
+
+    TimePoint activated;
+    std::deque<ThroughputSample> throughputSamples;
+    uint64_t throughputBytes = 0;
+    uint64_t throughputTiles = 0;
 
     void queueResource(Resource&&);
     void queueTiles(style::SourceType, uint16_t tileSize, const Tileset&);
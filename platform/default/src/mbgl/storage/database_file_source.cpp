@@ -9,66 +9,341 @@
 #include <mbgl/util/client_options.hpp>
 #include <mbgl/util/constants.hpp>
 #include <mbgl/util/logging.hpp>
+#include <mbgl/util/lru_cache.hpp>
 #include <mbgl/util/platform.hpp>
 #include <mbgl/util/thread.hpp>
+#include <mbgl/util/timer.hpp>
 
+#include <atomic>
+#include <list>
 #include <map>
+#include <mutex>
+#include <optional>
+#include <unordered_map>
 #include <utility>
 
 namespace mbgl {
+namespace {
+
+// How often the write-ahead log is copied back into the database while idle.
+// SQLite also checkpoints on its own once the log grows past 1000 pages.
+constexpr Duration checkpointInterval = std::chrono::seconds(10);
+
+// Ambient cache writes are buffered and stored together in one transaction
+// once the buffer holds this many resources or bytes, or after the delay.
+constexpr std::size_t writeBufferMaximumCount = 64;
+constexpr std::size_t writeBufferMaximumSize = 4 * 1024 * 1024;
+constexpr Duration writeBufferDelay = std::chrono::seconds(1);
+
+// Packing while idle returns this many free pages to the file system per step,
+// so that a request waits for a step to end for a few milliseconds at most.
+constexpr uint64_t packStepPageCount = 256;
+
+// Hits in the memory cache update the access time used for LRU eviction of the
+// ambient cache at most this often per resource.
+constexpr Duration memoryCacheAccessInterval = std::chrono::seconds(60);
+
+void respond(std::optional<Response> offlineResponse, const ActorRef<FileSourceRequest>& req) {
+    if (!offlineResponse) {
+        offlineResponse.emplace();
+        offlineResponse->noContent = true;
+        offlineResponse->error = std::make_unique<Response::Error>(Response::Error::Reason::NotFound,
+                                                                   "Not found in offline database");
+    } else if (!offlineResponse->isUsable()) {
+        offlineResponse->error = std::make_unique<Response::Error>(Response::Error::Reason::NotFound,
+                                                                   "Cached resource is unusable");
+    }
+    req.invoke(&FileSourceRequest::setResponse, *offlineResponse);
+}
+
+} // namespace
+
+// Keeps the most recently used resources in memory, in front of the database.
+// Used from any thread.
+class DatabaseFileSourceMemoryCache {
+public:
+    // Sets `markAccessed` when the access time of the resource in the database is due for an update.
+    std::optional<Response> get(const Resource& resource, bool& markAccessed) {
+        std::scoped_lock lock(mutex);
+        auto it = entries.find(resource.url);
+        if (it == entries.end() || !it->second.response.isUsable()) {
+            // Unusable responses are revalidated with the data and etag stored in the database.
+            misses++;
+            return std::nullopt;
+        }
+        hits++;
+        lru.touch(resource.url);
+        const auto now = util::now();
+        markAccessed = now - it->second.accessed >= memoryCacheAccessInterval;
+        if (markAccessed) {
+            it->second.accessed = now;
+        }
+        return it->second.response;
+    }
+
+    void put(const Resource& resource, const Response& response) {
+        if (response.error) {
+            return;
+        }
+
+        std::scoped_lock lock(mutex);
+        auto it = entries.find(resource.url);
+        if (response.notModified) {
+            if (it != entries.end()) {
+                it->second.response.expires = response.expires;
+                it->second.response.mustRevalidate = response.mustRevalidate;
+            }
+            return;
+        }
+
+        const uint64_t entrySize = resource.url.size() + (response.data ? response.data->size() : 0);
+        if (entrySize > maximumSize) {
+            // Also drops the previous version.
+            if (it != entries.end()) {
+                remove(it);
+            }
+            return;
+        }
+        // Responses are put after they were read from or written to the database,
+        // which updates their access time.
+        if (it != entries.end()) {
+            size -= sizeOf(*it);
+            it->second = {response, util::now()};
+        } else {
+            entries.emplace(resource.url, Entry{response, util::now()});
+        }
+        size += entrySize;
+        lru.touch(resource.url);
+        shrink(maximumSize);
+    }
+
+    void setMaximumSize(uint64_t maximumSize_) {
+        std::scoped_lock lock(mutex);
+        maximumSize = maximumSize_;
+        shrink(maximumSize);
+    }
+
+    void trim(uint64_t size_) {
+        std::scoped_lock lock(mutex);
+        shrink(size_);
+    }
+
+    void clear() { trim(0); }
+
+    void remove(const Resource& resource) {
+        std::scoped_lock lock(mutex);
+        auto it = entries.find(resource.url);
+        if (it != entries.end()) {
+            remove(it);
+        }
+    }
+
+    MemoryCacheStatistics getStatistics() const {
+        std::scoped_lock lock(mutex);
+        return {hits, misses, size, entries.size()};
+    }
+
+private:
+    struct Entry {
+        Response response;
+        // When the access time of the resource in the database was last updated.
+        Timestamp accessed;
+    };
+    using Entries = std::unordered_map<std::string, Entry>;
+
+    static uint64_t sizeOf(const Entries::value_type& entry) {
+        return entry.first.size() + (entry.second.response.data ? entry.second.response.data->size() : 0);
+    }
+
+    void remove(Entries::iterator it) {
+        size -= sizeOf(*it);
+        lru.remove(it->first);
+        entries.erase(it);
+    }
+
+    void shrink(uint64_t size_) {
+        while (size > size_ && !lru.empty()) {
+            remove(entries.find(lru.evict()));
+        }
+    }
+
+    mutable std::mutex mutex;
+    Entries entries;
+    LRU<std::string> lru;
+    uint64_t maximumSize = 0;
+    uint64_t size = 0;
+    uint64_t hits = 0;
+    uint64_t misses = 0;
+};
+
+// The responses buffered by the database thread until they're written, shared
+// with the read thread, whose connection doesn't see them yet.
+class DatabaseFileSourceBufferedResponses {
+public:
+    std::optional<Response> get(const Resource& resource) const {
+        std::scoped_lock lock(mutex);
+        auto it = responses.find(resource.url);
+        if (it == responses.end() || it->second.notModified) {
+            return std::nullopt;
+        }
+        return it->second;
+    }
+
+    void put(const Resource& resource, const Response& response) {
+        std::scoped_lock lock(mutex);
+        responses[resource.url] = response;
+    }
+
+    void clear() {
+        std::scoped_lock lock(mutex);
+        responses.clear();
+    }
+
+private:
+    mutable std::mutex mutex;
+    std::unordered_map<std::string, Response> responses;
+};
+
+class DatabaseFileSourceReadThread;
+
 class DatabaseFileSourceThread {
 public:
-    DatabaseFileSourceThread(std::shared_ptr<FileSource> onlineFileSource_, const std::string& cachePath)
+    DatabaseFileSourceThread(std::shared_ptr<FileSource> onlineFileSource_,
+                             const std::string& cachePath,
+                             std::shared_ptr<std::atomic<std::size_t>> writeQueueDepth_,
+                             std::shared_ptr<DatabaseFileSourceBufferedResponses> bufferedResponses_,
+                             std::shared_ptr<std::atomic<std::size_t>> pendingRequests_)
         : db(std::make_unique<OfflineDatabase>(cachePath, onlineFileSource_->getResourceOptions().tileServerOptions())),
-          onlineFileSource(std::move(onlineFileSource_)) {}
+          onlineFileSource(std::move(onlineFileSource_)),
+          path(cachePath),
+          writeQueueDepth(std::move(writeQueueDepth_)),
+          bufferedResponses(std::move(bufferedResponses_)),
+          pendingRequests(std::move(pendingRequests_)) {}
+
+    ~DatabaseFileSourceThread() { flushWrites(); }
 
     void request(const Resource& resource, const ActorRef<FileSourceRequest>& req) {
-        std::optional<Response> offlineResponse = (resource.storagePolicy != Resource::StoragePolicy::Volatile)
-                                                      ? db->get(resource)
-                                                      : std::nullopt;
-        if (!offlineResponse) {
-            offlineResponse.emplace();
-            offlineResponse->noContent = true;
-            offlineResponse->error = std::make_unique<Response::Error>(Response::Error::Reason::NotFound,
-                                                                       "Not found in offline database");
-        } else if (!offlineResponse->isUsable()) {
-            offlineResponse->error = std::make_unique<Response::Error>(Response::Error::Reason::NotFound,
-                                                                       "Cached resource is unusable");
-        }
-        req.invoke(&FileSourceRequest::setResponse, *offlineResponse);
-    }
-
-    void setDatabasePath(const std::string& path, const std::function<void()>& callback) {
+        --*pendingRequests;
+        // The map isn't idle anymore.
+        pauseIdlePack();
+
+        if (resource.storagePolicy == Resource::StoragePolicy::Volatile) {
+            respond(std::nullopt, req);
+            return;
+        }
+
+        // Buffered writes are not in the database yet.
+        auto it = bufferedWrites.find(resource.url);
+        if (it != bufferedWrites.end() && !std::get<1>(*it->second).notModified) {
+            respond(std::get<1>(*it->second), req);
+            return;
+        }
+
+        respond(db->get(resource), req);
+    }
+
+    void markAccessed(const Resource& resource) { db->markAccessed(resource); }
+
+    void setDatabasePath(const std::string& path_, const std::function<void()>& callback) {
+        flushWrites();
+        path = path_;
         db->changePath(path);
+        reopenReader();
         if (callback) {
             callback();
         }
     }
 
+    void setDurability(DatabaseDurability durability,
+                       const std::optional<ActorRef<DatabaseFileSourceReadThread>>& reader_,
+                       const std::function<void(std::exception_ptr)>& callback) {
+        auto error = db->setDurability(durability);
+        reader = reader_;
+        if (durability == DatabaseDurability::Normal) {
+            checkpointTimer.start(checkpointInterval, checkpointInterval, [this] { db->checkpoint(); });
+        } else {
+            checkpointTimer.stop();
+        }
+        reopenReader();
+        callback(error);
+    }
+
     void forward(const Resource& resource, const Response& response, const std::function<void()>& callback) {
-        db->put(resource, response);
+        bufferWrite(resource, response);
         if (callback) {
+            // The caller waits for the resource to be stored.
+            flushWrites();
             callback();
         }
     }
 
-    void resetDatabase(const std::function<void(std::exception_ptr)>& callback) { callback(db->resetDatabase()); }
+    // Drops the buffered writes, the resources will be requested again when needed.
+    void dropWrites() {
+        if (!writeBuffer.empty()) {
+            Log::Info(Event::Database,
+                      "Dropping " + std::to_string(writeBuffer.size()) + " buffered ambient cache writes");
+        }
+        clearWriteBuffer();
+    }
+
+    void resetDatabase(const std::function<void(std::exception_ptr)>& callback) {
+        clearWriteBuffer();
+        auto error = db->resetDatabase();
+        reopenReader();
+        callback(error);
+    }
 
-    void packDatabase(const std::function<void(std::exception_ptr)>& callback) { callback(db->pack()); }
+    void packDatabase(const std::function<void(std::exception_ptr)>& callback) {
+        flushWrites();
+        callback(db->pack());
+    }
 
-    void runPackDatabaseAutomatically(bool autopack) { db->runPackDatabaseAutomatically(autopack); }
+    void runPackDatabaseAutomatically(bool autopack_) {
+        autopack = autopack_;
+        db->runPackDatabaseAutomatically(autopack && !packInBackground);
+    }
 
-    void put(const Resource& resource, const Response& response) { db->put(resource, response); }
+    void runPackDatabaseInBackground(bool packInBackground_) {
+        packInBackground = packInBackground_;
+        db->runPackDatabaseAutomatically(autopack && !packInBackground);
+    }
+
+    void packDatabaseWhileIdle(const std::function<void(DatabasePackProgress)>& callback) {
+        if (idlePackCallback) {
+            // The new callback takes over, the previous one is done.
+            DatabasePackProgress progress = idlePackProgress;
+            progress.paused = true;
+            idlePackCallback(progress);
+        } else {
+            idlePackProgress = {};
+            idlePackStarted = false;
+        }
+        idlePackCallback = callback;
+        // Steps run from the run loop, after the requests that arrived in the meantime.
+        packTimer.start(Duration::zero(), Duration::zero(), [this] { packStep(); });
+    }
+
+    void put(const Resource& resource, const Response& response) { bufferWrite(resource, response); }
+
+    void putResources(const std::list<std::tuple<Resource, Response>>& resources,
+                      const std::function<void(std::size_t)>& callback) {
+        // Buffered writes of the same URLs are older.
+        flushWrites();
+        callback(db->putAmbientResources(resources));
+    }
 
     void invalidateAmbientCache(const std::function<void(std::exception_ptr)>& callback) {
+        flushWrites();
         callback(db->invalidateAmbientCache());
     }
 
     void clearAmbientCache(const std::function<void(std::exception_ptr)>& callback) {
+        clearWriteBuffer();
         callback(db->clearAmbientCache());
     }
 
     void setMaximumAmbientCacheSize(uint64_t size, const std::function<void(std::exception_ptr)>& callback) {
+        flushWrites();
         callback(db->setMaximumAmbientCacheSize(size));
     }
 
@@ -84,11 +359,23 @@ public:
     void createRegion(const OfflineRegionDefinition& definition,
                       const OfflineRegionMetadata& metadata,
                       const std::function<void(expected<OfflineRegion, std::exception_ptr>)>& callback) {
+        flushWrites();
         callback(db->createRegion(definition, metadata));
     }
 
+    void estimateRegion(const OfflineRegionDefinition& definition,
+                        const std::function<void(expected<OfflineRegionEstimate, std::exception_ptr>)>& callback) {
+        flushWrites();
+        try {
+            callback(OfflineDownload::estimate(definition, *db));
+        } catch (...) {
+            callback(unexpected<std::exception_ptr>(std::current_exception()));
+        }
+    }
+
     void mergeOfflineRegions(const std::string& sideDatabasePath,
                              const std::function<void(expected<OfflineRegions, std::exception_ptr>)>& callback) {
+        flushWrites();
         callback(db->mergeDatabase(sideDatabasePath));
     }
 
@@ -116,6 +403,13 @@ public:
         callback(db->invalidateRegion(regionID));
     }
 
+    void exportRegion(int64_t regionID,
+                      const std::string& urlTemplate,
+                      const std::string& archivePath,
+                      const std::function<void(std::exception_ptr)>& callback) {
+        callback(db->exportRegion(regionID, urlTemplate, archivePath));
+    }
+
     void setRegionObserver(int64_t regionID, std::unique_ptr<OfflineRegionObserver> observer) {
         if (auto download = getDownload(regionID)) {
             download.value()->setObserver(std::move(observer));
@@ -123,16 +417,136 @@ public:
     }
 
     void setRegionDownloadState(int64_t regionID, OfflineRegionDownloadState state) {
+        // Downloads reuse the resources of the ambient cache.
+        flushWrites();
         if (auto download = getDownload(regionID)) {
             download.value()->setState(state);
         }
     }
 
+    void refreshRegion(int64_t regionID) {
+        flushWrites();
+        if (auto download = getDownload(regionID)) {
+            download.value()->refresh();
+        }
+    }
+
     void setOfflineMapboxTileCountLimit(uint64_t limit) { db->setOfflineMapboxTileCountLimit(limit); }
 
-    void reopenDatabaseReadOnly(bool readOnly) { db->reopenDatabaseReadOnly(readOnly); }
+    void setMaximumConcurrentOfflineRequests(uint32_t limit) {
+        maximumConcurrentOfflineRequests = limit;
+        for (auto& download : downloads) {
+            download.second->setMaximumConcurrentRequests(limit);
+        }
+    }
+
+    void reopenDatabaseReadOnly(bool readOnly) {
+        flushWrites();
+        db->reopenDatabaseReadOnly(readOnly);
+    }
 
 private:
+    void bufferWrite(const Resource& resource, const Response& response) {
+        if (response.error) {
+            return;
+        }
+
+        auto it = bufferedWrites.find(resource.url);
+        const bool replaces = it != bufferedWrites.end();
+        if (replaces) {
+            auto& buffered = std::get<1>(*it->second);
+            writeBufferSize -= buffered.data ? buffered.data->size() : 0;
+            if (response.notModified && !buffered.notModified) {
+                // Revalidates the buffered response instead of replacing its data.
+                buffered.expires = response.expires;
+                buffered.mustRevalidate = response.mustRevalidate;
+            } else {
+                std::get<0>(*it->second) = resource;
+                buffered = response;
+            }
+            writeBufferSize += buffered.data ? buffered.data->size() : 0;
+            bufferedResponses->put(resource, buffered);
+        } else {
+            writeBuffer.emplace_back(resource, response);
+            bufferedWrites.emplace(resource.url, std::prev(writeBuffer.end()));
+            writeBufferSize += response.data ? response.data->size() : 0;
+            *writeQueueDepth = writeBuffer.size();
+            bufferedResponses->put(resource, response);
+        }
+
+        if (writeBuffer.size() >= writeBufferMaximumCount || writeBufferSize >= writeBufferMaximumSize) {
+            flushWrites();
+        } else if (writeBuffer.size() == 1 && !replaces) {
+            // The first write since the last flush bounds how long the buffer is held.
+            writeTimer.start(writeBufferDelay, Duration::zero(), [this] { flushWrites(); });
+        }
+    }
+
+    void flushWrites() {
+        if (writeBuffer.empty()) {
+            return;
+        }
+        db->putAmbientResources(writeBuffer);
+        // Cleared once written, so the read thread finds the resources in one or the other.
+        clearWriteBuffer();
+    }
+
+    void clearWriteBuffer() {
+        writeTimer.stop();
+        writeBuffer.clear();
+        bufferedWrites.clear();
+        bufferedResponses->clear();
+        writeBufferSize = 0;
+        *writeQueueDepth = 0;
+    }
+
+    void packStep() {
+        if (*pendingRequests > 0) {
+            pauseIdlePack();
+            return;
+        }
+
+        flushWrites();
+        // The first step only measures the free size, to report the reclaimed size.
+        auto remainingSize = db->packIncrementally(idlePackStarted ? packStepPageCount : 0);
+        if (!remainingSize) {
+            // The error is logged, the next idle period tries again.
+            pauseIdlePack();
+            return;
+        }
+
+        if (idlePackStarted && idlePackProgress.remainingSize > *remainingSize) {
+            idlePackProgress.reclaimedSize += idlePackProgress.remainingSize - *remainingSize;
+        }
+        idlePackProgress.remainingSize = *remainingSize;
+        idlePackStarted = true;
+
+        if (*remainingSize == 0) {
+            auto callback = std::move(idlePackCallback);
+            idlePackCallback = nullptr;
+            callback(idlePackProgress);
+        } else {
+            idlePackCallback(idlePackProgress);
+            packTimer.start(Duration::zero(), Duration::zero(), [this] { packStep(); });
+        }
+    }
+
+    void pauseIdlePack() {
+        if (!idlePackCallback) {
+            return;
+        }
+        packTimer.stop();
+        auto callback = std::move(idlePackCallback);
+        idlePackCallback = nullptr;
+        DatabasePackProgress progress = idlePackProgress;
+        progress.paused = true;
+        callback(progress);
+    }
+
+    // The read connection only opens the database once this connection created it
+    // and switched it to the write-ahead log, and follows it to new files.
+    void reopenReader();
+
     expected<OfflineDownload*, std::exception_ptr> getDownload(int64_t regionID) {
         if (!onlineFileSource) {
             return unexpected<std::exception_ptr>(
@@ -149,14 +563,98 @@ private:
         }
         auto download = std::make_unique<OfflineDownload>(
             regionID, std::move(definition.value()), *db, *onlineFileSource);
+        download->setMaximumConcurrentRequests(maximumConcurrentOfflineRequests);
         return downloads.emplace(regionID, std::move(download)).first->second.get();
     }
 
     std::unique_ptr<OfflineDatabase> db;
     std::map<int64_t, std::unique_ptr<OfflineDownload>> downloads;
     std::shared_ptr<FileSource> onlineFileSource;
+    std::string path;
+    std::optional<ActorRef<DatabaseFileSourceReadThread>> reader;
+    util::Timer checkpointTimer;
+    uint32_t maximumConcurrentOfflineRequests = 0;
+
+    // Write-behind buffer of the ambient cache, in the order of the writes, with
+    // one entry per URL.
+    std::list<std::tuple<Resource, Response>> writeBuffer;
+    std::unordered_map<std::string, std::list<std::tuple<Resource, Response>>::iterator> bufferedWrites;
+    std::size_t writeBufferSize = 0;
+    util::Timer writeTimer;
+    std::shared_ptr<std::atomic<std::size_t>> writeQueueDepth;
+    std::shared_ptr<DatabaseFileSourceBufferedResponses> bufferedResponses;
+
+    // Requests sent to this thread that it didn't answer yet.
+    std::shared_ptr<std::atomic<std::size_t>> pendingRequests;
+    bool autopack = true;
+    bool packInBackground = false;
+    std::function<void(DatabasePackProgress)> idlePackCallback;
+    DatabasePackProgress idlePackProgress;
+    bool idlePackStarted = false;
+    util::Timer packTimer;
 };
 
+// Serves requests from a second, read-only connection while the database uses
+// the write-ahead log, so that cache reads don't queue up behind writes and
+// offline downloads on the database thread.
+class DatabaseFileSourceReadThread {
+public:
+    DatabaseFileSourceReadThread(ActorRef<DatabaseFileSourceThread> writer_,
+                                 TileServerOptions tileServerOptions_,
+                                 std::shared_ptr<DatabaseFileSourceBufferedResponses> bufferedResponses_,
+                                 std::shared_ptr<std::atomic<std::size_t>> pendingRequests_)
+        : writer(std::move(writer_)),
+          tileServerOptions(std::move(tileServerOptions_)),
+          bufferedResponses(std::move(bufferedResponses_)),
+          pendingRequests(std::move(pendingRequests_)) {}
+
+    void open(const std::string& path) {
+        db.reset();
+        db = std::make_unique<OfflineDatabase>(path, tileServerOptions, true);
+    }
+
+    void request(const Resource& resource, const ActorRef<FileSourceRequest>& req) {
+        if (!db) {
+            // Not opened yet, the database thread answers instead.
+            ++*pendingRequests;
+            writer.invoke(&DatabaseFileSourceThread::request, resource, req);
+            return;
+        }
+
+        if (resource.storagePolicy == Resource::StoragePolicy::Volatile) {
+            respond(std::nullopt, req);
+            return;
+        }
+
+        // Buffered writes are not in the database yet.
+        if (auto buffered = bufferedResponses->get(resource)) {
+            respond(std::move(buffered), req);
+            return;
+        }
+
+        std::optional<Response> offlineResponse = db->get(resource);
+        if (offlineResponse) {
+            // The access time used for LRU eviction can only be updated by the writable connection.
+            writer.invoke(&DatabaseFileSourceThread::markAccessed, resource);
+        }
+        respond(std::move(offlineResponse), req);
+    }
+
+private:
+    ActorRef<DatabaseFileSourceThread> writer;
+    TileServerOptions tileServerOptions;
+    std::shared_ptr<DatabaseFileSourceBufferedResponses> bufferedResponses;
+    std::shared_ptr<std::atomic<std::size_t>> pendingRequests;
+    std::unique_ptr<OfflineDatabase> db;
+};
+
+void DatabaseFileSourceThread::reopenReader() {
+    // Another connection to an in-memory database would open a new, empty one.
+    if (reader && db->getDurability() == DatabaseDurability::Normal && path != ":memory:") {
+        reader->invoke(&DatabaseFileSourceReadThread::open, path);
+    }
+}
+
 class DatabaseFileSource::Impl {
 public:
     Impl(std::shared_ptr<FileSource> onlineFileSource,
@@ -166,14 +664,73 @@ public:
               util::makeThreadPrioritySetter(platform::EXPERIMENTAL_THREAD_PRIORITY_DATABASE),
               "DatabaseFileSource",
               std::move(onlineFileSource),
-              resourceOptions_.cachePath())),
+              resourceOptions_.cachePath(),
+              writeQueueDepth,
+              bufferedResponses,
+              pendingRequests)),
           resourceOptions(resourceOptions_.clone()),
           clientOptions(clientOptions_.clone()) {}
 
     ActorRef<DatabaseFileSourceThread> actor() const { return thread->actor(); }
 
-    void pause() { thread->pause(); }
-    void resume() { thread->resume(); }
+    std::size_t getWriteQueueDepth() const { return *writeQueueDepth; }
+
+    const std::shared_ptr<DatabaseFileSourceMemoryCache>& getMemoryCache() const { return memoryCache; }
+
+    void request(const Resource& resource, const ActorRef<FileSourceRequest>& req) {
+        std::scoped_lock lock(readerMutex);
+        if (reader) {
+            reader->actor().invoke(&DatabaseFileSourceReadThread::request, resource, req);
+        } else {
+            ++*pendingRequests;
+            actor().invoke(&DatabaseFileSourceThread::request, resource, req);
+        }
+    }
+
+    void setDurability(DatabaseDurability durability, std::function<void(std::exception_ptr)> callback) {
+        std::scoped_lock lock(readerMutex);
+        if (durability == DatabaseDurability::Normal) {
+            if (!reader) {
+                reader = std::make_unique<util::Thread<DatabaseFileSourceReadThread>>(
+                    util::makeThreadPrioritySetter(platform::EXPERIMENTAL_THREAD_PRIORITY_DATABASE),
+                    "DatabaseFileSourceRead",
+                    actor(),
+                    getResourceOptions().tileServerOptions(),
+                    bufferedResponses,
+                    pendingRequests);
+                if (paused) {
+                    reader->pause();
+                }
+            }
+            actor().invoke(&DatabaseFileSourceThread::setDurability, durability, reader->actor(), std::move(callback));
+        } else {
+            // Leaving the write-ahead log needs the only connection to the database. Destroying
+            // the thread answers the requests it still has queued before closing the connection.
+            reader.reset();
+            actor().invoke(&DatabaseFileSourceThread::setDurability,
+                           durability,
+                           std::optional<ActorRef<DatabaseFileSourceReadThread>>(),
+                           std::move(callback));
+        }
+    }
+
+    void pause() {
+        std::scoped_lock lock(readerMutex);
+        paused = true;
+        thread->pause();
+        if (reader) {
+            reader->pause();
+        }
+    }
+
+    void resume() {
+        std::scoped_lock lock(readerMutex);
+        paused = false;
+        thread->resume();
+        if (reader) {
+            reader->resume();
+        }
+    }
 
     void setResourceOptions(ResourceOptions options) {
         std::scoped_lock lock(resourceOptionsMutex);
@@ -196,7 +753,19 @@ public:
     }
 
 private:
+    // Updated by the database thread, read from any thread.
+    const std::shared_ptr<std::atomic<std::size_t>> writeQueueDepth = std::make_shared<std::atomic<std::size_t>>(0);
+    // Requests queued on the database thread, which pause packing while idle.
+    const std::shared_ptr<std::atomic<std::size_t>> pendingRequests = std::make_shared<std::atomic<std::size_t>>(0);
+    // Written by the database thread, read by the read thread.
+    const std::shared_ptr<DatabaseFileSourceBufferedResponses> bufferedResponses =
+        std::make_shared<DatabaseFileSourceBufferedResponses>();
+    // Shared with the callbacks of requests, which may outlive the Impl.
+    const std::shared_ptr<DatabaseFileSourceMemoryCache> memoryCache = std::make_shared<DatabaseFileSourceMemoryCache>();
     const std::unique_ptr<util::Thread<DatabaseFileSourceThread>> thread;
+    std::unique_ptr<util::Thread<DatabaseFileSourceReadThread>> reader;
+    std::mutex readerMutex;
+    bool paused = false;
     mutable std::mutex resourceOptionsMutex;
     mutable std::mutex clientOptionsMutex;
     ResourceOptions resourceOptions;
@@ -212,14 +781,38 @@ DatabaseFileSource::DatabaseFileSource(const ResourceOptions& resourceOptions, c
 DatabaseFileSource::~DatabaseFileSource() = default;
 
 std::unique_ptr<AsyncRequest> DatabaseFileSource::request(const Resource& resource, Callback callback) {
-    auto req = std::make_unique<FileSourceRequest>(std::move(callback));
-    impl->actor().invoke(&DatabaseFileSourceThread::request, resource, req->actor());
+    if (resource.storagePolicy == Resource::StoragePolicy::Volatile) {
+        auto req = std::make_unique<FileSourceRequest>(std::move(callback));
+        impl->request(resource, req->actor());
+        return req;
+    }
+
+    const auto& memoryCache = impl->getMemoryCache();
+    bool markAccessed = false;
+    if (auto response = memoryCache->get(resource, markAccessed)) {
+        if (markAccessed) {
+            // Keeps the resources that are hot in memory from being evicted first from the ambient cache.
+            impl->actor().invoke(&DatabaseFileSourceThread::markAccessed, resource);
+        }
+        auto req = std::make_unique<FileSourceRequest>(std::move(callback));
+        req->actor().invoke(&FileSourceRequest::setResponse, *response);
+        return req;
+    }
+
+    auto req = std::make_unique<FileSourceRequest>(
+        [memoryCache, resource, callback_ = std::move(callback)](const Response& response) {
+            memoryCache->put(resource, response);
+            callback_(response);
+        });
+    impl->request(resource, req->actor());
     return req;
 }
 
 void DatabaseFileSource::forward(const Resource& res, const Response& response, std::function<void()> callback) {
     if (res.storagePolicy == Resource::StoragePolicy::Volatile) return;
 
+    impl->getMemoryCache()->put(res, response);
+
     std::function<void()> wrapper;
     if (callback) {
         wrapper = Scheduler::GetCurrent()->bindOnce(std::move(callback));
@@ -234,10 +827,12 @@ bool DatabaseFileSource::canRequest(const Resource& resource) const {
 }
 
 void DatabaseFileSource::setDatabasePath(const std::string& path, std::function<void()> callback) {
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::setDatabasePath, path, std::move(callback));
 }
 
 void DatabaseFileSource::resetDatabase(std::function<void(std::exception_ptr)> callback) {
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::resetDatabase, std::move(callback));
 }
 
@@ -249,15 +844,35 @@ void DatabaseFileSource::runPackDatabaseAutomatically(bool autopack) {
     impl->actor().invoke(&DatabaseFileSourceThread::runPackDatabaseAutomatically, autopack);
 }
 
+void DatabaseFileSource::runPackDatabaseInBackground(bool packInBackground) {
+    impl->actor().invoke(&DatabaseFileSourceThread::runPackDatabaseInBackground, packInBackground);
+}
+
+void DatabaseFileSource::packDatabaseWhileIdle(std::function<void(DatabasePackProgress)> callback) {
+    impl->actor().invoke(&DatabaseFileSourceThread::packDatabaseWhileIdle, std::move(callback));
+}
+
 void DatabaseFileSource::put(const Resource& resource, const Response& response) {
+    impl->getMemoryCache()->put(resource, response);
     impl->actor().invoke(&DatabaseFileSourceThread::put, resource, response);
 }
 
+void DatabaseFileSource::putResources(std::list<std::tuple<Resource, Response>> resources,
+                                      std::function<void(std::size_t)> callback) {
+    const auto& memoryCache = impl->getMemoryCache();
+    for (const auto& resource : resources) {
+        memoryCache->remove(std::get<0>(resource));
+    }
+    impl->actor().invoke(&DatabaseFileSourceThread::putResources, std::move(resources), std::move(callback));
+}
+
 void DatabaseFileSource::invalidateAmbientCache(std::function<void(std::exception_ptr)> callback) {
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::invalidateAmbientCache, std::move(callback));
 }
 
 void DatabaseFileSource::clearAmbientCache(std::function<void(std::exception_ptr)> callback) {
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::clearAmbientCache, std::move(callback));
 }
 
@@ -265,6 +880,32 @@ void DatabaseFileSource::setMaximumAmbientCacheSize(uint64_t size, std::function
     impl->actor().invoke(&DatabaseFileSourceThread::setMaximumAmbientCacheSize, size, std::move(callback));
 }
 
+void DatabaseFileSource::reduceMemoryUse() {
+    impl->getMemoryCache()->clear();
+    impl->actor().invoke(&DatabaseFileSourceThread::dropWrites);
+}
+
+std::size_t DatabaseFileSource::getAmbientCacheWriteQueueDepth() const {
+    return impl->getWriteQueueDepth();
+}
+
+void DatabaseFileSource::setMaximumMemoryCacheSize(uint64_t size) {
+    impl->getMemoryCache()->setMaximumSize(size);
+}
+
+void DatabaseFileSource::trimMemoryCache(uint64_t size) {
+    impl->getMemoryCache()->trim(size);
+}
+
+MemoryCacheStatistics DatabaseFileSource::getMemoryCacheStatistics() const {
+    return impl->getMemoryCache()->getStatistics();
+}
+
+void DatabaseFileSource::setDatabaseDurability(DatabaseDurability durability,
+                                               std::function<void(std::exception_ptr)> callback) {
+    impl->setDurability(durability, std::move(callback));
+}
+
 void DatabaseFileSource::listOfflineRegions(
     std::function<void(expected<OfflineRegions, std::exception_ptr>)> callback) {
     impl->actor().invoke(&DatabaseFileSourceThread::listRegions, std::move(callback));
@@ -282,6 +923,12 @@ void DatabaseFileSource::createOfflineRegion(
     impl->actor().invoke(&DatabaseFileSourceThread::createRegion, definition, metadata, std::move(callback));
 }
 
+void DatabaseFileSource::estimateOfflineRegion(
+    const OfflineRegionDefinition& definition,
+    std::function<void(expected<OfflineRegionEstimate, std::exception_ptr>)> callback) {
+    impl->actor().invoke(&DatabaseFileSourceThread::estimateRegion, definition, std::move(callback));
+}
+
 void DatabaseFileSource::mergeOfflineRegions(
     const std::string& sideDatabasePath, std::function<void(expected<OfflineRegions, std::exception_ptr>)> callback) {
     impl->actor().invoke(&DatabaseFileSourceThread::mergeOfflineRegions, sideDatabasePath, std::move(callback));
@@ -296,14 +943,25 @@ void DatabaseFileSource::updateOfflineMetadata(
 
 void DatabaseFileSource::deleteOfflineRegion(const OfflineRegion& region,
                                              std::function<void(std::exception_ptr)> callback) {
+    // Resources of the region that aren't used otherwise are removed from the database.
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::deleteRegion, region, std::move(callback));
 }
 
 void DatabaseFileSource::invalidateOfflineRegion(const OfflineRegion& region,
                                                  std::function<void(std::exception_ptr)> callback) {
+    impl->getMemoryCache()->clear();
     impl->actor().invoke(&DatabaseFileSourceThread::invalidateRegion, region.getID(), std::move(callback));
 }
 
+void DatabaseFileSource::exportOfflineRegion(const OfflineRegion& region,
+                                             const std::string& urlTemplate,
+                                             const std::string& archivePath,
+                                             std::function<void(std::exception_ptr)> callback) {
+    impl->actor().invoke(
+        &DatabaseFileSourceThread::exportRegion, region.getID(), urlTemplate, archivePath, std::move(callback));
+}
+
 void DatabaseFileSource::setOfflineRegionObserver(const OfflineRegion& region,
                                                   std::unique_ptr<OfflineRegionObserver> observer) {
     impl->actor().invoke(&DatabaseFileSourceThread::setRegionObserver, region.getID(), std::move(observer));
@@ -313,6 +971,12 @@ void DatabaseFileSource::setOfflineRegionDownloadState(const OfflineRegion& regi
     impl->actor().invoke(&DatabaseFileSourceThread::setRegionDownloadState, region.getID(), state);
 }
 
+void DatabaseFileSource::refreshOfflineRegion(const OfflineRegion& region) {
+    // Resources that changed on the server replace the ones in memory.
+    impl->getMemoryCache()->clear();
+    impl->actor().invoke(&DatabaseFileSourceThread::refreshRegion, region.getID());
+}
+
 void DatabaseFileSource::getOfflineRegionStatus(
     const OfflineRegion& region,
     std::function<void(expected<OfflineRegionStatus, std::exception_ptr>)> callback) const {
@@ -323,6 +987,10 @@ void DatabaseFileSource::setOfflineMapboxTileCountLimit(uint64_t limit) const {
     impl->actor().invoke(&DatabaseFileSourceThread::setOfflineMapboxTileCountLimit, limit);
 }
 
+void DatabaseFileSource::setMaximumConcurrentOfflineRequests(uint32_t limit) const {
+    impl->actor().invoke(&DatabaseFileSourceThread::setMaximumConcurrentOfflineRequests, limit);
+}
+
 void DatabaseFileSource::setProperty(const std::string& key, const mapbox::base::Value& value) {
     if (key == READ_ONLY_MODE_KEY && value.getBool()) {
         impl->actor().invoke(&DatabaseFileSourceThread::reopenDatabaseReadOnly, *value.getBool());
@@ -121,6 +121,10 @@ HTTPFileSource::Impl::Impl(const ResourceOptions &resourceOptions_, const Client
     handleError(curl_multi_setopt(multi, CURLMOPT_SOCKETDATA, this));
     handleError(curl_multi_setopt(multi, CURLMOPT_TIMERFUNCTION, startTimeout));
     handleError(curl_multi_setopt(multi, CURLMOPT_TIMERDATA, this));
+#if LIBCURL_VERSION_NUM >= ((7) << 16 | (43) << 8 | 0) // Added in 7.43.0
+    // Concurrent requests to a host are multiplexed over a single HTTP/2 connection.
+    curl_multi_setopt(multi, CURLMOPT_PIPELINING, CURLPIPE_MULTIPLEX);
+#endif
 }
 
 HTTPFileSource::Impl::~Impl() {
@@ -305,6 +309,12 @@ HTTPRequest::HTTPRequest(HTTPFileSource::Impl *context_, Resource resource_, Fil
 #endif
     handleError(curl_easy_setopt(handle, CURLOPT_USERAGENT, "MapLibreNative/1.0"));
     handleError(curl_easy_setopt(handle, CURLOPT_SHARE, context->share));
+#if LIBCURL_VERSION_NUM >= ((7) << 16 | (47) << 8 | 0) // Added in 7.47.0
+    // Ignored when cURL is built without HTTP/2 support.
+    curl_easy_setopt(handle, CURLOPT_HTTP_VERSION, CURL_HTTP_VERSION_2TLS);
+    // Waits for a multiplexed connection instead of opening one per request.
+    curl_easy_setopt(handle, CURLOPT_PIPEWAIT, 1L);
+#endif
 
     // Start requesting the information.
     handleError(curl_multi_add_handle(context->multi, handle));
@@ -35,6 +35,10 @@ bool acceptsURL(const std::string &url) {
 std::string url_to_path(const std::string &url) {
     return mbgl::util::percentDecode(url.substr(std::char_traits<char>::length(mbgl::util::MBTILES_PROTOCOL)));
 }
+
+// Archives are read through memory mapped I/O, up to this size. This only reserves
+// address space, the pages are loaded when tiles are read.
+constexpr int64_t MMAP_SIZE = 256 * 1024 * 1024;
 } // namespace
 
 namespace mbgl {
@@ -190,23 +194,18 @@ public:
     void request_tile(const Resource &resource, ActorRef<FileSourceRequest> req) {
         std::string base_path = url_to_path(resource.url);
         std::string path = db_path(base_path);
-        auto &db = get_db(path);
-
-        int iy = resource.tileData->y;
-        int iz = resource.tileData->z;
-
-        auto x = std::to_string(resource.tileData->x);
-        auto y = std::to_string((int)(pow(2, iz) - 1) - iy);
-        auto z = std::to_string(iz);
+        auto &archive = get_db(path);
 
-        std::string sql = "SELECT tile_data FROM tiles where zoom_level = " + z + " AND tile_column = " + x +
-                          " AND tile_row = " + y;
-        mapbox::sqlite::Statement stmt(db, sql.c_str());
+        const int64_t iz = resource.tileData->z;
 
         Response response;
         response.noContent = true;
 
-        for (mapbox::sqlite::Query q(stmt); q.run();) {
+        mapbox::sqlite::Query q(archive.tile_stmt);
+        q.bind(1, iz);
+        q.bind(2, static_cast<int64_t>(resource.tileData->x));
+        q.bind(3, ((int64_t(1) << iz) - 1) - resource.tileData->y);
+        while (q.run()) {
             std::optional<std::string> data = q.get<std::optional<std::string>>(0);
             if (data) {
                 response.data = std::make_shared<std::string>(*data);
@@ -243,7 +242,18 @@ public:
     }
 
 private:
-    std::map<std::string, mapbox::sqlite::Database> db_cache;
+    // An open archive, with its tile statement prepared once
+    struct Archive {
+        explicit Archive(mapbox::sqlite::Database &&db_)
+            : db(std::move(db_)),
+              tile_stmt(db,
+                        "SELECT tile_data FROM tiles WHERE zoom_level = ?1 AND tile_column = ?2 AND tile_row = ?3") {}
+
+        mapbox::sqlite::Database db;
+        mapbox::sqlite::Statement tile_stmt;
+    };
+
+    std::map<std::string, std::unique_ptr<Archive>> db_cache;
 
     void close_db(const std::string &path) {
         auto ptr = db_cache.find(path);
@@ -255,15 +265,16 @@ private:
     void close_all() { db_cache.clear(); }
 
     // Multiple databases open simultaneously, to effectively support multiple .mbtiles maps
-    mapbox::sqlite::Database &get_db(const std::string &path) {
+    Archive &get_db(const std::string &path) {
         auto ptr = db_cache.find(path);
         if (ptr != db_cache.end()) {
-            return ptr->second;
+            return *ptr->second;
         };
 
-        auto ptr2 = db_cache.insert(std::pair<std::string, mapbox::sqlite::Database>(
-            path, mapbox::sqlite::Database::open(path, mapbox::sqlite::ReadOnly)));
-        return ptr2.first->second;
+        auto db = mapbox::sqlite::Database::open(path, mapbox::sqlite::ReadOnly);
+        db.exec("PRAGMA mmap_size = " + std::to_string(MMAP_SIZE));
+        auto ptr2 = db_cache.emplace(path, std::make_unique<Archive>(std::move(db)));
+        return *ptr2.first->second;
     }
 
     mutable std::mutex resourceOptionsMutex;
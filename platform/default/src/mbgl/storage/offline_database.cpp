@@ -7,15 +7,126 @@
 #include <mbgl/util/chrono.hpp>
 #include <mbgl/util/logging.hpp>
 #include <mbgl/util/tile_server_options.hpp>
+#include <mbgl/util/variant.hpp>
 
 #include <mbgl/storage/offline_schema.hpp>
 #include <mbgl/storage/merge_sideloaded.hpp>
 
+#include <mapbox/geometry/envelope.hpp>
+
+#include <cmath>
+
 namespace mbgl {
 
-OfflineDatabase::OfflineDatabase(std::string path_, const TileServerOptions& options)
+namespace {
+
+// Writes tiles to a new MBTiles archive. Errors are reported as std::runtime_error,
+// so that they aren't taken for errors of the offline database.
+class MBTilesWriter {
+public:
+    explicit MBTilesWriter(std::string path_)
+        : path(std::move(path_)) {
+        run([&] {
+            try {
+                util::deleteFile(path);
+            } catch (const util::IOException&) {
+                // The archive didn't exist yet.
+            }
+            db.emplace(mapbox::sqlite::Database::open(path, mapbox::sqlite::ReadWriteCreate));
+            db->exec(
+                "CREATE TABLE metadata (name TEXT, value TEXT);"
+                "CREATE TABLE tiles (zoom_level INTEGER, tile_column INTEGER, tile_row INTEGER, tile_data BLOB);"
+                "CREATE UNIQUE INDEX tile_index ON tiles (zoom_level, tile_column, tile_row);");
+            insertTile = std::make_unique<mapbox::sqlite::Statement>(
+                *db,
+                "INSERT OR REPLACE INTO tiles (zoom_level, tile_column, tile_row, tile_data) VALUES (?1, ?2, ?3, ?4)");
+            insertMetadata = std::make_unique<mapbox::sqlite::Statement>(
+                *db, "INSERT INTO metadata (name, value) VALUES (?1, ?2)");
+            transaction = std::make_unique<mapbox::sqlite::Transaction>(*db);
+        });
+    }
+
+    void putTile(uint8_t z, int64_t x, int64_t y, const std::string& data) {
+        run([&] {
+            mapbox::sqlite::Query query{*insertTile};
+            query.bind(1, z);
+            query.bind(2, x);
+            // MBTiles rows count from the south.
+            query.bind(3, (int64_t(1) << z) - 1 - y);
+            query.bindBlob(4, data.data(), data.size(), false);
+            query.run();
+        });
+    }
+
+    void putMetadata(const std::string& name, const std::string& value) {
+        run([&] {
+            mapbox::sqlite::Query query{*insertMetadata};
+            query.bind(1, name);
+            query.bind(2, value);
+            query.run();
+        });
+    }
+
+    void commit() {
+        run([&] { transaction->commit(); });
+    }
+
+private:
+    template <typename Fn>
+    void run(Fn&& fn) {
+        try {
+            fn();
+        } catch (const mapbox::sqlite::Exception& ex) {
+            throw std::runtime_error("Can't write " + path + ": " + ex.what());
+        }
+    }
+
+    std::string path;
+    std::optional<mapbox::sqlite::Database> db;
+    std::unique_ptr<mapbox::sqlite::Statement> insertTile;
+    std::unique_ptr<mapbox::sqlite::Statement> insertMetadata;
+    std::unique_ptr<mapbox::sqlite::Transaction> transaction;
+};
+
+// The MBTiles format of a tile, from its signature.
+std::string mbtilesFormat(const std::string& urlTemplate, const std::string& data) {
+    if (data.starts_with("\x89PNG")) {
+        return "png";
+    } else if (data.starts_with("\xFF\xD8")) {
+        return "jpg";
+    } else if (data.size() >= 12 && data.starts_with("RIFF") && data.compare(8, 4, "WEBP") == 0) {
+        return "webp";
+    } else if (urlTemplate.find(".mlt") != std::string::npos) {
+        return "mlt";
+    }
+    return "pbf";
+}
+
+std::string regionBounds(const OfflineRegionDefinition& definition) {
+    const LatLngBounds bounds = std::visit(
+        overloaded{[](const OfflineTilePyramidRegionDefinition& region) { return region.bounds; },
+                   [](const OfflineGeometryRegionDefinition& region) {
+                       const auto box = mapbox::geometry::envelope(region.geometry);
+                       return LatLngBounds::hull({box.min.y, box.min.x}, {box.max.y, box.max.x});
+                   }},
+        definition);
+    return util::toString(bounds.west()) + "," + util::toString(bounds.south()) + "," + util::toString(bounds.east()) +
+           "," + util::toString(bounds.north());
+}
+
+// The database was corrupted, moved away, or deleted.
+bool isDatabaseLost(const mapbox::sqlite::Exception& ex) {
+    return ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt ||
+           (ex.code == mapbox::sqlite::ResultCode::ReadOnly &&
+            ex.extendedCode == mapbox::sqlite::ExtendedResultCode::ReadOnlyDBMoved);
+}
+
+} // namespace
+
+OfflineDatabase::OfflineDatabase(std::string path_, const TileServerOptions& options, bool readOnly_)
     : path(std::move(path_)),
-      tileServerOptions(options) {
+      tileServerOptions(options),
+      readOnly(readOnly_) {
     try {
         initialize();
     } catch (...) {
@@ -53,7 +164,7 @@ void OfflineDatabase::initialize() {
             // Newly created database, or old cache-only database; remove old table if it exists.
             removeOldCacheTable();
             createSchema();
-            return;
+            break;
         case 2:
             migrateToVersion3();
             // fall through
@@ -68,12 +179,18 @@ void OfflineDatabase::initialize() {
             // fall through
         case 6:
             // Happy path; we're done
-            return;
+            break;
         default:
             // Downgrade: delete the database and try to reinitialize.
             removeExisting();
             initialize();
+            return;
     }
+
+    createCheckpointTables();
+
+    // The journal mode is persistent, it is set on every open to follow the durability
+    applyDurability();
 }
 
 void OfflineDatabase::changePath(const std::string& path_) {
@@ -103,9 +220,7 @@ bool OfflineDatabase::disabled() {
 }
 
 void OfflineDatabase::handleError(const mapbox::sqlite::Exception& ex, const char* action) {
-    if (ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt ||
-        (ex.code == mapbox::sqlite::ResultCode::ReadOnly &&
-         ex.extendedCode == mapbox::sqlite::ExtendedResultCode::ReadOnlyDBMoved)) {
+    if (isDatabaseLost(ex)) {
         // The database was corruped, moved away, or deleted. We're going to
         // start fresh with a clean slate for the next operation.
         Log::Error(Event::Database, static_cast<int>(ex.code), std::string("Can't ") + action + ": " + ex.what());
@@ -154,6 +269,23 @@ void OfflineDatabase::removeExisting() {
     db.reset();
 
     util::deleteFile(path);
+    // A stale write-ahead log would be replayed into a new database with the same path
+    util::deleteFile(path + "-wal");
+    util::deleteFile(path + "-shm");
+}
+
+void OfflineDatabase::applyDurability() {
+    assert(db);
+    checkFlags();
+
+    if (durability == DatabaseDurability::Normal) {
+        db->exec("PRAGMA journal_mode = WAL");
+        db->exec("PRAGMA synchronous = NORMAL");
+    } else {
+        // Leaving WAL checkpoints the log and requires that no other connection is open
+        db->exec("PRAGMA journal_mode = DELETE");
+        db->exec("PRAGMA synchronous = FULL");
+    }
 }
 
 void OfflineDatabase::removeOldCacheTable() {
@@ -215,18 +347,50 @@ void OfflineDatabase::migrateToVersion6() {
     transaction.commit();
 }
 
+// Download checkpoints were added without a schema version, databases with
+// version 6 may or may not have them. Older versions ignore the tables.
+void OfflineDatabase::createCheckpointTables() {
+    assert(db);
+    checkFlags();
+
+    db->exec(
+        "CREATE TABLE IF NOT EXISTS region_tileset_checkpoints ("
+        "  region_id INTEGER NOT NULL REFERENCES regions(id) ON DELETE CASCADE,"
+        "  url_template TEXT NOT NULL,"
+        "  min_zoom INTEGER NOT NULL,"
+        "  max_zoom INTEGER NOT NULL,"
+        "  tile_count INTEGER NOT NULL,"
+        "  missing_tile_count INTEGER NOT NULL,"
+        "  tile_size INTEGER NOT NULL,"
+        "  UNIQUE (region_id, url_template)"
+        ")");
+    db->exec(
+        "CREATE TABLE IF NOT EXISTS region_refreshes ("
+        "  region_id INTEGER NOT NULL PRIMARY KEY REFERENCES regions(id) ON DELETE CASCADE"
+        ")");
+}
+
 void OfflineDatabase::vacuum() {
     assert(db);
     checkFlags();
 
-    if (getPragma<int64_t>("PRAGMA auto_vacuum") != 2 /*INCREMENTAL*/) {
-        db->exec("PRAGMA auto_vacuum = INCREMENTAL");
-        db->exec("VACUUM");
+    if (!isIncrementalVacuumEnabled()) {
+        switchToIncrementalVacuum();
     } else {
         db->exec("PRAGMA incremental_vacuum");
     }
 }
 
+bool OfflineDatabase::isIncrementalVacuumEnabled() {
+    return getPragma<int64_t>("PRAGMA auto_vacuum") == 2 /*INCREMENTAL*/;
+}
+
+void OfflineDatabase::switchToIncrementalVacuum() {
+    // The auto vacuum mode only changes when the whole file is rewritten.
+    db->exec("PRAGMA auto_vacuum = INCREMENTAL");
+    db->exec("VACUUM");
+}
+
 void OfflineDatabase::checkFlags() {
     if (readOnly) {
         throw std::runtime_error("Cannot modify database in read-only mode");
@@ -294,6 +458,45 @@ std::pair<bool, uint64_t> OfflineDatabase::put(const Resource& resource, const R
     return {false, 0};
 }
 
+std::size_t OfflineDatabase::putAmbientResources(const std::list<std::tuple<Resource, Response>>& resources) try {
+    if (readOnly) return 0;
+
+    if (!db) {
+        initialize();
+    }
+
+    if (disabled()) {
+        return 0;
+    }
+
+    std::size_t inserted = 0;
+    mapbox::sqlite::Transaction transaction(*db, mapbox::sqlite::Transaction::Immediate);
+    for (const auto& elem : resources) {
+        // A resource that can't be stored is rolled back on its own, the others are still stored.
+        db->exec("SAVEPOINT ambient_resource");
+        try {
+            if (putInternal(std::get<0>(elem), std::get<1>(elem), true).first) {
+                inserted++;
+            }
+        } catch (const mapbox::sqlite::Exception& ex) {
+            if (isDatabaseLost(ex)) {
+                throw;
+            }
+            db->exec("ROLLBACK TO ambient_resource");
+            handleError(ex, "write resource");
+        } catch (const std::runtime_error& ex) {
+            db->exec("ROLLBACK TO ambient_resource");
+            handleError(ex, "write resource");
+        }
+        db->exec("RELEASE ambient_resource");
+    }
+    transaction.commit();
+    return inserted;
+} catch (...) {
+    handleError("write resources");
+    return 0;
+}
+
 std::pair<bool, uint64_t> OfflineDatabase::putInternal(const Resource& resource,
                                                        const Response& response,
                                                        bool evict_) {
@@ -348,23 +551,27 @@ std::pair<bool, uint64_t> OfflineDatabase::putInternal(const Resource& resource,
     return {inserted, size};
 }
 
+void OfflineDatabase::updateResourceAccessed(const std::string& url) {
+    try {
+        mapbox::sqlite::Query accessedQuery{getStatement("UPDATE resources SET accessed = ?1 WHERE url = ?2")};
+        accessedQuery.bind(1, util::now());
+        accessedQuery.bind(2, url);
+        accessedQuery.run();
+    } catch (const mapbox::sqlite::Exception& ex) {
+        if (ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt) {
+            throw;
+        }
+
+        // If we don't have any indication that the database is corrupt, continue as usual.
+        Log::Warning(
+            Event::Database, static_cast<int>(ex.code), std::string("Can't update timestamp: ") + ex.what());
+    }
+}
+
 std::optional<std::pair<Response, uint64_t>> OfflineDatabase::getResource(const Resource& resource) {
     // Update accessed timestamp used for LRU eviction.
     if (!readOnly) {
-        try {
-            mapbox::sqlite::Query accessedQuery{getStatement("UPDATE resources SET accessed = ?1 WHERE url = ?2")};
-            accessedQuery.bind(1, util::now());
-            accessedQuery.bind(2, resource.url);
-            accessedQuery.run();
-        } catch (const mapbox::sqlite::Exception& ex) {
-            if (ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt) {
-                throw;
-            }
-
-            // If we don't have any indication that the database is corrupt, continue as usual.
-            Log::Warning(
-                Event::Database, static_cast<int>(ex.code), std::string("Can't update timestamp: ") + ex.what());
-        }
+        updateResourceAccessed(resource.url);
     }
 
     // clang-format off
@@ -500,37 +707,41 @@ bool OfflineDatabase::putResource(const Resource& resource,
     return true;
 }
 
+void OfflineDatabase::updateTileAccessed(const Resource::TileData& tile) {
+    try {
+        // clang-format off
+        mapbox::sqlite::Query accessedQuery{ getStatement(
+            "UPDATE tiles "
+            "SET accessed       = ?1 "
+            "WHERE url_template = ?2 "
+            "  AND pixel_ratio  = ?3 "
+            "  AND x            = ?4 "
+            "  AND y            = ?5 "
+            "  AND z            = ?6 ") };
+        // clang-format on
+
+        accessedQuery.bind(1, util::now());
+        accessedQuery.bind(2, tile.urlTemplate);
+        accessedQuery.bind(3, tile.pixelRatio);
+        accessedQuery.bind(4, tile.x);
+        accessedQuery.bind(5, tile.y);
+        accessedQuery.bind(6, tile.z);
+        accessedQuery.run();
+    } catch (const mapbox::sqlite::Exception& ex) {
+        if (ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt) {
+            throw;
+        }
+
+        // If we don't have any indication that the database is corrupt, continue as usual.
+        Log::Warning(
+            Event::Database, static_cast<int>(ex.code), std::string("Can't update timestamp: ") + ex.what());
+    }
+}
+
 std::optional<std::pair<Response, uint64_t>> OfflineDatabase::getTile(const Resource::TileData& tile) {
     // Update accessed timestamp used for LRU eviction.
     if (!readOnly) {
-        try {
-            // clang-format off
-            mapbox::sqlite::Query accessedQuery{ getStatement(
-                "UPDATE tiles "
-                "SET accessed       = ?1 "
-                "WHERE url_template = ?2 "
-                "  AND pixel_ratio  = ?3 "
-                "  AND x            = ?4 "
-                "  AND y            = ?5 "
-                "  AND z            = ?6 ") };
-            // clang-format on
-
-            accessedQuery.bind(1, util::now());
-            accessedQuery.bind(2, tile.urlTemplate);
-            accessedQuery.bind(3, tile.pixelRatio);
-            accessedQuery.bind(4, tile.x);
-            accessedQuery.bind(5, tile.y);
-            accessedQuery.bind(6, tile.z);
-            accessedQuery.run();
-        } catch (const mapbox::sqlite::Exception& ex) {
-            if (ex.code == mapbox::sqlite::ResultCode::NotADB || ex.code == mapbox::sqlite::ResultCode::Corrupt) {
-                throw;
-            }
-
-            // If we don't have any indication that the database is corrupt, continue as usual.
-            Log::Warning(
-                Event::Database, static_cast<int>(ex.code), std::string("Can't update timestamp: ") + ex.what());
-        }
+        updateTileAccessed(tile);
     }
 
     // clang-format off
@@ -804,6 +1015,9 @@ std::exception_ptr OfflineDatabase::invalidateRegion(int64_t regionID) try {
         resourceQuery.run();
     }
 
+    // Resuming past a checkpoint would skip the invalidated tiles.
+    deleteTilesetCheckpoints(regionID);
+
     assert(db);
     return nullptr;
 } catch (...) {
@@ -1011,6 +1225,63 @@ std::optional<int64_t> OfflineDatabase::hasRegionResource(const Resource& resour
     return std::nullopt;
 }
 
+std::optional<std::pair<Response, uint64_t>> OfflineDatabase::getRegionResourceValidators(
+    const Resource& resource) try {
+    auto read = [](mapbox::sqlite::Query& query) -> std::optional<std::pair<Response, uint64_t>> {
+        if (!query.run()) {
+            return std::nullopt;
+        }
+
+        Response response;
+        response.etag = query.get<std::optional<std::string>>(0);
+        response.expires = query.get<std::optional<Timestamp>>(1);
+        response.mustRevalidate = query.get<bool>(2);
+        response.modified = query.get<std::optional<Timestamp>>(3);
+
+        const auto size = query.get<std::optional<int64_t>>(4);
+        response.noContent = !size;
+        return std::make_pair(response, static_cast<uint64_t>(size.value_or(0)));
+    };
+
+    if (resource.kind == Resource::Kind::Tile) {
+        assert(resource.tileData);
+        const Resource::TileData& tile = *resource.tileData;
+
+        // clang-format off
+        mapbox::sqlite::Query query{ getStatement(
+            //        0      1           2,            3,         4
+            "SELECT etag, expires, must_revalidate, modified, length(data) "
+            "FROM tiles "
+            "WHERE url_template = ?1 "
+            "  AND pixel_ratio  = ?2 "
+            "  AND x            = ?3 "
+            "  AND y            = ?4 "
+            "  AND z            = ?5 ") };
+        // clang-format on
+
+        query.bind(1, tile.urlTemplate);
+        query.bind(2, tile.pixelRatio);
+        query.bind(3, tile.x);
+        query.bind(4, tile.y);
+        query.bind(5, tile.z);
+        return read(query);
+    }
+
+    // clang-format off
+    mapbox::sqlite::Query query{ getStatement(
+        //        0      1           2,            3,         4
+        "SELECT etag, expires, must_revalidate, modified, length(data) "
+        "FROM resources "
+        "WHERE url = ?") };
+    // clang-format on
+
+    query.bind(1, resource.url);
+    return read(query);
+} catch (...) {
+    handleError("query region resource");
+    return std::nullopt;
+}
+
 uint64_t OfflineDatabase::putRegionResource(int64_t regionID, const Resource& resource, const Response& response) try {
     checkFlags();
 
@@ -1028,7 +1299,8 @@ uint64_t OfflineDatabase::putRegionResource(int64_t regionID, const Resource& re
 
 void OfflineDatabase::putRegionResources(int64_t regionID,
                                          const std::list<std::tuple<Resource, Response>>& resources,
-                                         OfflineRegionStatus& status) try {
+                                         OfflineRegionStatus& status,
+                                         std::vector<uint64_t>* storedSizes) try {
     checkFlags();
 
     if (!db) {
@@ -1043,6 +1315,7 @@ void OfflineDatabase::putRegionResources(int64_t regionID,
     uint64_t completedResourceSize = 0;
     uint64_t completedTileCount = 0;
     uint64_t completedTileSize = 0;
+    std::vector<uint64_t> sizes;
 
     for (const auto& elem : resources) {
         const auto& resource = std::get<0>(elem);
@@ -1050,6 +1323,7 @@ void OfflineDatabase::putRegionResources(int64_t regionID,
 
         try {
             uint64_t resourceSize = putRegionResourceInternal(regionID, resource, response);
+            sizes.push_back(resourceSize);
             completedResourceCount++;
             completedResourceSize += resourceSize;
             if (resource.kind == Resource::Kind::Tile) {
@@ -1070,6 +1344,9 @@ void OfflineDatabase::putRegionResources(int64_t regionID,
     status.completedResourceSize += completedResourceSize;
     status.completedTileCount += completedTileCount;
     status.completedTileSize += completedTileSize;
+    if (storedSizes) {
+        storedSizes->insert(storedSizes->end(), sizes.begin(), sizes.end());
+    }
 } catch (...) {
     handleError("write region resources");
 }
@@ -1080,6 +1357,10 @@ uint64_t OfflineDatabase::putRegionResourceInternal(int64_t regionID,
     checkFlags();
 
     uint64_t size = putInternal(resource, response, false).second;
+    if (response.notModified) {
+        // The stored data is kept.
+        size = static_cast<uint64_t>(hasInternal(resource).value_or(0));
+    }
     bool previouslyUnused = markUsed(regionID, resource);
 
     if (previouslyUnused && exceedsOfflineMapboxTileCountLimit(resource)) {
@@ -1177,6 +1458,82 @@ bool OfflineDatabase::markUsed(int64_t regionID, const Resource& resource) {
     }
 }
 
+std::exception_ptr OfflineDatabase::exportRegion(int64_t regionID,
+                                                 const std::string& urlTemplate,
+                                                 const std::string& archivePath) try {
+    checkFlags();
+
+    auto definition = getRegionDefinition(regionID);
+    if (!definition) {
+        return definition.error();
+    }
+
+    std::string tileset = urlTemplate;
+    if (tileset.empty()) {
+        // clang-format off
+        mapbox::sqlite::Query query{ getStatement(
+            "SELECT DISTINCT t.url_template "
+            "FROM region_tiles rt "
+            "JOIN tiles t ON t.id = rt.tile_id "
+            "WHERE rt.region_id = ?1 "
+            "LIMIT 2") };
+        // clang-format on
+        query.bind(1, regionID);
+        while (query.run()) {
+            if (!tileset.empty()) {
+                throw std::runtime_error("Region has tiles of several tilesets, the URL template must be given");
+            }
+            tileset = query.get<std::string>(0);
+        }
+        if (tileset.empty()) {
+            throw std::runtime_error("Region has no tiles");
+        }
+    }
+
+    MBTilesWriter archive(archivePath);
+    std::optional<std::string> format;
+    int minZoom = std::numeric_limits<int>::max();
+    int maxZoom = 0;
+
+    // clang-format off
+    mapbox::sqlite::Query query{ getStatement(
+        "SELECT t.z, t.x, t.y, t.data, t.compressed "
+        "FROM region_tiles rt "
+        "JOIN tiles t ON t.id = rt.tile_id "
+        "WHERE rt.region_id = ?1 AND t.url_template = ?2 AND t.data IS NOT NULL "
+        "ORDER BY t.pixel_ratio") };
+    // clang-format on
+    query.bind(1, regionID);
+    query.bind(2, tileset);
+    while (query.run()) {
+        const auto z = static_cast<uint8_t>(query.get<int64_t>(0));
+        std::string data = query.get<std::string>(3);
+        if (query.get<bool>(4)) {
+            data = util::decompress(data);
+        }
+        if (!format) {
+            format = mbtilesFormat(tileset, data);
+        }
+        minZoom = std::min<int>(minZoom, z);
+        maxZoom = std::max<int>(maxZoom, z);
+        archive.putTile(z, query.get<int64_t>(1), query.get<int64_t>(2), data);
+    }
+    if (!format) {
+        throw std::runtime_error("Region has no tiles of " + tileset);
+    }
+
+    archive.putMetadata("name", tileset);
+    archive.putMetadata("format", *format);
+    archive.putMetadata("minzoom", util::toString(minZoom));
+    archive.putMetadata("maxzoom", util::toString(maxZoom));
+    archive.putMetadata("bounds", regionBounds(*definition));
+    archive.commit();
+    return nullptr;
+} catch (...) {
+    handleError("export region");
+    return std::current_exception();
+}
+
 expected<OfflineRegionDefinition, std::exception_ptr> OfflineDatabase::getRegionDefinition(int64_t regionID) try {
     mapbox::sqlite::Query query{getStatement("SELECT definition FROM regions WHERE id = ?1")};
     query.bind(1, regionID);
@@ -1445,7 +1802,7 @@ bool OfflineDatabase::exceedsOfflineMapboxTileCountLimit(const Resource& resourc
            offlineMapboxTileCountLimitExceeded();
 }
 
-void OfflineDatabase::markUsedResources(int64_t regionID, const std::list<Resource>& resources) try {
+bool OfflineDatabase::markUsedResources(int64_t regionID, const std::list<Resource>& resources) try {
     if (!db) {
         initialize();
     }
@@ -1454,8 +1811,121 @@ void OfflineDatabase::markUsedResources(int64_t regionID, const std::list<Resour
         markUsed(regionID, resource);
     }
     transaction.commit();
+    return true;
 } catch (...) {
     handleError("mark resources as used");
+    return false;
+}
+
+std::optional<uint64_t> OfflineDatabase::getAverageTileSize(const std::string& urlTemplate) try {
+    // clang-format off
+    mapbox::sqlite::Query query{ getStatement(
+        "SELECT AVG(size) "
+        "FROM ("
+        "    SELECT length(data) AS size "
+        "    FROM tiles "
+        "    WHERE (?1 = '' OR url_template = ?1) "
+        "      AND data IS NOT NULL "
+        "    LIMIT 1000"
+        ")") };
+    // clang-format on
+
+    query.bind(1, urlTemplate);
+    query.run();
+
+    const auto size = query.get<std::optional<double>>(0);
+    if (!size) {
+        return std::nullopt;
+    }
+    return static_cast<uint64_t>(std::llround(*size));
+} catch (...) {
+    handleError("read average tile size");
+    return std::nullopt;
+}
+
+std::optional<OfflineTilesetCheckpoint> OfflineDatabase::getTilesetCheckpoint(int64_t regionID,
+                                                                               const std::string& urlTemplate) try {
+    // clang-format off
+    mapbox::sqlite::Query query{ getStatement(
+        //        0         1         2              3                4
+        "SELECT min_zoom, max_zoom, tile_count, missing_tile_count, tile_size "
+        "FROM region_tileset_checkpoints "
+        "WHERE region_id    = ?1 "
+        "  AND url_template = ?2 ") };
+    // clang-format on
+
+    query.bind(1, regionID);
+    query.bind(2, urlTemplate);
+
+    if (!query.run()) {
+        return std::nullopt;
+    }
+
+    OfflineTilesetCheckpoint checkpoint;
+    checkpoint.minZoom = static_cast<uint8_t>(query.get<int>(0));
+    checkpoint.maxZoom = static_cast<uint8_t>(query.get<int>(1));
+    checkpoint.tileCount = query.get<int64_t>(2);
+    checkpoint.missingTileCount = query.get<int64_t>(3);
+    checkpoint.tileSize = query.get<int64_t>(4);
+    return checkpoint;
+} catch (...) {
+    handleError("read download checkpoint");
+    return std::nullopt;
+}
+
+void OfflineDatabase::putTilesetCheckpoint(int64_t regionID,
+                                           const std::string& urlTemplate,
+                                           const OfflineTilesetCheckpoint& checkpoint) try {
+    checkFlags();
+
+    // clang-format off
+    mapbox::sqlite::Query query{ getStatement(
+        "INSERT OR REPLACE INTO region_tileset_checkpoints "
+        "(region_id, url_template, min_zoom, max_zoom, tile_count, missing_tile_count, tile_size) "
+        "VALUES (?1, ?2, ?3, ?4, ?5, ?6, ?7) ") };
+    // clang-format on
+
+    query.bind(1, regionID);
+    query.bind(2, urlTemplate);
+    query.bind(3, checkpoint.minZoom);
+    query.bind(4, checkpoint.maxZoom);
+    query.bind(5, static_cast<int64_t>(checkpoint.tileCount));
+    query.bind(6, static_cast<int64_t>(checkpoint.missingTileCount));
+    query.bind(7, static_cast<int64_t>(checkpoint.tileSize));
+    query.run();
+} catch (...) {
+    handleError("write download checkpoint");
+}
+
+void OfflineDatabase::deleteTilesetCheckpoints(int64_t regionID) try {
+    checkFlags();
+
+    mapbox::sqlite::Query query{getStatement("DELETE FROM region_tileset_checkpoints WHERE region_id = ?")};
+    query.bind(1, regionID);
+    query.run();
+} catch (...) {
+    handleError("delete download checkpoints");
+}
+
+bool OfflineDatabase::isRegionRefreshing(int64_t regionID) try {
+    mapbox::sqlite::Query query{getStatement("SELECT 1 FROM region_refreshes WHERE region_id = ?")};
+    query.bind(1, regionID);
+    return query.run();
+} catch (...) {
+    handleError("read region refresh");
+    return false;
+}
+
+void OfflineDatabase::setRegionRefreshing(int64_t regionID, bool refreshing) try {
+    checkFlags();
+
+    mapbox::sqlite::Query query{getStatement(refreshing
+                                                 ? "INSERT OR IGNORE INTO region_refreshes (region_id) VALUES (?)"
+                                                 : "DELETE FROM region_refreshes WHERE region_id = ?")};
+    query.bind(1, regionID);
+    query.run();
+} catch (...) {
+    handleError("write region refresh");
 }
 
 std::exception_ptr OfflineDatabase::pack() try {
@@ -1467,6 +1937,38 @@ std::exception_ptr OfflineDatabase::pack() try {
     return std::current_exception();
 }
 
+std::exception_ptr OfflineDatabase::enableIncrementalVacuum() try {
+    if (!db) initialize();
+    checkFlags();
+
+    if (!isIncrementalVacuumEnabled()) {
+        switchToIncrementalVacuum();
+    }
+    return nullptr;
+} catch (...) {
+    handleError("enable incremental vacuum");
+    return std::current_exception();
+}
+
+expected<uint64_t, std::exception_ptr> OfflineDatabase::packIncrementally(uint64_t pageCount) try {
+    if (!db) initialize();
+    checkFlags();
+
+    // Rewriting the whole file doesn't fit in a bounded step, it's left to enableIncrementalVacuum().
+    if (!isIncrementalVacuumEnabled()) {
+        throw std::runtime_error("incremental vacuum is not enabled");
+    }
+    if (pageCount > 0) {
+        db->exec("PRAGMA incremental_vacuum(" + std::to_string(pageCount) + ")");
+    }
+
+    return static_cast<uint64_t>(getPragma<int64_t>("PRAGMA freelist_count") *
+                                 getPragma<int64_t>("PRAGMA page_size"));
+} catch (...) {
+    handleError("pack storage incrementally");
+    return unexpected<std::exception_ptr>(std::current_exception());
+}
+
 std::exception_ptr OfflineDatabase::resetDatabase() try {
     removeExisting();
     initialize();
@@ -1487,6 +1989,41 @@ void OfflineDatabase::reopenDatabaseReadOnly(bool readOnly_) {
     }
 }
 
+std::exception_ptr OfflineDatabase::setDurability(DatabaseDurability durability_) try {
+    checkFlags();
+    durability = durability_;
+    if (db) {
+        applyDurability();
+    }
+    return nullptr;
+} catch (...) {
+    handleError("set durability");
+    return std::current_exception();
+}
+
+void OfflineDatabase::checkpoint() try {
+    if (!db || readOnly || durability != DatabaseDurability::Normal) {
+        return;
+    }
+    db->exec("PRAGMA wal_checkpoint(PASSIVE)");
+} catch (...) {
+    handleError("checkpoint database");
+}
+
+void OfflineDatabase::markAccessed(const Resource& resource) try {
+    if (readOnly) {
+        return;
+    }
+    if (resource.kind == Resource::Kind::Tile) {
+        assert(resource.tileData);
+        updateTileAccessed(*resource.tileData);
+    } else {
+        updateResourceAccessed(resource.url);
+    }
+} catch (...) {
+    handleError("update access time");
+}
+
 OfflineDatabase::DatabaseSizeChangeStats::DatabaseSizeChangeStats(OfflineDatabase* db_)
     : db(db_) {
     assert(db);
@@ -19,12 +19,21 @@
 #include <mbgl/util/tile_cover.hpp>
 #include <mbgl/util/tileset.hpp>
 
+#include <algorithm>
+#include <numeric>
 #include <set>
 
 namespace {
 
 const size_t kResourcesBatchSize = 64;
 const size_t kMarkBatchSize = 200;
+// Throughput is averaged over the responses of this period.
+const mbgl::Duration kThroughputWindow = std::chrono::seconds(5);
+
+// Whether a refresh checks a stored response with the server again.
+bool isStale(const mbgl::Response& response) {
+    return !response.expires || *response.expires <= mbgl::util::now();
+}
 
 } // namespace
 
@@ -95,6 +104,23 @@ uint64_t tileCount(const OfflineRegionDefinition& definition,
     return result;
 }
 
+uint64_t estimateTileCount(const OfflineRegionDefinition& definition,
+                           style::SourceType type,
+                           uint16_t tileSize,
+                           const Range<uint8_t>& zoomRange) {
+    const Range<uint8_t> clampedZoomRange = std::visit(
+        [&](auto& reg) { return coveringZoomRange(reg, type, tileSize, zoomRange); }, definition);
+
+    return std::visit(overloaded{[&](const OfflineTilePyramidRegionDefinition&) {
+                                     return tileCount(definition, type, tileSize, zoomRange);
+                                 },
+                                 [&](const OfflineGeometryRegionDefinition& reg) {
+                                     const auto counts = util::estimateTileCounts(reg.geometry, clampedZoomRange);
+                                     return std::accumulate(counts.begin(), counts.end(), uint64_t{0});
+                                 }},
+                      definition);
+}
+
 // OfflineDownload
 
 OfflineDownload::OfflineDownload(int64_t id_,
@@ -114,6 +140,20 @@ void OfflineDownload::setObserver(std::unique_ptr<OfflineRegionObserver> observe
     observer = observer_ ? std::move(observer_) : std::make_unique<OfflineRegionObserver>();
 }
 
+void OfflineDownload::setMaximumConcurrentRequests(uint32_t maximumConcurrentRequests_) {
+    maximumConcurrentRequests = maximumConcurrentRequests_;
+}
+
+void OfflineDownload::refresh() {
+    // An active download starts over, the tiles before the checkpoints are checked too.
+    setState(OfflineRegionDownloadState::Inactive);
+    offlineDatabase.deleteTilesetCheckpoints(id);
+    // Stored with the checkpoints, so that the refresh resumes as one after a restart.
+    offlineDatabase.setRegionRefreshing(id, true);
+    refreshing = true;
+    setState(OfflineRegionDownloadState::Active);
+}
+
 void OfflineDownload::setState(OfflineRegionDownloadState state) {
     if (status.downloadState == state) {
         return;
@@ -239,10 +279,95 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
     return *result;
 }
 
+OfflineRegionEstimate OfflineDownload::estimate(const OfflineRegionDefinition& definition,
+                                                OfflineDatabase& offlineDatabase) {
+    OfflineRegionEstimate result;
+
+    std::optional<Response> styleResponse = offlineDatabase.get(
+        Resource::style(std::visit([](auto& reg) { return reg.styleURL; }, definition)));
+    if (!styleResponse || !styleResponse->data) {
+        return result;
+    }
+
+    style::Parser parser;
+    parser.parse(*styleResponse->data);
+
+    result.includesAllSources = true;
+    const std::optional<uint64_t> averageTileSize = offlineDatabase.getAverageTileSize("");
+
+    auto handleTiledSource = [&](SourceType type,
+                                 const variant<std::string, Tileset>& urlOrTileset,
+                                 const uint16_t tileSize) {
+        std::optional<Tileset> tileset;
+        if (urlOrTileset.is<Tileset>()) {
+            tileset = urlOrTileset.get<Tileset>();
+        } else if (std::optional<Response> sourceResponse = offlineDatabase.get(
+                       Resource::source(urlOrTileset.get<std::string>()));
+                   sourceResponse && sourceResponse->data) {
+            style::conversion::Error error;
+            tileset = style::conversion::convertJSON<Tileset>(*sourceResponse->data, error);
+        }
+
+        if (!tileset || tileset->tiles.empty()) {
+            result.includesAllSources = false;
+            return;
+        }
+
+        const uint64_t count = estimateTileCount(definition, type, tileSize, tileset->zoomRange);
+        std::optional<uint64_t> size = offlineDatabase.getAverageTileSize(tileset->tiles[0]);
+        if (!size) {
+            size = averageTileSize;
+        }
+
+        result.tileCount += count;
+        if (size) {
+            result.tileSize += count * *size;
+        } else {
+            result.unsizedTileCount += count;
+        }
+    };
+
+    for (const auto& source : parser.sources) {
+        SourceType type = source->getType();
+
+        switch (type) {
+            case SourceType::Vector: {
+                const auto& vectorSource = *source->as<VectorSource>();
+                handleTiledSource(type, vectorSource.getURLOrTileset(), util::tileSize_I);
+                break;
+            }
+
+            case SourceType::Raster: {
+                const auto& rasterSource = *source->as<RasterSource>();
+                handleTiledSource(type, rasterSource.getURLOrTileset(), rasterSource.getTileSize());
+                break;
+            }
+
+            case SourceType::RasterDEM: {
+                const auto& rasterDEMSource = *source->as<RasterDEMSource>();
+                handleTiledSource(type, rasterDEMSource.getURLOrTileset(), rasterDEMSource.getTileSize());
+                break;
+            }
+
+            case SourceType::GeoJSON:
+            case SourceType::Image:
+            case SourceType::Video:
+            case SourceType::Annotations:
+            case SourceType::CustomVector:
+                break;
+        }
+    }
+
+    return result;
+}
+
 void OfflineDownload::activateDownload() {
     status = OfflineRegionStatus();
     status.downloadState = OfflineRegionDownloadState::Active;
     status.requiredResourceCount++;
+    activated = Clock::now();
+    // Also resumes a refresh that was started before a restart.
+    refreshing = refreshing || offlineDatabase.isRegionRefreshing(id);
 
     auto styleResource = Resource::style(std::visit([](auto& reg) { return reg.styleURL; }, definition));
     styleResource.setPriority(Resource::Priority::Low);
@@ -398,6 +523,10 @@ void OfflineDownload::continueDownload() {
         if (!flushResourcesBuffer()) return;
         if (status.complete()) {
             markPendingUsedResources();
+            // Activating a complete download checks all of its resources again.
+            offlineDatabase.deleteTilesetCheckpoints(id);
+            offlineDatabase.setRegionRefreshing(id, false);
+            refreshing = false;
             setState(OfflineRegionDownloadState::Inactive);
             return;
         }
@@ -405,30 +534,56 @@ void OfflineDownload::continueDownload() {
 
     if (resourcesToBeMarkedAsUsed.size() >= kMarkBatchSize) markPendingUsedResources();
 
-    uint32_t maxConcurrentRequests = util::DEFAULT_MAXIMUM_CONCURRENT_REQUESTS;
-    auto value = onlineFileSource.getProperty(MAX_CONCURRENT_REQUESTS_KEY);
-    if (uint64_t* maxRequests = value.getUint()) {
-        maxConcurrentRequests = static_cast<uint32_t>(*maxRequests);
+    uint32_t maxConcurrentRequests = maximumConcurrentRequests;
+    if (!maxConcurrentRequests) {
+        maxConcurrentRequests = util::DEFAULT_MAXIMUM_CONCURRENT_REQUESTS;
+        auto value = onlineFileSource.getProperty(MAX_CONCURRENT_REQUESTS_KEY);
+        if (uint64_t* maxRequests = value.getUint()) {
+            maxConcurrentRequests = static_cast<uint32_t>(*maxRequests);
+        }
     }
 
     while (!resourcesRemaining.empty() && requests.size() < maxConcurrentRequests) {
-        ensureResource(std::move(resourcesRemaining.front()));
+        PendingResource pending = std::move(resourcesRemaining.front());
         resourcesRemaining.pop_front();
+        ensureResource(std::move(pending.resource), {}, pending.tile);
     }
 }
 
 void OfflineDownload::deactivateDownload() {
+    // Stores the checkpoints of the tiles that were found in the database.
+    if (!resourcesToBeMarkedAsUsed.empty()) {
+        markPendingUsedResources();
+    }
+
     requiredSourceURLs.clear();
     resourcesRemaining.clear();
     requests.clear();
     buffer.clear();
+    bufferedTiles.clear();
+    tilesets.clear();
+    throughputSamples.clear();
+    throughputBytes = 0;
+    throughputTiles = 0;
+    status.downloadedBytesPerSecond = 0;
+    status.downloadedTilesPerSecond = 0;
 }
 
 bool OfflineDownload::flushResourcesBuffer() {
     if (buffer.empty()) return true;
     try {
-        offlineDatabase.putRegionResources(id, buffer, status);
+        std::vector<uint64_t> storedSizes;
+        offlineDatabase.putRegionResources(id, buffer, status, &storedSizes);
+        if (storedSizes.size() == buffer.size()) {
+            for (size_t i = 0; i < bufferedTiles.size(); ++i) {
+                if (bufferedTiles[i]) {
+                    finishTile(*bufferedTiles[i], storedSizes[i]);
+                }
+            }
+            saveCheckpoints();
+        }
         buffer.clear();
+        bufferedTiles.clear();
         observer->statusChanged(status);
         return true;
     } catch (const MapboxTileLimitExceededException&) {
@@ -444,14 +599,41 @@ void OfflineDownload::queueResource(Resource&& resource) {
     if (resource.kind == mbgl::Resource::Kind::Tile) {
         status.requiredTileCount++;
     }
-    resourcesRemaining.push_front(std::move(resource));
+    resourcesRemaining.push_front({std::move(resource), std::nullopt});
 }
 
 void OfflineDownload::queueTiles(SourceType type, uint16_t tileSize, const Tileset& tileset) {
+    const Range<uint8_t> zoomRange = std::visit(
+        [&](auto& reg) { return coveringZoomRange(reg, type, tileSize, tileset.zoomRange); }, definition);
+    const std::string& urlTemplate = tileset.tiles[0];
+
+    // Tiles of a tileset that another source queued too are checked one by one.
+    std::optional<size_t> tilesetIndex;
+    OfflineTilesetCheckpoint checkpoint;
+    if (std::none_of(tilesets.begin(), tilesets.end(), [&](const auto& progress) {
+            return progress.urlTemplate == urlTemplate;
+        })) {
+        auto stored = offlineDatabase.getTilesetCheckpoint(id, urlTemplate);
+        if (stored && stored->minZoom == zoomRange.min && stored->maxZoom == zoomRange.max) {
+            checkpoint = *stored;
+        }
+        checkpoint.minZoom = zoomRange.min;
+        checkpoint.maxZoom = zoomRange.max;
+        tilesetIndex = tilesets.size();
+        tilesets.push_back({urlTemplate, checkpoint, {}, false});
+    }
+
+    uint64_t index = 0;
     tileCover(definition, type, tileSize, tileset.zoomRange, [&](const auto& tile) {
         status.requiredResourceCount++;
         status.requiredTileCount++;
 
+        const uint64_t position = index++;
+        if (position < checkpoint.tileCount) {
+            // Stored before the download was interrupted.
+            return;
+        }
+
         auto tileResource = Resource::tile(tileset.tiles[0],
                                            std::visit([](auto& def) { return def.pixelRatio; }, definition),
                                            tile.x,
@@ -462,16 +644,84 @@ void OfflineDownload::queueTiles(SourceType type, uint16_t tileSize, const Tiles
         tileResource.setPriority(Resource::Priority::Low);
         tileResource.setUsage(Resource::Usage::Offline);
 
-        resourcesRemaining.push_back(std::move(tileResource));
+        std::optional<TileIndex> tileIndex;
+        if (tilesetIndex) {
+            tileIndex = TileIndex{*tilesetIndex, position};
+        }
+        resourcesRemaining.push_back({std::move(tileResource), tileIndex});
     });
+
+    const uint64_t storedTileCount = checkpoint.tileCount - checkpoint.missingTileCount;
+    status.requiredResourceCount -= checkpoint.missingTileCount;
+    status.completedResourceCount += storedTileCount;
+    status.completedResourceSize += checkpoint.tileSize;
+    status.completedTileCount += storedTileCount;
+    status.completedTileSize += checkpoint.tileSize;
 }
 
 void OfflineDownload::markPendingUsedResources() {
-    offlineDatabase.markUsedResources(id, resourcesToBeMarkedAsUsed);
+    if (offlineDatabase.markUsedResources(id, resourcesToBeMarkedAsUsed)) {
+        for (const auto& [tile, size] : tilesToBeMarkedAsUsed) {
+            finishTile(tile, size);
+        }
+        saveCheckpoints();
+    }
     resourcesToBeMarkedAsUsed.clear();
+    tilesToBeMarkedAsUsed.clear();
+}
+
+void OfflineDownload::finishTile(TileIndex tile, std::optional<uint64_t> size) {
+    TilesetProgress& tileset = tilesets[tile.tileset];
+    tileset.finished.emplace(tile.index, size);
+
+    // Moves the checkpoint over the tiles that finished without a gap.
+    auto it = tileset.finished.begin();
+    while (it != tileset.finished.end() && it->first == tileset.checkpoint.tileCount) {
+        tileset.checkpoint.tileCount++;
+        if (it->second) {
+            tileset.checkpoint.tileSize += *it->second;
+        } else {
+            tileset.checkpoint.missingTileCount++;
+        }
+        tileset.changed = true;
+        it = tileset.finished.erase(it);
+    }
+}
+
+void OfflineDownload::saveCheckpoints() {
+    for (auto& tileset : tilesets) {
+        if (tileset.changed) {
+            offlineDatabase.putTilesetCheckpoint(id, tileset.urlTemplate, tileset.checkpoint);
+            tileset.changed = false;
+        }
+    }
 }
 
-void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Response)> callback) {
+void OfflineDownload::recordDownload(const Resource& resource, const Response& response) {
+    const TimePoint now = Clock::now();
+    const bool tile = resource.kind == Resource::Kind::Tile;
+    const uint64_t bytes = response.data ? response.data->size() : 0;
+
+    throughputSamples.push_back({now, bytes, tile});
+    throughputBytes += bytes;
+    throughputTiles += tile ? 1 : 0;
+
+    while (now - throughputSamples.front().time > kThroughputWindow) {
+        throughputBytes -= throughputSamples.front().bytes;
+        throughputTiles -= throughputSamples.front().tile ? 1 : 0;
+        throughputSamples.pop_front();
+    }
+
+    // Right after activation, the rate is over the time since then.
+    const Duration period = std::clamp<Duration>(now - activated, std::chrono::seconds(1), kThroughputWindow);
+    const double seconds = std::chrono::duration<double>(period).count();
+    status.downloadedBytesPerSecond = static_cast<double>(throughputBytes) / seconds;
+    status.downloadedTilesPerSecond = static_cast<double>(throughputTiles) / seconds;
+}
+
+void OfflineDownload::ensureResource(Resource&& resource,
+                                     std::function<void(Response)> callback,
+                                     std::optional<TileIndex> tile) {
     assert(resource.priority == Resource::Priority::Low);
     assert(resource.usage == Resource::Usage::Offline);
 
@@ -479,14 +729,28 @@ void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Res
     *workRequestsIt = util::RunLoop::Get()->invokeCancellable([=, this]() {
         requests.erase(workRequestsIt);
         const auto resourceKind = resource.kind;
+        Resource onlineResource = resource;
+        // The stored size of a resource that a refresh checks with the server.
+        std::optional<uint64_t> revalidatedSize;
         auto getResourceSizeInDatabase = [&]() -> std::optional<int64_t> {
             std::optional<int64_t> result;
-            if (!callback) {
+            if (!callback && !refreshing) {
                 result = offlineDatabase.hasRegionResource(resource);
             } else {
-                std::optional<std::pair<Response, uint64_t>> response = offlineDatabase.getRegionResource(resource);
-                if (response) {
-                    callback(response->first);
+                // A refresh needs the data only to hand it to the callback.
+                std::optional<std::pair<Response, uint64_t>> response =
+                    callback ? offlineDatabase.getRegionResource(resource)
+                             : offlineDatabase.getRegionResourceValidators(resource);
+                if (response && refreshing && isStale(response->first)) {
+                    onlineResource.priorModified = response->first.modified;
+                    onlineResource.priorExpires = response->first.expires;
+                    onlineResource.priorEtag = response->first.etag;
+                    onlineResource.priorData = response->first.data;
+                    revalidatedSize = response->second;
+                } else if (response) {
+                    if (callback) {
+                        callback(response->first);
+                    }
                     result = response->second;
                 }
             }
@@ -498,6 +762,9 @@ void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Res
         std::optional<int64_t> offlineResponse = getResourceSizeInDatabase();
         if (offlineResponse) {
             assert(!resourcesToBeMarkedAsUsed.empty());
+            if (tile) {
+                tilesToBeMarkedAsUsed.emplace_back(*tile, *offlineResponse);
+            }
             status.completedResourceCount++;
             status.completedResourceSize += *offlineResponse;
             if (resourceKind == Resource::Kind::Tile) {
@@ -516,7 +783,7 @@ void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Res
         }
 
         auto fileRequestsIt = requests.insert(requests.begin(), nullptr);
-        *fileRequestsIt = onlineFileSource.request(resource, [=, this](const Response& onlineResponse) {
+        *fileRequestsIt = onlineFileSource.request(onlineResource, [=, this](const Response& onlineResponse) {
             if (onlineResponse.error) {
                 observer->responseError(*onlineResponse.error);
                 if (onlineResponse.error->reason == Response::Error::Reason::NotFound) {
@@ -524,6 +791,9 @@ void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Res
                     requests.erase(fileRequestsIt);
                     assert(status.requiredResourceCount > 0);
                     status.requiredResourceCount--;
+                    if (tile) {
+                        finishTile(*tile, std::nullopt);
+                    }
                     continueDownload();
                 }
                 return;
@@ -535,8 +805,18 @@ void OfflineDownload::ensureResource(Resource&& resource, std::function<void(Res
                 callback(onlineResponse);
             }
 
+            recordDownload(resource, onlineResponse);
+
+            // With prior data, the online file source answers a 304 with the prior data.
+            if (revalidatedSize && (onlineResponse.notModified || (onlineResponse.data &&
+                                                                   onlineResponse.data == onlineResource.priorData))) {
+                status.unchangedResourceCount++;
+                status.unchangedResourceSize += *revalidatedSize;
+            }
+
             // Queue up for batched insertion
             buffer.emplace_back(resource, onlineResponse);
+            bufferedTiles.push_back(tile);
 
             // Flush buffer periodically.
             // Have to keep `resourcesRemaining.empty()` as the following
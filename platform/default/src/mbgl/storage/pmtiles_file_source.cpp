@@ -1,5 +1,7 @@
 #include <sstream>
 #include <map>
+#include <mutex>
+#include <unordered_map>
 
 #include <mbgl/platform/settings.hpp>
 #include <mbgl/storage/file_source_manager.hpp>
@@ -17,12 +19,20 @@
 #include <mbgl/util/chrono.hpp>
 #include <mbgl/util/compression.hpp>
 #include <mbgl/util/filesystem.hpp>
+#include <mbgl/util/hash.hpp>
+#include <mbgl/util/lru_cache.hpp>
 
 #include <pmtiles.hpp>
 
 #include <sys/types.h>
 #include <sys/stat.h>
 
+#if !defined(_WIN32)
+#include <fcntl.h>
+#include <sys/mman.h>
+#include <unistd.h>
+#endif
+
 #if defined(__QT__) && (defined(_WIN32) || defined(__EMSCRIPTEN__))
 #include <QtZlib/zlib.h>
 #else
@@ -34,9 +44,13 @@ namespace {
 constexpr int pmtilesHeaderOffset = 0;
 constexpr int pmtilesHeaderLength = 127;
 
-// To avoid allocating lots of memory with PMTiles directory caching,
-// set a limit so it doesn't grow unlimited
-constexpr int MAX_DIRECTORY_CACHE_ENTRIES = 100;
+// Directories are cached for all archives together, up to this many bytes of entries.
+constexpr uint64_t DEFAULT_DIRECTORY_CACHE_SIZE = 8 * 1024 * 1024;
+
+// Local archives up to this size are mapped into memory, larger ones are read in ranges.
+// 32-bit processes only have a few GiB of address space for all mappings.
+constexpr uint64_t maximumMappedFileSize = sizeof(void*) >= 8 ? uint64_t{64} * 1024 * 1024 * 1024
+                                                               : uint64_t{256} * 1024 * 1024;
 
 bool acceptsURL(const std::string& url) {
     return url.starts_with(mbgl::util::PMTILES_PROTOCOL);
@@ -58,6 +72,123 @@ using namespace rapidjson;
 using AsyncCallback = std::function<void(std::unique_ptr<Response::Error>)>;
 using AsyncTileCallback = std::function<void(std::pair<uint64_t, uint32_t>, std::unique_ptr<Response::Error>)>;
 
+using Directory = std::vector<pmtiles::entryv3>;
+using AsyncDirectoryCallback =
+    std::function<void(std::shared_ptr<const Directory>, std::unique_ptr<Response::Error>)>;
+
+namespace {
+
+struct DirectoryKey {
+    std::string url;
+    uint64_t offset;
+    uint32_t length;
+
+    bool operator==(const DirectoryKey&) const = default;
+};
+
+struct DirectoryKeyHash {
+    std::size_t operator()(const DirectoryKey& key) const noexcept {
+        return util::hash(key.url, key.offset, key.length);
+    }
+};
+
+// Keeps the most recently used directories of all PMTiles file sources, so that
+// map instances showing the same archive parse its directories once.
+// Used from any thread.
+class DirectoryCache {
+public:
+    static DirectoryCache& get() {
+        static DirectoryCache cache;
+        return cache;
+    }
+
+    std::shared_ptr<const Directory> find(const DirectoryKey& key) {
+        std::scoped_lock lock(mutex);
+        auto it = entries.find(key);
+        if (it == entries.end()) {
+            misses++;
+            return nullptr;
+        }
+        hits++;
+        lru.touch(key);
+        return it->second;
+    }
+
+    void put(const DirectoryKey& key, std::shared_ptr<const Directory> directory) {
+        std::scoped_lock lock(mutex);
+        const uint64_t entrySize = sizeOf(key, *directory);
+        if (entrySize > maximumSize) {
+            return;
+        }
+        auto it = entries.find(key);
+        if (it != entries.end()) {
+            size -= sizeOf(it->first, *it->second);
+            it->second = std::move(directory);
+        } else {
+            entries.emplace(key, std::move(directory));
+        }
+        size += entrySize;
+        lru.touch(key);
+        shrink(maximumSize);
+    }
+
+    // A miss that waits for the directory already being fetched for another request.
+    void coalesce() {
+        std::scoped_lock lock(mutex);
+        coalesced++;
+    }
+
+    // Drops the directories of an archive whose file changed.
+    void evict(const std::string& url) {
+        std::scoped_lock lock(mutex);
+        for (auto it = entries.begin(); it != entries.end();) {
+            if (it->first.url == url) {
+                size -= sizeOf(it->first, *it->second);
+                lru.remove(it->first);
+                it = entries.erase(it);
+            } else {
+                ++it;
+            }
+        }
+    }
+
+    void setMaximumSize(uint64_t maximumSize_) {
+        std::scoped_lock lock(mutex);
+        maximumSize = maximumSize_;
+        shrink(maximumSize);
+    }
+
+    DirectoryCacheStatistics getStatistics() const {
+        std::scoped_lock lock(mutex);
+        return {hits, misses, coalesced, size, entries.size()};
+    }
+
+private:
+    static uint64_t sizeOf(const DirectoryKey& key, const Directory& directory) {
+        return key.url.size() + directory.size() * sizeof(pmtiles::entryv3);
+    }
+
+    void shrink(uint64_t size_) {
+        while (size > size_ && !lru.empty()) {
+            auto it = entries.find(lru.evict());
+            size -= sizeOf(it->first, *it->second);
+            // Directories still in use by a tile lookup are kept alive by their callers.
+            entries.erase(it);
+        }
+    }
+
+    mutable std::mutex mutex;
+    std::unordered_map<DirectoryKey, std::shared_ptr<const Directory>, DirectoryKeyHash> entries;
+    LRU<DirectoryKey, DirectoryKeyHash> lru;
+    uint64_t maximumSize = DEFAULT_DIRECTORY_CACHE_SIZE;
+    uint64_t size = 0;
+    uint64_t hits = 0;
+    uint64_t misses = 0;
+    uint64_t coalesced = 0;
+};
+
+} // namespace
+
 class PMTilesFileSource::Impl {
 public:
     explicit Impl(const ActorRef<Impl>&, const ResourceOptions& resourceOptions_, const ClientOptions& clientOptions_)
@@ -67,17 +198,23 @@ public:
     // Generate a tilejson resource from .pmtiles file
     void request_tilejson(AsyncRequest* req, const Resource& resource, const ActorRef<FileSourceRequest>& ref) {
         auto url = extract_url(resource.url);
+        // Evicts the cached header and directories first if the file changed.
+        mapFile(url);
 
         getMetadata(url, req, [=, this](std::unique_ptr<Response::Error> error) {
             Response response;
 
+            auto metadata = metadata_cache.find(url);
+            if (!error && metadata == metadata_cache.end()) {
+                error = archiveChangedError();
+            }
             if (error) {
                 response.error = std::move(error);
                 ref.invoke(&FileSourceRequest::setResponse, response);
                 return;
             }
 
-            response.data = std::make_shared<std::string>(metadata_cache.at(url));
+            response.data = std::make_shared<std::string>(metadata->second);
             ref.invoke(&FileSourceRequest::setResponse, response);
         });
     }
@@ -85,8 +222,15 @@ public:
     // Load data for specific tile
     void request_tile(AsyncRequest* req, const Resource& resource, ActorRef<FileSourceRequest> ref) {
         auto url = extract_url(resource.url);
+        // Evicts the cached header and directories first if the file changed.
+        mapFile(url);
+        const uint64_t generation = getGeneration(url);
 
         getHeader(url, req, [=, this](std::unique_ptr<Response::Error> error) {
+            auto cachedHeader = header_cache.find(url);
+            if (!error && cachedHeader == header_cache.end()) {
+                error = archiveChangedError();
+            }
             if (error) {
                 Response response;
                 response.noContent = true;
@@ -95,7 +239,7 @@ public:
                 return;
             }
 
-            pmtiles::headerv3 header = header_cache.at(url);
+            pmtiles::headerv3 header = cachedHeader->second;
 
             if (resource.tileData->z < header.min_zoom || resource.tileData->z > header.max_zoom) {
                 Response response;
@@ -127,6 +271,9 @@ public:
                 static_cast<std::uint32_t>(header.root_dir_bytes),
                 0,
                 [=, this](std::pair<uint64_t, uint32_t> tileAddress, std::unique_ptr<Response::Error> tileError) {
+                    if (!tileError && generation != getGeneration(url)) {
+                        tileError = archiveChangedError();
+                    }
                     if (tileError) {
                         Response response;
                         response.noContent = true;
@@ -147,10 +294,17 @@ public:
                     tileResource.dataRange = std::make_pair(tileAddress.first,
                                                             tileAddress.first + tileAddress.second - 1);
 
-                    tasks[req] = getFileSource()->request(tileResource, [=](const Response& tileResponse) {
+                    tasks[req] = fetch(tileResource, [=, this](const Response& tileResponse) {
                         Response response;
                         response.noContent = true;
 
+                        // The address was found in the directories of the file before it changed.
+                        if (generation != getGeneration(url)) {
+                            response.error = archiveChangedError();
+                            ref.invoke(&FileSourceRequest::setResponse, response);
+                            return;
+                        }
+
                         if (tileResponse.error) {
                             response.error = std::make_unique<Response::Error>(
                                 tileResponse.error->reason,
@@ -203,12 +357,126 @@ private:
     ClientOptions clientOptions;
 
     std::shared_ptr<FileSource> fileSource;
-    std::map<std::string, pmtiles::headerv3> header_cache;
-    std::map<std::string, std::string> metadata_cache;
-    std::map<std::string, std::map<std::string, std::vector<pmtiles::entryv3>>> directory_cache;
-    std::map<std::string, std::vector<std::string>> directory_cache_control;
+    std::unordered_map<std::string, pmtiles::headerv3> header_cache;
+    std::unordered_map<std::string, std::string> metadata_cache;
     std::map<AsyncRequest*, std::unique_ptr<AsyncRequest>> tasks;
 
+    // A directory being fetched, and the requests waiting for it
+    struct PendingDirectory {
+        std::unique_ptr<AsyncRequest> request;
+        std::vector<AsyncDirectoryCallback> callbacks;
+    };
+    std::unordered_map<DirectoryKey, PendingDirectory, DirectoryKeyHash> pending_directories;
+
+    // A local archive mapped into memory, with the file attributes it was mapped with
+    struct MappedFile {
+        std::shared_ptr<const void> owner;
+        std::string_view data;
+        ino_t inode = 0;
+        time_t modified = 0;
+    };
+    std::map<std::string, MappedFile> mapped_files;
+
+    // Bumped whenever the file of an archive changes, reads started before are dropped
+    std::unordered_map<std::string, uint64_t> archive_generations;
+
+    uint64_t getGeneration(const std::string& url) const {
+        auto it = archive_generations.find(url);
+        return it != archive_generations.end() ? it->second : 0;
+    }
+
+    static std::unique_ptr<Response::Error> archiveChangedError() {
+        return std::make_unique<Response::Error>(Response::Error::Reason::Other,
+                                                 "PMTiles archive changed while it was read");
+    }
+
+    // Header, metadata and directory offsets of the previous file don't apply to the new one.
+    void evictArchive(const std::string& url) {
+        archive_generations[url]++;
+        header_cache.erase(url);
+        metadata_cache.erase(url);
+        DirectoryCache::get().evict(url);
+    }
+
+    // Local archives are mapped into memory once and their ranges are read directly,
+    // other URLs are requested from the file source.
+    std::unique_ptr<AsyncRequest> fetch(const Resource& resource, FileSource::Callback callback) {
+        const MappedFile* file = resource.dataRange ? mapFile(resource.url) : nullptr;
+        if (!file) {
+            return getFileSource()->request(resource, std::move(callback));
+        }
+
+        Response response;
+        const auto [first, last] = *resource.dataRange;
+        if (first > last || first >= file->data.size()) {
+            response.error = std::make_unique<Response::Error>(Response::Error::Reason::Other,
+                                                               "Range out of bounds: " + resource.url);
+        } else {
+            const auto length = std::min<uint64_t>(last - first + 1, file->data.size() - first);
+            response.data = std::make_shared<std::string>(file->data.substr(first, length));
+        }
+
+        // Answered asynchronously like the file source, the caller stores the request first.
+        auto req = std::make_unique<FileSourceRequest>(std::move(callback));
+        req->actor().invoke(&FileSourceRequest::setResponse, response);
+        return req;
+    }
+
+    const MappedFile* mapFile(const std::string& url) {
+#if defined(_WIN32)
+        (void)url;
+        return nullptr;
+#else
+        if (!url.starts_with(mbgl::util::FILE_PROTOCOL)) {
+            return nullptr;
+        }
+
+        // Failures aren't remembered, the file source reports them and the file may appear later.
+        const auto path = util::percentDecode(url.substr(std::char_traits<char>::length(mbgl::util::FILE_PROTOCOL)));
+
+        // A mapping is only used while the file is unchanged. Reading pages of a file
+        // that was truncated in place raises SIGBUS, and a replaced file has new data.
+        auto it = mapped_files.find(url);
+        if (it != mapped_files.end()) {
+            struct stat info{};
+            if (::stat(path.c_str(), &info) == 0 && info.st_ino == it->second.inode &&
+                info.st_mtime == it->second.modified && static_cast<uint64_t>(info.st_size) == it->second.data.size()) {
+                return &it->second;
+            }
+            // Pending reads keep their own copies, the mapping can go.
+            mapped_files.erase(it);
+            evictArchive(url);
+        }
+
+        const int fd = ::open(path.c_str(), O_RDONLY);
+        if (fd < 0) {
+            return nullptr;
+        }
+
+        struct stat info{};
+        if (::fstat(fd, &info) != 0 || info.st_size == 0 ||
+            static_cast<uint64_t>(info.st_size) > maximumMappedFileSize) {
+            // Large archives would use up the address space of 32-bit processes, they are read in ranges.
+            ::close(fd);
+            return nullptr;
+        }
+
+        const auto size = static_cast<size_t>(info.st_size);
+        void* mapping = ::mmap(nullptr, size, PROT_READ, MAP_PRIVATE, fd, 0);
+        ::close(fd);
+        if (mapping == MAP_FAILED) {
+            return nullptr;
+        }
+
+        std::shared_ptr<const void> owner(mapping, [size](const void* address) {
+            ::munmap(const_cast<void*>(address), size);
+        });
+        const std::string_view data(static_cast<const char*>(mapping), size);
+        return &mapped_files.emplace(url, MappedFile{std::move(owner), data, info.st_ino, info.st_mtime})
+                    .first->second;
+#endif
+    }
+
     std::shared_ptr<FileSource> getFileSource() {
         if (!fileSource) {
             fileSource = FileSourceManager::get()->getFileSource(
@@ -221,6 +489,7 @@ private:
     void getHeader(const std::string& url, AsyncRequest* req, AsyncCallback callback) {
         if (header_cache.contains(url)) {
             callback(std::unique_ptr<Response::Error>());
+            return;
         }
 
         Resource resource(Resource::Kind::Source, url);
@@ -229,7 +498,8 @@ private:
         resource.dataRange = std::make_pair<uint64_t, uint64_t>(pmtilesHeaderOffset,
                                                                 pmtilesHeaderOffset + pmtilesHeaderLength - 1);
 
-        tasks[req] = getFileSource()->request(
+        const uint64_t generation = getGeneration(url);
+        tasks[req] = fetch(
             resource, [=, this](const Response& response) { // NOLINT(clang-analyzer-cplusplus.NewDeleteLeaks)
                 if (response.error) {
                     std::string message = std::string("Error fetching PMTiles header: ") + response.error->message;
@@ -259,6 +529,10 @@ private:
                         throw std::runtime_error("Compression method not supported");
                     }
 
+                    if (generation != getGeneration(url)) {
+                        callback(archiveChangedError());
+                        return;
+                    }
                     header_cache.emplace(url, header);
 
                     callback(std::unique_ptr<Response::Error>());
@@ -272,18 +546,24 @@ private:
     void getMetadata(std::string& url, AsyncRequest* req, AsyncCallback callback) {
         if (metadata_cache.contains(url)) {
             callback(std::unique_ptr<Response::Error>());
+            return;
         }
 
         getHeader(
             url,
             req,
             [=, this](std::unique_ptr<Response::Error> error) { // NOLINT(clang-analyzer-cplusplus.NewDeleteLeaks)
+                auto cachedHeader = header_cache.find(url);
+                if (!error && cachedHeader == header_cache.end()) {
+                    error = archiveChangedError();
+                }
                 if (error) {
                     callback(std::move(error));
                     return;
                 }
 
-                pmtiles::headerv3 header = header_cache.at(url);
+                pmtiles::headerv3 header = cachedHeader->second;
+                const uint64_t generation = getGeneration(url);
 
                 auto parse_callback = [=, this](const std::string& data) {
                     Document doc;
@@ -378,6 +658,11 @@ private:
 
                     doc["maxzoom"] = maxzoom;
 
+                    if (generation != getGeneration(url)) {
+                        callback(archiveChangedError());
+                        return;
+                    }
+
                     std::string metadata = serialize(doc);
                     metadata_cache.emplace(url, metadata);
 
@@ -390,7 +675,7 @@ private:
                     resource.dataRange = std::make_pair(header.json_metadata_offset,
                                                         header.json_metadata_offset + header.json_metadata_bytes - 1);
 
-                    tasks[req] = getFileSource()->request(resource, [=](const Response& responseMetadata) {
+                    tasks[req] = fetch(resource, [=](const Response& responseMetadata) {
                         if (responseMetadata.error) {
                             callback(std::make_unique<Response::Error>(
                                 responseMetadata.error->reason,
@@ -415,72 +700,57 @@ private:
             });
     }
 
-    void storeDirectory(const std::string& url,
-                        uint64_t directoryOffset,
-                        uint64_t directoryLength,
-                        const std::string& directoryData) {
-        if (!directory_cache.contains(url)) {
-            directory_cache.emplace(url, std::map<std::string, std::vector<pmtiles::entryv3>>());
-            directory_cache_control.emplace(url, std::vector<std::string>());
-        }
-
-        std::string directory_cache_key = url + "|" + std::to_string(directoryOffset) + "|" +
-                                          std::to_string(directoryLength);
-        directory_cache.at(url).emplace(directory_cache_key, pmtiles::deserialize_directory(directoryData));
-        directory_cache_control.at(url).emplace_back(directory_cache_key);
-
-        if (directory_cache_control.at(url).size() > MAX_DIRECTORY_CACHE_ENTRIES) {
-            directory_cache.at(url).erase(directory_cache_control.at(url).front());
-            directory_cache_control.at(url).erase(directory_cache_control.at(url).begin());
-        }
-    }
-
     void getDirectory(const std::string& url,
                       AsyncRequest* req,
                       uint64_t directoryOffset,
                       uint32_t directoryLength,
-                      AsyncCallback callback) {
-        std::string directory_cache_key = url + "|" + std::to_string(directoryOffset) + "|" +
-                                          std::to_string(directoryLength);
-
-        if (directory_cache.contains(url) && directory_cache.at(url).contains(directory_cache_key)) {
-            if (directory_cache_control.at(url).back() != directory_cache_key) {
-                directory_cache_control.at(url).emplace_back(directory_cache_key);
-
-                for (auto it = directory_cache_control.at(url).begin(); it != directory_cache_control.at(url).end();
-                     ++it) {
-                    if (*it == directory_cache_key) {
-                        directory_cache_control.at(url).erase(it);
-                        break;
-                    }
-                }
-            }
+                      AsyncDirectoryCallback callback) {
+        DirectoryKey key{url, directoryOffset, directoryLength};
 
-            callback(std::unique_ptr<Response::Error>());
+        if (auto directory = DirectoryCache::get().find(key)) {
+            callback(std::move(directory), {});
             return;
         }
 
+        // Neighbouring tiles share their leaf directory, only the first request fetches it.
+        auto pending = pending_directories.find(key);
+        if (pending != pending_directories.end()) {
+            DirectoryCache::get().coalesce();
+            pending->second.callbacks.emplace_back(std::move(callback));
+            return;
+        }
+        pending_directories[key].callbacks.emplace_back(std::move(callback));
+
         getHeader(url, req, [=, this](std::unique_ptr<Response::Error> error) {
+            auto cachedHeader = header_cache.find(url);
+            if (!error && cachedHeader == header_cache.end()) {
+                error = archiveChangedError();
+            }
             if (error) {
-                callback(std::move(error));
+                finishDirectory(key, nullptr, std::move(error));
                 return;
             }
 
-            pmtiles::headerv3 header = header_cache.at(url);
+            pmtiles::headerv3 header = cachedHeader->second;
+            const uint64_t generation = getGeneration(url);
 
             Resource resource(Resource::Kind::Source, url);
             resource.loadingMethod = Resource::LoadingMethod::Network;
             resource.dataRange = std::make_pair(directoryOffset, directoryOffset + directoryLength - 1);
 
-            tasks[req] = getFileSource()->request(resource, [=, this](const Response& response) {
+            pending_directories[key].request = fetch(resource, [=, this](const Response& response) {
                 if (response.error) {
-                    callback(std::make_unique<Response::Error>(
-                        response.error->reason,
-                        std::string("Error fetching PMTiles directory: ") + response.error->message));
+                    finishDirectory(key,
+                                    nullptr,
+                                    std::make_unique<Response::Error>(
+                                        response.error->reason,
+                                        std::string("Error fetching PMTiles directory: ") + response.error->message));
 
                     return;
                 }
 
+                std::shared_ptr<const Directory> directory;
+
                 try {
                     std::string directoryData = *response.data;
 
@@ -488,18 +758,43 @@ private:
                         directoryData = util::decompress(directoryData);
                     }
 
-                    storeDirectory(url, directoryOffset, directoryLength, directoryData);
-
-                    callback(std::unique_ptr<Response::Error>());
+                    directory = std::make_shared<const Directory>(pmtiles::deserialize_directory(directoryData));
                 } catch (const std::exception& e) {
-                    callback(std::make_unique<Response::Error>(
-                        Response::Error::Reason::Other,
-                        std::string(std::string("Error parsing PMTiles directory: ") + e.what())));
+                    finishDirectory(key,
+                                    nullptr,
+                                    std::make_unique<Response::Error>(
+                                        Response::Error::Reason::Other,
+                                        std::string("Error parsing PMTiles directory: ") + e.what()));
+                    return;
                 }
+
+                // A directory read from the previous file must not be cached for the new one.
+                if (generation != getGeneration(url)) {
+                    finishDirectory(key, nullptr, archiveChangedError());
+                    return;
+                }
+
+                DirectoryCache::get().put(key, directory);
+                finishDirectory(key, std::move(directory), {});
             });
         });
     }
 
+    void finishDirectory(const DirectoryKey& key,
+                         std::shared_ptr<const Directory> directory,
+                         std::unique_ptr<Response::Error> error) {
+        auto pending = pending_directories.extract(key);
+        if (pending.empty()) {
+            return;
+        }
+
+        for (auto& callback : pending.mapped().callbacks) {
+            callback(directory,
+                     error ? std::make_unique<Response::Error>(error->reason, error->message)
+                           : std::unique_ptr<Response::Error>());
+        }
+    }
+
     void getTileAddress(const std::string& url,
                         AsyncRequest* req,
                         uint64_t tileID,
@@ -521,17 +816,19 @@ private:
             req,
             directoryOffset,
             directoryLength,
-            [=, this](std::unique_ptr<Response::Error> error) { // NOLINT(clang-analyzer-cplusplus.NewDeleteLeaks)
+            [=, this](std::shared_ptr<const Directory> directory,
+                      std::unique_ptr<Response::Error> error) { // NOLINT(clang-analyzer-cplusplus.NewDeleteLeaks)
+                auto cachedHeader = header_cache.find(url);
+                if (!error && cachedHeader == header_cache.end()) {
+                    error = archiveChangedError();
+                }
                 if (error) {
                     callback(std::make_pair(0, 0), std::move(error));
                     return;
                 }
 
-                pmtiles::headerv3 header = header_cache.at(url);
-                std::vector<pmtiles::entryv3> directory = directory_cache.at(url).at(
-                    url + "|" + std::to_string(directoryOffset) + "|" + std::to_string(directoryLength));
-
-                pmtiles::entryv3 entry = pmtiles::find_tile(directory, tileID);
+                pmtiles::headerv3 header = cachedHeader->second;
+                pmtiles::entryv3 entry = pmtiles::find_tile(*directory, tileID);
 
                 if (entry.length > 0) {
                     if (entry.run_length > 0) {
@@ -605,4 +902,12 @@ ClientOptions PMTilesFileSource::getClientOptions() {
     return thread->actor().ask(&Impl::getClientOptions).get();
 }
 
+void PMTilesFileSource::setMaximumDirectoryCacheSize(uint64_t size) {
+    DirectoryCache::get().setMaximumSize(size);
+}
+
+DirectoryCacheStatistics PMTilesFileSource::getDirectoryCacheStatistics() {
+    return DirectoryCache::get().getStatistics();
+}
+
 } // namespace mbgl
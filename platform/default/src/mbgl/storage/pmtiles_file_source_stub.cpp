@@ -35,4 +35,10 @@ ClientOptions PMTilesFileSource::getClientOptions() {
     return {};
 }
 
+void PMTilesFileSource::setMaximumDirectoryCacheSize(uint64_t size) {}
+
+DirectoryCacheStatistics PMTilesFileSource::getDirectoryCacheStatistics() {
+    return {};
+}
+
 } // namespace mbgl
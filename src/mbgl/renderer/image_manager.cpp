@@ -44,17 +44,32 @@ bool ImageManager::isLoaded() const {
     return loaded;
 }
 
-void ImageManager::addImage(Immutable<style::Image::Impl> image_) {
+bool ImageManager::addImage(Immutable<style::Image::Impl> image_) {
     std::scoped_lock readLock(rwLock);
     assert(!images.contains(image_->id));
 
+    bool needsRelayout = false;
+
     // Increase cache size if requested image was provided.
-    if (requestedImages.contains(image_->id)) {
+    auto requestedIt = requestedImages.find(image_->id);
+    if (requestedIt != requestedImages.end()) {
         requestedImagesCacheSize += image_->image.bytes();
+
+        // Requestors still waiting in missingImageRequestors pick the image up
+        // in notifyIfMissingImageAdded(); the others were already notified
+        // without it, eg. because the client provided it asynchronously.
+        for (ImageRequestor* requestor : requestedIt->second) {
+            if (!missingImageRequestors.contains(requestor)) {
+                needsRelayout = true;
+                break;
+            }
+        }
     }
 
     availableImages.emplace(image_->id);
     images.emplace(image_->id, std::move(image_));
+
+    return needsRelayout;
 }
 
 bool ImageManager::updateImage(Immutable<style::Image::Impl> image_) {
@@ -41,7 +41,8 @@ public:
     const style::Image::Impl* getImage(const std::string&) const;
     const Immutable<style::Image::Impl>* getSharedImage(const std::string&) const;
 
-    void addImage(Immutable<style::Image::Impl>);
+    // Returns true when tiles that requested the image were laid out without it.
+    bool addImage(Immutable<style::Image::Impl>);
     bool updateImage(Immutable<style::Image::Impl>);
     void removeImage(const std::string&);
 
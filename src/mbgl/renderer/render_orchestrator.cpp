@@ -222,7 +222,8 @@ std::unique_ptr<RenderTree> RenderOrchestrator::createRenderTree(
     imageImpls = updateParameters->images;
 
     // Only trigger tile reparse for changed images. Changed images only need a
-    // relayout when they have a different size.
+    // relayout when they have a different size, added images only when tiles
+    // were already laid out without them.
     bool hasImageDiff = !imageDiff.removed.empty();
 
     // Remove removed images from sprite atlas.
@@ -233,7 +234,9 @@ std::unique_ptr<RenderTree> RenderOrchestrator::createRenderTree(
 
     // Add added images to sprite atlas.
     for (const auto& entry : imageDiff.added) {
-        imageManager->addImage(entry.second);
+        if (imageManager->addImage(entry.second)) {
+            hasImageDiff = true;
+        }
     }
 
     // Update changed images.
@@ -85,6 +85,19 @@ void SpriteLoader::load(const std::optional<style::Sprite> sprite, FileSource& f
         });
 }
 
+void SpriteLoader::load(const style::Sprite& sprite,
+                        std::shared_ptr<const std::string> json,
+                        std::shared_ptr<const std::string> image) {
+    observer->onSpriteRequested(sprite);
+
+    std::scoped_lock lock(dataMapMutex);
+    auto& data = dataMap[sprite.id];
+    data = std::make_unique<Data>();
+    data->json = std::move(json);
+    data->image = std::move(image);
+    emitSpriteLoadedIfComplete(sprite);
+}
+
 void SpriteLoader::emitSpriteLoadedIfComplete(style::Sprite sprite) {
     Data* data = dataMap[sprite.id].get();
     assert(data);
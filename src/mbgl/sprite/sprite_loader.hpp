@@ -22,6 +22,11 @@ public:
 
     void load(const std::optional<style::Sprite> sprite, FileSource&);
 
+    // Parses a sprite sheet whose data is already available, without requesting it.
+    void load(const style::Sprite& sprite,
+              std::shared_ptr<const std::string> json,
+              std::shared_ptr<const std::string> image);
+
     void setObserver(SpriteLoaderObserver*);
 
 private:
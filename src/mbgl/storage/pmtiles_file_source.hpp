@@ -6,6 +6,18 @@
 #include <mbgl/util/thread.hpp>
 
 namespace mbgl {
+
+struct DirectoryCacheStatistics {
+    // Directory lookups answered from memory, and lookups that needed a fetch.
+    uint64_t hitCount = 0;
+    uint64_t missCount = 0;
+    // Misses that waited for a fetch of the same directory already in flight.
+    uint64_t coalescedCount = 0;
+    // The size in bytes and number of the directories held in memory.
+    uint64_t size = 0;
+    uint64_t directoryCount = 0;
+};
+
 // File source for supporting .pmtiles maps
 class PMTilesFileSource : public FileSource {
 public:
@@ -21,6 +33,12 @@ public:
     void setClientOptions(ClientOptions) override;
     ClientOptions getClientOptions() override;
 
+    // The parsed directories of all archives are kept in memory by a cache shared
+    // by every PMTiles file source. The least recently used directories are evicted
+    // to stay within the size in bytes.
+    static void setMaximumDirectoryCacheSize(uint64_t size);
+    static DirectoryCacheStatistics getDirectoryCacheStatistics();
+
 private:
     class Impl;
     std::unique_ptr<util::Thread<Impl>> thread; // impl
@@ -17,6 +17,8 @@
 
 #include <rapidjson/document.h>
 #include <rapidjson/error/en.h>
+#include <rapidjson/stringbuffer.h>
+#include <rapidjson/writer.h>
 
 #include <algorithm>
 #include <memory>
@@ -36,6 +38,10 @@ StyleParseResult Parser::parse(const std::string& json) {
         return std::make_exception_ptr(std::runtime_error(formatJSONParseError(document)));
     }
 
+    return parse(document);
+}
+
+StyleParseResult Parser::parse(const JSValue& document) {
     if (!document.IsObject()) {
         return std::make_exception_ptr(std::runtime_error("style must be an object"));
     }
@@ -253,6 +259,11 @@ void Parser::parseSources(const JSValue& value) {
             continue;
         }
 
+        rapidjson::StringBuffer buffer;
+        rapidjson::Writer<rapidjson::StringBuffer> writer(buffer);
+        property.value.Accept(writer);
+        sourceDefinitions[id] = {buffer.GetString(), buffer.GetSize()};
+
         sources.emplace_back(std::move(*source));
     }
 }
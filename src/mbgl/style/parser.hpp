@@ -29,6 +29,8 @@ public:
     ~Parser();
 
     StyleParseResult parse(const std::string&);
+    // Parses a style that was already decoded, eg. from a style bundle.
+    StyleParseResult parse(const JSValue&);
 
     std::vector<Sprite> sprites;
     std::string glyphURL;
@@ -37,6 +39,9 @@ public:
     std::vector<std::unique_ptr<Source>> sources;
     std::vector<std::unique_ptr<Layer>> layers;
 
+    // Serialized source definitions keyed by source ID, used to diff consecutive styles.
+    std::unordered_map<std::string, std::string> sourceDefinitions;
+
     TransitionOptions transition{{util::DEFAULT_TRANSITION_DURATION}};
     Light light;
 
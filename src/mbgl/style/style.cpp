@@ -15,16 +15,22 @@ Style::Style(std::shared_ptr<FileSource> fileSource, float pixelRatio, const Tag
 
 Style::~Style() = default;
 
-void Style::loadJSON(const std::string& json) {
+void Style::loadJSON(const std::string& json, bool diff) {
     MLN_TRACE_FUNC();
 
-    impl->loadJSON(json);
+    impl->loadJSON(json, diff);
 }
 
-void Style::loadURL(const std::string& url) {
+void Style::loadURL(const std::string& url, bool diff) {
     MLN_TRACE_FUNC();
 
-    impl->loadURL(url);
+    impl->loadURL(url, diff);
+}
+
+void Style::loadBundle(const StyleBundle& bundle) {
+    MLN_TRACE_FUNC();
+
+    impl->loadBundle(bundle);
 }
 
 std::string Style::getJSON() const {
@@ -90,6 +96,13 @@ void Style::addImage(std::unique_ptr<Image> image) {
     impl->addImage(std::move(image));
 }
 
+void Style::addImages(std::vector<std::unique_ptr<Image>> images) {
+    MLN_TRACE_FUNC();
+
+    impl->mutated = true;
+    impl->addImages(std::move(images));
+}
+
 void Style::removeImage(const std::string& name) {
     MLN_TRACE_FUNC();
 
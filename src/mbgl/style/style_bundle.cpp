@@ -0,0 +1,522 @@
+#include <mbgl/style/style_bundle.hpp>
+#include <mbgl/style/style_bundle_impl.hpp>
+#include <mbgl/style/parser.hpp>
+#include <mbgl/util/exception.hpp>
+#include <mbgl/util/io.hpp>
+#include <mbgl/util/rapidjson.hpp>
+#include <mbgl/util/string.hpp>
+
+#include <rapidjson/stringbuffer.h>
+#include <rapidjson/writer.h>
+
+#include <cerrno>
+#include <cstring>
+
+#if !defined(_WIN32)
+#include <fcntl.h>
+#include <sys/mman.h>
+#include <sys/stat.h>
+#include <unistd.h>
+#endif
+
+namespace mbgl {
+namespace style {
+
+namespace {
+
+// Layout, all integers little endian:
+//   header:  "MLSB" | uint32 version | uint32 section count
+//   table:   per section uint32 type | name offset | name length | data offset | data length
+//   payload: section names and data, referenced by absolute offsets
+constexpr std::string_view magic = "MLSB";
+constexpr uint32_t version = 2;
+constexpr size_t headerSize = 12;
+constexpr size_t tableEntrySize = 20;
+
+enum class SectionType : uint32_t {
+    Style = 1,
+    SpriteJSON = 2,
+    SpriteImage = 3,
+    GlyphManifest = 4,
+    StyleTree = 5,
+};
+
+// Encoding of the values in the style tree:
+//   null, false, true:   tag
+//   int, uint, double:   tag | 64 bit value
+//   string:              tag | uint32 length | bytes | NUL
+//   array:               tag | uint32 count | values
+//   object:              tag | uint32 count | per member: uint32 length | key bytes | NUL | value
+// Strings are NUL terminated so that the decoded document can reference them in place.
+enum class ValueTag : uint8_t {
+    Null = 0,
+    False = 1,
+    True = 2,
+    Int = 3,
+    UInt = 4,
+    Double = 5,
+    String = 6,
+    Array = 7,
+    Object = 8,
+};
+
+// Bounds the recursion when decoding malformed bundles.
+constexpr size_t maxValueDepth = 256;
+
+struct Section {
+    SectionType type;
+    std::string name;
+    std::string data;
+};
+
+void writeUInt32(std::string& out, uint32_t value) {
+    for (int shift = 0; shift < 32; shift += 8) {
+        out.push_back(static_cast<char>((value >> shift) & 0xFF));
+    }
+}
+
+void writeUInt16(std::string& out, uint16_t value) {
+    out.push_back(static_cast<char>(value & 0xFF));
+    out.push_back(static_cast<char>((value >> 8) & 0xFF));
+}
+
+void writeUInt64(std::string& out, uint64_t value) {
+    for (int shift = 0; shift < 64; shift += 8) {
+        out.push_back(static_cast<char>((value >> shift) & 0xFF));
+    }
+}
+
+void writeString(std::string& out, const std::string& value) {
+    writeUInt32(out, static_cast<uint32_t>(value.size()));
+    out.append(value);
+}
+
+void writeTerminatedString(std::string& out, const char* value, uint32_t length) {
+    writeUInt32(out, length);
+    out.append(value, length);
+    out.push_back('\0');
+}
+
+class Reader {
+public:
+    explicit Reader(std::string_view data_)
+        : data(data_) {}
+
+    uint32_t readUInt32() {
+        const auto bytes = read(4);
+        uint32_t value = 0;
+        for (size_t i = 0; i < 4; ++i) {
+            value |= static_cast<uint32_t>(static_cast<uint8_t>(bytes[i])) << (i * 8);
+        }
+        return value;
+    }
+
+    uint64_t readUInt64() {
+        const auto bytes = read(8);
+        uint64_t value = 0;
+        for (size_t i = 0; i < 8; ++i) {
+            value |= static_cast<uint64_t>(static_cast<uint8_t>(bytes[i])) << (i * 8);
+        }
+        return value;
+    }
+
+    uint8_t readUInt8() { return static_cast<uint8_t>(read(1)[0]); }
+
+    uint16_t readUInt16() {
+        const auto bytes = read(2);
+        return static_cast<uint16_t>(static_cast<uint8_t>(bytes[0]) | (static_cast<uint8_t>(bytes[1]) << 8));
+    }
+
+    std::string_view readString() { return read(readUInt32()); }
+
+    std::string_view readTerminatedString() {
+        const uint32_t length = readUInt32();
+        const auto bytes = read(size_t{length} + 1);
+        if (bytes.back() != '\0') {
+            throw std::runtime_error("Style bundle string is not terminated");
+        }
+        return bytes.substr(0, length);
+    }
+
+    // Reads the element count of a container, each of which takes at least one byte.
+    uint32_t readCount() {
+        const uint32_t count = readUInt32();
+        if (count > data.size() - position) {
+            throw std::runtime_error("Style bundle is truncated");
+        }
+        return count;
+    }
+
+    std::string_view read(size_t length) {
+        if (length > data.size() - position) {
+            throw std::runtime_error("Style bundle is truncated");
+        }
+        auto result = data.substr(position, length);
+        position += length;
+        return result;
+    }
+
+private:
+    std::string_view data;
+    size_t position = 0;
+};
+
+void parseJSON(JSDocument& document, const std::string& json) {
+    document.Parse<0>(json.c_str(), json.size());
+    if (document.HasParseError()) {
+        throw util::StyleParseException(formatJSONParseError(document));
+    }
+}
+
+std::string minify(const JSValue& value) {
+    rapidjson::StringBuffer buffer;
+    rapidjson::Writer<rapidjson::StringBuffer> writer(buffer);
+    value.Accept(writer);
+    return {buffer.GetString(), buffer.GetSize()};
+}
+
+std::string minify(const std::string& json) {
+    JSDocument document;
+    parseJSON(document, json);
+    return minify(document);
+}
+
+void encodeValue(std::string& out, const JSValue& value) {
+    switch (value.GetType()) {
+        case rapidjson::kNullType:
+            out.push_back(static_cast<char>(ValueTag::Null));
+            break;
+        case rapidjson::kFalseType:
+            out.push_back(static_cast<char>(ValueTag::False));
+            break;
+        case rapidjson::kTrueType:
+            out.push_back(static_cast<char>(ValueTag::True));
+            break;
+        case rapidjson::kNumberType:
+            // Keeps integers apart from doubles, like parsing the JSON does.
+            if (value.IsDouble()) {
+                const double number = value.GetDouble();
+                uint64_t bits = 0;
+                std::memcpy(&bits, &number, sizeof(bits));
+                out.push_back(static_cast<char>(ValueTag::Double));
+                writeUInt64(out, bits);
+            } else if (value.IsInt64()) {
+                out.push_back(static_cast<char>(ValueTag::Int));
+                writeUInt64(out, static_cast<uint64_t>(value.GetInt64()));
+            } else {
+                out.push_back(static_cast<char>(ValueTag::UInt));
+                writeUInt64(out, value.GetUint64());
+            }
+            break;
+        case rapidjson::kStringType:
+            out.push_back(static_cast<char>(ValueTag::String));
+            writeTerminatedString(out, value.GetString(), value.GetStringLength());
+            break;
+        case rapidjson::kArrayType:
+            out.push_back(static_cast<char>(ValueTag::Array));
+            writeUInt32(out, value.Size());
+            for (const auto& element : value.GetArray()) {
+                encodeValue(out, element);
+            }
+            break;
+        case rapidjson::kObjectType:
+            out.push_back(static_cast<char>(ValueTag::Object));
+            writeUInt32(out, value.MemberCount());
+            for (auto it = value.MemberBegin(); it != value.MemberEnd(); ++it) {
+                writeTerminatedString(out, it->name.GetString(), it->name.GetStringLength());
+                encodeValue(out, it->value);
+            }
+            break;
+    }
+}
+
+rapidjson::GenericStringRef<char> stringRef(std::string_view value) {
+    return rapidjson::StringRef(value.data(), value.size());
+}
+
+// Strings aren't copied, they reference the bundle data.
+void decodeValue(Reader& reader, JSValue& value, JSDocument::AllocatorType& allocator, size_t depth) {
+    if (depth > maxValueDepth) {
+        throw std::runtime_error("Style bundle style is nested too deeply");
+    }
+
+    switch (static_cast<ValueTag>(reader.readUInt8())) {
+        case ValueTag::Null:
+            value.SetNull();
+            break;
+        case ValueTag::False:
+            value.SetBool(false);
+            break;
+        case ValueTag::True:
+            value.SetBool(true);
+            break;
+        case ValueTag::Int:
+            value.SetInt64(static_cast<int64_t>(reader.readUInt64()));
+            break;
+        case ValueTag::UInt:
+            value.SetUint64(reader.readUInt64());
+            break;
+        case ValueTag::Double: {
+            const uint64_t bits = reader.readUInt64();
+            double number = 0;
+            std::memcpy(&number, &bits, sizeof(number));
+            value.SetDouble(number);
+            break;
+        }
+        case ValueTag::String:
+            value.SetString(stringRef(reader.readTerminatedString()));
+            break;
+        case ValueTag::Array: {
+            const uint32_t count = reader.readCount();
+            value.SetArray();
+            value.Reserve(count, allocator);
+            for (uint32_t i = 0; i < count; ++i) {
+                JSValue element;
+                decodeValue(reader, element, allocator, depth + 1);
+                value.PushBack(element, allocator);
+            }
+            break;
+        }
+        case ValueTag::Object: {
+            const uint32_t count = reader.readCount();
+            value.SetObject();
+            for (uint32_t i = 0; i < count; ++i) {
+                JSValue name(stringRef(reader.readTerminatedString()));
+                JSValue member;
+                decodeValue(reader, member, allocator, depth + 1);
+                value.AddMember(name, member, allocator);
+            }
+            break;
+        }
+        default:
+            throw std::runtime_error("Style bundle style has an unknown value type");
+    }
+}
+
+std::string encodeGlyphManifest(const StyleBundle::GlyphManifest& manifest) {
+    std::string out;
+    writeUInt32(out, static_cast<uint32_t>(manifest.size()));
+    for (const auto& [fontStack, ranges] : manifest) {
+        writeUInt32(out, static_cast<uint32_t>(fontStack.size()));
+        for (const auto& font : fontStack) {
+            writeString(out, font);
+        }
+        writeUInt32(out, static_cast<uint32_t>(ranges.size()));
+        for (const auto range : ranges) {
+            writeUInt16(out, range);
+        }
+    }
+    return out;
+}
+
+StyleBundle::GlyphManifest decodeGlyphManifest(std::string_view data) {
+    StyleBundle::GlyphManifest manifest;
+    Reader reader(data);
+    const uint32_t fontStackCount = reader.readUInt32();
+    for (uint32_t i = 0; i < fontStackCount; ++i) {
+        FontStack fontStack;
+        const uint32_t fontCount = reader.readUInt32();
+        for (uint32_t j = 0; j < fontCount; ++j) {
+            fontStack.emplace_back(reader.readString());
+        }
+        auto& ranges = manifest[std::move(fontStack)];
+        const uint32_t rangeCount = reader.readUInt32();
+        ranges.reserve(rangeCount);
+        for (uint32_t j = 0; j < rangeCount; ++j) {
+            ranges.push_back(reader.readUInt16());
+        }
+    }
+    return manifest;
+}
+
+std::string spriteSectionName(const std::string& id, bool highDPI) {
+    return highDPI ? id + "@2x" : id;
+}
+
+} // namespace
+
+std::string StyleBundle::create(const std::string& styleJSON,
+                                const std::map<std::string, Sprite>& sprites,
+                                const std::vector<uint16_t>& glyphRanges) {
+    JSDocument document;
+    parseJSON(document, styleJSON);
+
+    Parser parser;
+    if (auto error = parser.parse(document)) {
+        throw util::StyleParseException("Failed to parse style: " + util::toString(error));
+    }
+
+    std::string styleTree;
+    encodeValue(styleTree, document);
+
+    std::vector<Section> sections;
+    sections.push_back({SectionType::Style, {}, minify(document)});
+    sections.push_back({SectionType::StyleTree, {}, std::move(styleTree)});
+
+    for (const auto& [id, sprite] : sprites) {
+        for (const bool highDPI : {false, true}) {
+            const auto& sheet = highDPI ? sprite.highDPI : sprite.standard;
+            if (sheet) {
+                sections.push_back({SectionType::SpriteJSON, spriteSectionName(id, highDPI), minify(sheet->json)});
+                sections.push_back({SectionType::SpriteImage, spriteSectionName(id, highDPI), sheet->image});
+            }
+        }
+    }
+
+    if (!glyphRanges.empty()) {
+        GlyphManifest manifest;
+        for (const auto& fontStack : parser.fontStacks()) {
+            manifest.emplace(fontStack, glyphRanges);
+        }
+        sections.push_back({SectionType::GlyphManifest, {}, encodeGlyphManifest(manifest)});
+    }
+
+    std::string header;
+    header.append(magic);
+    writeUInt32(header, version);
+    writeUInt32(header, static_cast<uint32_t>(sections.size()));
+
+    std::string payload;
+    const size_t payloadOffset = headerSize + (sections.size() * tableEntrySize);
+    for (const auto& section : sections) {
+        writeUInt32(header, static_cast<uint32_t>(section.type));
+        writeUInt32(header, static_cast<uint32_t>(payloadOffset + payload.size()));
+        writeUInt32(header, static_cast<uint32_t>(section.name.size()));
+        payload.append(section.name);
+        writeUInt32(header, static_cast<uint32_t>(payloadOffset + payload.size()));
+        writeUInt32(header, static_cast<uint32_t>(section.data.size()));
+        payload.append(section.data);
+    }
+
+    return header + payload;
+}
+
+StyleBundle::StyleBundle(std::shared_ptr<const Impl> impl_)
+    : impl(std::move(impl_)) {}
+
+expected<StyleBundle, std::exception_ptr> StyleBundle::read(std::shared_ptr<const void> owner, std::string_view data) {
+    try {
+        Reader reader(data);
+        if (reader.read(magic.size()) != magic) {
+            throw std::runtime_error("Not a style bundle");
+        }
+        if (const uint32_t bundleVersion = reader.readUInt32(); bundleVersion != version) {
+            throw std::runtime_error("Unsupported style bundle version " + util::toString(bundleVersion));
+        }
+
+        auto impl = std::make_shared<Impl>();
+        impl->owner = std::move(owner);
+
+        bool hasStyle = false;
+        bool hasStyleTree = false;
+        const uint32_t sectionCount = reader.readUInt32();
+        for (uint32_t i = 0; i < sectionCount; ++i) {
+            const auto type = static_cast<SectionType>(reader.readUInt32());
+            const uint32_t nameOffset = reader.readUInt32();
+            const uint32_t nameLength = reader.readUInt32();
+            const uint32_t dataOffset = reader.readUInt32();
+            const uint32_t dataLength = reader.readUInt32();
+            if (nameOffset > data.size() || nameLength > data.size() - nameOffset || dataOffset > data.size() ||
+                dataLength > data.size() - dataOffset) {
+                throw std::runtime_error("Style bundle section is out of bounds");
+            }
+
+            const std::string_view name = data.substr(nameOffset, nameLength);
+            const std::string_view sectionData = data.substr(dataOffset, dataLength);
+            switch (type) {
+                case SectionType::Style:
+                    impl->styleJSON = sectionData;
+                    hasStyle = true;
+                    break;
+                case SectionType::StyleTree: {
+                    Reader treeReader(sectionData);
+                    decodeValue(treeReader, impl->styleDocument, impl->styleDocument.GetAllocator(), 0);
+                    hasStyleTree = true;
+                    break;
+                }
+                case SectionType::SpriteJSON:
+                    impl->spriteSheets[std::string(name)].json = std::make_shared<const std::string>(sectionData);
+                    break;
+                case SectionType::SpriteImage:
+                    impl->spriteSheets[std::string(name)].image = std::make_shared<const std::string>(sectionData);
+                    break;
+                case SectionType::GlyphManifest:
+                    impl->glyphManifest = decodeGlyphManifest(sectionData);
+                    break;
+                default:
+                    // Sections added by newer tools are skipped.
+                    break;
+            }
+        }
+
+        if (!hasStyle || !hasStyleTree) {
+            throw std::runtime_error("Style bundle has no style");
+        }
+        return StyleBundle(std::move(impl));
+    } catch (...) {
+        return unexpected<std::exception_ptr>(std::current_exception());
+    }
+}
+
+expected<StyleBundle, std::exception_ptr> StyleBundle::read(std::string data) {
+    auto owner = std::make_shared<const std::string>(std::move(data));
+    const std::string_view view = *owner;
+    return read(std::move(owner), view);
+}
+
+expected<StyleBundle, std::exception_ptr> StyleBundle::readFile(const std::string& path) {
+#if defined(_WIN32)
+    auto data = util::readFile(path);
+    if (!data) {
+        return unexpected<std::exception_ptr>(std::make_exception_ptr(std::runtime_error("Cannot read " + path)));
+    }
+    return read(std::move(*data));
+#else
+    const int fd = ::open(path.c_str(), O_RDONLY);
+    if (fd < 0) {
+        return unexpected<std::exception_ptr>(
+            std::make_exception_ptr(util::IOException(errno, "Cannot open " + path)));
+    }
+
+    struct stat info{};
+    const bool statFailed = ::fstat(fd, &info) != 0;
+    if (statFailed || info.st_size == 0) {
+        const int error = statFailed ? errno : EINVAL;
+        ::close(fd);
+        return unexpected<std::exception_ptr>(std::make_exception_ptr(util::IOException(error, "Cannot map " + path)));
+    }
+
+    const auto size = static_cast<size_t>(info.st_size);
+    void* mapping = ::mmap(nullptr, size, PROT_READ, MAP_PRIVATE, fd, 0);
+    const int error = errno;
+    ::close(fd);
+    if (mapping == MAP_FAILED) {
+        return unexpected<std::exception_ptr>(std::make_exception_ptr(util::IOException(error, "Cannot map " + path)));
+    }
+
+    std::shared_ptr<const void> owner(mapping, [size](const void* address) {
+        ::munmap(const_cast<void*>(address), size);
+    });
+    return read(std::move(owner), std::string_view(static_cast<const char*>(mapping), size));
+#endif
+}
+
+std::string_view StyleBundle::getStyleJSON() const {
+    return impl->styleJSON;
+}
+
+const StyleBundle::GlyphManifest& StyleBundle::getGlyphManifest() const {
+    return impl->glyphManifest;
+}
+
+std::optional<StyleBundle::SpriteData> StyleBundle::getSpriteSheet(const std::string& id, float pixelRatio) const {
+    // Matches the variant that Resource::spriteJSON requests for this pixel ratio.
+    const auto it = impl->spriteSheets.find(spriteSectionName(id, pixelRatio > 1));
+    if (it == impl->spriteSheets.end() || !it->second.json || !it->second.image) {
+        return std::nullopt;
+    }
+    return it->second;
+}
+
+} // namespace style
+} // namespace mbgl
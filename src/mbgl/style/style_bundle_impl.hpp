@@ -0,0 +1,25 @@
+#pragma once
+
+#include <mbgl/style/style_bundle.hpp>
+#include <mbgl/util/noncopyable.hpp>
+#include <mbgl/util/rapidjson.hpp>
+
+namespace mbgl {
+namespace style {
+
+class StyleBundle::Impl : private util::noncopyable {
+public:
+    // Keeps the bundle data alive, declared first so that it is released last.
+    std::shared_ptr<const void> owner;
+
+    std::string_view styleJSON;
+
+    // The decoded style. Its strings reference the bundle data instead of copies.
+    JSDocument styleDocument;
+
+    std::map<std::string, SpriteData, std::less<>> spriteSheets;
+    GlyphManifest glyphManifest;
+};
+
+} // namespace style
+} // namespace mbgl
@@ -1,3 +1,4 @@
+#include <mbgl/annotation/annotation_manager.hpp>
 #include <mbgl/style/layers/custom_layer.hpp>
 #include <mbgl/sprite/sprite_loader.hpp>
 #include <mbgl/storage/file_source.hpp>
@@ -17,6 +18,7 @@
 #include <mbgl/style/observer.hpp>
 #include <mbgl/style/parser.hpp>
 #include <mbgl/style/source_impl.hpp>
+#include <mbgl/style/style_bundle_impl.hpp>
 #include <mbgl/style/style_impl.hpp>
 #include <mbgl/style/transition_options.hpp>
 #include <mbgl/util/async_request.hpp>
@@ -25,13 +27,15 @@
 #include <mbgl/util/string.hpp>
 #include <mbgl/plugin/plugin_style_filter.hpp>
 #include <sstream>
+#include <unordered_set>
 
 namespace mbgl {
 namespace style {
 
-Style::Impl::Impl(std::shared_ptr<FileSource> fileSource_, float pixelRatio, const TaggedScheduler& threadPool_)
+Style::Impl::Impl(std::shared_ptr<FileSource> fileSource_, float pixelRatio_, const TaggedScheduler& threadPool_)
     : fileSource(std::move(fileSource_)),
-      spriteLoader(std::make_unique<SpriteLoader>(pixelRatio, threadPool_)),
+      spriteLoader(std::make_unique<SpriteLoader>(pixelRatio_, threadPool_)),
+      pixelRatio(pixelRatio_),
       light(std::make_unique<Light>()),
       observer(&nullObserver) {
     spriteLoader->setObserver(this);
@@ -42,18 +46,53 @@ Style::Impl::~Impl() = default;
 
 void Style::Impl::cancelPendingRequest() noexcept {
     styleRequest.reset();
+    glyphRequests.clear();
 }
 
-void Style::Impl::loadJSON(const std::string& json_) {
+void Style::Impl::loadJSON(const std::string& json_, bool diff) {
     lastError = nullptr;
     observer->onStyleLoading();
 
     cancelPendingRequest();
     url.clear();
-    filterThenParse(json_);
+    filterThenParse(json_, diff);
 }
 
-void Style::Impl::loadURL(const std::string& url_) {
+void Style::Impl::loadBundle(const StyleBundle& bundle) {
+    lastError = nullptr;
+    observer->onStyleLoading();
+
+    cancelPendingRequest();
+    url.clear();
+    loaded = false;
+
+    loadingBundle = &bundle;
+    if (_styleFilters.empty()) {
+        // The bundle holds the style already decoded, so its JSON isn't parsed.
+        Parser parser;
+        auto error = parser.parse(bundle.impl->styleDocument);
+        load(parser, error, bundle.getStyleJSON(), false);
+    } else {
+        // Style filters work on the JSON.
+        filterThenParse(std::string(bundle.getStyleJSON()), false);
+    }
+    loadingBundle = nullptr;
+
+    if (!loaded || !fileSource || glyphURL.empty()) {
+        return;
+    }
+
+    // Only warms up the file source caches, the glyph manager requests the glyphs again when it needs them.
+    for (const auto& [fontStack, ranges] : bundle.getGlyphManifest()) {
+        for (const uint16_t start : ranges) {
+            const auto range = std::make_pair(start, static_cast<uint16_t>(start + 255));
+            glyphRequests.push_back(
+                fileSource->request(Resource::glyphs(glyphURL, fontStack, range), [](const Response&) {}));
+        }
+    }
+}
+
+void Style::Impl::loadURL(const std::string& url_, bool diff) {
     if (!fileSource) {
         observer->onStyleError(
             std::make_exception_ptr(util::StyleLoadException("Unable to find resource provider for style url.")));
@@ -63,12 +102,20 @@ void Style::Impl::loadURL(const std::string& url_) {
     lastError = nullptr;
     observer->onStyleLoading();
 
-    loaded = false;
+    // A diffed load keeps the current style usable until the new one is parsed.
+    if (!diff) {
+        loaded = false;
+    }
     url = url_;
 
-    styleRequest = fileSource->request(Resource::style(url), [this](const Response& res) {
+    styleRequest = fileSource->request(Resource::style(url), [this, diff, firstResponse = true](
+                                                                 const Response& res) mutable {
+        // Only the response to the explicit load is diffed; revalidations behave as before.
+        const bool diffing = diff && firstResponse;
+        firstResponse = false;
+
         // Don't allow a loaded, mutated style to be overwritten with a new version.
-        if (mutated && loaded) {
+        if (mutated && loaded && !diffing) {
             return;
         }
 
@@ -80,14 +127,14 @@ void Style::Impl::loadURL(const std::string& url_) {
         } else if (res.notModified || res.noContent) {
             return;
         } else {
-            filterThenParse(*res.data);
+            filterThenParse(*res.data, diffing);
         }
     });
 }
 
-void Style::Impl::filterThenParse(const std::string& styleData) {
+void Style::Impl::filterThenParse(const std::string& styleData, bool diff) {
     if (_styleFilters.size() == 0) {
-        parse(styleData);
+        parse(styleData, diff);
         return;
     }
 
@@ -96,13 +143,31 @@ void Style::Impl::filterThenParse(const std::string& styleData) {
     for (const auto& filter : _styleFilters) {
         filteredStyle = filter->filterResponse(filteredStyle);
     }
-    parse(filteredStyle);
+    parse(filteredStyle, diff);
+}
+
+namespace {
+
+bool isAnnotationID(const std::string& id) {
+    return id.starts_with(AnnotationManager::SourceID);
 }
 
-void Style::Impl::parse(const std::string& json_) {
+bool spritesEqual(const std::vector<Sprite>& a, const std::vector<Sprite>& b) {
+    return std::equal(a.begin(), a.end(), b.begin(), b.end(), [](const Sprite& lhs, const Sprite& rhs) {
+        return lhs.id == rhs.id && lhs.spriteURL == rhs.spriteURL;
+    });
+}
+
+} // namespace
+
+void Style::Impl::parse(const std::string& json_, bool diff) {
     Parser parser;
+    auto error = parser.parse(json_);
+    load(parser, error, json_, diff);
+}
 
-    if (auto error = parser.parse(json_)) {
+void Style::Impl::load(Parser& parser, std::exception_ptr error, std::string_view json_, bool diff) {
+    if (error) {
         std::string message = "Failed to parse style: " + util::toString(error);
         Log::Error(Event::ParseStyle, message.c_str());
         observer->onStyleError(std::make_exception_ptr(util::StyleParseException(message)));
@@ -110,24 +175,38 @@ void Style::Impl::parse(const std::string& json_) {
         return;
     }
 
+    // Diffing is only meaningful against a style that finished parsing.
+    const bool applyingDiff = diff && loaded;
+    const bool reloadSprites = !applyingDiff || !spritesEqual(sprites, parser.sprites);
+
     mutated = false;
     loaded = false;
     json = json_;
 
-    sources.clear();
-    layers.clear();
-    images = makeMutable<ImageImpls>();
+    if (reloadSprites) {
+        images = makeMutable<ImageImpls>();
+    }
 
     transitionOptions = parser.transition;
 
-    for (auto& source : parser.sources) {
-        addSource(std::move(source));
-    }
+    if (applyingDiff) {
+        applyDiff(parser);
+    } else {
+        sources.clear();
+        layers.clear();
 
-    for (auto& layer : parser.layers) {
-        addLayer(std::move(layer));
+        for (auto& source : parser.sources) {
+            addSource(std::move(source));
+        }
+
+        for (auto& layer : parser.layers) {
+            addLayer(std::move(layer));
+        }
     }
 
+    sourceDefinitions = std::move(parser.sourceDefinitions);
+    sprites = parser.sprites;
+
     name = parser.name;
     defaultCamera.center = parser.latLng;
     defaultCamera.centerAltitude = parser.centerAltitude;
@@ -138,7 +217,8 @@ void Style::Impl::parse(const std::string& json_) {
 
     setLight(std::make_unique<Light>(parser.light));
 
-    if (fileSource) {
+    // Sprite images of the previous style stay valid when a diff kept the sprites.
+    if (reloadSprites && fileSource) {
         if (parser.sprites.empty()) {
             // We identify no sprite with 'default' as string in the sprite loading status.
             spritesLoadingStatus["default"] = false;
@@ -146,10 +226,15 @@ void Style::Impl::parse(const std::string& json_) {
         } else {
             for (const auto& sprite : parser.sprites) {
                 spritesLoadingStatus[sprite.id] = false;
-                spriteLoader->load(std::optional(sprite), *fileSource);
+                auto sheet = loadingBundle ? loadingBundle->getSpriteSheet(sprite.id, pixelRatio) : std::nullopt;
+                if (sheet) {
+                    spriteLoader->load(sprite, std::move(sheet->json), std::move(sheet->image));
+                } else {
+                    spriteLoader->load(std::optional(sprite), *fileSource);
+                }
             }
         }
-    } else {
+    } else if (reloadSprites) {
         // We identify no sprite with 'default' as string in the sprite loading status.
         spritesLoadingStatus["default"] = false;
         onSpriteError(std::nullopt,
@@ -161,6 +246,62 @@ void Style::Impl::parse(const std::string& json_) {
     observer->onStyleLoaded();
 }
 
+void Style::Impl::applyDiff(Parser& parser) {
+    // Sources with an unchanged definition keep their loaded tiles.
+    std::unordered_set<std::string> keptSources;
+    for (const auto& source : parser.sources) {
+        const std::string id = source->getID();
+        const Source* existing = sources.get(id);
+        const auto previous = sourceDefinitions.find(id);
+        const auto next = parser.sourceDefinitions.find(id);
+        if (existing && existing->getType() == source->getType() && previous != sourceDefinitions.end() &&
+            next != parser.sourceDefinitions.end() && previous->second == next->second) {
+            keptSources.insert(id);
+        }
+    }
+
+    // Take the style layers out of the collection; unchanged ones are put back
+    // in the order of the new style, below the annotation layers.
+    std::unordered_map<std::string, std::unique_ptr<Layer>> previousLayers;
+    std::optional<std::string> firstAnnotationLayer;
+    for (const Layer* wrapper : layers.getWrappers()) {
+        const std::string id = wrapper->getID();
+        if (isAnnotationID(id)) {
+            if (!firstAnnotationLayer) {
+                firstAnnotationLayer = id;
+            }
+            continue;
+        }
+        std::unique_ptr<Layer> layer = layers.remove(id);
+        layer->setObserver(nullptr);
+        previousLayers.emplace(id, std::move(layer));
+    }
+
+    // The layers depending on these sources are gone by now, so removeSource()
+    // only refuses sources that remaining layers still use.
+    for (const Source* wrapper : sources.getWrappers()) {
+        const std::string id = wrapper->getID();
+        if (!keptSources.contains(id) && !isAnnotationID(id)) {
+            removeSource(id);
+        }
+    }
+
+    for (auto& source : parser.sources) {
+        if (!sources.get(source->getID())) {
+            addSource(std::move(source));
+        }
+    }
+
+    for (auto& layer : parser.layers) {
+        auto previous = previousLayers.find(layer->getID());
+        if (previous != previousLayers.end() && previous->second->serialize() == layer->serialize()) {
+            addLayer(std::move(previous->second), firstAnnotationLayer);
+        } else {
+            addLayer(std::move(layer), firstAnnotationLayer);
+        }
+    }
+}
+
 std::string Style::Impl::getJSON() const {
     return json;
 }
@@ -337,6 +478,28 @@ void Style::Impl::addImage(std::unique_ptr<style::Image> image) {
     observer->onUpdate();
 }
 
+void Style::Impl::addImages(std::vector<std::unique_ptr<style::Image>> images_) {
+    if (images_.empty()) {
+        return;
+    }
+
+    // Merge the batch into the sorted image list with a single copy and update.
+    auto newImages = makeMutable<ImageImpls>(*images);
+    for (auto& image : images_) {
+        auto it = std::lower_bound(
+            newImages->begin(), newImages->end(), image->getID(), [](const auto& a, const std::string& b) {
+                return a->id < b;
+            });
+        if (it != newImages->end() && (*it)->id == image->getID()) {
+            *it = std::move(image->baseImpl);
+        } else {
+            newImages->insert(it, std::move(image->baseImpl));
+        }
+    }
+    images = std::move(newImages);
+    observer->onUpdate();
+}
+
 void Style::Impl::removeImage(const std::string& id) {
     auto newImages = makeMutable<ImageImpls>(*images);
     auto found = std::find_if(
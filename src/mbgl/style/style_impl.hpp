@@ -11,7 +11,9 @@
 #include <mbgl/style/image.hpp>
 #include <mbgl/style/source.hpp>
 #include <mbgl/style/layer.hpp>
+#include <mbgl/style/sprite.hpp>
 #include <mbgl/style/collection.hpp>
+#include <mbgl/style/style_bundle.hpp>
 
 #include <mbgl/text/glyph.hpp>
 
@@ -22,6 +24,7 @@
 
 #include <memory>
 #include <string>
+#include <string_view>
 #include <vector>
 #include <unordered_map>
 
@@ -33,6 +36,8 @@ class SpriteLoader;
 
 namespace style {
 
+class Parser;
+
 class Style::Impl : public SpriteLoaderObserver,
                     public SourceObserver,
                     public LayerObserver,
@@ -42,8 +47,9 @@ public:
     Impl(std::shared_ptr<FileSource>, float pixelRatio, const TaggedScheduler& threadPool_);
     ~Impl() override;
 
-    void loadJSON(const std::string&);
-    void loadURL(const std::string&);
+    void loadJSON(const std::string&, bool diff = false);
+    void loadURL(const std::string&, bool diff = false);
+    void loadBundle(const StyleBundle&);
 
     /**
      * @brief Cancels any pending style request.
@@ -90,6 +96,7 @@ public:
 
     std::optional<Immutable<style::Image::Impl>> getImage(const std::string&) const;
     void addImage(std::unique_ptr<style::Image>);
+    void addImages(std::vector<std::unique_ptr<style::Image>>);
     void removeImage(const std::string&);
 
     const std::string& getGlyphURL() const;
@@ -107,8 +114,14 @@ public:
     bool loaded = false;
 
 private:
-    void filterThenParse(const std::string& styleData);
-    void parse(const std::string&);
+    void filterThenParse(const std::string& styleData, bool diff);
+    void parse(const std::string&, bool diff);
+    // Takes over the parsed style, or reports the error it failed to parse with.
+    void load(Parser&, std::exception_ptr error, std::string_view json, bool diff);
+
+    // Replaces the current sources and layers with the parsed ones, keeping
+    // the unchanged ones (and everything owned by annotations) in place.
+    void applyDiff(Parser&);
 
     std::vector<std::shared_ptr<PluginStyleFilter>> _styleFilters;
 
@@ -117,8 +130,17 @@ private:
     std::string url;
     std::string json;
 
+    // Definitions of the last parsed style, used to diff the next one.
+    std::unordered_map<std::string, std::string> sourceDefinitions;
+    std::vector<Sprite> sprites;
+
     std::unique_ptr<AsyncRequest> styleRequest;
     std::unique_ptr<SpriteLoader> spriteLoader;
+    const float pixelRatio;
+
+    // The bundle being loaded, load() takes its sprite sheets instead of requesting them.
+    const StyleBundle* loadingBundle = nullptr;
+    std::vector<std::unique_ptr<AsyncRequest>> glyphRequests;
 
     std::string glyphURL;
     std::shared_ptr<FontFaces> fontFaces;
@@ -6,6 +6,8 @@
 #include <mbgl/util/tile_cover.hpp>
 #include <mbgl/util/tile_cover_impl.hpp>
 
+#include <algorithm>
+#include <cmath>
 #include <functional>
 #include <list>
 
@@ -368,6 +370,47 @@ uint64_t tileCount(const Geometry<double>& geometry, uint8_t z) {
     return tileCount;
 }
 
+std::vector<uint64_t> estimateTileCounts(const Geometry<double>& geometry, const Range<uint8_t>& zoomRange) {
+    // Levels with at most this many tiles are cheap enough to cover.
+    constexpr double maximumCoveredCount = 1 << 14;
+
+    std::vector<double> counts;
+    for (uint8_t z = 0; z <= zoomRange.max; z++) {
+        if (counts.size() >= 3 && counts.back() > maximumCoveredCount) {
+            break;
+        }
+        counts.push_back(static_cast<double>(tileCount(geometry, z)));
+    }
+
+    // Tiles in the interior of an area quadruple with each level, tiles along lines
+    // double and tiles around points stay, so the counts are fitted to
+    // a * 4^k + b * 2^k + c over the last three covered levels.
+    const size_t covered = counts.size();
+    if (covered >= 3 && covered <= zoomRange.max) {
+        const double n1 = counts[covered - 3];
+        const double n2 = counts[covered - 2];
+        const double n3 = counts[covered - 1];
+        const double a = ((n3 - n2) - 2 * (n2 - n1)) / 6;
+        const double b = (n2 - n1) - 3 * a;
+        const double c = n1 - a - b;
+
+        for (size_t z = covered; z <= zoomRange.max; z++) {
+            const double k = static_cast<double>(z - (covered - 3));
+            const double levels = static_cast<double>(z - (covered - 1));
+            const double estimate = a * std::pow(4.0, k) + b * std::pow(2.0, k) + c;
+            // A tile has at most four children, and the level can't have more tiles than the world.
+            const double maximum = std::min(n3 * std::pow(4.0, levels), std::pow(4.0, static_cast<double>(z)));
+            counts.push_back(std::round(std::clamp(estimate, std::min(n3, maximum), maximum)));
+        }
+    }
+
+    std::vector<uint64_t> result;
+    for (size_t z = zoomRange.min; z < counts.size() && z <= zoomRange.max; z++) {
+        result.push_back(static_cast<uint64_t>(counts[z]));
+    }
+    return result;
+}
+
 TileCover::TileCover(const LatLngBounds& bounds_, uint8_t z) {
     LatLngBounds bounds = LatLngBounds::hull({std::max(bounds_.south(), -util::LATITUDE_MAX), bounds_.west()},
                                              {std::min(bounds_.north(), util::LATITUDE_MAX), bounds_.east()});
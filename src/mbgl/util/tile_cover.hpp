@@ -54,5 +54,10 @@ std::vector<UnwrappedTileID> tileCover(const Geometry<double>&, uint8_t z);
 uint64_t tileCount(const LatLngBounds&, uint8_t z) noexcept;
 uint64_t tileCount(const Geometry<double>&, uint8_t z);
 
+// Estimate the count of tiles needed for tileCover at each zoom level of the range,
+// without covering the levels with many tiles. Levels are covered from zoom 0 until
+// they have many tiles, and the counts of the levels above are extrapolated.
+std::vector<uint64_t> estimateTileCounts(const Geometry<double>&, const Range<uint8_t>& zoomRange);
+
 } // namespace util
 } // namespace mbgl
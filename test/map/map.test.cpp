@@ -43,6 +43,7 @@
 #include <mbgl/util/logging.hpp>
 #include <mbgl/util/run_loop.hpp>
 
+#include <array>
 #include <atomic>
 
 using namespace mbgl;
@@ -1184,6 +1185,60 @@ TEST(Map, NoHangOnMissingImage) {
     test.frontend.render(test.map);
 }
 
+TEST(Map, MissingImageAddedLater) {
+    MapTest<> test;
+
+    test.map.getStyle().loadJSON(R"STYLE({
+      "version": 8,
+      "sources": {
+        "point": {
+          "type": "geojson",
+          "data": { "type": "Point", "coordinates": [0, 0] }
+        }
+      },
+      "layers": [{
+        "id": "background",
+        "type": "background",
+        "paint": { "background-color": "white" }
+      }, {
+        "id": "icon",
+        "type": "symbol",
+        "source": "point",
+        "layout": { "icon-image": "late", "icon-allow-overlap": true }
+      }]
+    })STYLE");
+
+    std::vector<std::string> missing;
+    test.observer.onStyleImageMissingCallback = [&](const std::string& id) {
+        missing.push_back(id);
+    };
+
+    const auto centerPixel = [](const PremultipliedImage& image) {
+        const std::size_t offset = ((image.size.height / 2) * image.size.width + image.size.width / 2) * 4;
+        return std::array<uint8_t, 4>{
+            {image.data[offset], image.data[offset + 1], image.data[offset + 2], image.data[offset + 3]}};
+    };
+
+    // The image is not provided from the callback, the tile is laid out without it.
+    EXPECT_EQ((std::array<uint8_t, 4>{{255, 255, 255, 255}}), centerPixel(test.frontend.render(test.map).image));
+    ASSERT_EQ(std::vector<std::string>{"late"}, missing);
+
+    PremultipliedImage red({8, 8});
+    for (std::size_t i = 0; i < red.bytes(); i += 4) {
+        red.data[i] = 255;
+        red.data[i + 1] = 0;
+        red.data[i + 2] = 0;
+        red.data[i + 3] = 255;
+    }
+    test.map.getStyle().addImage(std::make_unique<style::Image>("late", std::move(red), 1.0f));
+
+    // Adding the image afterwards lays the tile out again.
+    const auto pixel = centerPixel(test.frontend.render(test.map).image);
+    EXPECT_GT(pixel[0], 200);
+    EXPECT_LT(pixel[1], 50);
+    EXPECT_LT(pixel[2], 50);
+}
+
 TEST(Map, PrefetchDeltaOverride) {
     MapTest<> test{1, MapMode::Continuous};
 
@@ -255,6 +255,42 @@ TEST(ImageManager, OnStyleImageMissingAfterSpriteLoaded) {
     ASSERT_TRUE(notified);
 }
 
+TEST(ImageManager, AddImageAfterMissingImageNotification) {
+    util::RunLoop runLoop;
+    auto imageManagerPtr = std::make_shared<ImageManager>();
+    auto& imageManager = *imageManagerPtr;
+    StubImageRequestor requestor(imageManagerPtr);
+    StubImageManagerObserver observer;
+
+    imageManager.setObserver(&observer);
+    imageManager.setLoaded(true);
+
+    ImageDependencies dependencies;
+    dependencies.emplace("sync", ImageType::Icon);
+    dependencies.emplace("async", ImageType::Icon);
+    imageManager.getImages(requestor, std::make_pair(dependencies, 0ull));
+    runLoop.runOnce();
+    EXPECT_EQ(observer.count, 2);
+
+    // Images provided before the requestor is notified don't need a relayout.
+    EXPECT_FALSE(imageManager.addImage(makeMutable<style::Image::Impl>("sync", PremultipliedImage({16, 16}), 1.0f)));
+
+    bool notified = false;
+    requestor.imagesAvailable = [&](ImageMap icons, ImageMap, ImageVersionMap) {
+        notified = true;
+        EXPECT_TRUE(icons.contains("sync"));
+        EXPECT_FALSE(icons.contains("async"));
+    };
+    imageManager.notifyIfMissingImageAdded();
+    ASSERT_TRUE(notified);
+
+    // The requestor was laid out without this one.
+    EXPECT_TRUE(imageManager.addImage(makeMutable<style::Image::Impl>("async", PremultipliedImage({16, 16}), 1.0f)));
+
+    // Images nobody asked for don't need a relayout either.
+    EXPECT_FALSE(imageManager.addImage(makeMutable<style::Image::Impl>("other", PremultipliedImage({16, 16}), 1.0f)));
+}
+
 TEST(ImageManager, RemoveUnusedStyleImages) {
     util::RunLoop runLoop;
     auto imageManagerPtr = std::make_shared<ImageManager>();
@@ -94,6 +94,12 @@ public:
         }
     }
 
+    void onStyleImageMissing(const std::string& id) final {
+        if (onStyleImageMissingCallback) {
+            onStyleImageMissingCallback(id);
+        }
+    }
+
     std::function<void()> willStartLoadingMapCallback;
     std::function<void()> didFinishLoadingMapCallback;
     std::function<void()> didFailLoadingMapCallback;
@@ -108,6 +114,7 @@ public:
     std::function<void(const FontStack&, const GlyphRange&, std::exception_ptr)> onGlyphsErrorCallback;
     std::function<void(const FontStack&, const GlyphRange&)> onGlyphsRequestedCallback;
     std::function<void(TileOperation, const OverscaledTileID&, const std::string&)> onTileActionCallback;
+    std::function<void(const std::string&)> onStyleImageMissingCallback;
 };
 
 } // namespace mbgl
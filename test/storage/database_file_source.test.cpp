@@ -1,12 +1,16 @@
+#include <mbgl/storage/database_file_source.hpp>
 #include <mbgl/storage/file_source_manager.hpp>
 #include <mbgl/storage/resource.hpp>
 #include <mbgl/storage/resource_options.hpp>
 #include <mbgl/test/util.hpp>
+#include <mbgl/util/io.hpp>
 #include <mbgl/util/run_loop.hpp>
 #include <mbgl/util/timer.hpp>
 
 #include <gtest/gtest.h>
 
+#include <future>
+
 using namespace mbgl;
 
 TEST(DatabaseFileSource, PauseResume) {
@@ -55,3 +59,188 @@ TEST(DatabaseFileSource, VolatileResource) {
     });
     loop.run();
 }
+
+TEST(DatabaseFileSource, WriteBehind) {
+    util::RunLoop loop;
+
+    auto dbfs = std::static_pointer_cast<DatabaseFileSource>(std::shared_ptr<FileSource>(
+        FileSourceManager::get()->getFileSource(FileSourceType::Database, ResourceOptions{})));
+
+    const Resource resource{
+        Resource::Unknown, "http://127.0.0.1:3000/write-behind", {}, Resource::LoadingMethod::CacheOnly};
+    Response response{};
+    response.data = std::make_shared<std::string>("First value");
+    dbfs->forward(resource, response, nullptr);
+    response.data = std::make_shared<std::string>("Second value");
+    dbfs->forward(resource, response, nullptr);
+
+    std::unique_ptr<mbgl::AsyncRequest> req;
+    req = dbfs->request(resource, [&](Response res1) {
+        // Repeated writes of the same URL are buffered once, and served before they are stored.
+        EXPECT_EQ(1u, dbfs->getAmbientCacheWriteQueueDepth());
+        EXPECT_EQ(nullptr, res1.error);
+        ASSERT_TRUE(res1.data.get());
+        EXPECT_EQ("Second value", *res1.data);
+
+        dbfs->reduceMemoryUse();
+        req = dbfs->request(resource, [&](Response res2) {
+            req.reset();
+            EXPECT_EQ(0u, dbfs->getAmbientCacheWriteQueueDepth());
+            ASSERT_TRUE(res2.error.get());
+            EXPECT_EQ(Response::Error::Reason::NotFound, res2.error->reason);
+            loop.stop();
+        });
+    });
+    loop.run();
+}
+
+TEST(DatabaseFileSource, TEST_REQUIRES_WRITE(WriteBehindWithReadConnection)) {
+    util::RunLoop loop;
+
+    const std::string path = "test/fixtures/offline_database/write_behind.db";
+    util::deleteFile(path);
+    util::deleteFile(path + "-wal");
+    util::deleteFile(path + "-shm");
+
+    auto dbfs = std::static_pointer_cast<DatabaseFileSource>(std::shared_ptr<FileSource>(
+        FileSourceManager::get()->getFileSource(FileSourceType::Database, ResourceOptions().withCachePath(path))));
+
+    // The write-ahead log serves requests from a second connection.
+    std::promise<std::exception_ptr> durability;
+    dbfs->setDatabaseDurability(DatabaseDurability::Normal,
+                                [&](std::exception_ptr error) { durability.set_value(error); });
+    EXPECT_EQ(nullptr, durability.get_future().get());
+
+    const Resource resource{
+        Resource::Unknown, "http://127.0.0.1:3000/write-behind", {}, Resource::LoadingMethod::CacheOnly};
+    Response response{};
+    response.data = std::make_shared<std::string>("Buffered value");
+    dbfs->forward(resource, response, nullptr);
+
+    // Waits until the database thread buffered the write.
+    std::promise<void> buffered;
+    dbfs->listOfflineRegions([&](expected<OfflineRegions, std::exception_ptr>) { buffered.set_value(); });
+    buffered.get_future().get();
+
+    std::unique_ptr<mbgl::AsyncRequest> req;
+    req = dbfs->request(resource, [&](Response res) {
+        req.reset();
+        // Not written to the database yet.
+        EXPECT_EQ(1u, dbfs->getAmbientCacheWriteQueueDepth());
+        EXPECT_EQ(nullptr, res.error);
+        ASSERT_TRUE(res.data.get());
+        EXPECT_EQ("Buffered value", *res.data);
+        loop.stop();
+    });
+    loop.run();
+}
+
+TEST(DatabaseFileSource, MemoryCache) {
+    util::RunLoop loop;
+
+    auto dbfs = std::static_pointer_cast<DatabaseFileSource>(std::shared_ptr<FileSource>(
+        FileSourceManager::get()->getFileSource(FileSourceType::Database, ResourceOptions{})));
+    dbfs->setMaximumMemoryCacheSize(1024 * 1024);
+    const auto initial = dbfs->getMemoryCacheStatistics();
+
+    const Resource resource{
+        Resource::Unknown, "http://127.0.0.1:3000/memory-cache", {}, Resource::LoadingMethod::CacheOnly};
+    Response response{};
+    response.data = std::make_shared<std::string>("Cached value");
+    dbfs->forward(resource, response, nullptr);
+
+    std::unique_ptr<mbgl::AsyncRequest> req;
+    req = dbfs->request(resource, [&](Response res1) {
+        ASSERT_TRUE(res1.data.get());
+        EXPECT_EQ("Cached value", *res1.data);
+        auto statistics = dbfs->getMemoryCacheStatistics();
+        EXPECT_EQ(initial.hitCount + 1, statistics.hitCount);
+        EXPECT_EQ(initial.missCount, statistics.missCount);
+        EXPECT_EQ(initial.resourceCount + 1, statistics.resourceCount);
+
+        dbfs->trimMemoryCache(0);
+        EXPECT_EQ(0u, dbfs->getMemoryCacheStatistics().size);
+
+        req = dbfs->request(resource, [&](Response res2) {
+            req.reset();
+            // Read from the database, and kept in memory again.
+            ASSERT_TRUE(res2.data.get());
+            EXPECT_EQ("Cached value", *res2.data);
+            auto statistics2 = dbfs->getMemoryCacheStatistics();
+            EXPECT_EQ(initial.missCount + 1, statistics2.missCount);
+            EXPECT_EQ(1u, statistics2.resourceCount);
+
+            dbfs->setMaximumMemoryCacheSize(0);
+            EXPECT_EQ(0u, dbfs->getMemoryCacheStatistics().resourceCount);
+            loop.stop();
+        });
+    });
+    loop.run();
+}
+
+TEST(DatabaseFileSource, PutResources) {
+    util::RunLoop loop;
+
+    auto dbfs = std::static_pointer_cast<DatabaseFileSource>(std::shared_ptr<FileSource>(
+        FileSourceManager::get()->getFileSource(FileSourceType::Database, ResourceOptions{})));
+
+    std::list<std::tuple<Resource, Response>> resources;
+    for (unsigned i = 0; i < 100; ++i) {
+        Response response{};
+        response.data = std::make_shared<std::string>("Value " + std::to_string(i));
+        resources.emplace_back(Resource{Resource::Unknown,
+                                        "http://127.0.0.1:3000/bulk/" + std::to_string(i),
+                                        {},
+                                        Resource::LoadingMethod::CacheOnly},
+                               response);
+    }
+
+    std::unique_ptr<mbgl::AsyncRequest> req;
+    dbfs->putResources(std::move(resources), [&](std::size_t inserted) {
+        EXPECT_EQ(100u, inserted);
+        // Called on the database thread.
+        loop.invoke([&] {
+            const Resource resource{
+                Resource::Unknown, "http://127.0.0.1:3000/bulk/42", {}, Resource::LoadingMethod::CacheOnly};
+            req = dbfs->request(resource, [&](Response res) {
+                req.reset();
+                EXPECT_EQ(nullptr, res.error);
+                ASSERT_TRUE(res.data.get());
+                EXPECT_EQ("Value 42", *res.data);
+                EXPECT_EQ(0u, dbfs->getAmbientCacheWriteQueueDepth());
+                loop.stop();
+            });
+        });
+    });
+    loop.run();
+}
+
+TEST(DatabaseFileSource, MemoryCacheDeleteRegion) {
+    util::RunLoop loop;
+
+    auto dbfs = std::static_pointer_cast<DatabaseFileSource>(std::shared_ptr<FileSource>(
+        FileSourceManager::get()->getFileSource(FileSourceType::Database, ResourceOptions{})));
+    dbfs->setMaximumMemoryCacheSize(1024 * 1024);
+
+    const Resource resource{
+        Resource::Unknown, "http://127.0.0.1:3000/memory-cache-region", {}, Resource::LoadingMethod::CacheOnly};
+    Response response{};
+    response.data = std::make_shared<std::string>("Cached value");
+    dbfs->forward(resource, response, nullptr);
+    EXPECT_NE(0u, dbfs->getMemoryCacheStatistics().resourceCount);
+
+    OfflineTilePyramidRegionDefinition definition{"", LatLngBounds::world(), 0, 0, 1.0, false};
+    dbfs->createOfflineRegion(definition, {}, [&](expected<OfflineRegion, std::exception_ptr> region) {
+        ASSERT_TRUE(region);
+        loop.invoke([&, created = *region] {
+            // Deleted resources are no longer served from memory.
+            dbfs->deleteOfflineRegion(created, [&](std::exception_ptr error) {
+                EXPECT_FALSE(error);
+                loop.stop();
+            });
+            EXPECT_EQ(0u, dbfs->getMemoryCacheStatistics().resourceCount);
+        });
+    });
+    loop.run();
+    dbfs->setMaximumMemoryCacheSize(0);
+}
@@ -822,6 +822,47 @@ TEST(OfflineDatabase, TEST_REQUIRES_WRITE(Pack)) {
     EXPECT_EQ(0u, log.uncheckedCount());
 }
 
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(PackIncrementally)) {
+    FixtureLog log;
+    deleteDatabaseFiles();
+
+    OfflineDatabase db(filename, fixture::tileServerOptions);
+    size_t initialSize = util::read_file(filename).size();
+    db.runPackDatabaseAutomatically(false);
+
+    Response response;
+    response.data = randomString(512 * 1024);
+
+    for (unsigned i = 0; i < 50; ++i) {
+        const Resource tile = Resource::tile(
+            "maptiler://tiles/tiles/tile_" + std::to_string(i), 1, 0, 0, 0, Tileset::Scheme::XYZ);
+        db.put(tile, response);
+    }
+    size_t populatedSize = util::read_file(filename).size();
+    ASSERT_GT(populatedSize, initialSize);
+
+    db.clearAmbientCache();
+    auto freeSize = db.packIncrementally(0);
+    ASSERT_TRUE(freeSize);
+    EXPECT_GT(*freeSize, 0u);
+    EXPECT_EQ(populatedSize, util::read_file(filename).size());
+
+    // Each step returns a bounded number of pages to the file system.
+    unsigned steps = 0;
+    while (*freeSize > 0) {
+        auto remainingSize = db.packIncrementally(256);
+        ASSERT_TRUE(remainingSize);
+        ASSERT_LT(*remainingSize, *freeSize);
+        freeSize = remainingSize;
+        steps++;
+    }
+    EXPECT_GT(steps, 1u);
+#ifndef __QT__ // Qt doesn't decrease the size of the database file.
+    EXPECT_EQ(initialSize, util::read_file(filename).size());
+#endif
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
+
 TEST(OfflineDatabase, MapboxTileLimitExceeded) {
     FixtureLog log;
 
@@ -1228,6 +1269,36 @@ TEST(OfflineDatabase, PutFailsWhenEvictionInsuffices) {
     EXPECT_EQ(0u, log.uncheckedCount());
 }
 
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(PutAmbientResourcesSkipsFailedResource)) {
+    FixtureLog log;
+    deleteDatabaseFiles();
+
+    OfflineDatabase db(filename, fixture::tileServerOptions);
+    {
+        mapbox::sqlite::Database other = mapbox::sqlite::Database::open(filename, mapbox::sqlite::ReadWriteCreate);
+        other.exec(
+            "CREATE TRIGGER reject_resource BEFORE INSERT ON resources "
+            "WHEN NEW.url = 'http://example.com/rejected' BEGIN SELECT RAISE(ABORT, 'rejected'); END");
+    }
+
+    Response response;
+    response.data = std::make_shared<std::string>("data");
+    std::list<std::tuple<Resource, Response>> resources{
+        {Resource::style("http://example.com/first"), response},
+        {Resource::style("http://example.com/rejected"), response},
+        {Resource::style("http://example.com/second"), response},
+    };
+
+    EXPECT_EQ(2u, db.putAmbientResources(resources));
+    EXPECT_EQ(1u, log.count(warning(ResultCode::Constraint, "Can't write resource: rejected")));
+
+    EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/first"))));
+    EXPECT_FALSE(bool(db.get(Resource::style("http://example.com/rejected"))));
+    EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/second"))));
+
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
+
 TEST(OfflineDatabase, GetRegionCompletedStatus) {
     FixtureLog log;
     OfflineDatabase db(":memory:", fixture::tileServerOptions);
@@ -1581,6 +1652,31 @@ TEST(OfflineDatabase, IncrementalVacuum) {
     EXPECT_EQ(0u, log.uncheckedCount());
 }
 
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(PackIncrementallyRequiresIncrementalVacuum)) {
+    FixtureLog log;
+    deleteDatabaseFiles();
+    util::copyFile(filename, "test/fixtures/offline_database/no_auto_vacuum.db");
+
+    {
+        OfflineDatabase db(filename, fixture::tileServerOptions);
+
+        EXPECT_FALSE(db.packIncrementally(256));
+        EXPECT_EQ(1u,
+                  log.count({EventSeverity::Error,
+                             Event::Database,
+                             -1,
+                             "Can't pack storage incrementally: incremental vacuum is not enabled"}));
+        EXPECT_EQ(0, databaseAutoVacuum(filename));
+
+        EXPECT_FALSE(db.enableIncrementalVacuum());
+        EXPECT_TRUE(db.packIncrementally(256));
+    }
+
+    EXPECT_EQ(2, databaseAutoVacuum(filename));
+
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
+
 TEST(OfflineDatabase, DowngradeSchema) {
     // v999.db is a v999 database, it should be deleted
     // and recreated with the current schema.
@@ -2070,3 +2166,115 @@ TEST(OfflineDatabase, TEST_REQUIRES_WRITE(UpdateDatabaseReadOnlyMode)) {
 
     EXPECT_EQ(0u, log.uncheckedCount());
 }
+
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(DurabilityNormal)) {
+    FixtureLog log;
+    deleteDatabaseFiles();
+
+    {
+        OfflineDatabase db(filename, fixture::tileServerOptions);
+        EXPECT_EQ(nullptr, db.setDurability(DatabaseDurability::Normal));
+        EXPECT_EQ("wal", databaseJournalMode(filename));
+
+        Response response;
+        response.data = std::make_shared<std::string>("first");
+        EXPECT_TRUE(db.put(fixture::resource, response).first);
+
+        // Reads through a second connection don't wait for the writer.
+        OfflineDatabase reader(filename, fixture::tileServerOptions, true /*readOnly*/);
+        EXPECT_EQ("first", *reader.get(fixture::resource)->data);
+
+        response.data = std::make_shared<std::string>("second");
+        db.put(fixture::resource, response);
+        db.checkpoint();
+        EXPECT_EQ("second", *reader.get(fixture::resource)->data);
+    }
+
+    {
+        // Opening the database applies the durability of the connection, which defaults to full.
+        OfflineDatabase db(filename, fixture::tileServerOptions);
+        EXPECT_EQ("delete", databaseJournalMode(filename));
+        EXPECT_EQ("second", *db.get(fixture::resource)->data);
+    }
+
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
+
+TEST(OfflineDatabase, TilesetCheckpoint) {
+    FixtureLog log;
+    OfflineDatabase db(":memory:", fixture::tileServerOptions);
+    auto region = db.createRegion(
+        OfflineTilePyramidRegionDefinition("", LatLngBounds::world(), 0, 4, 1.0, false), {});
+    ASSERT_TRUE(region);
+    const std::string urlTemplate = "http://example.com/{z}/{x}/{y}.pbf";
+
+    EXPECT_FALSE(db.getTilesetCheckpoint(region->getID(), urlTemplate));
+
+    OfflineTilesetCheckpoint checkpoint;
+    checkpoint.minZoom = 0;
+    checkpoint.maxZoom = 4;
+    checkpoint.tileCount = 100;
+    checkpoint.missingTileCount = 3;
+    checkpoint.tileSize = 12345;
+    db.putTilesetCheckpoint(region->getID(), urlTemplate, checkpoint);
+
+    checkpoint.tileCount = 200;
+    db.putTilesetCheckpoint(region->getID(), urlTemplate, checkpoint);
+
+    auto stored = db.getTilesetCheckpoint(region->getID(), urlTemplate);
+    ASSERT_TRUE(stored);
+    EXPECT_EQ(0, stored->minZoom);
+    EXPECT_EQ(4, stored->maxZoom);
+    EXPECT_EQ(200u, stored->tileCount);
+    EXPECT_EQ(3u, stored->missingTileCount);
+    EXPECT_EQ(12345u, stored->tileSize);
+
+    // Invalidated tiles must be checked again.
+    EXPECT_EQ(nullptr, db.invalidateRegion(region->getID()));
+    EXPECT_FALSE(db.getTilesetCheckpoint(region->getID(), urlTemplate));
+
+    // Checkpoints are deleted along with their region.
+    db.putTilesetCheckpoint(region->getID(), urlTemplate, checkpoint);
+    const int64_t regionID = region->getID();
+    EXPECT_EQ(nullptr, db.deleteRegion(std::move(*region)));
+    EXPECT_FALSE(db.getTilesetCheckpoint(regionID, urlTemplate));
+
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
+
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(ExportRegion)) {
+    FixtureLog log;
+    const std::string archivePath = "test/fixtures/offline_database/export.mbtiles";
+    OfflineDatabase db(":memory:", fixture::tileServerOptions);
+    auto region = db.createRegion(
+        OfflineTilePyramidRegionDefinition("", LatLngBounds::hull({1, 2}, {3, 4}), 0, 2, 1.0, false), {});
+    ASSERT_TRUE(region);
+    const std::string urlTemplate = "http://example.com/{z}/{x}/{y}.pbf";
+
+    Response response;
+    response.data = std::make_shared<std::string>("tile");
+    db.putRegionResource(region->getID(), Resource::tile(urlTemplate, 1.0, 1, 0, 2, Tileset::Scheme::XYZ), response);
+
+    EXPECT_EQ(nullptr, db.exportRegion(region->getID(), "", archivePath));
+
+    {
+        mapbox::sqlite::Database archive = mapbox::sqlite::Database::open(archivePath, mapbox::sqlite::ReadOnly);
+        mapbox::sqlite::Statement stmt{archive, "SELECT zoom_level, tile_column, tile_row, tile_data FROM tiles"};
+        mapbox::sqlite::Query query{stmt};
+        ASSERT_TRUE(query.run());
+        EXPECT_EQ(2, query.get<int64_t>(0));
+        EXPECT_EQ(1, query.get<int64_t>(1));
+        // MBTiles rows count from the bottom.
+        EXPECT_EQ(3, query.get<int64_t>(2));
+        EXPECT_EQ("tile", query.get<std::string>(3));
+        EXPECT_FALSE(query.run());
+
+        mapbox::sqlite::Statement metadata{archive, "SELECT value FROM metadata WHERE name = 'format'"};
+        mapbox::sqlite::Query metadataQuery{metadata};
+        ASSERT_TRUE(metadataQuery.run());
+        EXPECT_EQ("pbf", metadataQuery.get<std::string>(0));
+    }
+
+    util::deleteFile(archivePath);
+    EXPECT_EQ(0u, log.uncheckedCount());
+}
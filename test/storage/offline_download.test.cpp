@@ -1160,3 +1160,207 @@ TEST(OfflineDownload, NoFreezingOnNotFoundError) {
     test.loop.run();
     // Passes if does not freeze.
 }
+
+TEST(OfflineDownload, MaximumConcurrentRequests) {
+    OfflineTest test;
+    FakeOnlineFileSource fileSource;
+    auto region = test.createRegion();
+    ASSERT_TRUE(region);
+    OfflineDownload download(region->getID(),
+                             OfflineTilePyramidRegionDefinition(
+                                 "http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0, true),
+                             test.db,
+                             fileSource);
+
+    download.setObserver(std::make_unique<MockObserver>());
+    download.setMaximumConcurrentRequests(2);
+    download.setState(OfflineRegionDownloadState::Active);
+    test.loop.runOnce();
+
+    fileSource.respond(Resource::Kind::Style, test.response("style.json"));
+    test.loop.runOnce();
+
+    EXPECT_EQ(2u, fileSource.requests.size());
+}
+
+TEST(OfflineDownload, ResumeFromCheckpoint) {
+    OfflineTest test;
+    auto region = test.createRegion();
+    ASSERT_TRUE(region);
+    OfflineDownload download(region->getID(),
+                             OfflineTilePyramidRegionDefinition(
+                                 "http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0, false),
+                             test.db,
+                             test.fileSource);
+
+    // An earlier download stored the only tile of the region.
+    OfflineTilesetCheckpoint checkpoint;
+    checkpoint.tileCount = 1;
+    checkpoint.tileSize = 1000;
+    test.db.putTilesetCheckpoint(region->getID(), "http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", checkpoint);
+
+    test.fileSource.styleResponse = [&](const Resource& resource) {
+        EXPECT_EQ("http://127.0.0.1:3000/style.json", resource.url);
+        return test.response("inline_source.style.json");
+    };
+
+    test.fileSource.tileResponse = [&](const Resource&) {
+        ADD_FAILURE() << "Tiles before the checkpoint must not be requested";
+        return Response();
+    };
+
+    auto observer = std::make_unique<MockObserver>();
+    observer->statusChangedFn = [&](OfflineRegionStatus status) {
+        if (status.complete() && status.downloadState == OfflineRegionDownloadState::Active) {
+            EXPECT_EQ(2u, status.completedResourceCount);
+            EXPECT_EQ(1u, status.completedTileCount);
+            EXPECT_EQ(1000u, status.completedTileSize);
+            EXPECT_EQ(test.size + 1000u, status.completedResourceSize);
+            // Only the style was downloaded.
+            EXPECT_LT(0.0, status.downloadedBytesPerSecond);
+            EXPECT_EQ(0.0, status.downloadedTilesPerSecond);
+            test.loop.stop();
+        }
+    };
+
+    download.setObserver(std::move(observer));
+    download.setState(OfflineRegionDownloadState::Active);
+
+    test.loop.run();
+
+    // The checkpoints are removed once the download completes.
+    EXPECT_FALSE(test.db.getTilesetCheckpoint(region->getID(), "http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf"));
+}
+
+TEST(OfflineDownload, Refresh) {
+    OfflineTest test;
+    auto region = test.createRegion();
+    ASSERT_TRUE(region);
+    OfflineDownload download(region->getID(),
+                             OfflineTilePyramidRegionDefinition(
+                                 "http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0, false),
+                             test.db,
+                             test.fileSource);
+
+    Response tile = test.response("0-0-0.vector.pbf");
+    tile.etag = "v1"s;
+    const std::size_t tileSize = test.size;
+    test.db.put(Resource::tile("http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1, 0, 0, 0, Tileset::Scheme::XYZ),
+                tile);
+
+    test.fileSource.styleResponse = [&](const Resource& resource) {
+        EXPECT_EQ("http://127.0.0.1:3000/style.json", resource.url);
+        return test.response("inline_source.style.json");
+    };
+
+    // The stored tile has no expiration, the refresh checks it again.
+    test.fileSource.tileResponse = [&](const Resource& resource) {
+        EXPECT_EQ("v1", resource.priorEtag.value_or(""));
+        Response response;
+        response.notModified = true;
+        return response;
+    };
+
+    auto observer = std::make_unique<MockObserver>();
+    observer->statusChangedFn = [&](OfflineRegionStatus status) {
+        if (status.complete() && status.downloadState == OfflineRegionDownloadState::Active) {
+            EXPECT_EQ(2u, status.completedResourceCount);
+            EXPECT_EQ(1u, status.completedTileCount);
+            EXPECT_EQ(tileSize, status.completedTileSize);
+            EXPECT_EQ(1u, status.unchangedResourceCount);
+            EXPECT_EQ(tileSize, status.unchangedResourceSize);
+            test.loop.stop();
+        }
+    };
+
+    download.setObserver(std::move(observer));
+    download.refresh();
+
+    test.loop.run();
+
+    EXPECT_TRUE(test.db.get(Resource::tile(
+        "http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1, 0, 0, 0, Tileset::Scheme::XYZ)));
+}
+
+TEST(OfflineDownload, ResumeRefresh) {
+    OfflineTest test;
+    auto region = test.createRegion();
+    ASSERT_TRUE(region);
+    OfflineDownload download(region->getID(),
+                             OfflineTilePyramidRegionDefinition(
+                                 "http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0, false),
+                             test.db,
+                             test.fileSource);
+
+    Response tile = test.response("0-0-0.vector.pbf");
+    tile.etag = "v1"s;
+    test.db.put(Resource::tile("http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1, 0, 0, 0, Tileset::Scheme::XYZ),
+                tile);
+
+    // A refresh was started before a restart.
+    test.db.setRegionRefreshing(region->getID(), true);
+
+    test.fileSource.styleResponse = [&](const Resource&) {
+        return test.response("inline_source.style.json");
+    };
+
+    // Resuming as a plain download wouldn't request the stored tile.
+    unsigned tileRequests = 0;
+    test.fileSource.tileResponse = [&](const Resource& resource) {
+        tileRequests++;
+        EXPECT_EQ("v1", resource.priorEtag.value_or(""));
+        Response response;
+        response.notModified = true;
+        return response;
+    };
+
+    auto observer = std::make_unique<MockObserver>();
+    observer->statusChangedFn = [&](OfflineRegionStatus status) {
+        if (status.complete() && status.downloadState == OfflineRegionDownloadState::Inactive) {
+            EXPECT_EQ(1u, status.unchangedResourceCount);
+            test.loop.stop();
+        }
+    };
+
+    download.setObserver(std::move(observer));
+    download.setState(OfflineRegionDownloadState::Active);
+
+    test.loop.run();
+
+    EXPECT_EQ(1u, tileRequests);
+    // A completed refresh isn't resumed anymore.
+    EXPECT_FALSE(test.db.isRegionRefreshing(region->getID()));
+}
+
+TEST(OfflineDownload, Estimate) {
+    OfflineTest test;
+    OfflineTilePyramidRegionDefinition definition(
+        "http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 2.0, 1.0, true);
+
+    // Nothing is known about the region without a stored style.
+    OfflineRegionEstimate estimate = OfflineDownload::estimate(definition, test.db);
+    EXPECT_EQ(0u, estimate.tileCount);
+    EXPECT_FALSE(estimate.includesAllSources);
+
+    test.db.put(Resource::style("http://127.0.0.1:3000/style.json"), test.response("style.json"));
+    estimate = OfflineDownload::estimate(definition, test.db);
+    EXPECT_EQ(0u, estimate.tileCount);
+    EXPECT_FALSE(estimate.includesAllSources);
+
+    test.db.put(Resource::source("http://127.0.0.1:3000/streets.json"), test.response("streets.json"));
+    estimate = OfflineDownload::estimate(definition, test.db);
+    EXPECT_EQ(21u, estimate.tileCount);
+    EXPECT_EQ(0u, estimate.tileSize);
+    EXPECT_EQ(21u, estimate.unsizedTileCount);
+    EXPECT_TRUE(estimate.includesAllSources);
+
+    const uint64_t tileSize = test.db
+                                  .put(Resource::tile(
+                                           "http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1, 0, 0, 0, Tileset::Scheme::XYZ),
+                                       test.response("0-0-0.vector.pbf"))
+                                  .second;
+    estimate = OfflineDownload::estimate(definition, test.db);
+    EXPECT_EQ(21u, estimate.tileCount);
+    EXPECT_EQ(21 * tileSize, estimate.tileSize);
+    EXPECT_EQ(0u, estimate.unsizedTileCount);
+}
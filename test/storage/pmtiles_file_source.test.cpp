@@ -2,6 +2,7 @@
 #include <mbgl/storage/resource.hpp>
 #include <mbgl/storage/resource_options.hpp>
 #include <mbgl/util/platform.hpp>
+#include <mbgl/test/util.hpp>
 #include <mbgl/util/run_loop.hpp>
 
 #include <filesystem>
@@ -103,3 +104,101 @@ TEST(PMTilesFileSource, NonExistentTile) {
 
     loop.run();
 }
+
+// Directories read by one file source are used by the others
+TEST(PMTilesFileSource, SharedDirectoryCache) {
+    util::RunLoop loop;
+
+    PMTilesFileSource pmtiles1(ResourceOptions::Default(), ClientOptions());
+    PMTilesFileSource pmtiles2(ResourceOptions::Default(), ClientOptions());
+    const auto tile = Resource::tile(toAbsoluteURL("geography-class-png.pmtiles"), 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+    const auto before = PMTilesFileSource::getDirectoryCacheStatistics();
+
+    std::unique_ptr<AsyncRequest> req1;
+    std::unique_ptr<AsyncRequest> req2;
+    req1 = pmtiles1.request(tile, [&](Response res1) {
+        req1.reset();
+        ASSERT_TRUE(res1.data.get());
+        req2 = pmtiles2.request(tile, [&](Response res2) {
+            req2.reset();
+            ASSERT_TRUE(res2.data.get());
+            EXPECT_EQ(*res1.data, *res2.data);
+            loop.stop();
+        });
+    });
+
+    loop.run();
+
+    const auto after = PMTilesFileSource::getDirectoryCacheStatistics();
+    EXPECT_GT(after.hitCount, before.hitCount);
+    EXPECT_LT(0u, after.directoryCount);
+    EXPECT_LT(0u, after.size);
+}
+
+// A local archive that changes on disk isn't read through its previous mapping
+TEST(PMTilesFileSource, TEST_REQUIRES_WRITE(TruncatedArchive)) {
+    util::RunLoop loop;
+
+    const auto fixtures = std::filesystem::current_path() / "test/fixtures/storage/pmtiles";
+    const auto path = fixtures / "truncated.pmtiles";
+    std::filesystem::copy_file(
+        fixtures / "geography-class-png.pmtiles", path, std::filesystem::copy_options::overwrite_existing);
+
+    PMTilesFileSource pmtiles(ResourceOptions::Default(), ClientOptions());
+    const auto tile = Resource::tile(toAbsoluteURL("truncated.pmtiles"), 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+
+    std::unique_ptr<AsyncRequest> req;
+    req = pmtiles.request(tile, [&](Response res1) {
+        req.reset();
+        ASSERT_TRUE(res1.data.get());
+
+        // Reading the previous mapping beyond the new end of the file would raise SIGBUS.
+        std::filesystem::resize_file(path, 1024);
+        req = pmtiles.request(tile, [&](Response res2) {
+            req.reset();
+            EXPECT_TRUE(res2.error || !res2.data);
+            loop.stop();
+        });
+    });
+
+    loop.run();
+    std::filesystem::remove(path);
+}
+
+// The header and directories of a local archive that changes on disk are read again
+TEST(PMTilesFileSource, TEST_REQUIRES_WRITE(ChangedArchiveEvictsCaches)) {
+    util::RunLoop loop;
+
+    const auto fixtures = std::filesystem::current_path() / "test/fixtures/storage/pmtiles";
+    const auto path = fixtures / "changed.pmtiles";
+    std::filesystem::copy_file(
+        fixtures / "geography-class-png.pmtiles", path, std::filesystem::copy_options::overwrite_existing);
+
+    PMTilesFileSource pmtiles(ResourceOptions::Default(), ClientOptions());
+    const auto tile = Resource::tile(toAbsoluteURL("changed.pmtiles"), 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+
+    DirectoryCacheStatistics before;
+    std::unique_ptr<AsyncRequest> req;
+    req = pmtiles.request(tile, [&](Response res1) {
+        req.reset();
+        ASSERT_TRUE(res1.data.get());
+
+        // Growing the file changes its size, so it is mapped again.
+        std::filesystem::resize_file(path, std::filesystem::file_size(path) + 1024);
+        before = PMTilesFileSource::getDirectoryCacheStatistics();
+        req = pmtiles.request(tile, [&](Response res2) {
+            req.reset();
+            ASSERT_TRUE(res2.data.get());
+            EXPECT_EQ(*res1.data, *res2.data);
+            loop.stop();
+        });
+    });
+
+    loop.run();
+    std::filesystem::remove(path);
+
+    // The root directory of the previous file was evicted instead of being reused.
+    const auto after = PMTilesFileSource::getDirectoryCacheStatistics();
+    EXPECT_EQ(before.hitCount, after.hitCount);
+    EXPECT_LT(before.missCount, after.missCount);
+}
@@ -4,6 +4,7 @@
 #include <mbgl/test/fixture_log_observer.hpp>
 
 #include <mbgl/style/style_impl.hpp>
+#include <mbgl/style/image_impl.hpp>
 #include <mbgl/style/source_impl.hpp>
 #include <mbgl/style/sources/vector_source.hpp>
 #include <mbgl/style/layer.hpp>
@@ -212,3 +213,74 @@ TEST(Style, AddRemoveRemoveImage) {
     EXPECT_FALSE(!!style.getImage("two"));
     EXPECT_FALSE(!!style.getImage("four"));
 }
+
+TEST(Style, LoadJSONWithDiffKeepsUnchangedSourcesAndLayers) {
+    util::RunLoop loop;
+    auto fileSource = std::make_shared<StubFileSource>();
+    Style::Impl style{fileSource, 1.0, {Scheduler::GetBackground(), {}}};
+
+    style.loadJSON(R"STYLE({
+        "version": 8,
+        "sources": {
+            "a": { "type": "vector", "tiles": ["mptiler://tiles/a/{z}/{x}/{y}.pbf"] },
+            "b": { "type": "vector", "tiles": ["mptiler://tiles/b/{z}/{x}/{y}.pbf"] }
+        },
+        "layers": [
+            { "id": "roads", "type": "line", "source": "a", "source-layer": "roads" },
+            { "id": "water", "type": "line", "source": "b", "source-layer": "water" }
+        ]
+    })STYLE");
+    style.addImage(std::make_unique<style::Image>("runtime", PremultipliedImage({16, 16}), 2.0f));
+
+    const Source* sourceA = style.getSource("a");
+    const Layer* roads = style.getLayer("roads");
+
+    style.loadJSON(R"STYLE({
+        "version": 8,
+        "sources": {
+            "a": { "type": "vector", "tiles": ["mptiler://tiles/a/{z}/{x}/{y}.pbf"] },
+            "b": { "type": "vector", "tiles": ["mptiler://tiles/c/{z}/{x}/{y}.pbf"] }
+        },
+        "layers": [
+            { "id": "water", "type": "line", "source": "b", "source-layer": "water",
+              "paint": { "line-color": "blue" } },
+            { "id": "roads", "type": "line", "source": "a", "source-layer": "roads" }
+        ]
+    })STYLE",
+                   true);
+
+    EXPECT_EQ(sourceA, style.getSource("a"));
+    ASSERT_NE(nullptr, style.getSource("b"));
+    EXPECT_EQ(roads, style.getLayer("roads"));
+    ASSERT_NE(nullptr, style.getLayer("water"));
+    EXPECT_TRUE(!!style.getImage("runtime"));
+
+    auto layers = style.getLayers();
+    ASSERT_EQ(2u, layers.size());
+    EXPECT_EQ("water", layers[0]->getID());
+    EXPECT_EQ("roads", layers[1]->getID());
+
+    // Without diffing, everything is replaced.
+    style.loadJSON(style.getJSON());
+    EXPECT_FALSE(!!style.getImage("runtime"));
+}
+
+TEST(Style, AddImages) {
+    util::RunLoop loop;
+    auto fileSource = std::make_shared<StubFileSource>();
+    Style::Impl style{fileSource, 1.0, {Scheduler::GetBackground(), {}}};
+    style.addImage(std::make_unique<style::Image>("two", PremultipliedImage({16, 16}), 2.0f));
+
+    std::vector<std::unique_ptr<style::Image>> batch;
+    batch.push_back(std::make_unique<style::Image>("three", PremultipliedImage({16, 16}), 2.0f));
+    batch.push_back(std::make_unique<style::Image>("one", PremultipliedImage({16, 16}), 2.0f));
+    batch.push_back(std::make_unique<style::Image>("two", PremultipliedImage({8, 8}), 1.0f));
+    style.addImages(std::move(batch));
+
+    const auto& images = *style.getImageImpls();
+    ASSERT_EQ(3u, images.size());
+    EXPECT_EQ("one", images[0]->id);
+    EXPECT_EQ("three", images[1]->id);
+    EXPECT_EQ("two", images[2]->id);
+    EXPECT_EQ(8u, images[2]->image.size.width);
+}
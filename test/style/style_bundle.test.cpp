@@ -0,0 +1,145 @@
+#include <mbgl/test/util.hpp>
+#include <mbgl/test/stub_file_source.hpp>
+
+#include <mbgl/style/observer.hpp>
+#include <mbgl/style/style_bundle.hpp>
+#include <mbgl/style/style_bundle_impl.hpp>
+#include <mbgl/style/style_impl.hpp>
+#include <mbgl/util/io.hpp>
+#include <mbgl/util/run_loop.hpp>
+
+#include <rapidjson/stringbuffer.h>
+#include <rapidjson/writer.h>
+
+#include <memory>
+
+using namespace mbgl;
+using namespace mbgl::style;
+
+namespace {
+
+constexpr const char* styleJSON = R"STYLE({
+    "version": 8,
+    "center": [-73.5, 40],
+    "zoom": 1.5,
+    "sprite": "http://example.com/sprite",
+    "glyphs": "http://example.com/{fontstack}/{range}.pbf",
+    "sources": {
+        "points": { "type": "geojson", "data": { "type": "FeatureCollection", "features": [] } }
+    },
+    "layers": [{
+        "id": "labels",
+        "type": "symbol",
+        "source": "points",
+        "layout": { "text-field": "label", "text-font": ["Open Sans Regular", "Arial Unicode MS Regular"] }
+    }]
+})STYLE";
+
+std::map<std::string, StyleBundle::Sprite> emeraldSprite() {
+    StyleBundle::Sprite sprite;
+    sprite.standard = StyleBundle::SpriteSheet{.json = util::read_file("test/fixtures/annotations/emerald.json"),
+                                               .image = util::read_file("test/fixtures/annotations/emerald.png")};
+    return {{"default", sprite}};
+}
+
+class SpriteObserver : public style::Observer {
+public:
+    void onSpriteLoaded(const std::optional<Sprite>&) override { spriteLoaded = true; }
+
+    bool spriteLoaded = false;
+};
+
+} // namespace
+
+TEST(StyleBundle, RoundTrip) {
+    auto bundle = StyleBundle::read(StyleBundle::create(styleJSON, emeraldSprite(), {0, 256}));
+    ASSERT_TRUE(bundle);
+
+    // The style is stored minified.
+    EXPECT_EQ(std::string::npos, bundle->getStyleJSON().find('\n'));
+    EXPECT_NE(std::string::npos, bundle->getStyleJSON().find(R"("id":"labels")"));
+
+    const FontStack fontStack{"Open Sans Regular", "Arial Unicode MS Regular"};
+    ASSERT_EQ(1u, bundle->getGlyphManifest().size());
+    EXPECT_EQ((std::vector<uint16_t>{0, 256}), bundle->getGlyphManifest().at(fontStack));
+
+    auto sheet = bundle->getSpriteSheet("default", 1.0f);
+    ASSERT_TRUE(sheet);
+    EXPECT_EQ(util::read_file("test/fixtures/annotations/emerald.png"), *sheet->image);
+    // Every lookup shares the data read from the bundle.
+    EXPECT_EQ(sheet->image, bundle->getSpriteSheet("default", 1.0f)->image);
+    EXPECT_FALSE(bundle->getSpriteSheet("default", 2.0f));
+    EXPECT_FALSE(bundle->getSpriteSheet("other", 1.0f));
+}
+
+TEST(StyleBundle, StyleTree) {
+    auto bundle = StyleBundle::read(StyleBundle::create(styleJSON, {}, {}));
+    ASSERT_TRUE(bundle);
+
+    // The decoded style matches the stored JSON, integers and doubles included.
+    rapidjson::StringBuffer buffer;
+    rapidjson::Writer<rapidjson::StringBuffer> writer(buffer);
+    bundle->impl->styleDocument.Accept(writer);
+    EXPECT_EQ(bundle->getStyleJSON(), std::string_view(buffer.GetString(), buffer.GetSize()));
+    EXPECT_TRUE(bundle->impl->styleDocument["version"].IsInt());
+    EXPECT_TRUE(bundle->impl->styleDocument["zoom"].IsDouble());
+}
+
+TEST(StyleBundle, InvalidData) {
+    EXPECT_FALSE(StyleBundle::read("not a bundle"));
+
+    const auto data = StyleBundle::create(styleJSON, {}, {});
+    EXPECT_FALSE(StyleBundle::read(data.substr(0, data.size() / 2)));
+
+    EXPECT_THROW(StyleBundle::create("{", {}, {}), util::StyleParseException);
+}
+
+TEST(StyleBundle, ReadFile) {
+    const std::string path = "test/fixtures/style_bundle_read_file.mlsb";
+    util::write_file(path, StyleBundle::create(styleJSON, {}, {}));
+
+    auto bundle = StyleBundle::readFile(path);
+    util::deleteFile(path);
+    ASSERT_TRUE(bundle);
+    EXPECT_NE(std::string::npos, bundle->getStyleJSON().find(R"("id":"labels")"));
+
+    EXPECT_FALSE(StyleBundle::readFile("test/fixtures/does_not_exist.mlsb"));
+}
+
+TEST(Style, LoadBundle) {
+    util::RunLoop loop;
+
+    auto fileSource = std::make_shared<StubFileSource>();
+    bool spriteRequested = false;
+    fileSource->spriteJSONResponse = [&](const Resource&) {
+        spriteRequested = true;
+        return std::optional<Response>();
+    };
+    fileSource->spriteImageResponse = fileSource->spriteJSONResponse;
+    std::vector<std::string> glyphRequests;
+    fileSource->glyphsResponse = [&](const Resource& resource) {
+        glyphRequests.push_back(resource.url);
+        return std::optional<Response>();
+    };
+
+    SpriteObserver observer;
+    Style::Impl style{fileSource, 1.0, {Scheduler::GetBackground(), {}}};
+    style.setObserver(&observer);
+
+    auto bundle = StyleBundle::read(StyleBundle::create(styleJSON, emeraldSprite(), {0}));
+    ASSERT_TRUE(bundle);
+    style.loadBundle(*bundle);
+
+    ASSERT_EQ(1u, style.getLayers().size());
+    EXPECT_EQ(1.5, *style.getDefaultCamera().zoom);
+    EXPECT_EQ(bundle->getStyleJSON(), style.getJSON());
+    while (!observer.spriteLoaded || glyphRequests.empty()) {
+        loop.runOnce();
+    }
+
+    EXPECT_FALSE(spriteRequested);
+    EXPECT_TRUE(style.getImage("background"));
+    EXPECT_EQ((std::vector<std::string>{
+                  "http://example.com/Open%20Sans%20Regular%2cArial%20Unicode%20MS%20Regular/0-255.pbf"}),
+              glyphRequests);
+}
@@ -576,6 +576,28 @@ TEST(TileCount, BoundsCrossingAntimeridian) {
     EXPECT_EQ(8u, util::tileCount(crossingBounds, 4));
 }
 
+TEST(TileCount, EstimateGeometry) {
+    // Extrapolated past zoom 19, which has more than 16384 tiles.
+    auto sanFranciscoGeom = Polygon<double>{
+        {{-122.5143814086914, 37.779127216982424},
+         {-122.50313758850099, 37.70820178063929},
+         {-122.354736328125, 37.727280276860036},
+         {-122.3712158203125, 37.835276322922695},
+         {-122.48966217041016, 37.78916666399649},
+         {-122.5143814086914, 37.779127216982424}}};
+
+    auto estimates = util::estimateTileCounts(sanFranciscoGeom, {18, 20});
+    ASSERT_EQ(3u, estimates.size());
+    EXPECT_EQ(util::tileCount(sanFranciscoGeom, 18), estimates[0]);
+    EXPECT_EQ(util::tileCount(sanFranciscoGeom, 19), estimates[1]);
+    const auto exact = static_cast<double>(util::tileCount(sanFranciscoGeom, 20));
+    EXPECT_NEAR(exact, static_cast<double>(estimates[2]), exact * 0.02);
+
+    // Points stay in one tile.
+    estimates = util::estimateTileCounts(Point<double>{-122.5744, 37.6609}, {0, 24});
+    EXPECT_EQ(std::vector<uint64_t>(25, 1), estimates);
+}
+
 TEST(TileCover, DISABLED_FuzzPoly) {
     while (true) {
         std::srand(static_cast<uint32_t>(time(nullptr)));